@@ -0,0 +1,155 @@
+
+package calculator;
+
+import calculator.engine.CalculatorEngine;
+import java.awt.EventQueue;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The KeyDispatcherCheck Class checks that the Event Dispatch Thread stays responsive while
+ * the engine evaluates slowly.  It posts random keys to the Event Dispatch Thread a millisecond
+ * apart, as fast typing would, on an engine whose equal key takes twenty milliseconds, and
+ * measures the latency of each key event, from being posted to being handled.  The keys are
+ * first pressed directly on the Event Dispatch Thread, as the window did before, and then
+ * through a KeyDispatcher, which has to keep the latency under a few milliseconds.  Finally it
+ * checks that the engine of the KeyDispatcher ends in the same state as an engine that pressed
+ * every key itself, though the clear key cancelled some of them.  The number of keys and the
+ * seed may be given as the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class KeyDispatcherCheck {
+    //Instance Variables
+    private final static String KEYS = "0123456789.0123456789.n<+-*/^=c%irASRZsotabdlge!CPFX";
+    private final static long SLOW_NANOS = 20_000_000L;
+    private final static long MAX_LATENCY_NANOS = 5_000_000L;
+
+    /**
+     * SlowEngine Class - A CalculatorEngine whose equal key takes SLOW_NANOS to evaluate
+     */
+    private static class SlowEngine extends CalculatorEngine {
+        /**
+         * press Method - Presses a key, spinning for SLOW_NANOS first on the equal key
+         * @param key - a char naming the key
+         */
+        @Override
+        public void press(char key) {
+            if (key == '=') {
+                long end = System.nanoTime() + SLOW_NANOS;
+                while (System.nanoTime() < end) {
+                    Thread.yield();
+                }
+            }
+            super.press(key);
+
+        }//end of the press Method
+    }//end of the SlowEngine Class
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of keys and the seed
+     * @throws Exception - when the latency is too high, or the engines differ
+     */
+    public static void main(String[] args) throws Exception {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 3000;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 1L;
+        SplittableRandom random = new SplittableRandom(seed);
+        char[] keys = new char[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = KEYS.charAt(random.nextInt(KEYS.length()));
+        }
+        int failures = 0;
+
+        CalculatorEngine direct = new SlowEngine();
+        long[] latencies = post(keys, direct::press);
+        report("On the Event Dispatch Thread", latencies);
+
+        CalculatorEngine engine = new SlowEngine();
+        KeyDispatcher.DisplayState[] shown = new KeyDispatcher.DisplayState[1];
+        KeyDispatcher dispatcher = new KeyDispatcher(engine, null, state -> shown[0] = state);
+        latencies = post(keys, dispatcher::press);
+        report("Through the KeyDispatcher", latencies);
+        if (latencies[latencies.length * 99 / 100] > MAX_LATENCY_NANOS) {
+            System.out.println("The 99th percentile latency is above " +
+                               MAX_LATENCY_NANOS / 1_000_000 + " ms");
+            failures++;
+
+        }
+        dispatcher.close(60_000);
+        EventQueue.invokeAndWait(() -> { });
+
+        CalculatorEngine shadow = new CalculatorEngine();
+        for (char key : keys) {
+            shadow.press(key);
+        }
+        boolean isSame = engine.getDisplayText().equals(shadow.getDisplayText()) &&
+                         (engine.getDisplayMode() == shadow.getDisplayMode()) &&
+                         (engine.getLastOperator() == shadow.getLastOperator()) &&
+                         (Double.compare(engine.getLastNumber(), shadow.getLastNumber()) == 0) &&
+                         (Double.compare(engine.getMemory(), shadow.getMemory()) == 0) &&
+                         (engine.isFastFunctions() == shadow.isFastFunctions()) &&
+                         (shown[0] != null) &&
+                         shown[0].getDisplayText().equals(shadow.getDisplayText());
+        System.out.printf("%d keys cancelled by the clear key, %d pressed; the engines are %s " +
+                          "(%s)%n", dispatcher.getCancelledCount(), shown[0].getKeyCount(),
+                          isSame ? "the same" : "DIFFERENT", engine.getDisplayText());
+        if (!isSame) {
+            failures++;
+
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("The KeyDispatcher failed"));
+
+        }
+    }//end of the main Method
+    /**
+     * KeyHandler Interface - Handles a key on the Event Dispatch Thread
+     */
+    private interface KeyHandler {
+        /**
+         * press Method - Handles a key
+         * @param key - a char naming the key
+         */
+        void press(char key);
+
+    }//end of the KeyHandler Interface
+
+    /**
+     * post Method - Posts keys to the Event Dispatch Thread a millisecond apart, and waits until
+     * they have been handled
+     * @param keys - a char[] holding the keys
+     * @param handler - the KeyHandler to handle the keys with
+     * @return long[] - the latencies of the keys in nanoseconds, sorted
+     * @throws Exception - when the wait is interrupted
+     */
+    private static long[] post(char[] keys, KeyHandler handler) throws Exception {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            final int index = i;
+            final long posted = System.nanoTime();
+            EventQueue.invokeLater(() -> {
+                handler.press(keys[index]);
+                latencies[index] = System.nanoTime() - posted;
+            });
+            Thread.sleep(1);
+        }
+        EventQueue.invokeAndWait(() -> { });
+        Arrays.sort(latencies);
+        return latencies;
+
+    }//end of the post Method
+    /**
+     * report Method - Prints the percentiles of the latencies
+     * @param name - String representing the name of the run
+     * @param latencies - a long[] holding the sorted latencies in nanoseconds
+     */
+    private static void report(String name, long[] latencies) {
+        System.out.printf("%s: latency median %.2f ms, 99th percentile %.2f ms, maximum %.2f ms%n",
+                          name, latencies[latencies.length / 2] / 1e6,
+                          latencies[latencies.length * 99 / 100] / 1e6,
+                          latencies[latencies.length - 1] / 1e6);
+
+    }//end of the report Method
+}//end of the KeyDispatcherCheck Class
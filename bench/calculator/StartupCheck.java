@@ -0,0 +1,106 @@
+
+package calculator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The StartupCheck Class measures the time from the start of the Java virtual machine to the
+ * first paint of the calculator window.  It starts the jar of the calculator a number of times
+ * with SimpleCalculator.STARTUP_REPORT_PROPERTY set, which makes the calculator report the
+ * time of its first paint and exit, and prints the median and the fastest start: without class
+ * data sharing, with the archive of the Java runtime only, and with the class data sharing
+ * archive of the calculator when the build has created it.  Without a display, the calculator
+ * reports the time it is ready to create the window instead.  The jar, the archive, and the
+ * number of starts may be given as the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class StartupCheck {
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the jar, the archive, and the number of starts
+     * @throws Exception - when the calculator fails to start
+     */
+    public static void main(String[] args) throws Exception {
+        String jar = (args.length > 0) ? args[0] : "dist/Simple_Calculator.jar";
+        String archive = (args.length > 1) ? args[1] : "dist/Simple_Calculator.jsa";
+        int starts = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        measure("No class data sharing", jar, starts, "-Xshare:off");
+        measure("Runtime archive", jar, starts);
+        if (new File(archive).isFile()) {
+            measure("Calculator archive", jar, starts, "-XX:SharedArchiveFile=" + archive);
+
+        } else {
+            System.out.println("No calculator archive at " + archive + "; run ant cds-archive");
+
+        }
+    }//end of the main Method
+    /**
+     * measure Method - Starts the calculator a number of times, and prints the times it
+     * reports
+     * @param name - String representing the name of the configuration
+     * @param jar - String representing the jar of the calculator
+     * @param starts - integer representing the number of starts
+     * @param options - a String[] holding the options of the Java virtual machine
+     * @throws Exception - when the calculator fails to start
+     */
+    private static void measure(String name, String jar, int starts, String... options)
+                                                                          throws Exception {
+        long[] times = new long[starts];
+        String event = null;
+        for (int i = 0; i < starts; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" +
+                        File.separator + "java");
+            command.addAll(Arrays.asList(options));
+            command.add("-D" + SimpleCalculator.STARTUP_REPORT_PROPERTY + "=true");
+            command.add("-jar");
+            command.add(jar);
+            String report = start(command);
+            int after = report.lastIndexOf(" after ");
+            event = report.substring(0, after);
+            times[i] = Long.parseLong(report.substring(after + 7, report.length() - 3));
+        }
+        Arrays.sort(times);
+        System.out.printf("%s: %s after %d ms (median), %d ms (fastest) of %d starts%n", name,
+                          event, times[starts / 2], times[0], starts);
+
+    }//end of the measure Method
+    /**
+     * start Method - Starts the calculator, and returns the line of its report
+     * @param command - a List holding the command
+     * @return String - the report, such as "First paint after 412 ms"
+     * @throws IOException - when the calculator cannot be started, or reports nothing
+     * @throws InterruptedException - when the wait is interrupted
+     */
+    private static String start(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String report = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                                 process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.matches(".* after \\d+ ms")) {
+                    report = line;
+
+                }
+            }
+        }
+        if ((process.waitFor() != 0) || (report == null)) {
+            throw (new IOException("The calculator did not report its startup: " + command));
+
+        }
+        return report;
+
+    }//end of the start Method
+}//end of the StartupCheck Class
@@ -0,0 +1,70 @@
+
+package calculator.batch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The AccumulatorBenchmark Class measures threads adding their results into one shared total:
+ * under a lock, by compare and swap on the bits of a double, and through a DoubleAdder of the
+ * Accumulators, as the workers of a ParallelBatchCalculator do.  It runs four threads by
+ * default; -t sets another number of threads.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class AccumulatorBenchmark {
+    //Instance Variables
+    private final Object lock = new Object();
+    private final AtomicLong bits = new AtomicLong();
+    private final DoubleAdder adder = new Accumulators().get("results");
+    private double total;
+
+    /**
+     * locked Method - Adds a result to a total under a lock
+     * @return double - the total
+     */
+    @Benchmark
+    public double locked() {
+        synchronized (lock) {
+            total += 1.5;
+            return total;
+
+        }
+    }//end of the locked Method
+    /**
+     * compareAndSwap Method - Adds a result to the bits of a total by compare and swap
+     * @return long - the bits of the total
+     */
+    @Benchmark
+    public long compareAndSwap() {
+        long current;
+        long next;
+        do {
+            current = bits.get();
+            next = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + 1.5);
+        } while (!bits.compareAndSet(current, next));
+        return next;
+
+    }//end of the compareAndSwap Method
+    /**
+     * doubleAdder Method - Adds a result to a total through a DoubleAdder
+     */
+    @Benchmark
+    public void doubleAdder() {
+        adder.add(1.5);
+
+    }//end of the doubleAdder Method
+}//end of the AccumulatorBenchmark Class
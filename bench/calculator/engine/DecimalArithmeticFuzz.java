@@ -0,0 +1,187 @@
+
+package calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * The DecimalArithmeticFuzz Class checks that the fast path of DecimalArithmetic computes the
+ * same results as BigDecimal, operation for operation, on random operands of every scale and
+ * size, with random scales and rounding modes.  The operands are drawn from numbers entered on
+ * the keypad, from the neighborhood of the overflow of a long, and from numbers too large for
+ * a long, and every result must also be compact whenever it fits into a long.  The number of
+ * operations and the seed may be given as the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class DecimalArithmeticFuzz {
+    //Instance Variables
+    private final static int MAX_REPORTED_MISMATCHES = 20;
+    private final static RoundingMode[] ROUNDING_MODES = {
+        RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+        RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN
+    };
+
+    /**
+     * nextOperand Method - Draws the next random operand
+     * @param random - the SplittableRandom to draw from
+     * @return BigDecimal - the operand
+     */
+    private static BigDecimal nextOperand(SplittableRandom random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return BigDecimal.valueOf(random.nextLong(-10_000_000L, 10_000_000L),
+                                          random.nextInt(0, 7));
+            case 1:
+                return BigDecimal.valueOf(random.nextLong(), random.nextInt(0, 19));
+            case 2:
+                return BigDecimal.valueOf(Long.MAX_VALUE - random.nextInt(3),
+                                          random.nextInt(0, 19)).negate();
+            default:
+                return new BigDecimal(random.nextLong() + "" + Math.abs(random.nextLong()))
+                                                        .movePointLeft(random.nextInt(0, 25));
+        }
+    }//end of the nextOperand Method
+    /**
+     * expected Method - Computes the expected result of an operation with BigDecimal
+     * @param operation - integer representing the operation
+     * @param a - the BigDecimal of the left operand
+     * @param b - the BigDecimal of the right operand
+     * @param scale - integer representing the scale of the results
+     * @param rounding - the RoundingMode of the results
+     * @return BigDecimal - the result, or null when it is beyond the range of a double
+     */
+    private static BigDecimal expected(int operation, BigDecimal a, BigDecimal b, int scale,
+                                                                     RoundingMode rounding) {
+        BigDecimal result;
+        switch (operation) {
+            case 0:
+                result = a.add(b);
+                break;
+            case 1:
+                result = a.subtract(b);
+                break;
+            case 2:
+                result = a.multiply(b);
+                break;
+            case 3:
+                result = a.divide(b, scale, rounding);
+                break;
+            case 4:
+                result = a.movePointLeft(2);
+                break;
+            default:
+                int n = b.intValueExact();
+                result = a.pow(Math.abs(n));
+                if (n < 0) {
+                    result = BigDecimal.ONE.divide(result, scale, rounding);
+
+                }
+                break;
+        }
+        if (result.scale() > scale) {
+            result = result.setScale(scale, rounding);
+
+        }
+        return (result.precision() - result.scale() > DecimalArithmetic.MAX_INTEGER_DIGITS) ?
+                                                                                 null : result;
+
+    }//end of the expected Method
+    /**
+     * actual Method - Computes the result of an operation with DecimalArithmetic
+     * @param arithmetic - the DecimalArithmetic to compute with
+     * @param operation - integer representing the operation
+     * @param left - the DecimalValue of the left operand
+     * @param right - the DecimalValue of the right operand
+     * @param result - the DecimalValue to hold the result
+     */
+    private static void actual(DecimalArithmetic arithmetic, int operation, DecimalValue left,
+                                                DecimalValue right, DecimalValue result) {
+        switch (operation) {
+            case 0:
+                arithmetic.add(left, right, result);
+                break;
+            case 1:
+                arithmetic.subtract(left, right, result);
+                break;
+            case 2:
+                arithmetic.multiply(left, right, result);
+                break;
+            case 3:
+                arithmetic.divide(left, right, result);
+                break;
+            case 4:
+                arithmetic.percent(left, result);
+                break;
+            default:
+                arithmetic.power(left, right, result);
+                break;
+        }
+    }//end of the actual Method
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of operations and the seed
+     */
+    public static void main(String[] args) {
+        long count = (args.length > 0) ? Long.parseLong(args[0]) : 2_000_000L;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        DecimalValue left = new DecimalValue();
+        DecimalValue right = new DecimalValue();
+        DecimalValue result = new DecimalValue();
+        long mismatches = 0;
+
+        for (long i = 0; i < count; i++) {
+            int scale = random.nextInt(0, DecimalArithmetic.MAX_SCALE + 1);
+            RoundingMode rounding = ROUNDING_MODES[random.nextInt(ROUNDING_MODES.length)];
+            DecimalArithmetic arithmetic = new DecimalArithmetic(scale, rounding);
+            int operation = random.nextInt(6);
+            BigDecimal a = nextOperand(random);
+            BigDecimal b = (operation == 5) ? BigDecimal.valueOf(random.nextInt(-12, 13)) :
+                                              nextOperand(random);
+            if (operation == 5) {
+                a = BigDecimal.valueOf(random.nextLong(-100_000L, 100_000L), random.nextInt(4));
+
+            }
+            if (((operation == 3) || ((operation == 5) && (b.signum() < 0))) &&
+                                                               (a.signum() == 0)) {
+                a = BigDecimal.ONE;
+
+            }
+            if ((operation == 3) && (b.signum() == 0)) {
+                b = BigDecimal.ONE;
+
+            }
+            left.setBig(a);
+            right.setBig(b);
+            BigDecimal expectedResult = expected(operation, a, b, scale, rounding);
+            actual(arithmetic, operation, left, right, result);
+            boolean isMatch;
+            if (expectedResult == null) {
+                isMatch = result.isSpecial();
+
+            } else {
+                isMatch = !result.isSpecial() &&
+                          (result.toBigDecimal().compareTo(expectedResult) == 0);
+                BigDecimal stripped = expectedResult.stripTrailingZeros();
+                boolean fitsLong = (stripped.unscaledValue().bitLength() < Long.SIZE) &&
+                                   (stripped.scale() <= DecimalArithmetic.MAX_SCALE);
+                isMatch = isMatch && (!fitsLong || (stripped.scale() < 0) || result.isCompact());
+
+            }
+            if (!isMatch && (mismatches++ < MAX_REPORTED_MISMATCHES)) {
+                System.out.println("Mismatch for operation " + operation + " on " + a + " and " +
+                        b + " at scale " + scale + " " + rounding + ": expected [" +
+                        expectedResult + "], actual [" + result + "]");
+            }
+        }
+        System.out.println("Computed " + count + " operations with seed " + seed + ", " +
+                                                            mismatches + " mismatches");
+        if (mismatches > 0) {
+            throw (new IllegalStateException("DecimalArithmetic differs from BigDecimal"));
+
+        }
+    }//end of the main Method
+}//end of the DecimalArithmeticFuzz Class
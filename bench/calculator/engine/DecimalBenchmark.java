@@ -0,0 +1,155 @@
+
+package calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The DecimalBenchmark Class measures the cost of the exact decimal mode: a session of
+ * keystrokes of prices, quantities, and rates through the double engine and through the
+ * DecimalCalculatorEngine, and sums, products, or quotients of prices computed in double
+ * arithmetic, with the fast path of DecimalArithmetic, and with BigDecimal alone.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecimalBenchmark {
+    //Instance Variables
+    final static String PRICE_SESSION =
+            "c19.99*3=+4.5=-2.25=" + "c1200*7.5%=" + "c.1+.2=" + "c100/3=*3=" + "c49.95*12=/4=";
+    final static int OPERANDS = 1024;
+    final static int SCALE = 10;
+    @Param({"add", "multiply", "divide"})
+    public String operation;
+    private CalculatorEngine doubleEngine;
+    private DecimalCalculatorEngine decimalEngine;
+    private DecimalArithmetic arithmetic;
+    private double[] doubles;
+    private DecimalValue[] decimals;
+    private BigDecimal[] bigDecimals;
+    private DecimalValue result;
+
+    /**
+     * setUp Method - Creates the engines and OPERANDS random prices in each representation
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doubleEngine = new CalculatorEngine();
+        decimalEngine = new DecimalCalculatorEngine(SCALE, RoundingMode.HALF_EVEN);
+        arithmetic = new DecimalArithmetic(SCALE, RoundingMode.HALF_EVEN);
+        doubles = new double[OPERANDS];
+        decimals = new DecimalValue[OPERANDS];
+        bigDecimals = new BigDecimal[OPERANDS];
+        for (int i = 0; i < OPERANDS; i++) {
+            long cents = 1 + random.nextInt(1_000_000);
+            doubles[i] = cents / 100.0;
+            decimals[i] = new DecimalValue();
+            decimals[i].setCompact(cents, 2);
+            bigDecimals[i] = BigDecimal.valueOf(cents, 2);
+        }
+        result = new DecimalValue();
+
+    }//end of the setUp Method
+    /**
+     * doubleSession Method - Replays the session through the double engine
+     * @return CalculatorEngine - the engine
+     */
+    @Benchmark
+    public CalculatorEngine doubleSession() {
+        KeystrokeBenchmark.replay(doubleEngine, PRICE_SESSION);
+        return doubleEngine;
+
+    }//end of the doubleSession Method
+    /**
+     * decimalSession Method - Replays the session through the exact decimal engine
+     * @return CalculatorEngine - the engine
+     */
+    @Benchmark
+    public CalculatorEngine decimalSession() {
+        KeystrokeBenchmark.replay(decimalEngine, PRICE_SESSION);
+        return decimalEngine;
+
+    }//end of the decimalSession Method
+    /**
+     * doubleOperation Method - Computes the operation on the prices in double arithmetic
+     * @param blackhole - the Blackhole consuming the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERANDS - 1)
+    public void doubleOperation(Blackhole blackhole) {
+        for (int i = 1; i < OPERANDS; i++) {
+            switch (operation) {
+                case "add":
+                    blackhole.consume(doubles[i - 1] + doubles[i]);
+                    break;
+                case "multiply":
+                    blackhole.consume(doubles[i - 1] * doubles[i]);
+                    break;
+                default:
+                    blackhole.consume(doubles[i - 1] / doubles[i]);
+                    break;
+            }
+        }
+    }//end of the doubleOperation Method
+    /**
+     * fastPathOperation Method - Computes the operation on the prices with DecimalArithmetic
+     * @param blackhole - the Blackhole consuming the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERANDS - 1)
+    public void fastPathOperation(Blackhole blackhole) {
+        for (int i = 1; i < OPERANDS; i++) {
+            switch (operation) {
+                case "add":
+                    arithmetic.add(decimals[i - 1], decimals[i], result);
+                    break;
+                case "multiply":
+                    arithmetic.multiply(decimals[i - 1], decimals[i], result);
+                    break;
+                default:
+                    arithmetic.divide(decimals[i - 1], decimals[i], result);
+                    break;
+            }
+            blackhole.consume(result.getUnscaled());
+        }
+    }//end of the fastPathOperation Method
+    /**
+     * bigDecimalOperation Method - Computes the operation on the prices with BigDecimal,
+     * rounding quotients to the same scale
+     * @param blackhole - the Blackhole consuming the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERANDS - 1)
+    public void bigDecimalOperation(Blackhole blackhole) {
+        for (int i = 1; i < OPERANDS; i++) {
+            switch (operation) {
+                case "add":
+                    blackhole.consume(bigDecimals[i - 1].add(bigDecimals[i]));
+                    break;
+                case "multiply":
+                    blackhole.consume(bigDecimals[i - 1].multiply(bigDecimals[i]));
+                    break;
+                default:
+                    blackhole.consume(bigDecimals[i - 1].divide(bigDecimals[i], SCALE,
+                                                                RoundingMode.HALF_EVEN));
+                    break;
+            }
+        }
+    }//end of the bigDecimalOperation Method
+}//end of the DecimalBenchmark Class
@@ -0,0 +1,96 @@
+
+package calculator.engine;
+
+import java.text.DecimalFormat;
+import java.util.SplittableRandom;
+
+/**
+ * The DisplayFormatterFuzz Class checks that DisplayFormatter formats random results to the
+ * same text as DecimalFormat("###.#####"), character for character.  The results are drawn
+ * from random bit patterns, from the range of the display, from the neighborhood of the ties
+ * of the fifth fraction digit, from whole numbers up to and beyond
+ * DisplayFormatter.MAX_EXACT_INTEGER, and from operations on numbers entered on the keypad.  The
+ * number of results and the seed may be given as the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class DisplayFormatterFuzz {
+    //Instance Variables
+    private final static int MAX_REPORTED_MISMATCHES = 20;
+
+    /**
+     * nextResult Method - Draws the next random result
+     * @param random - the SplittableRandom to draw from
+     * @return double - the result
+     */
+    private static double nextResult(SplittableRandom random) {
+        switch (random.nextInt(7)) {
+            case 0:
+                return Double.longBitsToDouble(random.nextLong());
+            case 1:
+                return (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(-8, 13));
+            case 2: {
+                double tie = (random.nextLong(-10_000_000_000L, 10_000_000_000L) + 0.5) / 
+                                                                    DisplayFormatter.SCALE;
+                long bits = Double.doubleToRawLongBits(tie) + random.nextInt(-3, 4);
+                return Double.longBitsToDouble(bits) / Math.pow(10, random.nextInt(0, 6));
+            }
+            case 3:
+                return keypadNumber(random) / keypadNumber(random);
+            case 4:
+                return keypadNumber(random) * keypadNumber(random) * .01;
+            case 5:
+                return (double) (random.nextLong() >> random.nextInt(8, 64));
+            default:
+                return (double) random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L) / 
+                                                    Math.pow(10, random.nextInt(0, 8));
+        }
+    }//end of the nextResult Method
+    /**
+     * keypadNumber Method - Draws a number as it may be entered on the keypad
+     * @param random - the SplittableRandom to draw from
+     * @return double - the number
+     */
+    private static double keypadNumber(SplittableRandom random) {
+        return random.nextLong(1, 10_000_000L) / Math.pow(10, random.nextInt(0, 7));
+
+    }//end of the keypadNumber Method
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of results and the seed
+     */
+    public static void main(String[] args) {
+        long count = (args.length > 0) ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        DecimalFormat numberFormatter = new DecimalFormat(DisplayFormatter.PATTERN);
+        double[] specialResults = {
+            0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+            0.000005, -0.000005, 0.000015, 0.5, 1e10, -1e10, 9999999999.999995, 1e-5, 1e20,
+            DisplayFormatter.MAX_EXACT_INTEGER, -DisplayFormatter.MAX_EXACT_INTEGER,
+            DisplayFormatter.MAX_EXACT_INTEGER + 2, DisplayFormatter.MAX_EXACT_INTEGER - 1
+        };
+        long mismatches = 0;
+
+        for (long i = -specialResults.length; i < count; i++) {
+            double result = (i < 0) ? specialResults[(int) -i - 1] : nextResult(random);
+            String expected = numberFormatter.format(result);
+            String actual = DisplayFormatter.format(result);
+            if (!expected.equals(actual)) {
+                if (mismatches++ < MAX_REPORTED_MISMATCHES) {
+                    System.out.println("Mismatch for " + result + " (bits " + 
+                            Long.toHexString(Double.doubleToRawLongBits(result)) + "): expected [" + 
+                            expected + "], actual [" + actual + "]");
+                }
+            }
+        }
+        System.out.println("Formatted " + (count + specialResults.length) + 
+                " results with seed " + seed + ", " + mismatches + " mismatches");
+        if (mismatches > 0) {
+            throw (new IllegalStateException("DisplayFormatter differs from DecimalFormat"));
+
+        }
+    }//end of the main Method
+}//end of the DisplayFormatterFuzz Class
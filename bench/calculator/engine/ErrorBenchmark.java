@@ -0,0 +1,135 @@
+
+package calculator.engine;
+
+import calculator.batch.LineEvaluator;
+import calculator.expression.CompiledExpression;
+import calculator.expression.ExpressionParser;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ErrorBenchmark Class measures the engine on input where most evaluations fail, as in
+ * batch runs over dirty data: keystroke sessions through the engine, and lines through the
+ * LineEvaluator, where six of every seven evaluations are undefined, not real, or invalid, and
+ * rows of an expression where six of every eight fail, evaluated with exceptions and with
+ * error codes.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorBenchmark {
+    //Instance Variables
+    final static String ERROR_SESSION =
+            "c9/0=" + "c2n^.5=" + "c5+.=" + "c7+.+" + "c9^999=+1=" + "c8/0+" + "c3+4=";
+    final static String[] ERROR_LINES = {
+        "9 / 0", "-2 ^ .5", "9 ^ 999 sqrt", "7 + 1 x", "0 1/x", "-4 sqrt", "3 + 4"
+    };
+    private CalculatorEngine engine;
+    private LineEvaluator evaluator;
+    private ByteBuffer lines;
+    private int[] lineEnds;
+    private ByteBuffer output;
+    private CompiledExpression expression;
+    private double[][] rows;
+    private double[] stack;
+
+    /**
+     * setUp Method - Creates the engine, the evaluator, the lines, and the rows
+     * @throws Exception - when the expression cannot be parsed
+     */
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder text = new StringBuilder();
+        lineEnds = new int[ERROR_LINES.length];
+        for (int i = 0; i < ERROR_LINES.length; i++) {
+            text.append(ERROR_LINES[i]);
+            lineEnds[i] = text.length();
+            text.append('\n');
+        }
+        engine = new CalculatorEngine();
+        evaluator = new LineEvaluator();
+        lines = ByteBuffer.wrap(text.toString().getBytes());
+        output = ByteBuffer.allocate(ERROR_LINES.length * LineEvaluator.MAX_RESULT_LENGTH);
+        expression = ExpressionParser.parse("x / y + sqrt(y - x)");
+        stack = new double[expression.getMaxStackDepth()];
+        rows = new double[][] {{1, 0}, {1, 2}, {4, 0}, {3, 4}, {2, 0}, {5, 3}, {9, 0}, {7, 1}};
+
+    }//end of the setUp Method
+    /**
+     * keypadErrors Method - Replays the keystrokes of seven evaluations, six of them failing
+     * @return CalculatorEngine - the engine
+     */
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public CalculatorEngine keypadErrors() {
+        KeystrokeBenchmark.replay(engine, ERROR_SESSION);
+        return engine;
+
+    }//end of the keypadErrors Method
+    /**
+     * lineErrors Method - Evaluates seven lines, six of them failing
+     * @return ByteBuffer - the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public ByteBuffer lineErrors() {
+        int start = 0;
+        output.clear();
+        for (int end : lineEnds) {
+            evaluator.evaluate(lines, start, end, output);
+            start = end + 1;
+        }
+        return output;
+
+    }//end of the lineErrors Method
+    /**
+     * expressionExceptions Method - Evaluates eight rows, six of them failing, catching an
+     * exception for each failing row
+     * @return int - the number of failing rows
+     */
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public int expressionExceptions() {
+        int failures = 0;
+        for (double[] row : rows) {
+            try {
+                expression.evaluate(row, stack);
+
+            } catch (DivideByZeroException | NonRealNumberException ex) {
+                failures++;
+
+            }
+        }
+        return failures;
+
+    }//end of the expressionExceptions Method
+    /**
+     * expressionErrorCodes Method - Evaluates eight rows, six of them failing, checking the
+     * error code of each row
+     * @return int - the number of failing rows
+     */
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public int expressionErrorCodes() {
+        int failures = 0;
+        for (double[] row : rows) {
+            if (expression.tryEvaluate(row, stack) != ErrorCode.NONE) {
+                failures++;
+
+            }
+        }
+        return failures;
+
+    }//end of the expressionErrorCodes Method
+}//end of the ErrorBenchmark Class
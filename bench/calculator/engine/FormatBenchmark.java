@@ -0,0 +1,109 @@
+
+package calculator.engine;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The FormatBenchmark Class measures the formatting of results for the display with the
+ * DecimalFormat("###.#####") the engine used to hold, with DisplayFormatter into a String and
+ * into a char[], and through the engine, which rounds the result into its Operand and renders
+ * the text, for a mix of results and for whole ones.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatBenchmark {
+    //Instance Variables
+    final static double[] RESULTS = {
+        0, 1, -1, 42, 0.5, 12.75, -3.14159265, 1.0 / 3, 2.0 / 3, 100000, 123456.789012,
+        0.000015, 1e-7, 9999999.999999, -0.1, 65536, 1.4142135623730951, 1e12, 7.25e9, 0.1 + 0.2
+    };
+    final static double[] WHOLE_RESULTS = {
+        0, 1, -1, 42, 100000, 65536, -35831808, 1e12, 7.25e9, 123456789012345.0
+    };
+    private NumberFormat numberFormatter;
+    private CalculatorEngine engine;
+    private char[] buffer;
+
+    /**
+     * setUp Method - Creates the formatter and the engine
+     */
+    @Setup
+    public void setUp() {
+        numberFormatter = new DecimalFormat("###.#####");
+        engine = new CalculatorEngine();
+        buffer = new char[DisplayFormatter.MAX_ROUNDED_LENGTH];
+
+    }//end of the setUp Method
+    /**
+     * decimalFormat Method - Formats the results with DecimalFormat
+     * @param blackhole - the Blackhole consuming the text
+     */
+    @Benchmark
+    @OperationsPerInvocation(20)
+    public void decimalFormat(Blackhole blackhole) {
+        for (double result : RESULTS) {
+            blackhole.consume(numberFormatter.format(result));
+        }
+    }//end of the decimalFormat Method
+    /**
+     * displayFormatter Method - Formats the results with DisplayFormatter into Strings
+     * @param blackhole - the Blackhole consuming the text
+     */
+    @Benchmark
+    @OperationsPerInvocation(20)
+    public void displayFormatter(Blackhole blackhole) {
+        for (double result : RESULTS) {
+            blackhole.consume(DisplayFormatter.format(result));
+        }
+    }//end of the displayFormatter Method
+    /**
+     * displayFormatterBuffer Method - Formats the results with DisplayFormatter into a char[]
+     * @param blackhole - the Blackhole consuming the length of the text
+     */
+    @Benchmark
+    @OperationsPerInvocation(20)
+    public void displayFormatterBuffer(Blackhole blackhole) {
+        for (double result : RESULTS) {
+            blackhole.consume(DisplayFormatter.format(result, buffer, 0));
+        }
+    }//end of the displayFormatterBuffer Method
+    /**
+     * displayResult Method - Displays the results in the engine and renders the display
+     * @param blackhole - the Blackhole consuming the text
+     */
+    @Benchmark
+    @OperationsPerInvocation(20)
+    public void displayResult(Blackhole blackhole) {
+        for (double result : RESULTS) {
+            engine.displayResult(result);
+            blackhole.consume(engine.getDisplayText());
+        }
+    }//end of the displayResult Method
+    /**
+     * displayWholeResult Method - Displays whole results in the engine and renders the display
+     * @param blackhole - the Blackhole consuming the text
+     */
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void displayWholeResult(Blackhole blackhole) {
+        for (double result : WHOLE_RESULTS) {
+            engine.displayResult(result);
+            blackhole.consume(engine.getDisplayText());
+        }
+    }//end of the displayWholeResult Method
+}//end of the FormatBenchmark Class
@@ -0,0 +1,141 @@
+
+package calculator.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The HistoryTapeCheck Class checks that the HistoryTape of an engine records its operations,
+ * keeps only the newest records once it is full, and costs no heap.  It presses a long session
+ * of keys on an engine with a tape far smaller than the session, and checks the records left
+ * on the tape against the operations of the last keys, measures the bytes the thread allocated
+ * while adding the records, and streams the tape as CSV into a Writer that counts the lines.
+ * The tape is streamed once more into a Writer that clears it part of the way, and the export
+ * must stop there.  The number of operations may be given as the argument.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class HistoryTapeCheck {
+    //Instance Variables
+    private final static int CAPACITY = 1 << 16;
+
+    /**
+     * LineCounter Class - A Writer that counts the lines written to it, and keeps nothing
+     */
+    private static class LineCounter extends Writer {
+        //Instance Variables
+        long lines;
+        long chars;
+
+        /**
+         * write Method - Counts the line breaks of the chars
+         * @param buffer - the char[] holding the chars
+         * @param offset - integer representing the index of the first char
+         * @param length - integer representing the number of chars
+         */
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+
+                }
+            }
+            chars += length;
+
+        }//end of the write Method
+        @Override
+        public void flush() {
+
+        }//end of the flush Method
+        @Override
+        public void close() {
+
+        }//end of the close Method
+    }//end of the LineCounter Class
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of operations
+     * @throws IOException - when the CSV cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        long count = (args.length > 0) ? Long.parseLong(args[0]) : 5_000_000L;
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        HistoryTape tape = new HistoryTape(CAPACITY);
+        CalculatorEngine engine = new CalculatorEngine();
+        engine.setHistoryTape(tape);
+        int failures = 0;
+
+        press(engine, "7+", 1);
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long start = System.nanoTime();
+        press(engine, "3*2+9/3=r%", count / 5);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        System.out.printf("%d operations in %.2f s, %d bytes allocated, %d records on the tape " +
+                          "from %d%n", tape.getCount(), seconds, allocated, tape.size(),
+                          tape.getFirstIndex());
+        long last = tape.getCount() - 1;
+        if ((tape.size() != CAPACITY) || (tape.getOperation(last) != '%') ||
+            (tape.getOperation(last - 1) != 'r') || (tape.getOperation(last - 2) != '/') ||
+            (tape.getLeft(last - 2) != tape.getResult(last - 3)) ||
+            (tape.getRight(last - 2) != 3) || !Double.isNaN(tape.getRight(last))) {
+            System.out.println("The records on the tape are not the last operations");
+            failures++;
+
+        }
+        press(engine, "c5/0=", 1);
+        if (tape.getErrorCode(tape.getCount() - 1) != ErrorCode.UNDEFINED) {
+            System.out.println("The division by zero was not recorded as undefined");
+            failures++;
+
+        }
+        LineCounter counter = new LineCounter();
+        start = System.nanoTime();
+        long written = tape.writeCsv(counter);
+        System.out.printf("%d records exported as %d CSV lines, %d chars, in %.1f ms%n", written,
+                          counter.lines, counter.chars, (System.nanoTime() - start) / 1e6);
+        if ((written != CAPACITY) || (counter.lines != CAPACITY + 1)) {
+            failures++;
+
+        }
+        LineCounter clearing = new LineCounter() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                super.write(buffer, offset, length);
+                if ((lines >= CAPACITY / 8) && (tape.getCount() > 0)) {
+                    tape.clear();
+
+                }
+            }//end of the write Method
+        };//end of the Anonymous Class for the clearing LineCounter
+        written = tape.writeCsv(clearing);
+        System.out.printf("%d records exported before the tape was cleared%n", written);
+        if ((written >= CAPACITY) || (tape.getCount() != 0)) {
+            System.out.println("The export did not stop when the tape was cleared");
+            failures++;
+
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("The history tape failed"));
+
+        }
+    }//end of the main Method
+    /**
+     * press Method - Presses a sequence of keys a number of times
+     * @param engine - the CalculatorEngine to press the keys of
+     * @param keys - String representing the keys
+     * @param times - long representing the number of times
+     */
+    private static void press(CalculatorEngine engine, String keys, long times) {
+        for (long n = 0; n < times; n++) {
+            for (int i = 0; i < keys.length(); i++) {
+                engine.press(keys.charAt(i));
+            }
+        }
+    }//end of the press Method
+}//end of the HistoryTapeCheck Class
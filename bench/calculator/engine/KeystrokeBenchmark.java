@@ -0,0 +1,122 @@
+
+package calculator.engine;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The KeystrokeBenchmark Class measures digit entry and the replay of realistic keystroke
+ * sequences through the engine.  A sequence is written with one character per key: the digits,
+ * '.' for the decimal point, '+', '-', '*', '/' and '^' for the operators, '=' for equals,
+ * '%' for percent, 'i' for inverse, 'r' for square root, 'n' for change sign, '<' for
+ * backspace, and 'c' for clear.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeystrokeBenchmark {
+    //Instance Variables
+    final static String SESSION = 
+            "12.5+7*3=" + "c100/8=" + "2^10-24=" + "c81r" + "250*15%" + "c1234567890123<<<+1=" + 
+            "c9/0=" + "c.5n*4=" + "c3i+2=" + "c0.1+0.2=" + "c12+34-5*6/7=" + "c2n^.5=c";
+    private CalculatorEngine engine;
+    private char[] session;
+
+    /**
+     * setUp Method - Creates the engine and the keystrokes of the session
+     */
+    @Setup
+    public void setUp() {
+        engine = new CalculatorEngine();
+        session = SESSION.toCharArray();
+
+    }//end of the setUp Method
+    /**
+     * replay Method - Replays a sequence of keystrokes through an engine
+     * @param engine - the CalculatorEngine to replay the keystrokes through
+     * @param keys - a CharSequence holding one character per key
+     */
+    static void replay(CalculatorEngine engine, CharSequence keys) {
+        for (int i = 0; i < keys.length(); i++) {
+            press(engine, keys.charAt(i));
+        }
+    }//end of the replay Method
+    /**
+     * press Method - Presses one key of the engine
+     * @param engine - the CalculatorEngine to press the key of
+     * @param key - a char representing the key
+     */
+    static void press(CalculatorEngine engine, char key) {
+        switch (key) {
+            case '.':
+                engine.addDecimal();
+                break;
+            case '=':
+                engine.processEqualOperation();
+                break;
+            case '%':
+                engine.processPercent();
+                break;
+            case 'i':
+                engine.processInverse();
+                break;
+            case 'r':
+                engine.processSquareRoot();
+                break;
+            case 'n':
+                engine.changeSign();
+                break;
+            case '<':
+                engine.backspace();
+                break;
+            case 'c':
+                engine.clearAll();
+                break;
+            default:
+                if ((key >= '0') && (key <= '9')) {
+                    engine.addNextDigit(key - '0');
+
+                } else {
+                    engine.processOperator(Operator.forSymbol(key));
+                }
+        }
+    }//end of the press Method
+    /**
+     * digitEntry Method - Clears the display and enters a number of MAX_LENGTH characters
+     * @return double - the last number, which keeps the entry alive
+     */
+    @Benchmark
+    public double digitEntry() {
+        engine.clearAll();
+        for (int digit = 1; digit <= 9; digit++) {
+            engine.addNextDigit(digit);
+        }
+        engine.addDecimal();
+        engine.addNextDigit(2);
+        engine.addNextDigit(5);
+        engine.addNextDigit(0);
+        return engine.getLastNumber();
+
+    }//end of the digitEntry Method
+    /**
+     * replaySession Method - Replays the keystrokes of a session and renders the display
+     * @return String - the final text of the display
+     */
+    @Benchmark
+    public String replaySession() {
+        for (char key : session) {
+            press(engine, key);
+        }
+        return engine.getDisplayText();
+
+    }//end of the replaySession Method
+}//end of the KeystrokeBenchmark Class
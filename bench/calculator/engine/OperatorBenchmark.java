@@ -0,0 +1,55 @@
+
+package calculator.engine;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The OperatorBenchmark Class measures processLastOperator for each Operator, with the right
+ * operand entered into the display digit by digit as on the keypad, with decimal operands and
+ * with whole ones, whose exponent is computed on a long.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OperatorBenchmark {
+    //Instance Variables
+    @Param({"ADD", "SUBTRACT", "MULTIPLY", "DIVIDE", "EXPONENT"})
+    public Operator operator;
+    @Param({"1234.5 6.75", "1234 4"})
+    public String operands;
+    private CalculatorEngine engine;
+
+    /**
+     * setUp Method - Enters the left operand, the operator, and the right operand into a new
+     * engine
+     */
+    @Setup
+    public void setUp() {
+        String[] numbers = operands.split(" ");
+        engine = new CalculatorEngine();
+        KeystrokeBenchmark.replay(engine, numbers[0]);
+        engine.processOperator(operator);
+        KeystrokeBenchmark.replay(engine, numbers[1]);
+
+    }//end of the setUp Method
+    /**
+     * processLastOperator Method - Evaluates the pending operation
+     * @return double - the result
+     */
+    @Benchmark
+    public double processLastOperator() {
+        return engine.processLastOperator();
+
+    }//end of the processLastOperator Method
+}//end of the OperatorBenchmark Class
@@ -0,0 +1,101 @@
+
+package calculator.engine;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The OperatorDispatchBenchmark Class measures the time and the heap allocation of one
+ * evaluation of processLastOperator for each Operator.  The operand normally parsed from the
+ * display is fixed, so only the dispatch and the arithmetic are measured.  The benchmark fails
+ * when the evaluation allocates, since the dispatch must not compare Strings or box numbers.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class OperatorDispatchBenchmark {
+    //Instance Variables
+    private final static int WARMUP_OPERATIONS = 5_000_000;
+    private final static int MEASURED_OPERATIONS = 20_000_000;
+    private final static double MAX_BYTES_PER_OPERATION = 0.01;
+    private static volatile double sink;
+
+    /**
+     * FixedOperandEngine Class - A CalculatorEngine whose display always holds the same operand
+     */
+    static class FixedOperandEngine extends CalculatorEngine {
+        //Instance Variables
+        double operand;
+
+        /**
+         * parseDisplay Method - Overrides the parseDisplay Method to return the fixed operand
+         * @return double - the fixed operand
+         */
+        @Override
+        protected double parseDisplay() {
+            return operand;
+
+        }//end of the parseDisplay Method
+        /**
+         * evaluate Method - Evaluates the operator on the two operands
+         * @param operator - the Operator to evaluate
+         * @param left - a double representing the last number
+         * @param right - a double representing the number in the display
+         * @return double - the result of the operation
+         */
+        double evaluate(Operator operator, double left, double right) {
+            lastOperator = operator;
+            lastNumber = left;
+            operand = right;
+            return processLastOperator();
+
+        }//end of the evaluate Method
+    }//end of the FixedOperandEngine Class
+    /**
+     * run Method - Runs a number of evaluations of the operator
+     * @param engine - the FixedOperandEngine to evaluate with
+     * @param operator - the Operator to evaluate
+     * @param operations - integer representing the number of evaluations
+     * @return double - the sum of the results, which keeps the evaluations alive
+     */
+    private static double run(FixedOperandEngine engine, Operator operator, int operations) {
+        double sum = 0;
+        for (int i = 0; i < operations; i++) {
+            sum += engine.evaluate(operator, 1.5 + (i & 7), 2 + (i & 3));
+        }
+        return sum;
+
+    }//end of the run Method
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] representing the command line arguments
+     */
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        FixedOperandEngine engine = new FixedOperandEngine();
+        boolean isAllocating = false;
+
+        System.out.printf("%-12s %12s %12s%n", "Operator", "ns/op", "bytes/op");
+        for (Operator operator : Operator.values()) {
+            sink = run(engine, operator, WARMUP_OPERATIONS);
+
+            long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long timeBefore = System.nanoTime();
+            sink += run(engine, operator, MEASURED_OPERATIONS);
+            long timeAfter = System.nanoTime();
+            long bytesAfter = threadBean.getThreadAllocatedBytes(threadId);
+
+            double bytesPerOperation = (double) (bytesAfter - bytesBefore) / MEASURED_OPERATIONS;
+            System.out.printf("%-12s %12.3f %12.4f%n", operator,
+                    (double) (timeAfter - timeBefore) / MEASURED_OPERATIONS, bytesPerOperation);
+            if (bytesPerOperation > MAX_BYTES_PER_OPERATION) {
+                isAllocating = true;
+            }
+        }
+        if (isAllocating) {
+            throw (new IllegalStateException("The evaluation of an operator allocates"));
+
+        }
+    }//end of the main Method
+}//end of the OperatorDispatchBenchmark Class
@@ -0,0 +1,105 @@
+
+package calculator.engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The PowerBenchmark Class measures Power.pow against Math.pow over ranges of bases and
+ * exponents: whole powers below DisplayFormatter.MAX_EXACT_INTEGER, whole powers that still fit
+ * into a long, whole powers that take a BigInteger, and decimal powers.  Each range is measured
+ * with POWERS different powers in turn, which mostly miss the cache of the Power, and with one
+ * power pressed again and again, as with a repeated equals.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PowerBenchmark {
+    //Instance Variables
+    private final static int POWERS = 1024;
+    @Param({"SMALL", "LONG", "BIG", "DECIMAL"})
+    public String range;
+    private final double[] bases = new double[POWERS];
+    private final double[] exponents = new double[POWERS];
+    private Power power;
+    private int next;
+
+    /**
+     * setUp Method - Draws the powers of the range
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < POWERS; i++) {
+            switch (range) {
+                case "SMALL":
+                    bases[i] = random.nextInt(200) - 100;
+                    exponents[i] = random.nextInt(8);
+                    break;
+                case "LONG":
+                    bases[i] = 1000 + random.nextInt(4000);
+                    exponents[i] = 5;
+                    break;
+                case "BIG":
+                    bases[i] = 1000 + random.nextInt(9000);
+                    exponents[i] = 6 + random.nextInt(20);
+                    break;
+                default:
+                    bases[i] = 100 * random.nextDouble();
+                    exponents[i] = 10 * random.nextDouble() - 5;
+                    break;
+            }
+        }
+        power = new Power();
+
+    }//end of the setUp Method
+    /**
+     * mathPow Method - Computes the next power by Math.pow
+     * @return double - the power
+     */
+    @Benchmark
+    public double mathPow() {
+        int i = next++ & (POWERS - 1);
+        return Math.pow(bases[i], exponents[i]);
+
+    }//end of the mathPow Method
+    /**
+     * powerPow Method - Computes the next power by Power.pow
+     * @return double - the power
+     */
+    @Benchmark
+    public double powerPow() {
+        int i = next++ & (POWERS - 1);
+        return power.pow(bases[i], exponents[i]);
+
+    }//end of the powerPow Method
+    /**
+     * mathPowRepeated Method - Computes the first power again by Math.pow
+     * @return double - the power
+     */
+    @Benchmark
+    public double mathPowRepeated() {
+        return Math.pow(bases[0], exponents[0]);
+
+    }//end of the mathPowRepeated Method
+    /**
+     * powerPowRepeated Method - Computes the first power again by Power.pow
+     * @return double - the power
+     */
+    @Benchmark
+    public double powerPowRepeated() {
+        return power.pow(bases[0], exponents[0]);
+
+    }//end of the powerPowRepeated Method
+}//end of the PowerBenchmark Class
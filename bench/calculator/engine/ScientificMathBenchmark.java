@@ -0,0 +1,83 @@
+
+package calculator.engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ScientificMathBenchmark Class measures each ScientificFunction along the strict and the
+ * fast path of the ScientificMath.  The functions are evaluated for ARGUMENTS different
+ * arguments in turn, drawn from the usual range of the function, so the branches and the table
+ * lookups of the fast path are not predicted from one argument to the next.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScientificMathBenchmark {
+    //Instance Variables
+    private final static int ARGUMENTS = 1024;
+    @Param({"SIN", "COS", "TAN", "ASIN", "ACOS", "ATAN", "LN", "LOG10", "EXP", "FACTORIAL"})
+    public String name;
+    private final double[] arguments = new double[ARGUMENTS];
+    private ScientificFunction function;
+    private int next;
+
+    /**
+     * setUp Method - Draws the arguments of the function
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        function = ScientificFunction.valueOf(name);
+        for (int i = 0; i < ARGUMENTS; i++) {
+            switch (function) {
+                case ASIN:
+                case ACOS:
+                    arguments[i] = 2 * random.nextDouble() - 1;
+                    break;
+                case LN:
+                case LOG10:
+                    arguments[i] = 1000 * random.nextDouble();
+                    break;
+                case EXP:
+                    arguments[i] = 40 * random.nextDouble() - 20;
+                    break;
+                case FACTORIAL:
+                    arguments[i] = random.nextInt(ScientificMath.MAX_FACTORIAL + 1);
+                    break;
+                default:
+                    arguments[i] = 20 * random.nextDouble() - 10;
+                    break;
+            }
+        }
+    }//end of the setUp Method
+    /**
+     * strict Method - Computes the function of the next argument along the strict path
+     * @return double - the function of the argument
+     */
+    @Benchmark
+    public double strict() {
+        return function.apply(arguments[next++ & (ARGUMENTS - 1)], false);
+
+    }//end of the strict Method
+    /**
+     * fast Method - Computes the function of the next argument along the fast path
+     * @return double - the function of the argument
+     */
+    @Benchmark
+    public double fast() {
+        return function.apply(arguments[next++ & (ARGUMENTS - 1)], true);
+
+    }//end of the fast Method
+}//end of the ScientificMathBenchmark Class
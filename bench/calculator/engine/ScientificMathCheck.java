@@ -0,0 +1,232 @@
+
+package calculator.engine;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * The ScientificMathCheck Class checks the fast path of the ScientificMath against the strict
+ * one, and measures both.  Every function is evaluated both ways for random arguments drawn
+ * from the ranges where the fast path is hardest: large and tiny angles, angles near the
+ * multiples of pi/2, arguments of asin and acos near 1, of ln and log10 near 1 and among the
+ * subnormal numbers, and of exp near overflow and underflow.  The fast results must be within
+ * the bounds the ScientificMath documents, in units in the last place (ulps), and the special
+ * values, zeros of both signs, infinities, and NaN, must give the same bits.  The factorials,
+ * combinations, and permutations are compared with the exact counts of BigIntegers.  The number
+ * of random arguments per function may be given as the argument.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ScientificMathCheck {
+    //Instance Variables
+    private final static double[] MAX_ULPS = {1, 1, 3, 2, 2, 2, 2, 3, 2};
+    private final static double[] SPECIAL_VALUES = {
+        0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+    private final static int MAX_CHECKED_COUNT = 1200;
+    private final static double MAX_COUNT_ULPS = 3;
+    private final static int TIMED_ARGUMENTS = 1 << 12;
+    private final static int TIMED_ROUNDS = 2000;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of random arguments per function
+     * @throws Exception - when a result is beyond its bound
+     */
+    public static void main(String[] args) throws Exception {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(7);
+        int failures = 0;
+
+        for (ScientificFunction function : ScientificFunction.values()) {
+            if (function == ScientificFunction.FACTORIAL) {
+                continue;
+
+            }
+            double bound = MAX_ULPS[function.ordinal()];
+            double maxError = 0;
+            double worstArgument = 0;
+            for (int i = 0; i < count; i++) {
+                double x = nextArgument(function, random);
+                double error = ulps(function.apply(x, true), function.apply(x, false));
+                if (error > maxError) {
+                    maxError = error;
+                    worstArgument = x;
+
+                }
+            }
+            for (double x : SPECIAL_VALUES) {
+                double fast = function.apply(x, true);
+                double strict = function.apply(x, false);
+                if (Double.doubleToLongBits(fast) != Double.doubleToLongBits(strict)) {
+                    System.out.printf("%s(%s) is %s but should be %s%n", function.getName(), x,
+                                      fast, strict);
+                    failures++;
+
+                }
+            }
+            System.out.printf("%-6s within %.3f ulps (bound %.0f), the most at %s%n",
+                              function.getName(), maxError, bound, worstArgument);
+            if (maxError > bound) {
+                failures++;
+
+            }
+        }
+        failures += checkCounts(random);
+
+        double[] arguments = new double[TIMED_ARGUMENTS];
+        for (ScientificFunction function : ScientificFunction.values()) {
+            for (int i = 0; i < TIMED_ARGUMENTS; i++) {
+                arguments[i] = (function == ScientificFunction.FACTORIAL) ?
+                               random.nextInt(ScientificMath.MAX_FACTORIAL + 1) :
+                               nextArgument(function, random);
+            }
+            time(function, arguments, false);
+            time(function, arguments, true);
+            System.out.printf("%-6s %.1f ns strict, %.1f ns fast%n", function.getName(),
+                              time(function, arguments, false), time(function, arguments, true));
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException(failures + " checks of the ScientificMath failed"));
+
+        }
+    }//end of the main Method
+    /**
+     * nextArgument Method - Draws a random argument of a function
+     * @param function - the ScientificFunction of the argument
+     * @param random - the Random to draw from
+     * @return double - the argument
+     */
+    private static double nextArgument(ScientificFunction function, Random random) {
+        int range = random.nextInt(4);
+        switch (function) {
+            case SIN:
+            case COS:
+            case TAN:
+                return (range == 0) ? (random.nextDouble() - 0.5) * 8 :
+                       (range == 1) ? (random.nextDouble() - 0.5) * 2e6 :
+                       (range == 2) ? random.nextInt(1000) * Math.PI / 2 *
+                                      (1 + (random.nextDouble() - 0.5) * 1e-12) :
+                       (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(40));
+            case ASIN:
+            case ACOS:
+                return (range == 0) ? 2 * random.nextDouble() - 1 :
+                       (range == 1) ? Math.copySign(1 - Math.scalb(random.nextDouble(),
+                                                                   -random.nextInt(50)),
+                                                    random.nextDouble() - 0.5) :
+                       (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(60));
+            case ATAN:
+                return (random.nextDouble() - 0.5) * Math.scalb(1.0, random.nextInt(120) - 60);
+            case LN:
+            case LOG10:
+                return (range == 0) ? random.nextDouble() *
+                                      Math.scalb(1.0, random.nextInt(2000) - 1000) :
+                       (range == 1) ? 1 + (random.nextDouble() - 0.5) *
+                                      Math.scalb(1.0, -random.nextInt(50)) :
+                       (range == 2) ? 4 * random.nextDouble() :
+                       Double.MIN_VALUE * random.nextInt(1 << 20);
+            default:
+                return (range == 0) ? (random.nextDouble() - 0.5) * 1460 :
+                       (range == 1) ? (random.nextDouble() - 0.5) * 20 :
+                       (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(60));
+        }
+    }//end of the nextArgument Method
+    /**
+     * checkCounts Method - Compares the factorials, combinations, and permutations with the
+     * exact counts, which the strict path must round to the nearest double, and the fast path
+     * must come within MAX_COUNT_ULPS of
+     * @param random - the Random to draw the counts from
+     * @return int - the number of counts beyond their bounds
+     */
+    private static int checkCounts(Random random) {
+        int failures = 0;
+        BigInteger factorial = BigInteger.ONE;
+
+        for (int n = 0; n <= ScientificMath.MAX_FACTORIAL + 1; n++) {
+            factorial = (n == 0) ? factorial : factorial.multiply(BigInteger.valueOf(n));
+            if (ScientificMath.factorial(n) != factorial.doubleValue()) {
+                System.out.printf("%d! is %s but should be %s%n", n, ScientificMath.factorial(n),
+                                  factorial.doubleValue());
+                failures++;
+
+            }
+        }
+        double maxError = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long n = random.nextInt(MAX_CHECKED_COUNT);
+            long r = (long) (random.nextDouble() * (n + 1));
+            BigInteger permutations = BigInteger.ONE;
+            BigInteger rFactorial = BigInteger.ONE;
+            for (long k = 0; k < r; k++) {
+                permutations = permutations.multiply(BigInteger.valueOf(n - k));
+                rFactorial = rFactorial.multiply(BigInteger.valueOf(k + 1));
+            }
+            double[] exact = {permutations.divide(rFactorial).doubleValue(),
+                              permutations.doubleValue()};
+            double[] strict = {ScientificMath.combinations(n, r, false),
+                               ScientificMath.permutations(n, r, false)};
+            double[] fast = {ScientificMath.combinations(n, r, true),
+                             ScientificMath.permutations(n, r, true)};
+            for (int j = 0; j < 2; j++) {
+                double error = ulps(fast[j], exact[j]);
+                maxError = Math.max(maxError, error / MAX_COUNT_ULPS);
+                if ((strict[j] != exact[j]) || (error > MAX_COUNT_ULPS)) {
+                    System.out.printf("%s(%d, %d) is %s strict and %s fast but should be %s%n",
+                                      (j == 0) ? "nCr" : "nPr", n, r, strict[j], fast[j],
+                                      exact[j]);
+                    failures++;
+
+                }
+            }
+        }
+        System.out.printf("nCr, nPr exact on the strict path, fast within %.3f of the bound%n",
+                          maxError);
+        return failures;
+
+    }//end of the checkCounts Method
+    /**
+     * ulps Method - Returns how many units in the last place of an expected result a result is
+     * away from it, which is 0 when both are the same infinity or NaN
+     * @param result - double representing the result
+     * @param expected - double representing the expected result
+     * @return double - the distance in ulps, or infinity when only one is not finite
+     */
+    private static double ulps(double result, double expected) {
+        if ((result == expected) || (Double.isNaN(result) && Double.isNaN(expected))) {
+            return 0;
+
+        }
+        if (Double.isNaN(result) || Double.isNaN(expected) || Double.isInfinite(result) ||
+                                                             Double.isInfinite(expected)) {
+            return Double.POSITIVE_INFINITY;
+
+        }
+        return Math.abs(result - expected) / Math.ulp(expected);
+
+    }//end of the ulps Method
+    /**
+     * time Method - Measures the average time of a function over its arguments
+     * @param function - the ScientificFunction to measure
+     * @param arguments - a double[] holding the arguments
+     * @param isFast - boolean representing whether the fast path is measured
+     * @return double - the average nanoseconds of one evaluation
+     */
+    private static double time(ScientificFunction function, double[] arguments,
+                                                           boolean isFast) {
+        double sum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            for (double x : arguments) {
+                sum += function.apply(x, isFast);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (sum == 42) {
+            System.out.println(sum);
+
+        }
+        return nanos / ((double) TIMED_ROUNDS * arguments.length);
+
+    }//end of the time Method
+}//end of the ScientificMathCheck Class
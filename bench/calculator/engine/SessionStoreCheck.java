@@ -0,0 +1,222 @@
+
+package calculator.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * The SessionStoreCheck Class checks that the sessions of a SessionStore behave exactly like
+ * CalculatorEngines, and measures what they cost.  A number of threads press random keys on
+ * their own sessions, interleaved at random, while each session is shadowed by a dedicated
+ * CalculatorEngine, and the displays must agree after every key.  Sessions are closed and
+ * created at random along the way, and the ids of the closed sessions must be refused.  Then
+ * the heap is measured with a million open sessions in a SessionStore, and with a million
+ * CalculatorEngines.  The number of keys per thread and the seed may be given as the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class SessionStoreCheck {
+    //Instance Variables
+    private final static String KEYS = "0123456789.0123456789.n<+-*/^=c%irASRZsotabdlge!CPFX";
+    private final static int THREADS = 4;
+    private final static int SESSIONS_PER_THREAD = 250;
+    private final static int MEASURED_SESSIONS = 1_000_000;
+    private final static int MAX_REPORTED_MISMATCHES = 20;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of keys per thread and the seed
+     * @throws Exception - when a session differs from its engine
+     */
+    public static void main(String[] args) throws Exception {
+        long count = (args.length > 0) ? Long.parseLong(args[0]) : 2_000_000L;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 1L;
+        SessionStore store = new SessionStore(THREADS * SESSIONS_PER_THREAD, 60_000L);
+        long[] mismatches = new long[THREADS];
+        Thread[] threads = new Thread[THREADS];
+
+        for (int i = 0; i < THREADS; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                mismatches[index] = check(store, count, new SplittableRandom(seed + index));
+
+            }, "SessionStoreCheck-" + i);
+            threads[i].start();
+        }
+        long total = 0;
+        for (int i = 0; i < THREADS; i++) {
+            threads[i].join();
+            total += mismatches[i];
+        }
+        System.out.printf("%d keys on %d sessions in %d threads, %d mismatches%n",
+                          count * THREADS, THREADS * SESSIONS_PER_THREAD, THREADS, total);
+        if (total > 0) {
+            throw (new IllegalStateException("The sessions differ from the engines"));
+
+        }
+        measure();
+
+    }//end of the main Method
+    /**
+     * check Method - Presses random keys on sessions and on their shadowing engines
+     * @param store - the SessionStore shared by the threads
+     * @param count - long representing the number of keys to press
+     * @param random - the SplittableRandom to draw from
+     * @return long - the number of keys after which a display differed
+     */
+    private static long check(SessionStore store, long count, SplittableRandom random) {
+        long[] ids = new long[SESSIONS_PER_THREAD];
+        CalculatorEngine[] engines = new CalculatorEngine[SESSIONS_PER_THREAD];
+        char[] keys = new char[1];
+        long mismatches = 0;
+
+        for (int i = 0; i < SESSIONS_PER_THREAD; i++) {
+            ids[i] = store.createSession();
+            engines[i] = new CalculatorEngine();
+        }
+        for (long n = 0; n < count; n++) {
+            int i = random.nextInt(SESSIONS_PER_THREAD);
+            if (random.nextInt(1000) == 0) {
+                long closed = ids[i];
+                store.closeSession(closed);
+                ids[i] = store.createSession();
+                engines[i] = new CalculatorEngine();
+                if (store.press(closed, "1") || (store.getDisplayText(closed) != null)) {
+                    mismatches += report(mismatches, "closed session " + closed + " accepted");
+
+                }
+                continue;
+
+            }
+            keys[0] = KEYS.charAt(random.nextInt(KEYS.length()));
+            store.press(ids[i], new String(keys));
+            press(engines[i], keys[0]);
+            String expected = engines[i].getDisplayText();
+            String actual = store.getDisplayText(ids[i]);
+            if (!expected.equals(actual) ||
+                (store.getDisplayMode(ids[i]) != engines[i].getDisplayMode())) {
+                mismatches += report(mismatches, "key " + keys[0] + ": expected " + expected +
+                                                 " but was " + actual);
+
+            }
+        }
+        return mismatches;
+
+    }//end of the check Method
+    /**
+     * press Method - Presses a key of an engine, as the SessionStore names them
+     * @param engine - the CalculatorEngine to press the key of
+     * @param key - a char representing the key
+     */
+    private static void press(CalculatorEngine engine, char key) {
+        switch (key) {
+            case '.':
+                engine.addDecimal();
+                break;
+            case '=':
+                engine.processEqualOperation();
+                break;
+            case '%':
+                engine.processPercent();
+                break;
+            case 'i':
+                engine.processInverse();
+                break;
+            case 'r':
+                engine.processSquareRoot();
+                break;
+            case 'n':
+                engine.changeSign();
+                break;
+            case '<':
+                engine.backspace();
+                break;
+            case 'c':
+                engine.clearAll();
+                break;
+            case 'A':
+                engine.memoryAdd();
+                break;
+            case 'S':
+                engine.memorySubtract();
+                break;
+            case 'R':
+                engine.memoryRecall();
+                break;
+            case 'Z':
+                engine.memoryClear();
+                break;
+            case 'F':
+                engine.setFastFunctions(true);
+                break;
+            case 'X':
+                engine.setFastFunctions(false);
+                break;
+            default:
+                if ((key >= '0') && (key <= '9')) {
+                    engine.addNextDigit(key - '0');
+
+                } else if (ScientificFunction.forKey(key) != null) {
+                    engine.processFunction(ScientificFunction.forKey(key));
+
+                } else {
+                    engine.processOperator(Operator.forSymbol(key));
+
+                }
+        }
+    }//end of the press Method
+    /**
+     * report Method - Prints a mismatch, unless too many have been printed
+     * @param mismatches - long representing the number of mismatches so far
+     * @param message - String representing the mismatch
+     * @return long - one
+     */
+    private static long report(long mismatches, String message) {
+        if (mismatches < MAX_REPORTED_MISMATCHES) {
+            System.out.println(message);
+
+        }
+        return 1;
+
+    }//end of the report Method
+    /**
+     * measure Method - Prints the heap used by a million sessions, and by a million engines
+     */
+    private static void measure() {
+        long base = usedHeap();
+        SessionStore store = new SessionStore(MEASURED_SESSIONS, 60_000L);
+        for (int i = 0; i < MEASURED_SESSIONS; i++) {
+            store.press(store.createSession(), (i % 2 == 0) ? "12.5*3=" : "7+2");
+        }
+        long storeBytes = usedHeap() - base;
+        int size = store.size();
+        store = null;
+
+        base = usedHeap();
+        CalculatorEngine[] engines = new CalculatorEngine[MEASURED_SESSIONS];
+        for (int i = 0; i < MEASURED_SESSIONS; i++) {
+            engines[i] = new CalculatorEngine();
+            engines[i].addNextDigit(7);
+            engines[i].processOperator(Operator.ADD);
+            engines[i].addNextDigit(2);
+        }
+        long engineBytes = usedHeap() - base;
+        System.out.printf("%d sessions: %.1f MB (%.1f bytes each); %d engines: %.1f MB " +
+                          "(%.1f bytes each)%n", size, storeBytes / 1e6,
+                          (double) storeBytes / size, engines.length, engineBytes / 1e6,
+                          (double) engineBytes / engines.length);
+
+    }//end of the measure Method
+    /**
+     * usedHeap Method - Returns the heap in use after a collection
+     * @return long - the bytes in use
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+
+    }//end of the usedHeap Method
+}//end of the SessionStoreCheck Class
@@ -0,0 +1,85 @@
+
+package calculator.expression;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ColumnBenchmark Class measures evaluating a formula over ROWS rows of random values,
+ * one row after another with CompiledExpression, and over whole columns with ColumnEvaluator.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColumnBenchmark {
+    //Instance Variables
+    final static int ROWS = 1_000_000;
+    @Param({"price * (1 + rate%) - fee / qty", "sqrt(price * price + fee * fee) * inv(qty)"})
+    public String text;
+    private CompiledExpression expression;
+    private ColumnEvaluator evaluator;
+    private double[][] columns;
+    private double[] values;
+    private double[] stack;
+    private double[] results;
+    private byte[] errors;
+
+    /**
+     * setUp Method - Compiles the formula and fills a column for each of its variables
+     * @throws Exception - when the formula cannot be parsed
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        expression = ExpressionParser.parse(text);
+        evaluator = new ColumnEvaluator(expression);
+        columns = new double[expression.getVariableCount()][ROWS];
+        for (double[] column : columns) {
+            for (int i = 0; i < ROWS; i++) {
+                column[i] = 1 + random.nextInt(100000) / 100.0;
+            }
+        }
+        values = new double[expression.getVariableCount()];
+        stack = new double[expression.getMaxStackDepth()];
+        results = new double[ROWS];
+        errors = new byte[ROWS];
+
+    }//end of the setUp Method
+    /**
+     * rows Method - Evaluates the formula for one row after another
+     * @return double[] - the results
+     * @throws Exception - when a row cannot be evaluated
+     */
+    @Benchmark
+    public double[] rows() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < values.length; j++) {
+                values[j] = columns[j][i];
+            }
+            results[i] = expression.evaluate(values, stack);
+        }
+        return results;
+
+    }//end of the rows Method
+    /**
+     * columns Method - Evaluates the formula over the whole columns
+     * @return double[] - the results
+     */
+    @Benchmark
+    public double[] columns() {
+        evaluator.evaluate(columns, ROWS, results, errors);
+        return results;
+
+    }//end of the columns Method
+}//end of the ColumnBenchmark Class
@@ -0,0 +1,83 @@
+
+package calculator.expression;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ExpressionBenchmark Class measures parsing an expression against evaluating its
+ * CompiledExpression, on a new stack and on a stack owned by the caller, to show what is saved
+ * by parsing once and evaluating many times.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpressionBenchmark {
+    //Instance Variables
+    final static double[] NO_VALUES = {};
+    @Param({"2+3*4", "(1.5+2.25)*(7-3)/2^3", "sqrt(2^2+3^2)*inv(4)+12.5%-(-3)^3"})
+    public String text;
+    private CompiledExpression expression;
+    private double[] stack;
+
+    /**
+     * setUp Method - Compiles the expression and creates its stack
+     * @throws Exception - when the expression cannot be parsed
+     */
+    @Setup
+    public void setUp() throws Exception {
+        expression = ExpressionParser.parse(text);
+        stack = new double[expression.getMaxStackDepth()];
+
+    }//end of the setUp Method
+    /**
+     * parse Method - Parses the expression
+     * @return CompiledExpression - the compiled expression
+     * @throws Exception - when the expression cannot be parsed
+     */
+    @Benchmark
+    public CompiledExpression parse() throws Exception {
+        return ExpressionParser.parse(text);
+
+    }//end of the parse Method
+    /**
+     * parseAndEvaluate Method - Parses the expression and evaluates it
+     * @return double - the value of the expression
+     * @throws Exception - when the expression cannot be parsed or evaluated
+     */
+    @Benchmark
+    public double parseAndEvaluate() throws Exception {
+        return ExpressionParser.parse(text).evaluate();
+
+    }//end of the parseAndEvaluate Method
+    /**
+     * evaluate Method - Evaluates the compiled expression on a new stack
+     * @return double - the value of the expression
+     * @throws Exception - when the expression cannot be evaluated
+     */
+    @Benchmark
+    public double evaluate() throws Exception {
+        return expression.evaluate();
+
+    }//end of the evaluate Method
+    /**
+     * evaluateOnStack Method - Evaluates the compiled expression on the benchmark's stack
+     * @return double - the value of the expression
+     * @throws Exception - when the expression cannot be evaluated
+     */
+    @Benchmark
+    public double evaluateOnStack() throws Exception {
+        return expression.evaluate(NO_VALUES, stack);
+
+    }//end of the evaluateOnStack Method
+}//end of the ExpressionBenchmark Class
@@ -0,0 +1,112 @@
+
+package calculator.expression;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The ExpressionCacheBenchmark Class measures evaluating a workload of FORMULA_COUNT random
+ * formulas from four threads, parsing every formula each time against looking it up in a
+ * shared ExpressionCache large enough to hold them all.  The statistics of the cache are
+ * printed after each iteration.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class ExpressionCacheBenchmark {
+    //Instance Variables
+    final static int FORMULA_COUNT = 2048;
+    final static double[] NO_VALUES = {};
+    final static String[] OPERATORS = {" + ", " - ", " * ", " / "};
+    String[] formulas;
+    ExpressionCache cache;
+
+    /**
+     * Cursor Class - The position of a thread in the workload and its evaluation stack
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        //Instance Variables
+        int next;
+        final double[] stack = new double[64];
+
+        /**
+         * nextFormula Method - Returns the next formula of the workload
+         * @param formulas - a String[] holding the workload
+         * @return String - the formula
+         */
+        String nextFormula(String[] formulas) {
+            next = (next + 7) & (formulas.length - 1);
+            return formulas[next];
+
+        }//end of the nextFormula Method
+    }//end of the Cursor Class
+    /**
+     * setUp Method - Creates the workload and the cache
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        formulas = new String[FORMULA_COUNT];
+        for (int i = 0; i < FORMULA_COUNT; i++) {
+            StringBuilder formula = new StringBuilder("(" + (1 + random.nextInt(100)));
+            int terms = 2 + random.nextInt(5);
+            for (int j = 0; j < terms; j++) {
+                formula.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+                formula.append((1 + random.nextInt(1000)) / 8.0);
+                if (j == 0) {
+                    formula.append(")");
+
+                }
+            }
+            formula.append(" * sqrt(").append(i).append(")");
+            formulas[i] = formula.toString();
+        }
+        cache = new ExpressionCache(2 * FORMULA_COUNT);
+
+    }//end of the setUp Method
+    /**
+     * tearDown Method - Prints the statistics of the cache
+     */
+    @TearDown
+    public void tearDown() {
+        System.out.println(cache);
+
+    }//end of the tearDown Method
+    /**
+     * parseEvaluate Method - Parses the next formula and evaluates it
+     * @param cursor - the Cursor of the thread
+     * @return double - the value of the formula
+     * @throws Exception - when the formula cannot be parsed or evaluated
+     */
+    @Benchmark
+    public double parseEvaluate(Cursor cursor) throws Exception {
+        return ExpressionParser.parse(cursor.nextFormula(formulas)).evaluate(NO_VALUES,
+                                                                               cursor.stack);
+
+    }//end of the parseEvaluate Method
+    /**
+     * cachedEvaluate Method - Looks the next formula up in the cache and evaluates it
+     * @param cursor - the Cursor of the thread
+     * @return double - the value of the formula
+     * @throws Exception - when the formula cannot be parsed or evaluated
+     */
+    @Benchmark
+    public double cachedEvaluate(Cursor cursor) throws Exception {
+        return cache.get(cursor.nextFormula(formulas)).evaluate(NO_VALUES, cursor.stack);
+
+    }//end of the cachedEvaluate Method
+}//end of the ExpressionCacheBenchmark Class
@@ -0,0 +1,123 @@
+
+package calculator.expression;
+
+import calculator.engine.ErrorCode;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ExpressionCompilerCheck Class checks that the Formulas generated by the
+ * ExpressionCompiler give the results of the interpreter.  It compiles the formulas of the
+ * ExpressionOptimizerCheck, as they were read and optimized, evaluates them both ways for rows
+ * of random values, mixed with zeros of both signs, infinities, NaN, negative numbers, and tiny
+ * numbers, and compares the ErrorCodes and the bits of the results, any NaN being alike.  Then
+ * it checks that an expression is compiled once it has been evaluated COMPILE_THRESHOLD
+ * times, and measures an evaluation interpreted and compiled.  The number of rows may be given
+ * as the argument.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ExpressionCompilerCheck {
+    //Instance Variables
+    private final static String[] MORE_FORMULAS = {
+        "inv(x) + sqrt(y) + x^y", "(x / y) / (y - x) ^ 0.5", "x * 1.5 - inv(y - 2)^-3 * 2^x",
+        "a0 + a1 + a2 + a3 + a4 + a5 + a6 + a7 + a8 + a9 + a10 + a11 + a12 + a13 + a14 + a15"
+    };
+    private final static double[] SPECIAL_VALUES = {
+        0.0, -0.0, 1, -1, 2, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.MIN_VALUE, -Double.MIN_NORMAL, Double.MAX_VALUE
+    };
+    private final static String TIMED_FORMULA = "sqrt(x^2 + y^2) * inv(z) + 12.5% - x * y / 3";
+    private final static int TIMED_EVALUATIONS = 20_000_000;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of rows
+     * @throws Exception - when a result differs
+     */
+    public static void main(String[] args) throws Exception {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(42);
+        int failures = 0;
+
+        String[] formulas = Arrays.copyOf(ExpressionOptimizerCheck.FORMULAS,
+                ExpressionOptimizerCheck.FORMULAS.length + MORE_FORMULAS.length);
+        System.arraycopy(MORE_FORMULAS, 0, formulas, ExpressionOptimizerCheck.FORMULAS.length,
+                         MORE_FORMULAS.length);
+        for (String text : formulas) {
+            for (int optimized = 0; optimized < 2; optimized++) {
+                CompiledExpression expression = ExpressionParser.parse(text, optimized == 1);
+                Formula formula = ExpressionCompiler.compile(expression);
+                double[] values = new double[expression.getVariableCount()];
+                double[] stack = new double[expression.getMaxStackDepth()];
+                double[] result = new double[1];
+                int differences = 0;
+                for (int i = 0; i < rows; i++) {
+                    for (int v = 0; v < values.length; v++) {
+                        values[v] = (random.nextInt(8) == 0) ?
+                                SPECIAL_VALUES[random.nextInt(SPECIAL_VALUES.length)] :
+                                (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+                    }
+                    int expectedError = expression.interpret(values, stack);
+                    int error = formula.tryEvaluate(values, result);
+                    if ((error != expectedError) ||
+                        ((error == ErrorCode.NONE) && (Double.doubleToLongBits(stack[0]) !=
+                                                       Double.doubleToLongBits(result[0])))) {
+                        if (differences++ == 0) {
+                            System.out.printf("%s differs at %s: %s (%d) against %s (%d)%n", text,
+                                              Arrays.toString(values), stack[0], expectedError,
+                                              result[0], error);
+
+                        }
+                    }
+                }
+                if (optimized == 1) {
+                    System.out.printf("%-48s %d rows differ%n", text, differences);
+
+                }
+                failures += differences;
+            }
+        }
+
+        CompiledExpression expression = ExpressionParser.parse(TIMED_FORMULA);
+        double[] values = {3, 4, 2};
+        double[] stack = new double[expression.getMaxStackDepth()];
+        for (int i = 1; i < CompiledExpression.DEFAULT_COMPILE_THRESHOLD; i++) {
+            expression.tryEvaluate(values, stack);
+        }
+        boolean early = expression.isCompiled();
+        expression.tryEvaluate(values, stack);
+        System.out.printf("Compiled after %d evaluations: %b%n",
+                          CompiledExpression.DEFAULT_COMPILE_THRESHOLD, expression.isCompiled());
+        if (early || !expression.isCompiled()) {
+            System.out.println("The expression was not compiled at the threshold");
+            failures++;
+
+        }
+        for (int round = 0; round < 3; round++) {
+            double sum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMED_EVALUATIONS; i++) {
+                values[0] = i;
+                expression.interpret(values, stack);
+                sum += stack[0];
+            }
+            double interpreted = (System.nanoTime() - start) / (double) TIMED_EVALUATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < TIMED_EVALUATIONS; i++) {
+                values[0] = i;
+                expression.tryEvaluate(values, stack);
+                sum -= stack[0];
+            }
+            double compiled = (System.nanoTime() - start) / (double) TIMED_EVALUATIONS;
+            System.out.printf("%s: %.1f ns interpreted, %.1f ns compiled (%s)%n", TIMED_FORMULA,
+                              interpreted, compiled, sum);
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("The compiled formulas changed " + failures +
+                                             " results"));
+
+        }
+    }//end of the main Method
+}//end of the ExpressionCompilerCheck Class
@@ -0,0 +1,72 @@
+
+package calculator.expression;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ExpressionOptimizerBenchmark Class measures evaluating formulas as they were read against
+ * evaluating them optimized by the ExpressionOptimizer, with random values of their variables,
+ * to show what each evaluation saves.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpressionOptimizerBenchmark {
+    //Instance Variables
+    @Param({"price * (1 + 8.25%) - fee / 4", "sqrt(x^2 + y^2) / 2",
+            "(1.5 + 2.25) * (7 - 3) / 2^3 * x", "x^2 * 1 - (-y)^2 + 2^10 / 1024"})
+    public String text;
+    private CompiledExpression plain;
+    private CompiledExpression optimized;
+    private double[] values;
+    private double[] stack;
+
+    /**
+     * setUp Method - Compiles the formula both ways and draws the values of its variables
+     * @throws Exception - when the formula cannot be parsed
+     */
+    @Setup
+    public void setUp() throws Exception {
+        plain = ExpressionParser.parse(text, false);
+        optimized = ExpressionParser.parse(text);
+        values = new double[plain.getVariableCount()];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + 100 * random.nextDouble();
+        }
+        stack = new double[Math.max(plain.getMaxStackDepth(), optimized.getMaxStackDepth())];
+
+    }//end of the setUp Method
+    /**
+     * evaluatePlain Method - Evaluates the formula as it was read
+     * @return double - the value of the formula
+     * @throws Exception - when the formula cannot be evaluated
+     */
+    @Benchmark
+    public double evaluatePlain() throws Exception {
+        return plain.evaluate(values, stack);
+
+    }//end of the evaluatePlain Method
+    /**
+     * evaluateOptimized Method - Evaluates the optimized formula
+     * @return double - the value of the formula
+     * @throws Exception - when the formula cannot be evaluated
+     */
+    @Benchmark
+    public double evaluateOptimized() throws Exception {
+        return optimized.evaluate(values, stack);
+
+    }//end of the evaluateOptimized Method
+}//end of the ExpressionOptimizerBenchmark Class
@@ -0,0 +1,105 @@
+
+package calculator.expression;
+
+import calculator.engine.ErrorCode;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ExpressionOptimizerCheck Class checks that the ExpressionOptimizer changes no result.  It
+ * evaluates formulas parsed with and without optimizing for rows of random values, mixed with
+ * zeros of both signs, infinities, NaN, negative numbers, and tiny numbers, one row at a time
+ * and over columns, and compares the ErrorCodes and the bits of the results, any NaN being
+ * alike.  It also optimizes a sum too long to be rewritten recursively.  The number of rows may
+ * be given as the argument.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ExpressionOptimizerCheck {
+    //Instance Variables
+    final static String[] FORMULAS = {
+        "price * (1 + rate%) - fee / 4", "x^2 + y^2", "sqrt(x^2 + y^2) / 2", "x^0 + y^1 - z^2",
+        "(x / 0.5) * 1 - 0 - (-y)", "x + -y + --z", "(1.5 + 2.25) * (7 - 3) / 2^3 * x",
+        "sqrt(2^2 + 3^2) * inv(4) + 12.5% - (-3)^3 + x", "x / 0 + 2 * 3", "(y - 1)^0",
+        "sqrt(x)^0 + inv(0) * y", "(-8)^(1/3) + x", "x^2^0.5 / y / 1024", "x / 3 + y / 0.1"
+    };
+    private final static double[] SPECIAL_VALUES = {
+        0.0, -0.0, 1, -1, 2, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.MIN_VALUE, -Double.MIN_NORMAL, Double.MAX_VALUE
+    };
+    private final static int TERMS = 100_000;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of rows
+     * @throws Exception - when a result differs
+     */
+    public static void main(String[] args) throws Exception {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(42);
+        int failures = 0;
+
+        for (String formula : FORMULAS) {
+            CompiledExpression plain = ExpressionParser.parse(formula, false);
+            CompiledExpression optimized = ExpressionParser.parse(formula);
+            int variables = plain.getVariableCount();
+            double[][] columns = new double[variables][rows];
+            for (double[] column : columns) {
+                for (int i = 0; i < rows; i++) {
+                    column[i] = (random.nextInt(8) == 0) ?
+                            SPECIAL_VALUES[random.nextInt(SPECIAL_VALUES.length)] :
+                            (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+                }
+            }
+            double[] values = new double[variables];
+            double[] plainStack = new double[plain.getMaxStackDepth()];
+            double[] optimizedStack = new double[optimized.getMaxStackDepth()];
+            double[] results = new double[rows];
+            byte[] errors = new byte[rows];
+            new ColumnEvaluator(optimized).evaluate(columns, rows, results, errors);
+            int differences = 0;
+            for (int i = 0; i < rows; i++) {
+                for (int v = 0; v < variables; v++) {
+                    values[v] = columns[v][i];
+                }
+                int plainError = plain.tryEvaluate(values, plainStack);
+                int optimizedError = optimized.tryEvaluate(values, optimizedStack);
+                double expected = (plainError == ErrorCode.NONE) ? plainStack[0] : Double.NaN;
+                if ((plainError != optimizedError) || (plainError != errors[i]) ||
+                    ((plainError == ErrorCode.NONE) &&
+                     ((Double.doubleToLongBits(expected) !=
+                       Double.doubleToLongBits(optimizedStack[0])) ||
+                      (Double.doubleToLongBits(expected) !=
+                       Double.doubleToLongBits(results[i]))))) {
+                    if (differences++ == 0) {
+                        System.out.printf("%s differs at %s: %s (%d) against %s (%d)%n", formula,
+                                          Arrays.toString(values), expected,
+                                          plainError, optimizedStack[0], optimizedError);
+
+                    }
+                }
+            }
+            System.out.printf("%-48s %2d instructions, %2d optimized, %d rows differ%n", formula,
+                              plain.getCode().length, optimized.getCode().length, differences);
+            failures += differences;
+        }
+
+        StringBuilder sum = new StringBuilder("x");
+        for (int i = 1; i < TERMS; i++) {
+            sum.append(" + x / 2");
+        }
+        CompiledExpression optimized = ExpressionParser.parse(sum.toString());
+        double result = optimized.evaluate(new double[] {2});
+        System.out.printf("A sum of %d terms: %s%n", TERMS, result);
+        if (result != TERMS + 1) {
+            System.out.println("The sum is wrong");
+            failures++;
+
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("The optimizer changed " + failures + " results"));
+
+        }
+    }//end of the main Method
+}//end of the ExpressionOptimizerCheck Class
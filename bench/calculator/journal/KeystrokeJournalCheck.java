@@ -0,0 +1,163 @@
+
+package calculator.journal;
+
+import calculator.engine.CalculatorEngine;
+import calculator.engine.DecimalCalculatorEngine;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * The KeystrokeJournalCheck Class checks that a KeystrokeJournal restores the state of a
+ * calculator, and measures how fast it records and replays keys.  It presses random keys
+ * through a journal while a shadowing engine presses the same keys, and checks that reopening
+ * the journal restores the display of the shadowing engine: after a close, from the snapshot
+ * alone, and after a crash, with a torn record at the end, from the last snapshot and the keys
+ * after it.  Then it replays the whole journal from the start for an audit, and restores an
+ * exact decimal engine from its snapshot.  The number of keys and the seed may be given as
+ * the arguments.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class KeystrokeJournalCheck {
+    //Instance Variables
+    private final static String KEYS = "0123456789.0123456789.n<+-*/^=c%irASRZ";
+    private final static int SNAPSHOT_INTERVAL = 100_000;
+    private final static int KEYS_PER_COMMIT = 1000;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of keys and the seed
+     * @throws Exception - when a restored engine differs
+     */
+    public static void main(String[] args) throws Exception {
+        long count = (args.length > 0) ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 1L;
+        SplittableRandom random = new SplittableRandom(seed);
+        Path directory = Files.createTempDirectory("journal");
+        Path file = directory.resolve("calculator.journal");
+        CalculatorEngine shadow = new CalculatorEngine();
+        int failures = 0;
+
+        try {
+            KeystrokeJournal journal = new KeystrokeJournal(file, new CalculatorEngine(),
+                                                            SNAPSHOT_INTERVAL);
+            long start = System.nanoTime();
+            press(journal, shadow, random, count);
+            journal.close();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d keys recorded in %.2f s (%.0f keys/s), committing every %d, " +
+                              "%d bytes%n", count, seconds, count / seconds, KEYS_PER_COMMIT,
+                              Files.size(file));
+
+            start = System.nanoTime();
+            journal = new KeystrokeJournal(file, new CalculatorEngine(), SNAPSHOT_INTERVAL);
+            System.out.printf("Restored after a close in %.2f ms, replaying %d keys%n",
+                              (System.nanoTime() - start) / 1e6, journal.getReplayedCount());
+            failures += check("close", journal.getEngine(), shadow);
+
+            press(journal, shadow, random, SNAPSHOT_INTERVAL + SNAPSHOT_INTERVAL / 2);
+            journal.commit();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(new byte[] {KeystrokeJournal.TIME_RECORD, 0, 0}));
+
+            }
+            start = System.nanoTime();
+            journal = new KeystrokeJournal(file, new CalculatorEngine(), SNAPSHOT_INTERVAL);
+            System.out.printf("Restored after a crash in %.2f ms, replaying %d keys%n",
+                              (System.nanoTime() - start) / 1e6, journal.getReplayedCount());
+            failures += check("crash", journal.getEngine(), shadow);
+            journal.close();
+
+            CalculatorEngine auditor = new CalculatorEngine();
+            start = System.nanoTime();
+            long keys = KeystrokeJournal.replay(file, auditor);
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d keys replayed in %.2f s (%.0f keys/s)%n", keys, seconds,
+                              keys / seconds);
+            failures += check("replay", auditor, shadow);
+
+            failures += checkDecimal(directory.resolve("decimal.journal"), random);
+
+        } finally {
+            for (Path path : Files.newDirectoryStream(directory)) {
+                Files.delete(path);
+            }
+            Files.delete(directory);
+
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("A restored engine differs"));
+
+        }
+    }//end of the main Method
+    /**
+     * press Method - Presses random keys through a journal and on a shadowing engine
+     * @param journal - the KeystrokeJournal to press the keys through
+     * @param shadow - the CalculatorEngine to press the same keys on
+     * @param random - the SplittableRandom to draw from
+     * @param count - long representing the number of keys
+     * @throws IOException - when the journal cannot be written
+     */
+    private static void press(KeystrokeJournal journal, CalculatorEngine shadow,
+                              SplittableRandom random, long count) throws IOException {
+        for (long n = 0; n < count; n++) {
+            char key = KEYS.charAt(random.nextInt(KEYS.length()));
+            journal.press(key);
+            shadow.press(key);
+            if (n % KEYS_PER_COMMIT == 0) {
+                journal.commit();
+
+            }
+        }
+    }//end of the press Method
+    /**
+     * checkDecimal Method - Checks that an exact decimal engine is restored from its snapshot
+     * @param file - the Path of the journal
+     * @param random - the SplittableRandom to draw from
+     * @return int - one when the restored engine differs, or zero
+     * @throws IOException - when the journal cannot be written
+     */
+    private static int checkDecimal(Path file, SplittableRandom random) throws IOException {
+        CalculatorEngine shadow = new DecimalCalculatorEngine();
+        KeystrokeJournal journal = new KeystrokeJournal(file, new DecimalCalculatorEngine());
+        press(journal, shadow, random, 100_000);
+        for (char key : "c99999999999*99999999999*99999999999+".toCharArray()) {
+            journal.press(key);
+            shadow.press(key);
+        }
+        journal.close();
+        journal = new KeystrokeJournal(file, new DecimalCalculatorEngine());
+        for (char key : "1=".toCharArray()) {
+            journal.press(key);
+            shadow.press(key);
+        }
+        journal.close();
+        return check("decimal", journal.getEngine(), shadow);
+
+    }//end of the checkDecimal Method
+    /**
+     * check Method - Compares a restored engine with its shadowing engine
+     * @param name - String representing the name of the check
+     * @param restored - the CalculatorEngine restored by a journal
+     * @param shadow - the CalculatorEngine that pressed the same keys
+     * @return int - one when the engines differ, or zero
+     */
+    private static int check(String name, CalculatorEngine restored, CalculatorEngine shadow) {
+        boolean isSame = restored.getDisplayText().equals(shadow.getDisplayText()) &&
+                         (restored.getDisplayMode() == shadow.getDisplayMode()) &&
+                         (restored.getLastOperator() == shadow.getLastOperator()) &&
+                         (Double.compare(restored.getLastNumber(), shadow.getLastNumber()) == 0) &&
+                         (Double.compare(restored.getMemory(), shadow.getMemory()) == 0);
+        System.out.printf("%s: %s (%s)%n", name, isSame ? "same" : "DIFFERENT",
+                          restored.getDisplayText());
+        return isSame ? 0 : 1;
+
+    }//end of the check Method
+}//end of the KeystrokeJournalCheck Class
@@ -0,0 +1,141 @@
+
+package calculator.metrics;
+
+import calculator.batch.LineEvaluator;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+/**
+ * The MetricsCheck Class checks that the CalculatorMetrics count what the calculator does, and
+ * measures what counting costs.  It evaluates lines with known operations and errors through a
+ * LineEvaluator with metrics, and reads the counts back through the platform MBeanServer, as a
+ * JMX client would, every LineEvaluator.LATENCY_SAMPLE_INTERVAL line having its latency
+ * recorded.  Then it evaluates millions of lines with and without the metrics, and
+ * records latencies into one LatencyHistogram from several threads at once, checking that none
+ * is lost.  The number of lines may be given as the argument.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class MetricsCheck {
+    //Instance Variables
+    private final static String[] LINES = {
+        "12.5 + 7 * 3", "81 sqrt", "4 1/x", "50 %", "2 ^ 10 - 1", "9 / 0", "-4 sqrt", "7 + x",
+        "0 1/x"
+    };
+    private final static int THREADS = 4;
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of lines
+     * @throws Exception - when the counts are wrong
+     */
+    public static void main(String[] args) throws Exception {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000_000;
+        int failures = 0;
+
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        metrics.register();
+        LineEvaluator evaluator = new LineEvaluator();
+        evaluator.setMetrics(metrics);
+        evaluate(evaluator, 1);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CalculatorMetrics.DOMAIN + ":type=Metrics");
+        ObjectName latency = new ObjectName(CalculatorMetrics.DOMAIN +
+                                            ":type=Latency,name=Evaluation");
+        long operations = (Long) server.getAttribute(name, "OperationCount");
+        long squareRoots = get((TabularData) server.getAttribute(name, "OperationCounts"),
+                               "squareRoot");
+        long undefined = get((TabularData) server.getAttribute(name, "ErrorCounts"),
+                             "undefined");
+        long invalid = get((TabularData) server.getAttribute(name, "ErrorCounts"),
+                           "invalidEntry");
+        long latencies = (Long) server.getAttribute(latency, "Count");
+        System.out.printf("Through JMX: %d operations, %d square roots, %d undefined, " +
+                          "%d invalid entries, %d latencies, median %d ns%n", operations,
+                          squareRoots, undefined, invalid, latencies,
+                          server.getAttribute(latency, "MedianNanos"));
+        if ((operations != 8) || (squareRoots != 1) || (undefined != 2) || (invalid != 1) ||
+            (latencies != (LINES.length + LineEvaluator.LATENCY_SAMPLE_INTERVAL - 1) /
+                          LineEvaluator.LATENCY_SAMPLE_INTERVAL)) {
+            System.out.println("The counts are wrong");
+            failures++;
+
+        }
+
+        LineEvaluator plain = new LineEvaluator();
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            evaluate(plain, count / LINES.length);
+            double withoutMetrics = (System.nanoTime() - start) / (double) count;
+            start = System.nanoTime();
+            evaluate(evaluator, count / LINES.length);
+            double withMetrics = (System.nanoTime() - start) / (double) count;
+            System.out.printf("%d lines: %.1f ns a line without metrics, %.1f ns with%n", count,
+                              withoutMetrics, withMetrics);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < count; n++) {
+                    histogram.record(n & 0xFFFF);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%d latencies recorded by %d threads in %.1f ms, %d counted, " +
+                          "maximum %d ns%n", (long) count * THREADS, THREADS,
+                          (System.nanoTime() - start) / 1e6, histogram.getCount(),
+                          histogram.getMaxNanos());
+        if ((histogram.getCount() != (long) count * THREADS) ||
+            (histogram.getMaxNanos() != Math.min(count - 1, 0xFFFF))) {
+            System.out.println("Latencies were lost");
+            failures++;
+
+        }
+        if (failures > 0) {
+            throw (new IllegalStateException("The metrics failed"));
+
+        }
+    }//end of the main Method
+    /**
+     * evaluate Method - Evaluates the lines a number of times
+     * @param evaluator - the LineEvaluator to evaluate the lines with
+     * @param times - integer representing the number of times
+     */
+    private static void evaluate(LineEvaluator evaluator, int times) {
+        ByteBuffer output = ByteBuffer.allocate(LineEvaluator.MAX_RESULT_LENGTH);
+        ByteBuffer[] lines = new ByteBuffer[LINES.length];
+        for (int i = 0; i < LINES.length; i++) {
+            lines[i] = ByteBuffer.wrap(LINES[i].getBytes(StandardCharsets.UTF_8));
+        }
+        for (int n = 0; n < times; n++) {
+            for (ByteBuffer line : lines) {
+                output.clear();
+                evaluator.evaluate(line, 0, line.limit(), output);
+            }
+        }
+    }//end of the evaluate Method
+    /**
+     * get Method - Returns a count of a map read through JMX
+     * @param table - the TabularData of the map
+     * @param key - String representing the key of the count
+     * @return long - the count
+     */
+    private static long get(TabularData table, String key) {
+        CompositeData row = table.get(new Object[] {key});
+        return (Long) row.get("value");
+
+    }//end of the get Method
+}//end of the MetricsCheck Class
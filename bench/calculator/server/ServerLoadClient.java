@@ -0,0 +1,199 @@
+
+package calculator.server;
+
+import calculator.batch.LineEvaluator;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * The ServerLoadClient Class checks the CalculatorServer under load from a local client.  It
+ * opens a number of connections at once and keeps them all open, pipelines a number of
+ * expressions on each connection before reading any result, and checks every result against
+ * a LineEvaluator, byte for byte.  Unless a port is given, it starts a CalculatorServer on a
+ * free port in the same process.  The arguments are the number of connections, the number of
+ * expressions per connection, and the port.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ServerLoadClient {
+    //Instance Variables
+    private final static String[] EXPRESSIONS = {
+        "12.5 + 7 * 3", "81 sqrt", "9 / 0", "4 1/x", "200 + 10 %", "-2 ^ .5", "2 ^ 64",
+        "19.99 * 3 + 4.5 - 2.25", "7 + 1 x", "1234567 * 7654321 / 3"
+    };
+    private final static int MAX_PENDING_CONNECTS = 512;
+
+    /**
+     * Client Class - Holds the requests and the expected responses of one connection
+     */
+    private static class Client {
+        //Instance Variables
+        final SocketChannel channel;
+        final ByteBuffer requests;
+        final ByteBuffer responses;
+
+        /**
+         * Client Constructor - Creates a Client sending the same requests as every other
+         * @param channel - the SocketChannel of the connection
+         * @param requests - a byte[] holding the requests
+         * @param responseLength - integer representing the length of the expected responses
+         */
+        Client(SocketChannel channel, byte[] requests, int responseLength) {
+            this.channel = channel;
+            this.requests = ByteBuffer.wrap(requests);
+            responses = ByteBuffer.allocate(responseLength + 1);
+
+        }//end of the Client Constructor
+    }//end of the Client Class
+
+    /**
+     * main Method - Contains the command line arguments
+     * @param args - a String[] holding the number of connections, the number of expressions per
+     * connection, and the port of a running server
+     * @throws Exception - when the server fails, or a result differs
+     */
+    public static void main(String[] args) throws Exception {
+        int connections = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+        int perConnection = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+        int port = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+        CalculatorServer server = null;
+        Thread serverThread = null;
+
+        if (port == 0) {
+            CalculatorServer localServer = new CalculatorServer(0);
+            serverThread = new Thread(() -> {
+                try {
+                    localServer.serve();
+
+                } catch (IOException ioe) {
+                    ioe.printStackTrace();
+
+                }
+            }, "CalculatorServer");
+            serverThread.start();
+            server = localServer;
+            port = server.getPort();
+
+        }
+        StringBuilder requestText = new StringBuilder();
+        for (int i = 0; i < perConnection; i++) {
+            requestText.append(EXPRESSIONS[i % EXPRESSIONS.length]).append('\n');
+        }
+        byte[] requests = requestText.toString().getBytes("UTF-8");
+        byte[] expected = expectedResults(requests);
+
+        long start = System.nanoTime();
+        long mismatches = run(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                              connections, requests, expected);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = (long) connections * perConnection;
+        System.out.printf("%d connections, %d expressions in %.2f s (%.0f expressions/s), " +
+                          "%d mismatches%n", connections, total, seconds, total / seconds,
+                          mismatches);
+        if (server != null) {
+            server.stop();
+            serverThread.join();
+
+        }
+        if (mismatches > 0) {
+            throw (new IllegalStateException("The server answered differently"));
+
+        }
+    }//end of the main Method
+    /**
+     * expectedResults Method - Evaluates the requests with a LineEvaluator
+     * @param requests - a byte[] holding the requests, one per line
+     * @return byte[] - the expected responses
+     */
+    private static byte[] expectedResults(byte[] requests) {
+        LineEvaluator evaluator = new LineEvaluator();
+        ByteBuffer input = ByteBuffer.wrap(requests);
+        ByteBuffer output = ByteBuffer.allocate(requests.length * LineEvaluator.MAX_RESULT_LENGTH);
+        int lineStart = 0;
+        for (int i = 0; i < requests.length; i++) {
+            if (requests[i] == '\n') {
+                evaluator.evaluate(input, lineStart, i, output);
+                lineStart = i + 1;
+
+            }
+        }
+        return Arrays.copyOf(output.array(), output.position());
+
+    }//end of the expectedResults Method
+    /**
+     * run Method - Opens the connections, keeps them all open until every connection has sent
+     * its requests and received its responses, and checks the responses
+     * @param address - the InetSocketAddress of the server
+     * @param connections - integer representing the number of connections
+     * @param requests - a byte[] holding the requests of each connection
+     * @param expected - a byte[] holding the expected responses of each connection
+     * @return long - the number of connections that received other responses
+     * @throws IOException - when a connection fails
+     */
+    private static long run(InetSocketAddress address, int connections, byte[] requests,
+                                                   byte[] expected) throws IOException {
+        Selector selector = Selector.open();
+        Client[] clients = new Client[connections];
+        int opened = 0;
+        int pending = 0;
+        int finished = 0;
+        long mismatches = 0;
+
+        while (finished < connections) {
+            while ((opened < connections) && (pending < MAX_PENDING_CONNECTS)) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                clients[opened] = new Client(channel, requests, expected.length);
+                channel.register(selector, SelectionKey.OP_CONNECT, clients[opened]);
+                channel.connect(address);
+                opened++;
+                pending++;
+            }
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client) key.attachment();
+                if (key.isConnectable()) {
+                    client.channel.finishConnect();
+                    pending--;
+                    key.interestOps(SelectionKey.OP_WRITE | SelectionKey.OP_READ);
+
+                }
+                if (key.isWritable()) {
+                    client.channel.write(client.requests);
+                    if (!client.requests.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ);
+
+                    }
+                }
+                if (key.isReadable() && (client.channel.read(client.responses) < 0 ||
+                                         (client.responses.position() >= expected.length))) {
+                    key.interestOps(0);
+                    finished++;
+                    if ((client.responses.position() != expected.length) ||
+                        !Arrays.equals(Arrays.copyOf(client.responses.array(), expected.length),
+                                                                                  expected)) {
+                        mismatches++;
+
+                    }
+                }
+            }
+        }
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+        return mismatches;
+
+    }//end of the run Method
+}//end of the ServerLoadClient Class
@@ -0,0 +1,213 @@
+
+package calculator;
+
+import calculator.engine.DisplayFormatter;
+import calculator.engine.ErrorCode;
+import calculator.engine.HistoryTape;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.swing.AbstractListModel;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingWorker;
+
+/**
+ * The HistoryPanel Class shows the HistoryTape of the calculator next to the keypad, as a
+ * scrolling list of the operations with their results, and exports it to a CSV file.  The list
+ * reads the tape directly, and formats only the rows that are painted, so a tape of millions
+ * of records costs the list nothing until it is scrolled.  The export runs on a background
+ * thread, and streams the tape into the file, so the keypad keeps responding during it.  The
+ * engine adds to the tape on the thread of its KeyDispatcher, so the list reads a record, and
+ * the bounds of the tape, while holding the lock of the tape, and a record is never replaced
+ * halfway through being read.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class HistoryPanel extends JPanel {
+    //Instance Variables
+    private final static String PROTOTYPE_ROW = "-0.00001 sqrt = -1234567890.12345";
+    private final HistoryTape tape;
+    private final TapeListModel model;
+    private final JList<String> list;
+
+    /**
+     * TapeListModel Class - Presents the records on the tape as the rows of a list, oldest
+     * first
+     */
+    private class TapeListModel extends AbstractListModel<String> {
+        //Instance Variables
+        private int size;
+        private long firstIndex;
+
+        /**
+         * getSize Method - Returns the number of rows
+         * @return int - the number of records on the tape when the list was last updated
+         */
+        @Override
+        public int getSize() {
+            return size;
+
+        }//end of the getSize Method
+        /**
+         * getElementAt Method - Formats a row
+         * @param row - integer representing the row
+         * @return String - the text of the record, or an empty String when it has been replaced
+         */
+        @Override
+        public String getElementAt(int row) {
+            long index = firstIndex + row;
+            char operation;
+            double left;
+            double right;
+            double result;
+            int errorCode;
+            synchronized (tape) {
+                if ((index < tape.getFirstIndex()) || (index >= tape.getCount())) {
+                    return "";
+
+                }
+                operation = tape.getOperation(index);
+                left = tape.getLeft(index);
+                right = tape.getRight(index);
+                result = tape.getResult(index);
+                errorCode = tape.getErrorCode(index);
+            }
+            StringBuilder text = new StringBuilder(48);
+            text.append(DisplayFormatter.format(left)).append(' ');
+            text.append(HistoryTape.getOperationName(operation));
+            if (!Double.isNaN(right)) {
+                text.append(' ').append(DisplayFormatter.format(right));
+
+            }
+            text.append(" = ");
+            if (errorCode == ErrorCode.NONE) {
+                text.append(DisplayFormatter.format(result));
+
+            } else {
+                text.append(ErrorCode.getMessage(errorCode).trim());
+
+            }
+            return text.toString();
+
+        }//end of the getElementAt Method
+        /**
+         * update Method - Catches up with the records added to the tape
+         */
+        void update() {
+            int oldSize = size;
+            long oldFirstIndex = firstIndex;
+            synchronized (tape) {
+                size = tape.size();
+                firstIndex = tape.getFirstIndex();
+            }
+            if (size > oldSize) {
+                fireIntervalAdded(this, oldSize, size - 1);
+
+            } else if (size < oldSize) {
+                fireIntervalRemoved(this, size, oldSize - 1);
+
+            }
+            if ((firstIndex != oldFirstIndex) && (size > 0)) {
+                fireContentsChanged(this, 0, size - 1);
+
+            }
+        }//end of the update Method
+    }//end of the TapeListModel Class
+
+    /**
+     * HistoryPanel Constructor - Creates a HistoryPanel showing a tape
+     * @param tape - the HistoryTape of the engine
+     */
+    public HistoryPanel(HistoryTape tape) {
+        super(new BorderLayout(0, 6));
+        this.tape = tape;
+        model = new TapeListModel();
+        list = new JList<>(model);
+        list.setPrototypeCellValue(PROTOTYPE_ROW);
+        list.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        list.setBackground(Color.decode("#2B2C2D"));
+        list.setForeground(Color.WHITE);
+        list.setVisibleRowCount(16);
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setPreferredSize(new Dimension(260, 0));
+
+        JButton exportButton = new JButton("Export CSV");
+        exportButton.addActionListener(ae -> exportCsv());
+
+        add(scrollPane, BorderLayout.CENTER);
+        add(exportButton, BorderLayout.SOUTH);
+        setOpaque(false);
+
+    }//end of the HistoryPanel Constructor
+    /**
+     * update Method - Shows the records added to the tape since the last update, and scrolls
+     * to the newest
+     */
+    public void update() {
+        if (tape.getCount() == model.firstIndex + model.size) {
+            return;
+
+        }
+        model.update();
+        if (model.getSize() > 0) {
+            list.ensureIndexIsVisible(model.getSize() - 1);
+
+        }
+    }//end of the update Method
+    /**
+     * getTape Method - Returns the tape the panel shows
+     * @return HistoryTape - the tape
+     */
+    public HistoryTape getTape() {
+        return tape;
+
+    }//end of the getTape Method
+    /**
+     * exportCsv Method - Asks for a file, and writes the tape into it on a background thread
+     */
+    private void exportCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("history.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+
+        }
+        File file = chooser.getSelectedFile();
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws IOException {
+                try (Writer out = Files.newBufferedWriter(file.toPath(),
+                                                          StandardCharsets.UTF_8)) {
+                    return tape.writeCsv(out);
+
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(HistoryPanel.this, "The history could not " +
+                                                  "be exported: " + e.getCause(), "Export CSV",
+                                                  JOptionPane.ERROR_MESSAGE);
+
+                }
+            }
+        }.execute();
+
+    }//end of the exportCsv Method
+}//end of the HistoryPanel Class
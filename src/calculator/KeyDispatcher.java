@@ -0,0 +1,287 @@
+
+package calculator;
+
+import calculator.engine.CalculatorEngine;
+import calculator.journal.KeystrokeJournal;
+import calculator.metrics.CalculatorMetrics;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+/**
+ * The KeyDispatcher Class presses the keys of the window on the engine in a background thread,
+ * so an evaluation that takes long, such as a large exact power, never holds up the Event
+ * Dispatch Thread.  The Event Dispatch Thread only queues the key, and the background thread
+ * presses every queued key in order, and then publishes the display back with
+ * SwingUtilities.invokeLater.  Keys pressed faster than they are evaluated are coalesced: they
+ * are pressed together, and only the display after the last of them is published, with at
+ * most one publication waiting on the Event Dispatch Thread at any time.
+ *
+ * The clear key cancels the work queued before it: the keys waiting in the queue after the
+ * last key that changes the memory, or selects the fast or the strict functions, are dropped,
+ * as the clear would undo their effect on the display and the pending operation anyway.  The
+ * key being evaluated when the clear arrives is finished.  The engine, and the journal when
+ * there is one, must only be used by the background thread once the KeyDispatcher has been
+ * created.  When CalculatorMetrics are set, the latency of every key is recorded as an
+ * evaluation, and the latency of every publication, from being posted to the Event Dispatch
+ * Thread until it has been shown, as an event.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class KeyDispatcher {
+    //Instance Variables
+    private final CalculatorEngine engine;
+    private final KeystrokeJournal journal;
+    private final DisplayListener listener;
+    private final ExecutorService executor;
+    private final AtomicReference<DisplayState> publication;
+    private char[] pending;
+    private int pendingCount;
+    private boolean isDraining;
+    private long cancelledCount;
+    private char[] working;
+    private long keyCount;
+    private volatile CalculatorMetrics metrics;
+
+    /**
+     * DisplayListener Interface - Receives the displays published on the Event Dispatch Thread
+     */
+    public interface DisplayListener {
+        /**
+         * displayChanged Method - Shows the display of the engine after the last pressed key
+         * @param state - the DisplayState of the engine
+         */
+        void displayChanged(DisplayState state);
+
+    }//end of the DisplayListener Interface
+
+    /**
+     * DisplayState Class - The display of the engine, copied by the background thread for the
+     * Event Dispatch Thread
+     */
+    public static class DisplayState {
+        //Instance Variables
+        private final String displayText;
+        private final int displayMode;
+        private final boolean hasMemory;
+        private final boolean isFastFunctions;
+        private final long keyCount;
+
+        /**
+         * DisplayState Constructor - Copies the display of an engine
+         * @param engine - the CalculatorEngine to copy the display of
+         * @param keyCount - long representing the number of keys pressed on the engine
+         */
+        DisplayState(CalculatorEngine engine, long keyCount) {
+            displayText = engine.getDisplayText();
+            displayMode = engine.getDisplayMode();
+            hasMemory = engine.hasMemory();
+            isFastFunctions = engine.isFastFunctions();
+            this.keyCount = keyCount;
+
+        }//end of the DisplayState Constructor
+        /**
+         * getDisplayText Method - Returns the text of the display
+         * @return String - the text of the display
+         */
+        public String getDisplayText() {
+            return displayText;
+
+        }//end of the getDisplayText Method
+        /**
+         * getDisplayMode Method - Returns the mode of the display
+         * @return int - the INPUT_MODE, RESULT_MODE, or ERROR_MODE of the CalculatorEngine
+         */
+        public int getDisplayMode() {
+            return displayMode;
+
+        }//end of the getDisplayMode Method
+        /**
+         * hasMemory Method - Returns whether the memory holds a number other than zero
+         * @return boolean - true when the memory is not zero
+         */
+        public boolean hasMemory() {
+            return hasMemory;
+
+        }//end of the hasMemory Method
+        /**
+         * isFastFunctions Method - Returns whether the scientific functions take the fast path
+         * @return boolean - true when the fast path is selected
+         */
+        public boolean isFastFunctions() {
+            return isFastFunctions;
+
+        }//end of the isFastFunctions Method
+        /**
+         * getKeyCount Method - Returns the number of keys pressed on the engine, which does
+         * not count the keys that were cancelled
+         * @return long - the number of keys
+         */
+        public long getKeyCount() {
+            return keyCount;
+
+        }//end of the getKeyCount Method
+    }//end of the DisplayState Class
+
+    /**
+     * KeyDispatcher Constructor - Creates a KeyDispatcher pressing keys on an engine
+     * @param engine - the CalculatorEngine to press the keys on
+     * @param journal - the KeystrokeJournal to press the keys through, or null
+     * @param listener - the DisplayListener to publish the displays to
+     */
+    public KeyDispatcher(CalculatorEngine engine, KeystrokeJournal journal,
+                                                  DisplayListener listener) {
+        this.engine = engine;
+        this.journal = journal;
+        this.listener = listener;
+        publication = new AtomicReference<>();
+        pending = new char[16];
+        working = new char[16];
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calculator-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }//end of the KeyDispatcher Constructor
+    /**
+     * press Method - Queues a key to be pressed on the engine, and returns at once.  The clear
+     * key cancels the keys queued before it, back to the last key that changes the memory or
+     * selects the fast or the strict functions, which the clear key keeps.
+     * Keys pressed after the KeyDispatcher is closed are ignored.
+     * @param key - a char naming the key, as CalculatorEngine.press names them
+     */
+    public synchronized void press(char key) {
+        if (executor.isShutdown()) {
+            return;
+
+        }
+        if (key == 'c') {
+            int kept = pendingCount;
+            while ((kept > 0) && (pending[kept - 1] != 'A') && (pending[kept - 1] != 'S') &&
+                                 (pending[kept - 1] != 'Z') && (pending[kept - 1] != 'F') &&
+                                 (pending[kept - 1] != 'X')) {
+                kept--;
+            }
+            cancelledCount += pendingCount - kept;
+            pendingCount = kept;
+
+        }
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+
+        }
+        pending[pendingCount++] = key;
+        if (!isDraining) {
+            isDraining = true;
+            executor.execute(this::drain);
+
+        }
+    }//end of the press Method
+    /**
+     * drain Method - Presses the queued keys on the background thread until the queue is
+     * empty, publishing the display after each group of keys.  When a key fails, as when
+     * the journal has been closed, the keys queued after it are dropped.
+     */
+    private void drain() {
+        while (true) {
+            int count;
+            synchronized (this) {
+                if (pendingCount == 0) {
+                    isDraining = false;
+                    return;
+
+                }
+                if (working.length < pendingCount) {
+                    working = new char[pending.length];
+
+                }
+                System.arraycopy(pending, 0, working, 0, pendingCount);
+                count = pendingCount;
+                pendingCount = 0;
+            }
+            CalculatorMetrics keyMetrics = metrics;
+            try {
+                for (int i = 0; i < count; i++) {
+                    long startNanos = (keyMetrics == null) ? 0 : System.nanoTime();
+                    if (journal == null) {
+                        engine.press(working[i]);
+
+                    } else {
+                        journal.press(working[i]);
+
+                    }
+                    if (keyMetrics != null) {
+                        keyMetrics.getEvaluationLatency().recordSince(startNanos);
+
+                    }
+                }
+            } catch (RuntimeException re) {
+                synchronized (this) {
+                    pendingCount = 0;
+                    isDraining = false;
+                }
+                throw re;
+
+            }
+            keyCount += count;
+            publish(new DisplayState(engine, keyCount));
+        }
+    }//end of the drain Method
+    /**
+     * publish Method - Hands a display to the Event Dispatch Thread, replacing the display
+     * still waiting there, if any, instead of queuing another
+     * @param state - the DisplayState to publish
+     */
+    private void publish(DisplayState state) {
+        if (publication.getAndSet(state) == null) {
+            long postedNanos = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                DisplayState latest = publication.getAndSet(null);
+                if (latest != null) {
+                    listener.displayChanged(latest);
+
+                }
+                CalculatorMetrics eventMetrics = metrics;
+                if (eventMetrics != null) {
+                    eventMetrics.getEventDispatchLatency().recordSince(postedNanos);
+
+                }
+            });
+        }
+    }//end of the publish Method
+    /**
+     * setMetrics Method - Sets the metrics to record the latencies of the keys and of the
+     * publications in.  The metrics are volatile, since they are set on the Event Dispatch
+     * Thread and read on the thread that presses the keys.
+     * @param metrics - the CalculatorMetrics, or null to record nothing
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        this.metrics = metrics;
+
+    }//end of the setMetrics Method
+    /**
+     * getCancelledCount Method - Returns the number of keys the clear key has cancelled
+     * @return long - the number of cancelled keys
+     */
+    public synchronized long getCancelledCount() {
+        return cancelledCount;
+
+    }//end of the getCancelledCount Method
+    /**
+     * close Method - Presses the keys still queued, and stops the background thread
+     * @param timeout - long representing the milliseconds to wait for the keys
+     * @return boolean - false when the keys were not all pressed in time
+     * @throws InterruptedException - when the waiting thread is interrupted
+     */
+    public boolean close(long timeout) throws InterruptedException {
+        synchronized (this) {
+            executor.shutdown();
+        }
+        return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+
+    }//end of the close Method
+}//end of the KeyDispatcher Class
@@ -1,15 +1,33 @@
 
 package calculator;
 
+import calculator.batch.BatchCalculator;
+import calculator.batch.LineEvaluator;
+import calculator.batch.ParallelBatchCalculator;
+import calculator.engine.CalculatorEngine;
+import calculator.engine.HistoryTape;
+import calculator.engine.Operator;
+import calculator.engine.ScientificFunction;
+import calculator.journal.KeystrokeJournal;
+import calculator.metrics.CalculatorMetrics;
+import calculator.server.CalculatorServer;
+import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Container;
+import java.awt.EventQueue;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.GridLayout;
 import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * The SimpleCalculator Class implements a simple calculator.  In addition to performing the
@@ -17,28 +35,95 @@ import java.util.logging.Logger;
  * compute operation of exponents, square roots, inverse of numbers, and percentages.  Error
  * checking is accomplished for all mathematical computations.  The maximum number of digits
  * allowed for one entry is thirteen, and decimals are rounded off to the nearest fifth place.
+ * The operations evaluated are kept on a HistoryTape, shown by a HistoryPanel next to the
+ * keypad, and a number may be kept in the memory with the row of memory buttons above it.
+ * The Sci button in that row shows the scientific keys to the left of the keypad, with a Fast
+ * button that takes the fast path of their functions instead of the strict one.
+ * The keys are pressed on the engine by a KeyDispatcher in a background thread, so a long
+ * evaluation never freezes the window.  The engine is the exact DecimalCalculatorEngine when
+ * the system property LineEvaluator.DECIMAL_PROPERTY is "true", as LineEvaluator.createEngine
+ * describes, for the window as for the batch and server modes.  What the calculator does is
+ * counted in CalculatorMetrics, which are published to JMX once the window is shown.  With the
+ * system property STARTUP_REPORT_PROPERTY set to true, the calculator reports the milliseconds
+ * from the start of the Java virtual machine to the first paint of the window, and exits.
  * @author:  MAbdurrahman
  * @date:  27 February 2016
  * @version:  1.0.0
  */
 public class SimpleCalculator extends javax.swing.JFrame {
     //Instance Variables
-    protected final static int MAX_LENGTH = 13;
-    protected final static int INPUT_MODE = 0;
-    protected final static int RESULT_MODE = 1;
-    protected final static int ERROR_MODE = 2;
+    public final static String STARTUP_REPORT_PROPERTY = "calculator.startup.report";
+    private final static String[] IMAGES = {
+        "/images/plusSign.png", "/images/minusSign.png", "/images/divideSign.png",
+        "/images/multiplySign.png", "/images/squareRootSign.png", "/images/plusMinusSign.png",
+        "/images/equalSign.png", "/images/calculator.png"
+    };
+    private final static String LOOK_AND_FEEL = "javax.swing.plaf.nimbus.NimbusLookAndFeel";
+    private static boolean isReportingStartup = Boolean.getBoolean(STARTUP_REPORT_PROPERTY);
+    protected CalculatorEngine engine;
+    protected KeystrokeJournal journal;
+    protected HistoryPanel historyPanel;
+    protected KeyDispatcher keyDispatcher;
+    protected CalculatorMetrics metrics;
     protected int displayMode;
-    protected boolean isClearForNextDigit;
-    protected double lastNumber;
-    protected String lastOperator;
-    protected NumberFormat numberFormatter;
+    protected boolean isFastFunctions;
+    protected javax.swing.JButton memoryRecallButton;
+    protected javax.swing.JButton memoryClearButton;
+    protected javax.swing.JPanel scientificPanel;
+    protected javax.swing.JToggleButton fastButton;
     
     /**
      * SimpleCalculator Constructor - Creates a new instance of the SimpleCalculator
      */
-    @SuppressWarnings({"OverridableMethodCallInConstructor", "UseSpecificCatch"})
     public SimpleCalculator() {
+        this(null);
+        
+    }//end of the SimpleCalculator Constructor
+    /**
+     * SimpleCalculator Constructor - Creates a new instance of the SimpleCalculator that
+     * continues from the state restored by a KeystrokeJournal, and appends every key to it
+     * @param journal - the KeystrokeJournal of the keys, or null to keep no journal
+     */
+    @SuppressWarnings({"OverridableMethodCallInConstructor", "UseSpecificCatch"})
+    public SimpleCalculator(KeystrokeJournal journal) {
         initComponents();
+        
+        /** The HistoryPanel is placed to the right of the keypad, and the memory buttons above */
+        Container keypad = getContentPane();
+        historyPanel = new HistoryPanel(new HistoryTape());
+        javax.swing.JPanel memoryPanel = new javax.swing.JPanel(new GridLayout(1, 5, 6, 0));
+        memoryClearButton = createKeyButton("MC", "memory clear", 'Z');
+        memoryRecallButton = createKeyButton("MR", "memory recall", 'R');
+        memoryPanel.add(memoryClearButton);
+        memoryPanel.add(memoryRecallButton);
+        memoryPanel.add(createKeyButton("M+", "memory add", 'A'));
+        memoryPanel.add(createKeyButton("M\u2212", "memory subtract", 'S'));
+        javax.swing.JToggleButton scientificButton = new javax.swing.JToggleButton("Sci");
+        styleButton(scientificButton, "scientific keys");
+        scientificButton.addActionListener((ActionEvent ae) -> {
+            showScientificKeys(scientificButton.isSelected());
+            
+        });//end of the Lambda Expression for the scientificButton
+        memoryPanel.add(scientificButton);
+        memoryPanel.setBorder(javax.swing.BorderFactory.createEmptyBorder(11, 11, 0, 0));
+        memoryPanel.setOpaque(false);
+        javax.swing.JPanel contentPane = new javax.swing.JPanel(new BorderLayout()) {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                if (isReportingStartup) {
+                    reportStartup("First paint");
+                    
+                }
+            }
+        };//end of the content pane, which reports its first paint when asked to
+        contentPane.add(memoryPanel, BorderLayout.NORTH);
+        contentPane.add(keypad, BorderLayout.CENTER);
+        contentPane.add(historyPanel, BorderLayout.EAST);
+        contentPane.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 0, 11, 11));
+        setContentPane(contentPane);
+        pack();
+        keypad.setBackground(Color.decode("#3E3F40"));
         getContentPane().setBackground(Color.decode("#3E3F40"));
         setCursor(HAND_CURSOR);
         setLocation(600,200);
@@ -50,11 +135,40 @@ public class SimpleCalculator extends javax.swing.JFrame {
                                             getResource("/images/calculator.png"));
         setIconImage(icon);
        
-        /** Formats the textDisplay results */
-        numberFormatter = new DecimalFormat("###.#####");
+        /** The engine holds the state of the calculator and formats the results */
+        this.journal = journal;
+        engine = (journal == null) ? LineEvaluator.createEngine() : journal.getEngine();
+        engine.setHistoryTape(historyPanel.getTape());
+        metrics = new CalculatorMetrics();
+        engine.setMetrics(metrics);
+        
+        /** This method initializes the display, unless the journal restored the state */
+        if (journal == null) {
+            clearAll();
+            
+        } else {
+            textDisplay.setText(engine.getDisplayText());
+            
+        }
+        displayMode = engine.getDisplayMode();
+        updateMemoryButtons(engine.hasMemory());
+        isFastFunctions = engine.isFastFunctions();
         
-        /** This method initializes the instance variables */
-        clearAll();
+        /** From here on, the engine is only used by the thread of the KeyDispatcher */
+        keyDispatcher = new KeyDispatcher(engine, journal, this::showDisplay);
+        keyDispatcher.setMetrics(metrics);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent we) {
+                try {
+                    keyDispatcher.close(2000);
+                    
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    
+                }
+            }
+        });//end of the WindowAdapter to press the queued keys before the window closes
         
         /** Add the ActionListener to the number buttons */
         zeroButton.addActionListener(new NumberListener());
@@ -69,182 +183,58 @@ public class SimpleCalculator extends javax.swing.JFrame {
         nineButton.addActionListener(new NumberListener());
         
         /** Add the ActionListener to the operator buttons */
-        addButton.addActionListener(new OperatorListener());
-        exponentButton.addActionListener(new OperatorListener());
-        subtractButton.addActionListener(new OperatorListener());
-        multiplyButton.addActionListener(new OperatorListener());
-        divideButton.addActionListener(new OperatorListener());
+        addButton.addActionListener(new OperatorListener(Operator.ADD));
+        exponentButton.addActionListener(new OperatorListener(Operator.EXPONENT));
+        subtractButton.addActionListener(new OperatorListener(Operator.SUBTRACT));
+        multiplyButton.addActionListener(new OperatorListener(Operator.MULTIPLY));
+        divideButton.addActionListener(new OperatorListener(Operator.DIVIDE));
         
         /** Add the ActionListener to the equalButton */
         equalButton.addActionListener((ActionEvent ae) -> {
-            double result;
-                if (displayMode != ERROR_MODE) {
-                    try {
-                        result = processLastOperator();
-                        displayResult(result);
-                    
-                    } catch (DivideByZeroException ex) {
-                        displayError("Undefined ");
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    } catch (NonRealNumberException ex) {   
-                        displayError("Non Real Number ");
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    } catch (InvalidEntryException ex) {
-                        displayError("Invalid Entry ");
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    } catch (Exception ex) {
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    }
-                    lastOperator = "0";
-                    lastNumber = Double.parseDouble(textDisplay.getText());
-                }
-            });//end of the Lambda Expression for the equalButton
+            press('=');
+            
+        });//end of the Lambda Expression for the equalButton
         
         /** Add the ActionListener to the clearButton */
         clearButton.addActionListener((ActionEvent ae) -> {
-            clearAll();
+            press('c');
             
         });//end of the Lambda Expression for the clearButton
         
         /** Add ActionListener to the backspaceButton */
         backspaceButton.addActionListener((ActionEvent ae) -> {
-            if ((textDisplay.getText().contains("U")) || 
-                 (textDisplay.getText().contains("N"))) {
-                textDisplay.setText("0");
-                
-            }
-            if (textDisplay.getText().length() >= 1) {
-                textDisplay.setText(textDisplay.getText().substring(0, textDisplay.getText().length() -1));
-                
-            }
-            if (textDisplay.getText().length() < 1) {
-                textDisplay.setText("0");
-                
-            }
-            if (textDisplay.getText().equals("-")) {
-                textDisplay.setText("0");
-                
-            }
+            press('<');
+            
         });//end of the Lambda Expression for the backspaceButton
         
         /** Add the ActionListener to the plusMinusButton */
         plusMinusButton.addActionListener((ActionEvent ae) -> {
-            if (displayMode == INPUT_MODE) {
-                String input = textDisplay.getText();
-                if ((input.length() > 0) && !(input.equals("0") ||
-                        (input.equals(".0")))) {
-                    if (input.indexOf("-") == 0) {
-                        textDisplay.setText(input.substring(1));
-                        
-                    } else {
-                        textDisplay.setText("-" + input);
-                    }
-                }
-            } else if (displayMode == RESULT_MODE) {
-                double number = Double.parseDouble(textDisplay.getText());
-                if (number != 0) {
-                    displayResult(-number);
-                    
-                }
-            }
+            press('n');
+            
         });//end of the Lambda Expression for the plusMinusButton
         
         /** Add the ActionListener to the decimalButton */
         decimalButton.addActionListener((ActionEvent ae) -> {
-           displayMode = INPUT_MODE;
-           if (isClearForNextDigit) {
-               textDisplay.setText("");
-           }
-           String number = textDisplay.getText();
-           if (number.contains(".")) {//If the number contains a decimal, do not add another one
-               if (isClearForNextDigit) {
-                   textDisplay.setText(number);
-                   isClearForNextDigit = false;
-                   
-               } else {
-                   textDisplay.setText(textDisplay.getText());
-                   
-               }
-           } else {//If the number does not contain a decimal, add one
-               String decimal = ae.getActionCommand();//Get the text from the decimalButton
-               if (isClearForNextDigit) {
-                   textDisplay.setText(decimal);
-                   isClearForNextDigit = false;
-                   
-               } else {
-                   textDisplay.setText(textDisplay.getText() + decimal);
-                   
-               }
-           }
+            press('.');
+            
         });//end of the Lambda Expression to add ActionListener for the decimalButton
         
         /** Add the ActionListener for the percentButton */
         percentButton.addActionListener((ActionEvent ae) -> {
-           if (displayMode != ERROR_MODE) {
-               double result = Double.parseDouble(textDisplay.getText());
-               result = result * (.01);
-               displayResult(result);
-               
-           } 
+            press('%');
+            
         });//end of the Lambda Expression to add ActionListener for the percentButton
         
         /** Add the ActionListener for the inverseButton */
         inverseButton.addActionListener((ActionEvent ae) -> {
-            if (displayMode != ERROR_MODE) {
-                try {
-                    if ((textDisplay.getText().equals("0") ||
-                            (textDisplay.getText().equals("0.0")))) {
-                        displayError("Undefined ");
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    }
-                    double result = Double.parseDouble(textDisplay.getText());
-                    result = 1 / result;
-                    displayResult(result);
-                    
-                } catch (Exception ex) {
-                    displayError("Undefined ");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                    
-                }
-            } 
+            press('i');
+            
         });//end of the Lambda Expression for the inverseButton
         
         /** Add the ActionListener to the squareRootButton */
         squareRootButton.addActionListener((ActionEvent ae) -> {
-            if (displayMode != ERROR_MODE) {
-                try {
-                    if (!lastOperator.equals("0")) {
-                        processEqualOperation();
-                          
-                    }
-                    if (textDisplay.getText().indexOf("-") == 0) {
-                        displayError("Non Real Number ");
-                        displayMode = ERROR_MODE;
-                        Toolkit.getDefaultToolkit().beep();
-                        
-                    }
-                    double result = Double.parseDouble(textDisplay.getText());
-                    result = Math.sqrt(result);
-                    displayResult(result);
-                    
-                } catch (Exception ex) {
-                    displayError("Non Real Number ");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                    
-                }
-            }
+            press('r');
+            
         });//end of the Lambda Expression for the squareRootButton
     }//end of the SimpleCalculator Constructor
     /**
@@ -564,218 +554,134 @@ public class SimpleCalculator extends javax.swing.JFrame {
      * clearAll Method - Clears all and resets the calculator to the original initialization
      */
     private void clearAll() {
-        textDisplay.setText("0");
-        lastOperator = "0";
-        lastNumber = 0;
-        displayMode = INPUT_MODE;
-        isClearForNextDigit = true;
+        engine.clearAll();
+        textDisplay.setText(engine.getDisplayText());
         
     }//end of the clearAll Method
     /**
-     * addNextDigitToDisplay Method - Adds the next digit to the display
-     * @param nextDigit - integer representing the next digit
+     * press Method - Queues a key to be pressed on the engine, through the journal when there
+     * is one, by the KeyDispatcher, which calls showDisplay once the key has been pressed
+     * @param key - a char naming the key, as CalculatorEngine.press names them
      */
-    protected void addNextDigitToDisplay(int nextDigit) {
-        if (isClearForNextDigit) {
-            textDisplay.setText("");
-            
-        }
-        String inputDigit = textDisplay.getText();
-                
-        if (inputDigit.indexOf("0") == 0) {
-            inputDigit = inputDigit.substring(1);
-            
-        }  
-        if ((!inputDigit.equals("0") || nextDigit >= 0) 
-                                && inputDigit.length() < MAX_LENGTH) {
-            textDisplay.setText(inputDigit + nextDigit);
-            
-        }
-        displayMode = INPUT_MODE;
-        isClearForNextDigit = false;
+    protected void press(char key) {
+        keyDispatcher.press(key);
         
-    }//end of the addNextDigitToDisplay Method
+    }//end of the press Method
     /**
-     * processOperator Method - Processes the operator by calling processLastOperator
-     * method
-     * @param operator - String representing the operator
-     * @throws DivideByZeroException
-     * @throws NonRealNumberException
-     * @throws InvalidEntryException
-     * @throws Exception
+     * showDisplay Method - Repaints the display, the memory buttons, the Fast button, and the
+     * history after the keys pressed by the KeyDispatcher
+     * @param state - the DisplayState of the engine after the last of the keys
      */
-    @SuppressWarnings("UseSpecificCatch")
-    protected void processOperator(String operator) throws DivideByZeroException,
-                                                           NonRealNumberException,
-                                                           InvalidEntryException,
-                                                           Exception {
-        if (displayMode != ERROR_MODE) {
-            double number = Double.parseDouble(textDisplay.getText());
-            
-            if (!lastOperator.equals("0")) {
-                try {
-                    double result = processLastOperator();
-                    displayResult(result);
-                    lastNumber = result;
-                    
-                } catch(DivideByZeroException ex) {
-                    displayError("Undefined");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                   
-                } catch(NonRealNumberException ex) {
-                    displayError("Non Real Number ");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                    
-                } catch (InvalidEntryException ex) {
-                    displayError("Invalid Entry ");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                    
-                } catch(Exception ex) {
-                    displayError("Number Format ");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                }
-                   
-            } else {
-                lastNumber = number;
-            }
-            isClearForNextDigit = true;
-            lastOperator = operator;
-        }
-    }//end of the processOperator Method
+    protected void showDisplay(KeyDispatcher.DisplayState state) {
+        int previousMode = displayMode;
+        displayMode = state.getDisplayMode();
+        updateDisplay(state.getDisplayText(), previousMode);
+        updateMemoryButtons(state.hasMemory());
+        updateFastButton(state.isFastFunctions());
+        historyPanel.update();
+        
+    }//end of the showDisplay Method
     /**
-     * displayError Method - Displays the appropriate error message
-     * @param message - String representing the error message
+     * createKeyButton Method - Creates the button of a memory or a scientific key, styled like
+     * the operator buttons
+     * @param text - String representing the text of the button
+     * @param toolTip - String representing the tool tip of the button
+     * @param key - a char naming the key the button presses
+     * @return JButton - the button of the key
      */
-    protected void displayError(String message) {
-        textDisplay.setText(message);
-        lastNumber = 0;
-        displayMode = ERROR_MODE;
-        isClearForNextDigit = true;
+    private javax.swing.JButton createKeyButton(String text, String toolTip, char key) {
+        javax.swing.JButton button = new javax.swing.JButton(text);
+        styleButton(button, toolTip);
+        button.addActionListener((ActionEvent ae) -> {
+            press(key);
+            
+        });//end of the Lambda Expression for the key button
+        return button;
         
-    }//end of the displayError Method
+    }//end of the createKeyButton Method
     /**
-     * displayResult Method - Displays the result in the number format
-     * @param result - double representing the result
+     * styleButton Method - Styles a button like the operator buttons
+     * @param button - the AbstractButton to style
+     * @param toolTip - String representing the tool tip of the button
      */
-    protected void displayResult(double result) {
-        String answer = numberFormatter.format(result);
-        textDisplay.setText(answer);
-        lastNumber = result;
-        displayMode = RESULT_MODE;
-        isClearForNextDigit = true;
+    private static void styleButton(javax.swing.AbstractButton button, String toolTip) {
+        button.setBackground(new java.awt.Color(51, 51, 51));
+        button.setFont(new java.awt.Font("Bookman Old Style", 1, 12)); // NOI18N
+        button.setToolTipText(toolTip);
         
-    }//end of the displayResult Method
+    }//end of the styleButton Method
     /**
-     * processLastOperator Method - Performs the operations of addition, subtraction, multiplication,
-     * division, and exponents.
-     * @return result - a double representing the result
-     * @throws DivideByZeroException
-     * @throws InvalidEntryException
-     * @throws NonRealNumberException
+     * showScientificKeys Method - Shows or hides the scientific keys to the left of the keypad,
+     * creating them the first time they are shown, so the window starts without them
+     * @param isShown - boolean representing whether the keys are shown
      */
-    @SuppressWarnings("IncompatibleEquals")
-    protected double processLastOperator() throws InvalidEntryException,
-                                                  DivideByZeroException,
-                                                  NonRealNumberException {
-        double result = 0;
-        double number = Double.parseDouble(textDisplay.getText());
-        
-        if (lastOperator.equals("+")) {
-            if ((textDisplay.equals(".") || (textDisplay.equals(" ")))) {
-                throw (new InvalidEntryException("Invalid Entry "));
-            }
-            result = lastNumber + number;
-            
-        }
-        if (lastOperator.equals("-")) {
-            if ((textDisplay.equals(".") || (textDisplay.equals(" ")))) {
-                throw (new InvalidEntryException("Invalid Entry "));
+    protected void showScientificKeys(boolean isShown) {
+        if (scientificPanel == null) {
+            scientificPanel = new javax.swing.JPanel(new GridLayout(0, 2, 6, 6));
+            for (ScientificFunction function : ScientificFunction.values()) {
+                String text = (function == ScientificFunction.FACTORIAL) ? "n!" :
+                                                                           function.getName();
+                scientificPanel.add(createKeyButton(text, function.getName(),
+                                                    function.getKey()));
             }
-            result = lastNumber - number;
-            
-        }
-        if (lastOperator.equals("*")) {
-            if ((textDisplay.equals(".") || (textDisplay.equals(" ")))) {
-                throw (new InvalidEntryException("Invalid Entry "));
-            }
-            result = lastNumber * number;
-            
-        }
-        if (lastOperator.equals("^")) {
-            if ((lastNumber < 0) && (textDisplay.getText().contains("."))) {
-                throw (new NonRealNumberException("Non Real Number"));
+            scientificPanel.add(createKeyButton("nCr", "combinations",
+                                                Operator.COMBINATIONS.getSymbol()));
+            scientificPanel.add(createKeyButton("nPr", "permutations",
+                                                Operator.PERMUTATIONS.getSymbol()));
+            fastButton = new javax.swing.JToggleButton("Fast");
+            styleButton(fastButton, "fast functions, within a few units in the last place");
+            fastButton.setSelected(isFastFunctions);
+            fastButton.addActionListener((ActionEvent ae) -> {
+                press(fastButton.isSelected() ? 'F' : 'X');
                 
-            }
-            if ((textDisplay.equals(".") || (textDisplay.equals(" ")))) {
-                throw (new InvalidEntryException("Invalid Entry "));
-            }
+            });//end of the Lambda Expression for the fastButton
+            scientificPanel.add(fastButton);
+            scientificPanel.setBorder(javax.swing.BorderFactory.createEmptyBorder(11, 11, 0, 0));
+            scientificPanel.setOpaque(false);
+            getContentPane().add(scientificPanel, BorderLayout.WEST);
             
-            result = processExponent(lastNumber, number);
-                
         }
-        if (lastOperator.equals("/")) {
-            if (number == 0) {
-                throw (new DivideByZeroException("Undefined "));
-            }
-            if ((textDisplay.equals(".") || (textDisplay.equals(" ")))) {
-                throw (new InvalidEntryException("Invalid Entry "));
-            }
-            result = lastNumber / number;
-            
-        }
-        return result;
+        scientificPanel.setVisible(isShown);
+        pack();
         
-    }//end of the processLastOperator Method
+    }//end of the showScientificKeys Method
     /**
-     * processExponent Method - Performs the exponent operations
-     * @param base - a double representing the base number
-     * @param exponent - a double representing the exponent number
-     * @return double - Returns the first number raised to the second number as a
-     * double
+     * updateFastButton Method - Selects the Fast button when the engine takes the fast path of
+     * the scientific functions, as the KeyDispatcher last published it, so the button never
+     * reads the engine on the Event Dispatch Thread
+     * @param isFastFunctions - boolean representing whether the fast path is selected
      */
-    protected Double processExponent(double base, double exponent) {
-        return Math.pow(base, exponent);
-    
-    }//end of the processExponent Method
+    protected void updateFastButton(boolean isFastFunctions) {
+        this.isFastFunctions = isFastFunctions;
+        if (fastButton != null) {
+            fastButton.setSelected(isFastFunctions);
+
+        }
+    }//end of the updateFastButton Method
     /**
-     * processEqualOperation Method - Process the equal operation
+     * updateMemoryButtons Method - Enables the buttons that read the memory only when a number
+     * is kept in it
+     * @param hasMemory - boolean representing whether the memory holds a number
      */
-    @SuppressWarnings("UseSpecificCatch")
-    protected void processEqualOperation() {
-        double result;
-        if (displayMode != ERROR_MODE) {
-            try {
-                result = processLastOperator();
-                displayResult(result);
-
-            } catch (DivideByZeroException ex) {
-                displayError("Undefined ");
-                displayMode = ERROR_MODE;
-                Toolkit.getDefaultToolkit().beep();
-
-            } catch (NonRealNumberException ex) {   
-                displayError("Non Real Number ");
-                displayMode = ERROR_MODE;
-                Toolkit.getDefaultToolkit().beep();
-
-            } catch (InvalidEntryException ex) {
-                displayError("Invalid Entry ");
-                displayMode = ERROR_MODE;
-                Toolkit.getDefaultToolkit().beep();
-
-            } catch (Exception ex) {
-                displayMode = ERROR_MODE;
-                Toolkit.getDefaultToolkit().beep();
-
-            }
-            lastOperator = "0";
-            lastNumber = Double.parseDouble(textDisplay.getText());
+    protected void updateMemoryButtons(boolean hasMemory) {
+        memoryRecallButton.setEnabled(hasMemory);
+        memoryClearButton.setEnabled(hasMemory);
+        
+    }//end of the updateMemoryButtons Method
+    /**
+     * updateDisplay Method - Repaints the textDisplay, and beeps when the last event put the
+     * engine into the ERROR_MODE
+     * @param displayText - String representing the text of the display
+     * @param previousMode - integer representing the display mode before the event
+     */
+    protected void updateDisplay(String displayText, int previousMode) {
+        textDisplay.setText(displayText);
+        if ((displayMode == CalculatorEngine.ERROR_MODE) && 
+                (previousMode != CalculatorEngine.ERROR_MODE)) {
+            Toolkit.getDefaultToolkit().beep();
+            
         }
-    }//end of the processEqualOperation Method 
+    }//end of the updateDisplay Method
     /**
      * NumberListener Class implements the ActionListener to respond to the events of the
      * the number buttons.
@@ -788,52 +694,27 @@ public class SimpleCalculator extends javax.swing.JFrame {
          */
         @Override
         public void actionPerformed(ActionEvent ae) {
-            int digit = Integer.parseInt(ae.getActionCommand());
+            press(ae.getActionCommand().charAt(0));
             
-            switch (digit) {
-                case 0:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 1:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 2:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 3:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 4:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 5:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 6:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 7:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 8:
-                    addNextDigitToDisplay(digit);
-                    break;
-                case 9:
-                    addNextDigitToDisplay(digit);
-                    break;
-                default:
-                    textDisplay.setText("ERROR");
-                    displayMode = ERROR_MODE;
-                    Toolkit.getDefaultToolkit().beep();
-                    
-            }
         }//end of the actionPerformed Method for the NumberListener Class
     }//end of the NumberListener Class
     /**
      * OperatorListener Class implements the ActionListener to respond to the events of the
-     * operant buttons
+     * operant buttons.  Each instance is bound to the Operator of its button, so no action
+     * command has to be compared when the button is clicked.
      */
     class OperatorListener implements ActionListener {
+        //Instance Variables
+        private final Operator operator;
+        
+        /**
+         * OperatorListener Constructor - Creates an OperatorListener for one operator
+         * @param operator - the Operator of the button
+         */
+        OperatorListener(Operator operator) {
+            this.operator = operator;
+            
+        }//end of the OperatorListener Constructor
         /**
          * actionPerformed Method - Overrides the actionPerformed Method of the ActionListener
          * Interface, and redefines it to responds to the events of the following operant buttons:
@@ -842,146 +723,112 @@ public class SimpleCalculator extends javax.swing.JFrame {
          */
         @Override
         public void actionPerformed(ActionEvent ae) {
-            try {
-                String operator = ae.getActionCommand();
-                switch (operator) {
-                    case "+":
-                        processOperator(operator);
-                        break;
-                    case "-":
-                        processOperator(operator);
-                        break;
-                    case "*":
-                        processOperator(operator);
-                        break;
-                    case "/":
-                        processOperator(operator);
-                        break;
-                    case "^":
-                        processOperator(operator);
-                        break;
-                    default:
-                        textDisplay.setText("Invalid Operator");
-                        Toolkit.getDefaultToolkit().beep();
-                }
-            } catch (DivideByZeroException ex) {
-                try {
-                    throw new DivideByZeroException();
-                    
-                } catch (DivideByZeroException ex1) {
-                    Logger.getLogger(SimpleCalculator.class.getName()).log(Level.SEVERE, null, ex1);
-                    Toolkit.getDefaultToolkit().beep();
-                }
-            } catch (NonRealNumberException ex) {
-                try {
-                    throw new NonRealNumberException();
-                    
-                } catch (NonRealNumberException ex1) {
-                    Logger.getLogger(SimpleCalculator.class.getName()).log(Level.SEVERE, null, ex1);
-                    Toolkit.getDefaultToolkit().beep();
-                }
-                
-            } catch (InvalidEntryException ex) {
-                try {
-                    throw new InvalidEntryException();
-                    
-                } catch (InvalidEntryException ex1) {
-                   Logger.getLogger(SimpleCalculator.class.getName()).log(Level.SEVERE, null, ex1);
-                   Toolkit.getDefaultToolkit().beep();
-                    
-                } 
-            } catch (Exception ex) {
-                Logger.getLogger(SimpleCalculator.class.getName()).log(Level.SEVERE, null, ex);
-                Toolkit.getDefaultToolkit().beep();
-                
-            }
+            press(operator.getSymbol());
+            
         }//end of the actionPerformed Method for the OperatorListener Class
     }//end of the OperatorListener Class
     /**
-     * DivideByZeroException Class - Custom exception for dividing by zero
+     * registerMetrics Method - Publishes the metrics to JMX on a background thread, so loading
+     * the management classes does not delay the window
      */
-    class DivideByZeroException extends Exception {
-        /**
-         * Default DivideByZeroException Constructor - Creates an instance of the DivideByZeroException
-         * with no parameter.
-         */
-        public DivideByZeroException() {
-            super("Undefined ");
-            
-        }//end of Default DivideByZeroException Constructor
-        /**
-         * DivideByZeroException Constructor - Creates an instance of the DivideByZeroException with
-         * one parameter.
-         * @param message - a String representing the message
-         */
-        public DivideByZeroException(String message) {
-            super(message);
-            
-        }//end of the DivideByZeroException Constructor
-    }//end of the DivideByZeroException Class
+    protected void registerMetrics() {
+        Thread thread = new Thread(() -> {
+            try {
+                metrics.register();
+                
+            } catch (javax.management.JMException jme) {
+                java.util.logging.Logger.getLogger(SimpleCalculator.class.getName()).
+                                        log(java.util.logging.Level.WARNING, null, jme);
+                
+            }
+        }, "calculator-metrics");
+        thread.setDaemon(true);
+        thread.start();
+        
+    }//end of the registerMetrics Method
     /**
-     * NonRealNumberException Class - Custom exception for taking square root of a negative 
-     * number
+     * preloadImages Method - Starts decoding the images of the window on the background
+     * threads of the Toolkit, which caches them, so the icons created by initComponents find
+     * them decoded, instead of decoding them one after the other
      */
-    class NonRealNumberException extends Exception {
-        /**
-         * Default NonRealNumberException Constructor - Creates an instance of NonRealNumberException
-         * with no parameter.
-         */
-        public NonRealNumberException() {
-            super("Non Real Number ");
-            
-        }//end of Default NonRealNumberException Constructor
-        /**
-         * NonRealNumberException Constructor - Creates an instance of NonRealNumberException with one
-         * parameter.
-         * @param message - a String representing the message
-         */
-        public NonRealNumberException(String message) {
-            super(message);
-            
-        }//end of the NonRealNumberException Constructor
-    }//end of the NonRealNumberException Class
+    private static void preloadImages() {
+        Toolkit toolkit = Toolkit.getDefaultToolkit();
+        for (String name : IMAGES) {
+            toolkit.prepareImage(toolkit.getImage(SimpleCalculator.class.getResource(name)),
+                                 -1, -1, null);
+        }
+    }//end of the preloadImages Method
     /**
-     * InvalidEntryException Class - Custom exception for invalid entries
+     * reportStartup Method - Prints the milliseconds since the start of the Java virtual
+     * machine, and exits
+     * @param event - String representing the event reached
      */
-    class InvalidEntryException extends Exception {
-        /**
-         * Default InvalidEntryException Constructor - Creates an instance of the InvalidEntryException
-         * with no parameter.
-         */
-        public InvalidEntryException() {
-            super("Invalid Entry ");
-            
-        }//end of the Default InvalidEntryException Constructor
-        /**
-         * InvalidEntryException Constructor - Creates an instance of the InvalidEntryException with
-         * one parameter
-         * @param message - a String representing the message
-         */
-        public InvalidEntryException(String message) {
-            super(message);
-            
-        }//end of the InValidEntryException Constructor
-    }//end of the InValidEntryException Class
+    private static void reportStartup(String event) {
+        isReportingStartup = false;
+        System.out.println(event + " after " +
+                           ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+        System.exit(0);
+        
+    }//end of the reportStartup Method
     /**
-     * main Method - Contains the command line arguments
+     * main Method - Contains the command line arguments.  With the first argument "--batch"
+     * the expressions of the file named by the next argument, or of the standard input, are
+     * evaluated by the BatchCalculator without opening the window, and with the first argument
+     * "--parallel" the expressions of a large file are evaluated on all the cores by the
+     * ParallelBatchCalculator.  With the first argument "--serve" the CalculatorServer answers
+     * expressions over TCP and HTTP on the port given by the next argument.  With the first
+     * argument "--journal" the window keeps a KeystrokeJournal in the file named by the next
+     * argument, and continues from the state it restores.
      * @param args - a String[] representing the command line arguments
      */
     public static void main(String args[]) {
+        if ((args.length > 0) && args[0].equals("--batch")) {
+            BatchCalculator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+            
+        } else if ((args.length > 0) && args[0].equals("--parallel")) {
+            ParallelBatchCalculator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+            
+        } else if ((args.length > 0) && args[0].equals("--serve")) {
+            CalculatorServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+            
+        }
+        preloadImages();
+        KeystrokeJournal keystrokeJournal = null;
+        if ((args.length > 1) && args[0].equals("--journal")) {
+            try {
+                keystrokeJournal = new KeystrokeJournal(Paths.get(args[1]),
+                                                        LineEvaluator.createEngine());
+                
+            } catch (IOException ioe) {
+                System.err.println("The journal " + args[1] + " cannot be opened: " + ioe);
+                System.exit(1);
+                
+            }
+            final KeystrokeJournal closingJournal = keystrokeJournal;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    closingJournal.close();
+                    
+                } catch (IOException ioe) {
+                    System.err.println("The journal cannot be written: " + ioe);
+                    
+                }
+            }));
+        }
         /* Set the Nimbus look and feel */
         
         //<editor-fold defaultstate="collapsed" desc=" Look and feel setting code (optional) ">
         /* If Nimbus (introduced in Java SE 6) is not available, stay with the default look and feel.
+         * Nimbus is set by its class name, since listing the installed look and feels first
+         * initializes the default look and feel, only to replace it.
          * For details see http://download.oracle.com/javase/tutorial/uiswing/lookandfeel/plaf.html 
          */
         try {
-            for (javax.swing.UIManager.LookAndFeelInfo info : javax.swing.UIManager.getInstalledLookAndFeels()) {
-                if ("Nimbus".equals(info.getName())) {
-                    javax.swing.UIManager.setLookAndFeel(info.getClassName());
-                    break;
-                }
-            }
+            javax.swing.UIManager.setLookAndFeel(LOOK_AND_FEEL);
+            
         } catch (ClassNotFoundException | 
                  InstantiationException |  
                  IllegalAccessException | 
@@ -990,10 +837,17 @@ public class SimpleCalculator extends javax.swing.JFrame {
                                     log(java.util.logging.Level.SEVERE, null, ex);
         }
         //</editor-fold>
+        if (isReportingStartup && GraphicsEnvironment.isHeadless()) {
+            reportStartup("Ready without a display");
+            
+        }
         
         /** Create and display the SimpleCalculator */
-        java.awt.EventQueue.invokeLater(() -> {
-            new SimpleCalculator().setVisible(true);
+        final KeystrokeJournal journal = keystrokeJournal;
+        EventQueue.invokeLater(() -> {
+            SimpleCalculator calculator = new SimpleCalculator(journal);
+            calculator.setVisible(true);
+            calculator.registerMetrics();
         });
     }//end of the main Method
 
@@ -0,0 +1,95 @@
+
+package calculator.batch;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * The Accumulators Class holds named running totals that many threads add into at once, such
+ * as the workers of a ParallelBatchCalculator summing their results.  Each total is a
+ * DoubleAdder, which spreads the additions of contending threads over cells of its own and
+ * only adds the cells up when the sum is read, so hundreds of millions of additions from all
+ * the cores do not contend on a lock or on a single compare and swap.  A worker in a hot loop
+ * should look up its DoubleAdder once, and add into it directly.  The sums of a DoubleAdder
+ * are exact when no thread adds during the read, but the additions of different threads may
+ * be rounded in a different order from run to run.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class Accumulators {
+    //Instance Variables
+    private final ConcurrentHashMap<String, DoubleAdder> adders;
+
+    /**
+     * Accumulators Constructor - Creates Accumulators without any totals
+     */
+    public Accumulators() {
+        adders = new ConcurrentHashMap<>();
+
+    }//end of the Accumulators Constructor
+    /**
+     * get Method - Returns the total of a name, creating it at zero when there is none
+     * @param name - String representing the name of the total
+     * @return DoubleAdder - the total
+     */
+    public DoubleAdder get(String name) {
+        DoubleAdder adder = adders.get(name);
+        if (adder == null) {
+            adder = adders.computeIfAbsent(name, key -> new DoubleAdder());
+
+        }
+        return adder;
+
+    }//end of the get Method
+    /**
+     * add Method - Adds a number to the total of a name
+     * @param name - String representing the name of the total
+     * @param number - double representing the number to add
+     */
+    public void add(String name, double number) {
+        get(name).add(number);
+
+    }//end of the add Method
+    /**
+     * sum Method - Returns the total of a name
+     * @param name - String representing the name of the total
+     * @return double - the total, or zero when there is none
+     */
+    public double sum(String name) {
+        DoubleAdder adder = adders.get(name);
+        return (adder == null) ? 0 : adder.sum();
+
+    }//end of the sum Method
+    /**
+     * sumThenReset Method - Returns the total of a name, and sets it to zero
+     * @param name - String representing the name of the total
+     * @return double - the total, or zero when there is none
+     */
+    public double sumThenReset(String name) {
+        DoubleAdder adder = adders.get(name);
+        return (adder == null) ? 0 : adder.sumThenReset();
+
+    }//end of the sumThenReset Method
+    /**
+     * remove Method - Removes the total of a name
+     * @param name - String representing the name of the total
+     * @return boolean - false when there was no total of the name
+     */
+    public boolean remove(String name) {
+        return adders.remove(name) != null;
+
+    }//end of the remove Method
+    /**
+     * sums Method - Returns the totals of every name
+     * @return Map - the totals by name, in the order of the names
+     */
+    public Map<String, Double> sums() {
+        Map<String, Double> sums = new TreeMap<>();
+        adders.forEach((name, adder) -> sums.put(name, adder.sum()));
+        return sums;
+
+    }//end of the sums Method
+}//end of the Accumulators Class
@@ -0,0 +1,173 @@
+
+package calculator.batch;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The BatchCalculator Class evaluates a stream of expressions, one per line, and writes the
+ * result of each line to its own line of the output, in the order of the input.  The input is
+ * read in blocks into a fixed buffer and the results are collected in a fixed buffer before
+ * they are written, so the memory used does not depend on the size of the input.  A line
+ * longer than the input buffer is not evaluated, and gives "Invalid Entry".  The lines are
+ * evaluated by a LineEvaluator, so a line gives the same result as the same keys pressed on
+ * the keypad of the SimpleCalculator, and its scientific functions take the fast path when the
+ * system property LineEvaluator.FAST_FUNCTIONS_PROPERTY is "true".  The lines are computed
+ * exactly in decimal when LineEvaluator.DECIMAL_PROPERTY is "true".
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class BatchCalculator {
+    //Instance Variables
+    public final static int BUFFER_SIZE = 1 << 16;
+    private final static byte[] INVALID_ENTRY = "Invalid Entry\n".getBytes();
+    private final LineEvaluator evaluator;
+    private final byte[] inputBytes;
+    private final ByteBuffer inputBuffer;
+    private final byte[] outputBytes;
+    private final ByteBuffer outputBuffer;
+
+    /**
+     * BatchCalculator Constructor - Creates a BatchCalculator with its own buffers
+     */
+    public BatchCalculator() {
+        evaluator = new LineEvaluator();
+        inputBytes = new byte[BUFFER_SIZE];
+        inputBuffer = ByteBuffer.wrap(inputBytes);
+        outputBytes = new byte[BUFFER_SIZE];
+        outputBuffer = ByteBuffer.wrap(outputBytes);
+
+    }//end of the BatchCalculator Constructor
+    /**
+     * evaluate Method - Evaluates every line of the input and writes the results to the output
+     * @param input - the InputStream to read the lines from
+     * @param output - the OutputStream to write the results to, which is flushed at the end
+     * @return long - the number of lines evaluated
+     * @throws IOException - when the input cannot be read or the output cannot be written
+     */
+    public long evaluate(InputStream input, OutputStream output) throws IOException {
+        long lineCount = 0;
+        boolean isSkippingLine = false;
+        int filled = 0;
+        int read;
+
+        while ((read = input.read(inputBytes, filled, BUFFER_SIZE - filled)) >= 0) {
+            int lineStart = 0;
+            int scanned = filled;
+            filled += read;
+
+            for (int i = scanned; i < filled; i++) {
+                if (inputBytes[i] == '\n') {
+                    if (isSkippingLine) {
+                        writeBytes(INVALID_ENTRY, output);
+                        isSkippingLine = false;
+
+                    } else {
+                        evaluateLine(lineStart, i, output);
+
+                    }
+                    lineCount++;
+                    lineStart = i + 1;
+
+                }
+            }
+            if ((lineStart == 0) && (filled == BUFFER_SIZE)) {
+                isSkippingLine = true;
+                filled = 0;
+
+            } else {
+                System.arraycopy(inputBytes, lineStart, inputBytes, 0, filled - lineStart);
+                filled -= lineStart;
+
+            }
+        }
+        if (isSkippingLine) {
+            writeBytes(INVALID_ENTRY, output);
+            lineCount++;
+
+        } else if (filled > 0) {
+            evaluateLine(0, filled, output);
+            lineCount++;
+
+        }
+        output.write(outputBytes, 0, outputBuffer.position());
+        outputBuffer.clear();
+        output.flush();
+        return lineCount;
+
+    }//end of the evaluate Method
+    /**
+     * evaluateLine Method - Evaluates a line of the input buffer into the output buffer, and
+     * writes the output buffer when it might not hold the next result
+     * @param start - integer representing the index of the first byte of the line
+     * @param end - integer representing the index after the last byte of the line
+     * @param output - the OutputStream to write the results to
+     * @throws IOException - when the output cannot be written
+     */
+    private void evaluateLine(int start, int end, OutputStream output) throws IOException {
+        evaluator.evaluate(inputBuffer, start, end, outputBuffer);
+        if (outputBuffer.remaining() < LineEvaluator.MAX_RESULT_LENGTH) {
+            output.write(outputBytes, 0, outputBuffer.position());
+            outputBuffer.clear();
+
+        }
+    }//end of the evaluateLine Method
+    /**
+     * writeBytes Method - Puts bytes into the output buffer, and writes the output buffer when
+     * it might not hold the next result
+     * @param bytes - the byte[] to put
+     * @param output - the OutputStream to write the results to
+     * @throws IOException - when the output cannot be written
+     */
+    private void writeBytes(byte[] bytes, OutputStream output) throws IOException {
+        outputBuffer.put(bytes);
+        if (outputBuffer.remaining() < LineEvaluator.MAX_RESULT_LENGTH) {
+            output.write(outputBytes, 0, outputBuffer.position());
+            outputBuffer.clear();
+
+        }
+    }//end of the writeBytes Method
+    /**
+     * getErrorCount Method - Returns the number of lines that gave an error, not counting the
+     * lines too long to be evaluated
+     * @return long - the number of errors
+     */
+    public long getErrorCount() {
+        return evaluator.getErrorCount();
+
+    }//end of the getErrorCount Method
+    /**
+     * setFastFunctions Method - Selects the fast or the strict path of the scientific functions
+     * of the lines
+     * @param isFastFunctions - boolean representing whether the fast path is taken
+     */
+    public void setFastFunctions(boolean isFastFunctions) {
+        evaluator.setFastFunctions(isFastFunctions);
+
+    }//end of the setFastFunctions Method
+    /**
+     * main Method - Contains the command line arguments.  The expressions are read from the file
+     * named by the first argument, or from the standard input when there is no argument or the
+     * argument is "-", and the results are written to the standard output.
+     * @param args - a String[] representing the command line arguments
+     */
+    public static void main(String[] args) {
+        boolean isStandardInput = (args.length == 0) || args[0].equals("-");
+        OutputStream output = new FileOutputStream(FileDescriptor.out);
+
+        try (InputStream input = isStandardInput ? System.in : new FileInputStream(args[0])) {
+            new BatchCalculator().evaluate(input, output);
+
+        } catch (IOException ioe) {
+            System.err.println("BatchCalculator: " + ioe.getMessage());
+            System.exit(1);
+
+        }
+    }//end of the main Method
+}//end of the BatchCalculator Class
@@ -0,0 +1,422 @@
+
+package calculator.batch;
+
+import calculator.engine.CalculatorEngine;
+import calculator.engine.DecimalArithmetic;
+import calculator.engine.DecimalCalculatorEngine;
+import calculator.engine.ErrorCode;
+import calculator.engine.Operator;
+import calculator.engine.ScientificFunction;
+import calculator.metrics.CalculatorMetrics;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * The LineEvaluator Class evaluates one line of a batch input by pressing the keys of a
+ * CalculatorEngine, so a line gives the same result as the same keys pressed on the keypad.  A
+ * line holds numbers and operators separated by optional blanks, for example "12.5 + 7 * 3" or
+ * "81 sqrt".  A number may be preceded by a minus sign, and may have at most MAX_LENGTH
+ * characters.  The binary operators are +, -, *, / and ^, and the operators that act on the
+ * number before them are % (percent), sqrt (square root), 1/x (inverse), ± or neg (change
+ * sign), and the names of the ScientificFunctions, such as sin, ln, and fact, while nCr and
+ * nPr count combinations and permutations like binary operators.  The functions take the strict
+ * path unless setFastFunctions selects the fast one, or the system property
+ * FAST_FUNCTIONS_PROPERTY is "true" when the evaluator is created.  The engine is the exact
+ * DecimalCalculatorEngine when the system property DECIMAL_PROPERTY is "true", as createEngine
+ * describes, and the double CalculatorEngine otherwise.  As on the keypad the
+ * operators are executed from left to right as they are entered, and the pending operation is
+ * completed at the end of the line.  The result is written as the display shows it, or as one
+ * of the errors "Undefined", "Non Real Number" and "Invalid Entry", where a line that cannot
+ * be read is an invalid entry.  A blank line gives a blank line.  The bytes of the line are read
+ * in place, so a line is evaluated without allocation.  A LineEvaluator is not thread safe;
+ * each thread needs its own, but the evaluators of many threads may add the results of their
+ * lines into the same DoubleAdder, and count their operations, errors, and latencies in the
+ * same CalculatorMetrics.  Only the latency of every LATENCY_SAMPLE_INTERVAL line is recorded,
+ * since reading the clock twice would cost a good part of the evaluation of a line.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class LineEvaluator {
+    //Instance Variables
+    /** The most bytes written for one line: the UTF-8 text of the display and the newline. */
+    public final static int MAX_RESULT_LENGTH = 3 * CalculatorEngine.MAX_DISPLAY_LENGTH + 1;
+    public final static int LATENCY_SAMPLE_INTERVAL = 8;
+    public final static String FAST_FUNCTIONS_PROPERTY = "calculator.fast.functions";
+    public final static String DECIMAL_PROPERTY = "calculator.decimal";
+    public final static String DECIMAL_SCALE_PROPERTY = "calculator.decimal.scale";
+    public final static String DECIMAL_ROUNDING_PROPERTY = "calculator.decimal.rounding";
+    private final static byte[] SQUARE_ROOT = {'s', 'q', 'r', 't'};
+    private final static byte[] INVERSE = {'1', '/', 'x'};
+    private final static byte[] CHANGE_SIGN = {(byte) 0xC2, (byte) 0xB1};
+    private final static byte[] NEGATE = {'n', 'e', 'g'};
+    private final static byte[] COMBINATIONS = {'n', 'C', 'r'};
+    private final static byte[] PERMUTATIONS = {'n', 'P', 'r'};
+    private final static ScientificFunction[] FUNCTIONS = ScientificFunction.values();
+    private final static byte[][] FUNCTION_NAMES = new byte[FUNCTIONS.length][];
+    private final static char[] INVALID_ENTRY = "Invalid Entry".toCharArray();
+    private final CalculatorEngine engine;
+    private final char[] text;
+    private long lineCount;
+    private long errorCount;
+    private DoubleAdder accumulator;
+    private CalculatorMetrics metrics;
+
+    static {
+        for (int i = 0; i < FUNCTIONS.length; i++) {
+            String name = FUNCTIONS[i].getName();
+            FUNCTION_NAMES[i] = new byte[name.length()];
+            for (int j = 0; j < name.length(); j++) {
+                FUNCTION_NAMES[i][j] = (byte) name.charAt(j);
+            }
+        }
+    }
+
+    /**
+     * LineEvaluator Constructor - Creates a LineEvaluator with its own engine, of the mode the
+     * system properties select
+     * @throws IllegalArgumentException - when the decimal scale or rounding is not valid
+     */
+    public LineEvaluator() {
+        engine = createEngine();
+        engine.setFastFunctions(Boolean.getBoolean(FAST_FUNCTIONS_PROPERTY));
+        text = new char[CalculatorEngine.MAX_DISPLAY_LENGTH];
+
+    }//end of the LineEvaluator Constructor
+    /**
+     * createEngine Method - Creates the engine of the mode the system properties select: a
+     * DecimalCalculatorEngine when DECIMAL_PROPERTY is "true", rounding its quotients to the
+     * scale of DECIMAL_SCALE_PROPERTY with the RoundingMode named by DECIMAL_ROUNDING_PROPERTY,
+     * which are DecimalArithmetic.DEFAULT_SCALE and HALF_EVEN when they are not set, and a
+     * CalculatorEngine otherwise
+     * @return CalculatorEngine - the engine
+     * @throws IllegalArgumentException - when the scale is not a number from 0 to
+     * DecimalArithmetic.MAX_SCALE, or the rounding is not the name of a RoundingMode other
+     * than UNNECESSARY
+     */
+    public static CalculatorEngine createEngine() {
+        if (!Boolean.getBoolean(DECIMAL_PROPERTY)) {
+            return new CalculatorEngine();
+
+        }
+        String scale = System.getProperty(DECIMAL_SCALE_PROPERTY,
+                                          String.valueOf(DecimalArithmetic.DEFAULT_SCALE));
+        String rounding = System.getProperty(DECIMAL_ROUNDING_PROPERTY,
+                                             RoundingMode.HALF_EVEN.name());
+        RoundingMode mode = RoundingMode.valueOf(rounding.trim().toUpperCase(Locale.ROOT));
+        return new DecimalCalculatorEngine(Integer.parseInt(scale.trim()), mode);
+
+    }//end of the createEngine Method
+    /**
+     * evaluate Method - Evaluates a line and writes the result and a newline
+     * @param input - the ByteBuffer holding the line, which is read with absolute indexes
+     * @param start - integer representing the index of the first byte of the line
+     * @param end - integer representing the index after the last byte of the line, without
+     * the newline
+     * @param output - the ByteBuffer to put the result into, with at least MAX_RESULT_LENGTH
+     * bytes remaining
+     */
+    public void evaluate(ByteBuffer input, int start, int end, ByteBuffer output) {
+        int length;
+        boolean isTimed = (metrics != null) && (lineCount % LATENCY_SAMPLE_INTERVAL == 0);
+        long startNanos = isTimed ? System.nanoTime() : 0;
+        lineCount++;
+        engine.clearAll();
+
+        if (!pressKeys(input, start, end)) {
+            System.arraycopy(INVALID_ENTRY, 0, text, 0, INVALID_ENTRY.length);
+            length = INVALID_ENTRY.length;
+            errorCount++;
+            if (metrics != null) {
+                metrics.countError(ErrorCode.INVALID_ENTRY);
+
+            }
+
+        } else if (engine.getDisplayMode() == CalculatorEngine.ERROR_MODE) {
+            length = engine.writeDisplayText(text, 0);
+            errorCount++;
+
+        } else if (isBlank(input, start, end)) {
+            length = 0;
+
+        } else {
+            length = engine.writeDisplayText(text, 0);
+            if (accumulator != null) {
+                accumulator.add(engine.getDisplayNumber());
+
+            }
+        }
+        while ((length > 0) && (text[length - 1] == ' ')) {
+            length--;
+        }
+        writeText(length, output);
+        output.put((byte) '\n');
+        if (isTimed) {
+            metrics.getEvaluationLatency().recordSince(startNanos);
+
+        }
+    }//end of the evaluate Method
+    /**
+     * pressKeys Method - Presses the keys of a line, and completes the pending operation
+     * @param input - the ByteBuffer holding the line
+     * @param start - integer representing the index of the first byte of the line
+     * @param end - integer representing the index after the last byte of the line
+     * @return boolean - false when the line cannot be read
+     */
+    private boolean pressKeys(ByteBuffer input, int start, int end) {
+        boolean isExpectingNumber = true;
+        boolean isNegativeNumber = false;
+        int position = start;
+        int function;
+
+        while (position < end) {
+            byte current = input.get(position);
+            Operator operator = (current > 0) ? Operator.forSymbol((char) current) : null;
+
+            if ((current == ' ') || (current == '\t') || (current == '\r')) {
+                position++;
+
+            } else if (isExpectingNumber) {
+                if ((current == '-') && !isNegativeNumber) {
+                    isNegativeNumber = true;
+                    position++;
+                    continue;
+
+                }
+                position = enterNumber(input, position, end, isNegativeNumber);
+                if (position < 0) {
+                    return false;
+
+                }
+                isExpectingNumber = false;
+                isNegativeNumber = false;
+
+            } else if ((operator != null) && (operator != Operator.NONE)) {
+                engine.processOperator(operator);
+                isExpectingNumber = true;
+                position++;
+
+            } else if (current == '%') {
+                engine.processPercent();
+                position++;
+
+            } else if (matches(input, position, end, SQUARE_ROOT)) {
+                engine.processSquareRoot();
+                position += SQUARE_ROOT.length;
+
+            } else if (matches(input, position, end, INVERSE)) {
+                engine.processInverse();
+                position += INVERSE.length;
+
+            } else if (matches(input, position, end, CHANGE_SIGN)) {
+                engine.changeSign();
+                position += CHANGE_SIGN.length;
+
+            } else if (matches(input, position, end, NEGATE)) {
+                engine.changeSign();
+                position += NEGATE.length;
+
+            } else if (matches(input, position, end, COMBINATIONS)) {
+                engine.processOperator(Operator.COMBINATIONS);
+                isExpectingNumber = true;
+                position += COMBINATIONS.length;
+
+            } else if (matches(input, position, end, PERMUTATIONS)) {
+                engine.processOperator(Operator.PERMUTATIONS);
+                isExpectingNumber = true;
+                position += PERMUTATIONS.length;
+
+            } else if ((function = matchFunction(input, position, end)) >= 0) {
+                engine.processFunction(FUNCTIONS[function]);
+                position += FUNCTION_NAMES[function].length;
+
+            } else {
+                return false;
+
+            }
+            if (engine.getDisplayMode() == CalculatorEngine.ERROR_MODE) {
+                return true;
+
+            }
+        }
+        if (isNegativeNumber || (isExpectingNumber && (engine.getLastOperator() != Operator.NONE))) {
+            return false;
+
+        }
+        if (engine.getLastOperator() != Operator.NONE) {
+            engine.processEqualOperation();
+
+        }
+        return true;
+
+    }//end of the pressKeys Method
+    /**
+     * enterNumber Method - Enters the digits and the decimal point of a number
+     * @param input - the ByteBuffer holding the line
+     * @param start - integer representing the index of the first byte of the number
+     * @param end - integer representing the index after the last byte of the line
+     * @param isNegative - boolean representing whether the number was preceded by a minus sign
+     * @return int - the index after the number, or -1 when there is no valid number
+     */
+    private int enterNumber(ByteBuffer input, int start, int end, boolean isNegative) {
+        boolean hasDigits = false;
+        boolean hasDecimal = false;
+        int length = isNegative ? 1 : 0;
+        int position = start;
+
+        while (position < end) {
+            byte current = input.get(position);
+            if ((current >= '0') && (current <= '9')) {
+                engine.addNextDigit(current - '0');
+                hasDigits = true;
+
+            } else if ((current == '.') && !hasDecimal) {
+                engine.addDecimal();
+                hasDecimal = true;
+
+            } else {
+                break;
+
+            }
+            if (++length > CalculatorEngine.MAX_LENGTH) {
+                return -1;
+
+            }
+            position++;
+        }
+        if (!hasDigits) {
+            return -1;
+
+        }
+        if (isNegative) {
+            engine.changeSign();
+
+        }
+        return position;
+
+    }//end of the enterNumber Method
+    /**
+     * matches Method - Returns whether the line continues with a word
+     * @param input - the ByteBuffer holding the line
+     * @param position - integer representing the index to compare from
+     * @param end - integer representing the index after the last byte of the line
+     * @param word - a byte[] holding the word
+     * @return boolean - true when the bytes at the position equal the word
+     */
+    private static boolean matches(ByteBuffer input, int position, int end, byte[] word) {
+        if (end - position < word.length) {
+            return false;
+
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (input.get(position + i) != word[i]) {
+                return false;
+
+            }
+        }
+        return true;
+
+    }//end of the matches Method
+    /**
+     * matchFunction Method - Returns the ScientificFunction whose name the line continues with
+     * @param input - the ByteBuffer holding the line
+     * @param position - integer representing the index to compare from
+     * @param end - integer representing the index after the last byte of the line
+     * @return int - the ordinal of the function, or -1 when no name matches
+     */
+    private static int matchFunction(ByteBuffer input, int position, int end) {
+        for (int i = 0; i < FUNCTION_NAMES.length; i++) {
+            if (matches(input, position, end, FUNCTION_NAMES[i])) {
+                return i;
+
+            }
+        }
+        return -1;
+
+    }//end of the matchFunction Method
+    /**
+     * isBlank Method - Returns whether a line holds only blanks
+     * @param input - the ByteBuffer holding the line
+     * @param start - integer representing the index of the first byte of the line
+     * @param end - integer representing the index after the last byte of the line
+     * @return boolean - true when the line is blank
+     */
+    private static boolean isBlank(ByteBuffer input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte current = input.get(i);
+            if ((current != ' ') && (current != '\t') && (current != '\r')) {
+                return false;
+
+            }
+        }
+        return true;
+
+    }//end of the isBlank Method
+    /**
+     * writeText Method - Puts the chars of the text into the output encoded as UTF-8
+     * @param length - integer representing the number of chars of the text
+     * @param output - the ByteBuffer to put the bytes into
+     */
+    private void writeText(int length, ByteBuffer output) {
+        for (int i = 0; i < length; i++) {
+            char current = text[i];
+            if (current < 0x80) {
+                output.put((byte) current);
+
+            } else if (current < 0x800) {
+                output.put((byte) (0xC0 | (current >> 6)));
+                output.put((byte) (0x80 | (current & 0x3F)));
+
+            } else {
+                output.put((byte) (0xE0 | (current >> 12)));
+                output.put((byte) (0x80 | ((current >> 6) & 0x3F)));
+                output.put((byte) (0x80 | (current & 0x3F)));
+            }
+        }
+    }//end of the writeText Method
+    /**
+     * setAccumulator Method - Sets the total to add the result of every line that gives a
+     * number to
+     * @param accumulator - the DoubleAdder of the total, or null to add the results nowhere
+     */
+    public void setAccumulator(DoubleAdder accumulator) {
+        this.accumulator = accumulator;
+
+    }//end of the setAccumulator Method
+    /**
+     * setMetrics Method - Sets the metrics to count the operations and the errors of every line
+     * in, and the latency of every LATENCY_SAMPLE_INTERVAL line
+     * @param metrics - the CalculatorMetrics, or null to count nothing
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        this.metrics = metrics;
+        engine.setMetrics(metrics);
+
+    }//end of the setMetrics Method
+    /**
+     * setFastFunctions Method - Selects the fast or the strict path of the ScientificFunctions
+     * @param isFastFunctions - boolean representing whether the fast path is taken
+     */
+    public void setFastFunctions(boolean isFastFunctions) {
+        engine.setFastFunctions(isFastFunctions);
+
+    }//end of the setFastFunctions Method
+    /**
+     * getLineCount Method - Returns the number of lines evaluated
+     * @return long - the number of lines
+     */
+    public long getLineCount() {
+        return lineCount;
+
+    }//end of the getLineCount Method
+    /**
+     * getErrorCount Method - Returns the number of lines that gave an error
+     * @return long - the number of errors
+     */
+    public long getErrorCount() {
+        return errorCount;
+
+    }//end of the getErrorCount Method
+}//end of the LineEvaluator Class
@@ -0,0 +1,300 @@
+
+package calculator.batch;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * The ParallelBatchCalculator Class evaluates a file of expressions, one per line, on all the
+ * cores of the machine, and writes the results in the order of the input.  The file is split
+ * into chunks of CHUNK_SIZE bytes, and each chunk is memory mapped and evaluated by a task of a
+ * ForkJoinPool.  A line belongs to the chunk holding its first byte, so a chunk skips the end of
+ * the line it starts in, and reads past its end to finish its last line.  At most two chunks per
+ * thread are evaluated ahead of the chunk being written, which bounds the memory used for files
+ * of any size.  Each line gives the same result as with the BatchCalculator, including "Invalid
+ * Entry" for a line of BatchCalculator.BUFFER_SIZE bytes or more.  The results of the lines may
+ * be summed into a DoubleAdder, which the threads add into without contending.  The scientific
+ * functions of the lines take the fast path when setFastFunctions selects it, which it does
+ * from the start when the system property LineEvaluator.FAST_FUNCTIONS_PROPERTY is "true", and
+ * the lines are computed exactly in decimal when LineEvaluator.DECIMAL_PROPERTY is "true".
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ParallelBatchCalculator {
+    //Instance Variables
+    public final static int CHUNK_SIZE = 1 << 23;
+    private final static int MAX_LINE_LENGTH = BatchCalculator.BUFFER_SIZE - 1;
+    private final static byte[] INVALID_ENTRY = "Invalid Entry\n".getBytes();
+    private final static ThreadLocal<LineEvaluator> EVALUATOR =
+            ThreadLocal.withInitial(LineEvaluator::new);
+    private final ForkJoinPool pool;
+    private DoubleAdder accumulator;
+    private boolean isFastFunctions = Boolean.getBoolean(LineEvaluator.FAST_FUNCTIONS_PROPERTY);
+    private long lineCount;
+    private long errorCount;
+
+    /**
+     * Chunk Class - Evaluates the lines starting in a part of the file into a byte[]
+     */
+    static class Chunk extends RecursiveAction {
+        //Instance Variables
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final DoubleAdder accumulator;
+        private final boolean isFastFunctions;
+        private ByteBuffer output;
+        private long chunkLineCount;
+        private long chunkErrorCount;
+        private IOException failure;
+
+        /**
+         * Chunk Constructor - Creates a Chunk for the lines starting between two positions
+         * @param channel - the FileChannel of the input file
+         * @param start - long representing the position of the first byte of the chunk
+         * @param end - long representing the position after the last byte of the chunk
+         * @param accumulator - the DoubleAdder to add the results to, or null
+         * @param isFastFunctions - boolean representing whether the functions take the fast path
+         */
+        Chunk(FileChannel channel, long start, long end, DoubleAdder accumulator,
+                                                         boolean isFastFunctions) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.accumulator = accumulator;
+            this.isFastFunctions = isFastFunctions;
+
+        }//end of the Chunk Constructor
+        /**
+         * compute Method - Overrides the compute Method to map the chunk, together with the
+         * byte before it and the longest line after it, and to evaluate its lines
+         */
+        @Override
+        protected void compute() {
+            try {
+                long mapStart = Math.max(0, start - 1);
+                long mapEnd = Math.min(channel.size(), end + MAX_LINE_LENGTH + 1);
+                MappedByteBuffer input =
+                        channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+                evaluateLines(input, (int) (start - mapStart), (int) (end - mapStart),
+                                                      mapEnd == channel.size());
+
+            } catch (IOException ioe) {
+                failure = ioe;
+
+            }
+        }//end of the compute Method
+        /**
+         * evaluateLines Method - Evaluates the lines starting in the chunk
+         * @param input - the ByteBuffer mapping the chunk
+         * @param first - integer representing the index of the first byte of the chunk
+         * @param last - integer representing the index after the last byte of the chunk
+         * @param isEndOfFile - boolean representing whether the mapping ends with the file
+         */
+        private void evaluateLines(ByteBuffer input, int first, int last, boolean isEndOfFile) {
+            LineEvaluator evaluator = EVALUATOR.get();
+            evaluator.setAccumulator(accumulator);
+            evaluator.setFastFunctions(isFastFunctions);
+            long errorsBefore = evaluator.getErrorCount();
+            int limit = input.limit();
+            int lineStart = first;
+
+            if (first > 0) {
+                lineStart = indexOfNewline(input, first - 1, last) + 1;
+
+            }
+            output = ByteBuffer.allocate(last - first + LineEvaluator.MAX_RESULT_LENGTH);
+            while ((lineStart < last) && (lineStart < limit)) {
+                int lineEnd = indexOfNewline(input, lineStart, limit);
+                boolean isLastLine = (lineEnd == limit);
+
+                if (output.remaining() < LineEvaluator.MAX_RESULT_LENGTH) {
+                    ByteBuffer larger = ByteBuffer.allocate(2 * output.capacity());
+                    output.flip();
+                    output = larger.put(output);
+
+                }
+                if ((lineEnd - lineStart > MAX_LINE_LENGTH) || (isLastLine && !isEndOfFile)) {
+                    output.put(INVALID_ENTRY);
+                    chunkErrorCount++;
+
+                } else {
+                    evaluator.evaluate(input, lineStart, lineEnd, output);
+
+                }
+                chunkLineCount++;
+                lineStart = lineEnd + 1;
+            }
+            chunkErrorCount += evaluator.getErrorCount() - errorsBefore;
+
+        }//end of the evaluateLines Method
+    }//end of the Chunk Class
+    /**
+     * ParallelBatchCalculator Constructor - Creates a ParallelBatchCalculator using a thread
+     * for each core
+     */
+    public ParallelBatchCalculator() {
+        this(Runtime.getRuntime().availableProcessors());
+
+    }//end of the ParallelBatchCalculator Constructor
+    /**
+     * ParallelBatchCalculator Constructor - Creates a ParallelBatchCalculator using a number of
+     * threads
+     * @param parallelism - integer representing the number of threads
+     */
+    public ParallelBatchCalculator(int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+
+    }//end of the ParallelBatchCalculator Constructor
+    /**
+     * evaluate Method - Evaluates every line of a file and writes the results in order
+     * @param channel - the FileChannel of the input file
+     * @param output - the WritableByteChannel to write the results to
+     * @return long - the number of lines evaluated
+     * @throws IOException - when the input cannot be read or the output cannot be written
+     */
+    public long evaluate(FileChannel channel, WritableByteChannel output) throws IOException {
+        ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+        int maxChunksAhead = 2 * pool.getParallelism();
+        long size = channel.size();
+        long next = 0;
+        lineCount = 0;
+        errorCount = 0;
+
+        while ((next < size) || !chunks.isEmpty()) {
+            while ((next < size) && (chunks.size() < maxChunksAhead)) {
+                Chunk chunk = new Chunk(channel, next, Math.min(size, next + CHUNK_SIZE),
+                                        accumulator, isFastFunctions);
+                pool.execute(chunk);
+                chunks.add(chunk);
+                next += CHUNK_SIZE;
+
+            }
+            Chunk chunk = chunks.remove();
+            chunk.join();
+            if (chunk.failure != null) {
+                throw chunk.failure;
+
+            }
+            chunk.output.flip();
+            while (chunk.output.hasRemaining()) {
+                output.write(chunk.output);
+            }
+            lineCount += chunk.chunkLineCount;
+            errorCount += chunk.chunkErrorCount;
+
+        }
+        return lineCount;
+
+    }//end of the evaluate Method
+    /**
+     * shutdown Method - Stops the threads of the ForkJoinPool
+     */
+    public void shutdown() {
+        pool.shutdown();
+
+    }//end of the shutdown Method
+    /**
+     * setAccumulator Method - Sets the total to add the result of every line that gives a
+     * number to
+     * @param accumulator - the DoubleAdder of the total, or null to add the results nowhere
+     */
+    public void setAccumulator(DoubleAdder accumulator) {
+        this.accumulator = accumulator;
+
+    }//end of the setAccumulator Method
+    /**
+     * setFastFunctions Method - Selects the fast or the strict path of the scientific functions
+     * of the lines
+     * @param isFastFunctions - boolean representing whether the fast path is taken
+     */
+    public void setFastFunctions(boolean isFastFunctions) {
+        this.isFastFunctions = isFastFunctions;
+
+    }//end of the setFastFunctions Method
+    /**
+     * getLineCount Method - Returns the number of lines of the last evaluation
+     * @return long - the number of lines
+     */
+    public long getLineCount() {
+        return lineCount;
+
+    }//end of the getLineCount Method
+    /**
+     * getErrorCount Method - Returns the number of lines of the last evaluation that gave an
+     * error
+     * @return long - the number of errors
+     */
+    public long getErrorCount() {
+        return errorCount;
+
+    }//end of the getErrorCount Method
+    /**
+     * indexOfNewline Method - Returns the index of the first newline in a part of a ByteBuffer
+     * @param input - the ByteBuffer to search
+     * @param from - integer representing the index to search from
+     * @param to - integer representing the index to search to
+     * @return int - the index of the newline, or the index to search to when there is none
+     */
+    private static int indexOfNewline(ByteBuffer input, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == '\n') {
+                return i;
+
+            }
+        }
+        return to;
+
+    }//end of the indexOfNewline Method
+    /**
+     * main Method - Contains the command line arguments.  The expressions are read from the file
+     * named by the first argument, and the results are written to the file named by the second
+     * argument, or to the standard output when there is no second argument.  The number of lines
+     * per second, and the sum of the results, are reported on the standard error.
+     * @param args - a String[] representing the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: ParallelBatchCalculator input-file [output-file]");
+            System.exit(2);
+
+        }
+        ParallelBatchCalculator calculator = new ParallelBatchCalculator();
+        DoubleAdder sum = new DoubleAdder();
+        calculator.setAccumulator(sum);
+        long startTime = System.nanoTime();
+
+        try (FileChannel input = FileChannel.open(Paths.get(args[0]), StandardOpenOption.READ);
+             FileChannel output = (args.length > 1) ? FileChannel.open(Paths.get(args[1]),
+                     StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING) :
+                     new FileOutputStream(FileDescriptor.out).getChannel()) {
+            calculator.evaluate(input, output);
+
+        } catch (IOException ioe) {
+            System.err.println("ParallelBatchCalculator: " + ioe.getMessage());
+            System.exit(1);
+
+        } finally {
+            calculator.shutdown();
+
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.err.printf("%d lines, %d errors in %.3f s (%.0f lines/s), sum %s%n",
+                calculator.getLineCount(), calculator.getErrorCount(), seconds,
+                calculator.getLineCount() / seconds, sum.sum());
+
+    }//end of the main Method
+}//end of the ParallelBatchCalculator Class
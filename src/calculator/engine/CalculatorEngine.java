@@ -0,0 +1,826 @@
+
+package calculator.engine;
+
+import calculator.metrics.CalculatorMetrics;
+import java.nio.ByteBuffer;
+
+/**
+ * The CalculatorEngine Class implements the state machine of the simple calculator without any
+ * dependency on Swing or AWT.  It holds the last number, the last operator, the display mode
+ * and the number in the display, and it responds to the same key events as the buttons of the
+ * SimpleCalculator form: digits, decimal, change sign, backspace, the binary operators, equals,
+ * clear, percent, inverse, and square root.  The SimpleCalculator form merely forwards its
+ * button events to an instance of this class and repaints the display from getDisplayText.
+ * The number in the display is kept in an Operand, and a result is only rounded into the
+ * Operand when the next event reads it, so the text of the display is rendered only when the
+ * display is repainted.  Error messages, and results too large for the Operand, are kept as
+ * text in displayText instead.  An evaluation that fails does not throw an exception: it sets
+ * the errorCode to one of the ErrorCodes and returns NaN, so failing evaluations cost no more
+ * than succeeding ones.  When a HistoryTape is set, every operation evaluated is added to it,
+ * and when CalculatorMetrics are set, every operation and every error displayed is counted.
+ * The memory register is kept apart from the pending operation, and survives clearAll.  The
+ * scientific keys replace the number in the display with a ScientificFunction of it, as the
+ * inverse does, and nCr and nPr are binary operators.  Their functions are computed by
+ * ScientificMath along the strict path, or along the fast path once setFastFunctions selects
+ * it, which survives clearAll as well, so each session chooses its own path.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class CalculatorEngine {
+    //Instance Variables
+    public final static int MAX_LENGTH = 13;
+    public final static int INPUT_MODE = 0;
+    public final static int RESULT_MODE = 1;
+    public final static int ERROR_MODE = 2;
+    public final static int MAX_DISPLAY_LENGTH = DisplayFormatter.MAX_TEXT_LENGTH;
+    public final static int MAX_STATE_LENGTH = 1 << 10;
+    protected int displayMode;
+    protected boolean isClearForNextDigit;
+    protected double lastNumber;
+    protected Operator lastOperator;
+    protected final Operand operand;
+    protected String displayText;
+    protected double pendingResult;
+    protected boolean isResultPending;
+    protected int errorCode;
+    protected HistoryTape historyTape;
+    protected CalculatorMetrics metrics;
+    protected double memory;
+    protected final Power power;
+    protected boolean isFastFunctions;
+
+    /**
+     * CalculatorEngine Constructor - Creates a new instance of the CalculatorEngine
+     */
+    public CalculatorEngine() {
+        operand = new Operand();
+        power = new Power();
+
+        /** This method initializes the instance variables */
+        clearAll();
+
+    }//end of the CalculatorEngine Constructor
+    /**
+     * clearAll Method - Clears all and resets the calculator to the original initialization
+     */
+    public final void clearAll() {
+        operand.setZero();
+        displayText = null;
+        isResultPending = false;
+        lastOperator = Operator.NONE;
+        lastNumber = 0;
+        displayMode = INPUT_MODE;
+        isClearForNextDigit = true;
+
+    }//end of the clearAll Method
+    /**
+     * clearForNextEntry Method - Empties the display when the next digit or decimal point
+     * starts a new number
+     */
+    private void clearForNextEntry() {
+        if (isClearForNextDigit) {
+            operand.setEmpty();
+            displayText = null;
+            isResultPending = false;
+
+        }
+    }//end of the clearForNextEntry Method
+    /**
+     * addNextDigit Method - Adds the next digit to the display
+     * @param nextDigit - integer representing the next digit
+     */
+    public void addNextDigit(int nextDigit) {
+        if ((nextDigit < 0) || (nextDigit > 9)) {
+            displayError("ERROR");
+            return;
+
+        }
+        clearForNextEntry();
+        operand.appendDigit(nextDigit, MAX_LENGTH);
+        displayMode = INPUT_MODE;
+        isClearForNextDigit = false;
+
+    }//end of the addNextDigit Method
+    /**
+     * addDecimal Method - Adds the decimal point to the display, unless the display already
+     * contains one
+     */
+    public void addDecimal() {
+        displayMode = INPUT_MODE;
+        clearForNextEntry();
+        operand.appendDecimal();
+        isClearForNextDigit = false;
+
+    }//end of the addDecimal Method
+    /**
+     * changeSign Method - Changes the sign of the number in the display
+     */
+    public void changeSign() {
+        if (displayMode == INPUT_MODE) {
+            operand.negate();
+
+        } else if (displayMode == RESULT_MODE) {
+            double number = parseDisplay();
+            if (errorCode != ErrorCode.NONE) {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            } else if (number != 0) {
+                displayResult(-number);
+
+            }
+        }
+    }//end of the changeSign Method
+    /**
+     * backspace Method - Removes the last character of the display, and resets the display
+     * to zero when nothing is left of the number
+     */
+    public void backspace() {
+        loadResult();
+        if (displayText == null) {
+            operand.backspace();
+            return;
+
+        }
+        if ((displayText.contains("U")) || (displayText.contains("N"))) {
+            displayText = "0";
+
+        }
+        if (displayText.length() >= 1) {
+            displayText = displayText.substring(0, displayText.length() - 1);
+
+        }
+        if ((displayText.length() < 1) || (displayText.equals("-"))) {
+            displayText = "0";
+
+        }
+    }//end of the backspace Method
+    /**
+     * processOperator Method - Processes the operator by calling processLastOperator
+     * method
+     * @param operator - Operator representing the operator
+     */
+    public void processOperator(Operator operator) {
+        if (displayMode != ERROR_MODE) {
+            if (lastOperator != Operator.NONE) {
+                double result = processLastOperator();
+                if (errorCode == ErrorCode.NONE) {
+                    displayResult(result);
+
+                } else if (errorCode == ErrorCode.UNDEFINED) {
+                    displayError("Undefined");
+
+                } else {
+                    displayError(ErrorCode.getMessage(errorCode));
+
+                }
+            } else {
+                double number = parseDisplay();
+                if (errorCode == ErrorCode.NONE) {
+                    lastNumber = number;
+
+                } else {
+                    displayError(ErrorCode.getMessage(errorCode));
+
+                }
+            }
+            isClearForNextDigit = true;
+            lastOperator = operator;
+        }
+    }//end of the processOperator Method
+    /**
+     * processEqualOperation Method - Process the equal operation
+     */
+    public void processEqualOperation() {
+        if (displayMode != ERROR_MODE) {
+            double result = processLastOperator();
+            if (errorCode == ErrorCode.NONE) {
+                displayResult(result);
+
+            } else {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            }
+            lastOperator = Operator.NONE;
+        }
+    }//end of the processEqualOperation Method
+    /**
+     * processPercent Method - Divides the number in the display by one hundred
+     */
+    public void processPercent() {
+        if (displayMode != ERROR_MODE) {
+            double result = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                displayResult(record('%', result, Double.NaN, result * (.01)));
+
+            } else {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            }
+        }
+    }//end of the processPercent Method
+    /**
+     * processInverse Method - Replaces the number in the display with its inverse
+     */
+    public void processInverse() {
+        if (displayMode != ERROR_MODE) {
+            if (isDisplayZero()) {
+                displayError("Undefined ");
+                return;
+
+            }
+            double result = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                displayResult(record('i', result, Double.NaN, 1 / result));
+
+            } else {
+                displayError(ErrorCode.getMessage(ErrorCode.UNDEFINED));
+
+            }
+        }
+    }//end of the processInverse Method
+    /**
+     * processSquareRoot Method - Completes any pending operation, and replaces the result with
+     * its square root
+     */
+    public void processSquareRoot() {
+        if (displayMode != ERROR_MODE) {
+            if (lastOperator != Operator.NONE) {
+                processEqualOperation();
+
+            }
+            if ((displayMode == ERROR_MODE) || isDisplayNegative()) {
+                displayError("Non Real Number ");
+                return;
+
+            }
+            double result = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                displayResult(record('r', result, Double.NaN, Math.sqrt(result)));
+
+            } else {
+                displayError(ErrorCode.getMessage(ErrorCode.NON_REAL_NUMBER));
+
+            }
+        }
+    }//end of the processSquareRoot Method
+    /**
+     * processFunction Method - Replaces the number in the display with a function of it
+     * @param function - the ScientificFunction of the scientific key
+     */
+    public void processFunction(ScientificFunction function) {
+        if (displayMode != ERROR_MODE) {
+            double number = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                errorCode = function.getError(number);
+                double result = (errorCode == ErrorCode.NONE) ?
+                                function.apply(number, isFastFunctions) : Double.NaN;
+                record(function.getKey(), number, Double.NaN, result);
+                if (errorCode == ErrorCode.NONE) {
+                    displayResult(result);
+                    return;
+
+                }
+            }
+            displayError(ErrorCode.getMessage(errorCode));
+
+        }
+    }//end of the processFunction Method
+    /**
+     * memoryAdd Method - Adds the number in the display to the memory (M+)
+     */
+    public void memoryAdd() {
+        if (displayMode != ERROR_MODE) {
+            double number = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                memory += number;
+
+            }
+            isClearForNextDigit = true;
+        }
+    }//end of the memoryAdd Method
+    /**
+     * memorySubtract Method - Subtracts the number in the display from the memory (M-)
+     */
+    public void memorySubtract() {
+        if (displayMode != ERROR_MODE) {
+            double number = parseDisplay();
+            if (errorCode == ErrorCode.NONE) {
+                memory -= number;
+
+            }
+            isClearForNextDigit = true;
+        }
+    }//end of the memorySubtract Method
+    /**
+     * memoryRecall Method - Enters the number in the memory into the display, as if it had
+     * been typed, without completing the pending operation (MR)
+     */
+    public void memoryRecall() {
+        isResultPending = false;
+        if (operand.setRounded(memory)) {
+            displayText = null;
+            displayMode = INPUT_MODE;
+
+        } else {
+            displayText = DisplayFormatter.format(memory);
+            displayMode = RESULT_MODE;
+
+        }
+        isClearForNextDigit = true;
+
+    }//end of the memoryRecall Method
+    /**
+     * memoryClear Method - Sets the memory to zero (MC)
+     */
+    public void memoryClear() {
+        memory = 0;
+
+    }//end of the memoryClear Method
+    /**
+     * hasMemory Method - Returns whether the memory holds a number other than zero
+     * @return boolean - true when the memory is not zero
+     */
+    public boolean hasMemory() {
+        return memory != 0;
+
+    }//end of the hasMemory Method
+    /**
+     * getMemory Method - Returns the number in the memory
+     * @return double - the memory
+     */
+    public double getMemory() {
+        return memory;
+
+    }//end of the getMemory Method
+    /**
+     * press Method - Responds to a key named by a char: the digits, '.', 'n' for the change of
+     * sign, '<' for backspace, the symbols of the Operators, '=', 'c' for clear, '%', 'i' for
+     * the inverse, 'r' for the square root, 'A', 'S', 'R', and 'Z' for the memory keys M+, M-,
+     * MR, and MC, the keys of the ScientificFunctions, and 'F' and 'X' to select the fast and
+     * the strict functions
+     * @param key - a char representing the key
+     * @throws IllegalArgumentException - when the char does not name a key
+     */
+    public void press(char key) {
+        switch (key) {
+            case '.':
+                addDecimal();
+                break;
+            case '=':
+                processEqualOperation();
+                break;
+            case '%':
+                processPercent();
+                break;
+            case 'i':
+                processInverse();
+                break;
+            case 'r':
+                processSquareRoot();
+                break;
+            case 'n':
+                changeSign();
+                break;
+            case '<':
+                backspace();
+                break;
+            case 'c':
+                clearAll();
+                break;
+            case 'A':
+                memoryAdd();
+                break;
+            case 'S':
+                memorySubtract();
+                break;
+            case 'R':
+                memoryRecall();
+                break;
+            case 'Z':
+                memoryClear();
+                break;
+            case 'F':
+                setFastFunctions(true);
+                break;
+            case 'X':
+                setFastFunctions(false);
+                break;
+            default:
+                Operator operator = Operator.forSymbol(key);
+                if ((key >= '0') && (key <= '9')) {
+                    addNextDigit(key - '0');
+
+                } else if ((operator != null) && (operator != Operator.NONE)) {
+                    processOperator(operator);
+
+                } else if (ScientificFunction.forKey(key) != null) {
+                    processFunction(ScientificFunction.forKey(key));
+
+                } else {
+                    throw (new IllegalArgumentException("Not a key: " + key));
+
+                }
+        }
+    }//end of the press Method
+    /**
+     * displayError Method - Displays the appropriate error message
+     * @param message - String representing the error message
+     */
+    protected void displayError(String message) {
+        if (metrics != null) {
+            metrics.countError(ErrorCode.forMessage(message));
+
+        }
+        displayText = message;
+        isResultPending = false;
+        lastNumber = 0;
+        displayMode = ERROR_MODE;
+        isClearForNextDigit = true;
+
+    }//end of the displayError Method
+    /**
+     * displayResult Method - Displays the result in the number format.  The result is only
+     * rounded for the display when the next event reads the display.
+     * @param result - double representing the result
+     */
+    protected void displayResult(double result) {
+        pendingResult = result;
+        isResultPending = true;
+        displayText = null;
+        lastNumber = result;
+        displayMode = RESULT_MODE;
+        isClearForNextDigit = true;
+
+    }//end of the displayResult Method
+    /**
+     * loadResult Method - Rounds a pending result into the operand, or formats it into the
+     * displayText when it does not fit into the operand
+     */
+    protected void loadResult() {
+        if (isResultPending) {
+            isResultPending = false;
+            if (!operand.setRounded(pendingResult)) {
+                displayText = DisplayFormatter.format(pendingResult);
+
+            }
+        }
+    }//end of the loadResult Method
+    /**
+     * parseDisplay Method - Returns the number in the display, and sets the errorCode to NONE,
+     * or to INVALID_ENTRY when the display does not hold a number, such as a lone decimal point
+     * or infinity
+     * @return double - the number in the display, or NaN when it does not hold a number
+     */
+    protected double parseDisplay() {
+        loadResult();
+        errorCode = ErrorCode.NONE;
+        if (displayText == null) {
+            if (operand.hasDigits()) {
+                return operand.doubleValue();
+
+            }
+        } else if (isNumberText(displayText)) {
+            return Double.parseDouble(displayText);
+
+        }
+        errorCode = ErrorCode.INVALID_ENTRY;
+        return Double.NaN;
+
+    }//end of the parseDisplay Method
+    /**
+     * isNumberText Method - Returns whether a text is a number Double.parseDouble accepts, so
+     * the display is parsed without catching a NumberFormatException
+     * @param text - String representing the text of the display
+     * @return boolean - true for digits with at most one decimal point and a leading minus sign,
+     * and for the NaN the display shows for a result that is not a number
+     */
+    protected static boolean isNumberText(String text) {
+        boolean hasDigits = false;
+        boolean hasDecimal = false;
+
+        if (text.equals("NaN")) {
+            return true;
+
+        }
+        for (int i = text.startsWith("-") ? 1 : 0; i < text.length(); i++) {
+            char current = text.charAt(i);
+            if ((current >= '0') && (current <= '9')) {
+                hasDigits = true;
+
+            } else if ((current == '.') && !hasDecimal) {
+                hasDecimal = true;
+
+            } else {
+                return false;
+
+            }
+        }
+        return hasDigits;
+
+    }//end of the isNumberText Method
+    /**
+     * hasDisplayDecimal Method - Returns whether the display contains a decimal point
+     * @return boolean - true when the display contains a decimal point
+     */
+    protected boolean hasDisplayDecimal() {
+        loadResult();
+        return (displayText == null) ? operand.hasDecimal() : displayText.contains(".");
+
+    }//end of the hasDisplayDecimal Method
+    /**
+     * isDisplayNegative Method - Returns whether the display starts with a minus sign
+     * @return boolean - true when the display starts with a minus sign
+     */
+    protected boolean isDisplayNegative() {
+        loadResult();
+        return (displayText == null) ? operand.isNegative() : (displayText.indexOf("-") == 0);
+
+    }//end of the isDisplayNegative Method
+    /**
+     * isDisplayZero Method - Returns whether the display shows exactly "0" or "0.0"
+     * @return boolean - true when the display shows zero
+     */
+    protected boolean isDisplayZero() {
+        loadResult();
+        if (displayText == null) {
+            return operand.isZeroText();
+
+        }
+        return displayText.equals("0") || displayText.equals("0.0");
+
+    }//end of the isDisplayZero Method
+    /**
+     * processLastOperator Method - Performs the operations of addition, subtraction, multiplication,
+     * division, exponents, combinations, and permutations with a single switch on the pending
+     * operator.
+     * The errorCode is set to NONE, or to the error of the operation.
+     * @return result - a double representing the result, or NaN when the operation fails
+     */
+    protected double processLastOperator() {
+        double number = parseDisplay();
+        if (errorCode != ErrorCode.NONE) {
+            return Double.NaN;
+
+        }
+        char symbol = lastOperator.getSymbol();
+        switch (lastOperator) {
+            case ADD:
+                return record(symbol, lastNumber, number, lastNumber + number);
+            case SUBTRACT:
+                return record(symbol, lastNumber, number, lastNumber - number);
+            case MULTIPLY:
+                return record(symbol, lastNumber, number, lastNumber * number);
+            case EXPONENT:
+                if ((lastNumber < 0) && hasDisplayDecimal()) {
+                    errorCode = ErrorCode.NON_REAL_NUMBER;
+                    return record(symbol, lastNumber, number, Double.NaN);
+
+                }
+                return record(symbol, lastNumber, number, processExponent(lastNumber, number));
+            case DIVIDE:
+                if (number == 0) {
+                    errorCode = ErrorCode.UNDEFINED;
+                    return record(symbol, lastNumber, number, Double.NaN);
+
+                }
+                return record(symbol, lastNumber, number, lastNumber / number);
+            case COMBINATIONS:
+            case PERMUTATIONS:
+                if (!ScientificMath.isCount(lastNumber, number)) {
+                    errorCode = ErrorCode.INVALID_ENTRY;
+                    return record(symbol, lastNumber, number, Double.NaN);
+
+                }
+                return record(symbol, lastNumber, number, (lastOperator == Operator.COMBINATIONS) ?
+                        ScientificMath.combinations(lastNumber, number, isFastFunctions) :
+                        ScientificMath.permutations(lastNumber, number, isFastFunctions));
+            default:
+                return 0;
+        }
+    }//end of the processLastOperator Method
+    /**
+     * record Method - Adds an operation to the HistoryTape, and counts it in the
+     * CalculatorMetrics, when there are any
+     * @param operation - a char representing the key of the operation
+     * @param left - double representing the left operand, or the operand of a unary operation
+     * @param right - double representing the right operand, or NaN for a unary operation
+     * @param result - double representing the result, or NaN when the operation failed
+     * @return double - the result
+     */
+    protected double record(char operation, double left, double right, double result) {
+        if (historyTape != null) {
+            historyTape.add(operation, left, right, result, errorCode);
+
+        }
+        if (metrics != null) {
+            metrics.countOperation(operation);
+
+        }
+        return result;
+
+    }//end of the record Method
+    /**
+     * processExponent Method - Performs the exponent operations through the Power of the
+     * engine, which computes whole powers exactly and remembers the slower ones
+     * @param base - a double representing the base number
+     * @param exponent - a double representing the exponent number
+     * @return double - Returns the first number raised to the second number as a
+     * double
+     */
+    protected double processExponent(double base, double exponent) {
+        return power.pow(base, exponent);
+
+    }//end of the processExponent Method
+    /**
+     * writeState Method - Writes the state of the engine into a ByteBuffer, as a snapshot that
+     * readState restores into an engine of the same class
+     * @param buffer - the ByteBuffer to write into, with at least MAX_STATE_LENGTH bytes free
+     */
+    public void writeState(ByteBuffer buffer) {
+        loadResult();
+        buffer.put((byte) displayMode);
+        buffer.put((byte) ((isClearForNextDigit ? 1 : 0) | (isFastFunctions ? 2 : 0)));
+        buffer.put((byte) lastOperator.ordinal());
+        buffer.put((byte) errorCode);
+        buffer.putDouble(lastNumber);
+        buffer.putDouble(memory);
+        buffer.put((byte) (operand.isNegative() ? 1 : 0));
+        buffer.put((byte) (operand.hasDecimal() ? 1 : 0));
+        buffer.put((byte) operand.getIntegerDigits());
+        buffer.put((byte) operand.getScale());
+        buffer.putLong(operand.getMantissa());
+        if (displayText == null) {
+            buffer.putShort((short) -1);
+
+        } else {
+            int length = Math.min(displayText.length(), MAX_DISPLAY_LENGTH);
+            buffer.putShort((short) length);
+            for (int i = 0; i < length; i++) {
+                buffer.putChar(displayText.charAt(i));
+            }
+        }
+    }//end of the writeState Method
+    /**
+     * readState Method - Restores the state of the engine from a snapshot written by writeState
+     * @param buffer - the ByteBuffer to read from
+     * @throws IllegalArgumentException - when the snapshot is not a state of an engine
+     */
+    public void readState(ByteBuffer buffer) {
+        int mode = buffer.get();
+        int flags = buffer.get();
+        int operator = buffer.get();
+        int error = buffer.get();
+        double number = buffer.getDouble();
+        double memoryNumber = buffer.getDouble();
+        boolean isNegative = buffer.get() != 0;
+        boolean hasDecimal = buffer.get() != 0;
+        int integerDigits = buffer.get();
+        int scale = buffer.get();
+        long mantissa = buffer.getLong();
+        int length = buffer.getShort();
+        if ((mode < INPUT_MODE) || (mode > ERROR_MODE) || (operator < 0) ||
+            (operator >= Operator.values().length) || (integerDigits < 0) || (scale < 0) ||
+            (length > MAX_DISPLAY_LENGTH)) {
+            throw (new IllegalArgumentException("Not a state of a CalculatorEngine"));
+
+        }
+        char[] text = new char[Math.max(length, 0)];
+        for (int i = 0; i < length; i++) {
+            text[i] = buffer.getChar();
+        }
+        displayMode = mode;
+        isClearForNextDigit = (flags & 1) != 0;
+        isFastFunctions = (flags & 2) != 0;
+        lastOperator = Operator.values()[operator];
+        errorCode = error;
+        lastNumber = number;
+        memory = memoryNumber;
+        operand.restore(isNegative, mantissa, integerDigits, hasDecimal, scale);
+        displayText = (length < 0) ? null : new String(text);
+        isResultPending = false;
+
+    }//end of the readState Method
+    /**
+     * getDisplayText Method - Renders the text of the display
+     * @return String - the text of the display
+     */
+    public String getDisplayText() {
+        loadResult();
+        return (displayText == null) ? operand.toString() : displayText;
+
+    }//end of the getDisplayText Method
+    /**
+     * writeDisplayText Method - Renders the text of the display into a char[] without
+     * allocating, unless the display holds a result that has to be formatted as text
+     * @param buffer - the char[] to write the text into, with at least MAX_DISPLAY_LENGTH free
+     * chars after the offset
+     * @param offset - integer representing the index of the first char to write
+     * @return int - the index after the last char written
+     */
+    public int writeDisplayText(char[] buffer, int offset) {
+        loadResult();
+        if (displayText == null) {
+            return operand.writeTo(buffer, offset);
+
+        }
+        int length = Math.min(displayText.length(), MAX_DISPLAY_LENGTH);
+        displayText.getChars(0, length, buffer, offset);
+        return offset + length;
+
+    }//end of the writeDisplayText Method
+    /**
+     * getDisplayNumber Method - Returns the number in the display
+     * @return double - the number, or NaN when the display does not hold a number
+     */
+    public double getDisplayNumber() {
+        int lastErrorCode = errorCode;
+        double number = parseDisplay();
+        errorCode = lastErrorCode;
+        return number;
+
+    }//end of the getDisplayNumber Method
+    /**
+     * getDisplayMode Method - Returns the display mode, which is one of INPUT_MODE, RESULT_MODE,
+     * or ERROR_MODE
+     * @return int - the display mode
+     */
+    public int getDisplayMode() {
+        return displayMode;
+
+    }//end of the getDisplayMode Method
+    /**
+     * getLastNumber Method - Returns the left operand of the pending operation
+     * @return double - the last number
+     */
+    public double getLastNumber() {
+        return lastNumber;
+
+    }//end of the getLastNumber Method
+    /**
+     * getErrorCode Method - Returns the error of the last evaluation, which is one of the
+     * ErrorCodes
+     * @return int - the error code, or ErrorCode.NONE
+     */
+    public int getErrorCode() {
+        return errorCode;
+
+    }//end of the getErrorCode Method
+    /**
+     * setHistoryTape Method - Sets the tape to add every operation evaluated to
+     * @param historyTape - the HistoryTape, or null to keep no history
+     */
+    public void setHistoryTape(HistoryTape historyTape) {
+        this.historyTape = historyTape;
+
+    }//end of the setHistoryTape Method
+    /**
+     * getHistoryTape Method - Returns the tape every operation evaluated is added to
+     * @return HistoryTape - the tape, or null when no history is kept
+     */
+    public HistoryTape getHistoryTape() {
+        return historyTape;
+
+    }//end of the getHistoryTape Method
+    /**
+     * setMetrics Method - Sets the metrics to count every operation and error in
+     * @param metrics - the CalculatorMetrics, or null to count nothing
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        this.metrics = metrics;
+
+    }//end of the setMetrics Method
+    /**
+     * getMetrics Method - Returns the metrics every operation and error is counted in
+     * @return CalculatorMetrics - the metrics, or null when nothing is counted
+     */
+    public CalculatorMetrics getMetrics() {
+        return metrics;
+
+    }//end of the getMetrics Method
+    /**
+     * setFastFunctions Method - Selects the path of ScientificMath the functions take
+     * @param isFastFunctions - boolean representing whether the fast path is taken, rather
+     * than the strict one
+     */
+    public void setFastFunctions(boolean isFastFunctions) {
+        this.isFastFunctions = isFastFunctions;
+
+    }//end of the setFastFunctions Method
+    /**
+     * isFastFunctions Method - Returns whether the functions take the fast path
+     * @return boolean - true for the fast path, false for the strict one
+     */
+    public boolean isFastFunctions() {
+        return isFastFunctions;
+
+    }//end of the isFastFunctions Method
+    /**
+     * getLastOperator Method - Returns the pending operator, or NONE when there is none
+     * @return Operator - the last operator
+     */
+    public Operator getLastOperator() {
+        return lastOperator;
+
+    }//end of the getLastOperator Method
+}//end of the CalculatorEngine Class
@@ -0,0 +1,484 @@
+
+package calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The DecimalArithmetic Class performs the operations of the calculator on DecimalValues in
+ * exact decimal arithmetic.  Sums, differences, products, and percentages are exact, unless
+ * they have more fraction digits than the scale; then they, and every quotient, are rounded to
+ * the scale with the rounding mode.  The operations take an adaptive fast path: while both
+ * operands are compact and the result provably fits into a long, they compute on the unscaled
+ * longs, with the overflow checked on every step, and only promote the operands to BigDecimal
+ * when the long arithmetic would overflow.  A result that fits into a long again is demoted
+ * back to the compact form, so one large intermediate result does not make every later
+ * operation slow.  Results beyond the range of a double become infinity, as they do in double
+ * arithmetic.  Exponents that are not whole numbers, or larger than MAX_EXACT_EXPONENT, and
+ * square roots cannot be exact, so they are computed in double arithmetic and rounded to the
+ * scale.  A DecimalArithmetic counts its fast and slow operations, so it is not thread safe.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class DecimalArithmetic {
+    //Instance Variables
+    public final static int MAX_SCALE = 18;
+    public final static int MAX_INTEGER_DIGITS = 309;
+    public final static int MAX_EXACT_EXPONENT = 999;
+    public final static int DEFAULT_SCALE = 10;
+    final static long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+        10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+        1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+    private final static long[] SCALING_LIMITS = new long[POWERS_OF_TEN.length];
+    private final int scale;
+    private final RoundingMode rounding;
+    private final DecimalValue one;
+    private long fastCount;
+    private long slowCount;
+
+    static {
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            SCALING_LIMITS[i] = Long.MAX_VALUE / POWERS_OF_TEN[i];
+        }
+    }
+
+    /**
+     * DecimalArithmetic Constructor - Creates a DecimalArithmetic that rounds half even to
+     * DEFAULT_SCALE fraction digits
+     */
+    public DecimalArithmetic() {
+        this(DEFAULT_SCALE, RoundingMode.HALF_EVEN);
+
+    }//end of the DecimalArithmetic Constructor
+    /**
+     * DecimalArithmetic Constructor - Creates a DecimalArithmetic with a scale and a rounding mode
+     * @param scale - integer representing the number of fraction digits of the results, from 0
+     * to MAX_SCALE
+     * @param rounding - the RoundingMode of the results, which must not be UNNECESSARY, since
+     * quotients need rounding
+     */
+    public DecimalArithmetic(int scale, RoundingMode rounding) {
+        if ((scale < 0) || (scale > MAX_SCALE)) {
+            throw (new IllegalArgumentException("The scale must be from 0 to " + MAX_SCALE));
+
+        }
+        if (rounding == RoundingMode.UNNECESSARY) {
+            throw (new IllegalArgumentException("Quotients cannot be rounded UNNECESSARY"));
+
+        }
+        this.scale = scale;
+        this.rounding = rounding;
+        one = new DecimalValue();
+        one.setCompact(1, 0);
+
+    }//end of the DecimalArithmetic Constructor
+    /**
+     * add Method - Adds two values
+     * @param left - the DecimalValue to add to
+     * @param right - the DecimalValue to add
+     * @param result - the DecimalValue to hold the sum, which may be one of the operands
+     */
+    public void add(DecimalValue left, DecimalValue right, DecimalValue result) {
+        addSigned(left, right, false, result);
+
+    }//end of the add Method
+    /**
+     * subtract Method - Subtracts a value from another
+     * @param left - the DecimalValue to subtract from
+     * @param right - the DecimalValue to subtract
+     * @param result - the DecimalValue to hold the difference, which may be one of the operands
+     */
+    public void subtract(DecimalValue left, DecimalValue right, DecimalValue result) {
+        addSigned(left, right, true, result);
+
+    }//end of the subtract Method
+    /**
+     * addSigned Method - Adds a value, or its negation, to another, aligning the scales of
+     * compact values on the unscaled longs
+     * @param left - the DecimalValue to add to
+     * @param right - the DecimalValue to add
+     * @param isSubtraction - boolean representing whether to subtract the right value instead
+     * @param result - the DecimalValue to hold the result
+     */
+    private void addSigned(DecimalValue left, DecimalValue right, boolean isSubtraction,
+                                                                  DecimalValue result) {
+        if (left.isCompact() && right.isCompact() && (right.getUnscaled() != Long.MIN_VALUE)) {
+            int resultScale = Math.max(left.getScale(), right.getScale());
+            long a = left.getUnscaled();
+            long b = isSubtraction ? -right.getUnscaled() : right.getUnscaled();
+            if (fitsScaled(a, resultScale - left.getScale()) &&
+                fitsScaled(b, resultScale - right.getScale())) {
+                a *= POWERS_OF_TEN[resultScale - left.getScale()];
+                b *= POWERS_OF_TEN[resultScale - right.getScale()];
+                long sum = a + b;
+                if (((a ^ sum) & (b ^ sum)) >= 0) {
+                    finish(sum, resultScale, result);
+                    return;
+
+                }
+            }
+        }
+        if (left.isSpecial() || right.isSpecial()) {
+            setDouble(isSubtraction ? left.doubleValue() - right.doubleValue() :
+                                      left.doubleValue() + right.doubleValue(), result);
+            return;
+
+        }
+        BigDecimal a = left.toBigDecimal();
+        BigDecimal b = right.toBigDecimal();
+        setBig(isSubtraction ? a.subtract(b) : a.add(b), result);
+
+    }//end of the addSigned Method
+    /**
+     * multiply Method - Multiplies two values
+     * @param left - the DecimalValue to multiply
+     * @param right - the DecimalValue to multiply by
+     * @param result - the DecimalValue to hold the product, which may be one of the operands
+     */
+    public void multiply(DecimalValue left, DecimalValue right, DecimalValue result) {
+        if (left.isCompact() && right.isCompact()) {
+            long a = left.getUnscaled();
+            long b = right.getUnscaled();
+            int resultScale = left.getScale() + right.getScale();
+            if (fitsProduct(a, b) && (resultScale - scale < POWERS_OF_TEN.length)) {
+                finish(a * b, resultScale, result);
+                return;
+
+            }
+        }
+        if (left.isSpecial() || right.isSpecial()) {
+            setDouble(left.doubleValue() * right.doubleValue(), result);
+            return;
+
+        }
+        setBig(left.toBigDecimal().multiply(right.toBigDecimal()), result);
+
+    }//end of the multiply Method
+    /**
+     * divide Method - Divides a value by another, rounding the quotient to the scale.  Dividing
+     * by zero gives infinity, or NaN for zero divided by zero, as in double arithmetic.
+     * @param left - the DecimalValue to divide
+     * @param right - the DecimalValue to divide by
+     * @param result - the DecimalValue to hold the quotient, which may be one of the operands
+     */
+    public void divide(DecimalValue left, DecimalValue right, DecimalValue result) {
+        if (left.isCompact() && right.isCompact() && (right.getUnscaled() != 0) &&
+                                                (right.getUnscaled() != Long.MIN_VALUE)) {
+            long a = left.getUnscaled();
+            long b = right.getUnscaled();
+            int shift = scale + right.getScale() - left.getScale();
+            if ((shift >= 0) && fitsScaled(a, shift)) {
+                finishQuotient(divideRounded(a * POWERS_OF_TEN[shift], b), result);
+                return;
+
+            } else if ((shift < 0) && fitsScaled(b, -shift)) {
+                finishQuotient(divideRounded(a, b * POWERS_OF_TEN[-shift]), result);
+                return;
+
+            }
+        }
+        if (left.isSpecial() || right.isSpecial() || right.isZero()) {
+            setDouble(left.doubleValue() / right.doubleValue(), result);
+            return;
+
+        }
+        setBig(left.toBigDecimal().divide(right.toBigDecimal(), scale, rounding), result);
+
+    }//end of the divide Method
+    /**
+     * percent Method - Divides a value by one hundred, which only moves the decimal point
+     * @param value - the DecimalValue to divide
+     * @param result - the DecimalValue to hold the percentage, which may be the value
+     */
+    public void percent(DecimalValue value, DecimalValue result) {
+        if (value.isCompact() && (value.getScale() + 2 - scale < POWERS_OF_TEN.length)) {
+            finish(value.getUnscaled(), value.getScale() + 2, result);
+
+        } else if (value.isSpecial()) {
+            setDouble(value.doubleValue() * (.01), result);
+
+        } else {
+            setBig(value.toBigDecimal().movePointLeft(2), result);
+
+        }
+    }//end of the percent Method
+    /**
+     * inverse Method - Divides one by a value
+     * @param value - the DecimalValue to invert
+     * @param result - the DecimalValue to hold the inverse, which may be the value
+     */
+    public void inverse(DecimalValue value, DecimalValue result) {
+        divide(one, value, result);
+
+    }//end of the inverse Method
+    /**
+     * power Method - Raises a value to an exponent.  A whole exponent up to MAX_EXACT_EXPONENT
+     * is computed exactly, by repeated multiplication of the longs while the power fits into a
+     * long, and in BigDecimal otherwise, and a negative one is the inverse of the power.  Other
+     * exponents are computed in double arithmetic.
+     * @param base - the DecimalValue to raise
+     * @param exponent - the DecimalValue of the exponent
+     * @param result - the DecimalValue to hold the power, which may be one of the operands
+     */
+    public void power(DecimalValue base, DecimalValue exponent, DecimalValue result) {
+        double estimate = Math.pow(base.doubleValue(), exponent.doubleValue());
+        if (base.isSpecial() || exponent.isSpecial() || !isSmallInteger(exponent) ||
+                                                        Double.isInfinite(estimate)) {
+            setDouble(estimate, result);
+            return;
+
+        }
+        int n = (int) (exponent.getUnscaled() / POWERS_OF_TEN[exponent.getScale()]);
+        int magnitude = Math.abs(n);
+        if (base.isCompact() && (base.getScale() * magnitude <= MAX_SCALE)) {
+            long a = base.getUnscaled();
+            long power = 1;
+            int i = 0;
+            while ((i < magnitude) && fitsProduct(power, a)) {
+                power *= a;
+                i++;
+            }
+            if (i == magnitude) {
+                finishPower(power, base.getScale() * magnitude, n < 0, result);
+                return;
+
+            }
+        }
+        BigDecimal power = base.toBigDecimal().pow(magnitude);
+        if (n < 0) {
+            setBig(BigDecimal.ONE.divide(power, scale, rounding), result);
+
+        } else {
+            setBig(power, result);
+
+        }
+    }//end of the power Method
+    /**
+     * finishPower Method - Stores a whole power computed on the longs, inverting it for a
+     * negative exponent
+     * @param power - long representing the unscaled power
+     * @param powerScale - integer representing the scale of the power
+     * @param isNegative - boolean representing whether the exponent is negative
+     * @param result - the DecimalValue to hold the result
+     */
+    private void finishPower(long power, int powerScale, boolean isNegative,
+                                                      DecimalValue result) {
+        if (isNegative) {
+            result.setCompact(power, powerScale);
+            inverse(result, result);
+
+        } else {
+            finish(power, powerScale, result);
+
+        }
+    }//end of the finishPower Method
+    /**
+     * squareRoot Method - Takes the square root of a non negative value in double arithmetic,
+     * rounded to the scale
+     * @param value - the DecimalValue to take the square root of
+     * @param result - the DecimalValue to hold the square root, which may be the value
+     */
+    public void squareRoot(DecimalValue value, DecimalValue result) {
+        setDouble(Math.sqrt(value.doubleValue()), result);
+
+    }//end of the squareRoot Method
+    /**
+     * setDouble Method - Sets a value to the result of double arithmetic, rounded to the scale
+     * @param number - double representing the result
+     * @param result - the DecimalValue to hold the result
+     */
+    public void setDouble(double number, DecimalValue result) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            slowCount++;
+            result.setSpecial(number);
+
+        } else {
+            setBig(BigDecimal.valueOf(number), result);
+
+        }
+    }//end of the setDouble Method
+    /**
+     * finish Method - Rounds an unscaled long with more fraction digits than the scale, and
+     * stores it into the result.  The trailing zeros of sums and products are kept, since their
+     * scale is no larger than the scales of the operands.
+     * @param unscaled - long representing the digits of the result
+     * @param resultScale - integer representing the scale of the result, at most MAX_SCALE
+     * digits more than the scale
+     * @param result - the DecimalValue to hold the result
+     */
+    private void finish(long unscaled, int resultScale, DecimalValue result) {
+        if (resultScale > scale) {
+            unscaled = divideRounded(unscaled, POWERS_OF_TEN[resultScale - scale]);
+            resultScale = scale;
+
+        }
+        fastCount++;
+        result.setCompact(unscaled, resultScale);
+
+    }//end of the finish Method
+    /**
+     * finishQuotient Method - Removes the trailing zeros of the fraction of a quotient, which
+     * always has the full scale, so that the digits of exact quotients stay small, and stores
+     * it into the result
+     * @param quotient - long representing the digits of the quotient at the scale
+     * @param result - the DecimalValue to hold the quotient
+     */
+    private void finishQuotient(long quotient, DecimalValue result) {
+        int resultScale = scale;
+        while ((resultScale > 0) && (quotient % 10 == 0)) {
+            quotient /= 10;
+            resultScale--;
+        }
+        fastCount++;
+        result.setCompact(quotient, resultScale);
+
+    }//end of the finishQuotient Method
+    /**
+     * setBig Method - Rounds a BigDecimal with more fraction digits than the scale, removes the
+     * trailing zeros of its fraction, and stores it into the result, as infinity when it is
+     * beyond the range of a double
+     * @param number - the BigDecimal holding the result
+     * @param result - the DecimalValue to hold the result
+     */
+    private void setBig(BigDecimal number, DecimalValue result) {
+        slowCount++;
+        if (number.scale() > scale) {
+            number = number.setScale(scale, rounding);
+
+        }
+        if (number.precision() - number.scale() > MAX_INTEGER_DIGITS) {
+            result.setSpecial(number.signum() * Double.POSITIVE_INFINITY);
+
+        } else {
+            result.setBig(number.signum() == 0 ? BigDecimal.ZERO : number.stripTrailingZeros());
+
+        }
+    }//end of the setBig Method
+    /**
+     * divideRounded Method - Divides two longs, rounding the quotient with the rounding mode
+     * @param dividend - long representing the dividend
+     * @param divisor - long representing the divisor, which is neither zero nor Long.MIN_VALUE
+     * @return long - the rounded quotient
+     */
+    private long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+
+        }
+        int sign = ((dividend ^ divisor) < 0) ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder), Math.abs(divisor) - Math.abs(remainder));
+        boolean isIncremented;
+        switch (rounding) {
+            case UP:
+                isIncremented = true;
+                break;
+            case DOWN:
+                isIncremented = false;
+                break;
+            case CEILING:
+                isIncremented = sign > 0;
+                break;
+            case FLOOR:
+                isIncremented = sign < 0;
+                break;
+            case HALF_UP:
+                isIncremented = half >= 0;
+                break;
+            case HALF_DOWN:
+                isIncremented = half > 0;
+                break;
+            default:
+                isIncremented = (half > 0) || ((half == 0) && ((quotient & 1) != 0));
+                break;
+        }
+        return isIncremented ? quotient + sign : quotient;
+
+    }//end of the divideRounded Method
+    /**
+     * fitsScaled Method - Returns whether a long multiplied by a power of ten fits into a long
+     * @param number - long representing the number
+     * @param exponent - integer representing the non negative exponent of the power of ten
+     * @return boolean - true when the product does not overflow
+     */
+    private static boolean fitsScaled(long number, int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            return false;
+
+        }
+        return (number <= SCALING_LIMITS[exponent]) && (number >= -SCALING_LIMITS[exponent]);
+
+    }//end of the fitsScaled Method
+    /**
+     * fitsProduct Method - Returns whether the product of two longs fits into a long
+     * @param a - long representing the first factor
+     * @param b - long representing the second factor
+     * @return boolean - true when the product does not overflow
+     */
+    private static boolean fitsProduct(long a, long b) {
+        if (((Math.abs(a) | Math.abs(b)) >>> 31) == 0) {
+            return true;
+
+        }
+        if ((a == 0) || (b == 0)) {
+            return true;
+
+        }
+        long product = a * b;
+        return (product / b == a) && !((a == Long.MIN_VALUE) && (b == -1)) &&
+                                     !((b == Long.MIN_VALUE) && (a == -1));
+
+    }//end of the fitsProduct Method
+    /**
+     * isSmallInteger Method - Returns whether a compact value is a whole number with a
+     * magnitude of at most MAX_EXACT_EXPONENT
+     * @param value - the DecimalValue to check
+     * @return boolean - true when the value is a small whole number
+     */
+    private static boolean isSmallInteger(DecimalValue value) {
+        if (!value.isCompact()) {
+            return false;
+
+        }
+        long power = POWERS_OF_TEN[value.getScale()];
+        return (value.getUnscaled() % power == 0) &&
+               (Math.abs(value.getUnscaled() / power) <= MAX_EXACT_EXPONENT);
+
+    }//end of the isSmallInteger Method
+    /**
+     * getScale Method - Returns the number of fraction digits of the results
+     * @return int - the scale
+     */
+    public int getScale() {
+        return scale;
+
+    }//end of the getScale Method
+    /**
+     * getRounding Method - Returns the rounding mode of the results
+     * @return RoundingMode - the rounding mode
+     */
+    public RoundingMode getRounding() {
+        return rounding;
+
+    }//end of the getRounding Method
+    /**
+     * getFastCount Method - Returns the number of operations computed on the longs
+     * @return long - the number of fast operations
+     */
+    public long getFastCount() {
+        return fastCount;
+
+    }//end of the getFastCount Method
+    /**
+     * getSlowCount Method - Returns the number of operations promoted to BigDecimal or double
+     * @return long - the number of slow operations
+     */
+    public long getSlowCount() {
+        return slowCount;
+
+    }//end of the getSlowCount Method
+}//end of the DecimalArithmetic Class
@@ -0,0 +1,532 @@
+
+package calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * The DecimalCalculatorEngine Class is the exact decimal mode of the CalculatorEngine, for
+ * financial use, where 0.1 + 0.2 must be 0.3 and large products must keep every digit.  It
+ * responds to the same key events, with the same error messages, but it keeps the last number
+ * and every result as a DecimalValue and computes with a DecimalArithmetic, so sums,
+ * differences, products, and percentages are exact, and quotients and inverses are rounded to
+ * the scale of the arithmetic with its rounding mode.  The display shows a result exactly, with
+ * up to scale fraction digits, instead of rounding it to five decimal places as the double mode
+ * does.  Reading the display is exact as well: the digits of the Operand are the unscaled
+ * value of the number, and only results too large for the Operand are parsed from the text.
+ * The memory is exact as well.  The scientific functions, and the combinations and
+ * permutations, are computed in double arithmetic and rounded to the scale, as square roots are.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class DecimalCalculatorEngine extends CalculatorEngine {
+    //Instance Variables
+    protected final DecimalArithmetic arithmetic;
+    protected final DecimalValue lastValue;
+    protected final DecimalValue displayValue;
+    protected final DecimalValue resultValue;
+    protected final DecimalValue memoryValue;
+
+    /**
+     * DecimalCalculatorEngine Constructor - Creates an engine that rounds half even to
+     * DecimalArithmetic.DEFAULT_SCALE fraction digits
+     */
+    public DecimalCalculatorEngine() {
+        this(new DecimalArithmetic());
+
+    }//end of the DecimalCalculatorEngine Constructor
+    /**
+     * DecimalCalculatorEngine Constructor - Creates an engine with a scale and a rounding mode
+     * @param scale - integer representing the number of fraction digits of the results, from 0
+     * to DecimalArithmetic.MAX_SCALE
+     * @param rounding - the RoundingMode of the results, other than UNNECESSARY
+     */
+    public DecimalCalculatorEngine(int scale, RoundingMode rounding) {
+        this(new DecimalArithmetic(scale, rounding));
+
+    }//end of the DecimalCalculatorEngine Constructor
+    /**
+     * DecimalCalculatorEngine Constructor - Creates an engine computing with a DecimalArithmetic
+     * @param arithmetic - the DecimalArithmetic of the results
+     */
+    public DecimalCalculatorEngine(DecimalArithmetic arithmetic) {
+        this.arithmetic = arithmetic;
+        lastValue = new DecimalValue();
+        displayValue = new DecimalValue();
+        resultValue = new DecimalValue();
+        memoryValue = new DecimalValue();
+
+    }//end of the DecimalCalculatorEngine Constructor
+    /**
+     * changeSign Method - Changes the sign of the number in the display
+     */
+    @Override
+    public void changeSign() {
+        if (displayMode == INPUT_MODE) {
+            operand.negate();
+
+        } else if (displayMode == RESULT_MODE) {
+            if (!readDisplay(displayValue)) {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            } else if (!displayValue.isZero()) {
+                displayValue.negate();
+                displayDecimal(displayValue);
+
+            }
+        }
+    }//end of the changeSign Method
+    /**
+     * processOperator Method - Processes the operator by completing the pending operation
+     * @param operator - Operator representing the operator
+     */
+    @Override
+    public void processOperator(Operator operator) {
+        if (displayMode != ERROR_MODE) {
+            if (lastOperator != Operator.NONE) {
+                evaluateLastOperator(resultValue);
+                if (errorCode == ErrorCode.NONE) {
+                    displayDecimal(resultValue);
+
+                } else if (errorCode == ErrorCode.UNDEFINED) {
+                    displayError("Undefined");
+
+                } else {
+                    displayError(ErrorCode.getMessage(errorCode));
+
+                }
+            } else if (readDisplay(lastValue)) {
+                lastNumber = lastValue.doubleValue();
+
+            } else {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            }
+            isClearForNextDigit = true;
+            lastOperator = operator;
+        }
+    }//end of the processOperator Method
+    /**
+     * processEqualOperation Method - Process the equal operation
+     */
+    @Override
+    public void processEqualOperation() {
+        if (displayMode != ERROR_MODE) {
+            evaluateLastOperator(resultValue);
+            if (errorCode == ErrorCode.NONE) {
+                displayDecimal(resultValue);
+
+            } else {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            }
+            lastOperator = Operator.NONE;
+        }
+    }//end of the processEqualOperation Method
+    /**
+     * processPercent Method - Divides the number in the display by one hundred exactly
+     */
+    @Override
+    public void processPercent() {
+        if (displayMode != ERROR_MODE) {
+            if (readDisplay(displayValue)) {
+                arithmetic.percent(displayValue, resultValue);
+                recordDecimal('%', displayValue, null, resultValue);
+                displayDecimal(resultValue);
+
+            } else {
+                displayError(ErrorCode.getMessage(errorCode));
+
+            }
+        }
+    }//end of the processPercent Method
+    /**
+     * processInverse Method - Replaces the number in the display with its inverse, rounded to
+     * the scale
+     */
+    @Override
+    public void processInverse() {
+        if (displayMode != ERROR_MODE) {
+            if (isDisplayZero()) {
+                displayError("Undefined ");
+                return;
+
+            }
+            if (readDisplay(displayValue)) {
+                arithmetic.inverse(displayValue, resultValue);
+                recordDecimal('i', displayValue, null, resultValue);
+                displayDecimal(resultValue);
+
+            } else {
+                displayError(ErrorCode.getMessage(ErrorCode.UNDEFINED));
+
+            }
+        }
+    }//end of the processInverse Method
+    /**
+     * processSquareRoot Method - Completes any pending operation, and replaces the result with
+     * its square root, rounded to the scale
+     */
+    @Override
+    public void processSquareRoot() {
+        if (displayMode != ERROR_MODE) {
+            if (lastOperator != Operator.NONE) {
+                processEqualOperation();
+
+            }
+            if ((displayMode == ERROR_MODE) || isDisplayNegative()) {
+                displayError("Non Real Number ");
+                return;
+
+            }
+            if (readDisplay(displayValue)) {
+                arithmetic.squareRoot(displayValue, resultValue);
+                recordDecimal('r', displayValue, null, resultValue);
+                displayDecimal(resultValue);
+
+            } else {
+                displayError(ErrorCode.getMessage(ErrorCode.NON_REAL_NUMBER));
+
+            }
+        }
+    }//end of the processSquareRoot Method
+    /**
+     * processFunction Method - Replaces the number in the display with a function of it,
+     * computed in double arithmetic and rounded to the scale
+     * @param function - the ScientificFunction of the scientific key
+     */
+    @Override
+    public void processFunction(ScientificFunction function) {
+        if (displayMode != ERROR_MODE) {
+            if (readDisplay(displayValue)) {
+                double number = displayValue.doubleValue();
+                errorCode = function.getError(number);
+                if (errorCode == ErrorCode.NONE) {
+                    arithmetic.setDouble(function.apply(number, isFastFunctions), resultValue);
+                    recordDecimal(function.getKey(), displayValue, null, resultValue);
+                    displayDecimal(resultValue);
+                    return;
+
+                }
+                recordDecimal(function.getKey(), displayValue, null, null);
+
+            }
+            displayError(ErrorCode.getMessage(errorCode));
+
+        }
+    }//end of the processFunction Method
+    /**
+     * processLastOperator Method - Performs the pending operation in decimal arithmetic, for
+     * the callers that expect a double
+     * @return double - the result rounded to a double, or NaN when the operation fails
+     */
+    @Override
+    protected double processLastOperator() {
+        evaluateLastOperator(resultValue);
+        return (errorCode == ErrorCode.NONE) ? resultValue.doubleValue() : Double.NaN;
+
+    }//end of the processLastOperator Method
+    /**
+     * evaluateLastOperator Method - Performs the operations of addition, subtraction,
+     * multiplication, division, exponents, combinations, and permutations on the last value and
+     * the number in the display.
+     * The errorCode is set to NONE, or to the error of the operation.
+     * @param result - the DecimalValue to hold the result
+     */
+    protected void evaluateLastOperator(DecimalValue result) {
+        if (!readDisplay(displayValue)) {
+            return;
+
+        }
+        switch (lastOperator) {
+            case ADD:
+                arithmetic.add(lastValue, displayValue, result);
+                break;
+            case SUBTRACT:
+                arithmetic.subtract(lastValue, displayValue, result);
+                break;
+            case MULTIPLY:
+                arithmetic.multiply(lastValue, displayValue, result);
+                break;
+            case EXPONENT:
+                if ((lastValue.signum() < 0) && hasDisplayDecimal()) {
+                    errorCode = ErrorCode.NON_REAL_NUMBER;
+                    recordDecimal(lastOperator.getSymbol(), lastValue, displayValue, null);
+                    return;
+
+                }
+                arithmetic.power(lastValue, displayValue, result);
+                break;
+            case DIVIDE:
+                if (displayValue.isZero()) {
+                    errorCode = ErrorCode.UNDEFINED;
+                    recordDecimal(lastOperator.getSymbol(), lastValue, displayValue, null);
+                    return;
+
+                }
+                arithmetic.divide(lastValue, displayValue, result);
+                break;
+            case COMBINATIONS:
+            case PERMUTATIONS:
+                double n = lastValue.doubleValue();
+                double r = displayValue.doubleValue();
+                if (!ScientificMath.isCount(n, r)) {
+                    errorCode = ErrorCode.INVALID_ENTRY;
+                    recordDecimal(lastOperator.getSymbol(), lastValue, displayValue, null);
+                    return;
+
+                }
+                arithmetic.setDouble((lastOperator == Operator.COMBINATIONS) ?
+                                     ScientificMath.combinations(n, r, isFastFunctions) :
+                                     ScientificMath.permutations(n, r, isFastFunctions), result);
+                break;
+            default:
+                result.setCompact(0, 0);
+                return;
+        }
+        recordDecimal(lastOperator.getSymbol(), lastValue, displayValue, result);
+    }//end of the evaluateLastOperator Method
+    /**
+     * recordDecimal Method - Adds an operation to the HistoryTape, with its operands and result
+     * rounded to doubles, and counts it in the CalculatorMetrics, when there are any
+     * @param operation - a char representing the key of the operation
+     * @param left - the DecimalValue of the left operand, or of the operand of a unary operation
+     * @param right - the DecimalValue of the right operand, or null for a unary operation
+     * @param result - the DecimalValue of the result, or null when the operation failed
+     */
+    protected void recordDecimal(char operation, DecimalValue left, DecimalValue right,
+                                                                    DecimalValue result) {
+        if ((historyTape != null) || (metrics != null)) {
+            record(operation, left.doubleValue(),
+                   (right == null) ? Double.NaN : right.doubleValue(),
+                   (result == null) ? Double.NaN : result.doubleValue());
+
+        }
+    }//end of the recordDecimal Method
+    /**
+     * readDisplay Method - Reads the number in the display exactly, and sets the errorCode to
+     * NONE, or to INVALID_ENTRY when the display does not hold a number
+     * @param value - the DecimalValue to hold the number
+     * @return boolean - true when the display holds a number
+     */
+    protected boolean readDisplay(DecimalValue value) {
+        loadResult();
+        errorCode = ErrorCode.NONE;
+        if (displayText == null) {
+            if (operand.hasDigits()) {
+                long mantissa = operand.getMantissa();
+                value.setCompact(operand.isNegative() ? -mantissa : mantissa, operand.getScale());
+                return true;
+
+            }
+        } else if (displayText.equals("NaN")) {
+            value.setSpecial(Double.NaN);
+            return true;
+
+        } else if (isNumberText(displayText)) {
+            value.setBig(new BigDecimal(displayText));
+            return true;
+
+        }
+        errorCode = ErrorCode.INVALID_ENTRY;
+        return false;
+
+    }//end of the readDisplay Method
+    /**
+     * displayDecimal Method - Displays a result exactly, and makes it the last value
+     * @param result - the DecimalValue holding the result
+     */
+    protected void displayDecimal(DecimalValue result) {
+        isResultPending = false;
+        if (result.isSpecial()) {
+            displayText = DisplayFormatter.format(result.doubleValue());
+
+        } else if (result.isCompact() && operand.setDecimal(result.getUnscaled(),
+                                                           result.getScale())) {
+            displayText = null;
+
+        } else {
+            displayText = result.toBigDecimal().stripTrailingZeros().toPlainString();
+
+        }
+        lastValue.set(result);
+        lastNumber = result.doubleValue();
+        displayMode = RESULT_MODE;
+        isClearForNextDigit = true;
+
+    }//end of the displayDecimal Method
+    /**
+     * displayError Method - Displays the error message, and resets the last value to zero
+     * @param message - String representing the error message
+     */
+    @Override
+    protected void displayError(String message) {
+        super.displayError(message);
+        lastValue.setCompact(0, 0);
+
+    }//end of the displayError Method
+    /**
+     * memoryAdd Method - Adds the number in the display to the memory exactly (M+)
+     */
+    @Override
+    public void memoryAdd() {
+        if (displayMode != ERROR_MODE) {
+            if (readDisplay(displayValue)) {
+                arithmetic.add(memoryValue, displayValue, memoryValue);
+                memory = memoryValue.doubleValue();
+
+            }
+            isClearForNextDigit = true;
+        }
+    }//end of the memoryAdd Method
+    /**
+     * memorySubtract Method - Subtracts the number in the display from the memory exactly (M-)
+     */
+    @Override
+    public void memorySubtract() {
+        if (displayMode != ERROR_MODE) {
+            if (readDisplay(displayValue)) {
+                arithmetic.subtract(memoryValue, displayValue, memoryValue);
+                memory = memoryValue.doubleValue();
+
+            }
+            isClearForNextDigit = true;
+        }
+    }//end of the memorySubtract Method
+    /**
+     * memoryRecall Method - Enters the exact number in the memory into the display, without
+     * completing the pending operation (MR)
+     */
+    @Override
+    public void memoryRecall() {
+        isResultPending = false;
+        if (memoryValue.isCompact() && operand.setDecimal(memoryValue.getUnscaled(),
+                                                          memoryValue.getScale())) {
+            displayText = null;
+            displayMode = INPUT_MODE;
+
+        } else {
+            displayText = memoryValue.isSpecial() ?
+                          DisplayFormatter.format(memoryValue.doubleValue()) :
+                          memoryValue.toBigDecimal().stripTrailingZeros().toPlainString();
+            displayMode = RESULT_MODE;
+
+        }
+        isClearForNextDigit = true;
+
+    }//end of the memoryRecall Method
+    /**
+     * memoryClear Method - Sets the memory to zero (MC)
+     */
+    @Override
+    public void memoryClear() {
+        memoryValue.setCompact(0, 0);
+        memory = 0;
+
+    }//end of the memoryClear Method
+    /**
+     * hasMemory Method - Returns whether the exact memory holds a number other than zero
+     * @return boolean - true when the memory is not zero
+     */
+    @Override
+    public boolean hasMemory() {
+        return !memoryValue.isZero();
+
+    }//end of the hasMemory Method
+    /**
+     * writeState Method - Writes the state of the engine, with its exact last value and
+     * memory, into a ByteBuffer
+     * @param buffer - the ByteBuffer to write into, with at least MAX_STATE_LENGTH bytes free
+     */
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        super.writeState(buffer);
+        writeValue(lastValue, buffer);
+        writeValue(memoryValue, buffer);
+
+    }//end of the writeState Method
+    /**
+     * readState Method - Restores the state of the engine, with its exact last value and
+     * memory, from a snapshot written by writeState
+     * @param buffer - the ByteBuffer to read from
+     * @throws IllegalArgumentException - when the snapshot is not a state of a
+     * DecimalCalculatorEngine
+     */
+    @Override
+    public void readState(ByteBuffer buffer) {
+        super.readState(buffer);
+        readValue(lastValue, buffer);
+        readValue(memoryValue, buffer);
+
+    }//end of the readState Method
+    /**
+     * writeValue Method - Writes a DecimalValue into a ByteBuffer
+     * @param value - the DecimalValue to write
+     * @param buffer - the ByteBuffer to write into
+     */
+    private static void writeValue(DecimalValue value, ByteBuffer buffer) {
+        if (value.isSpecial()) {
+            buffer.put((byte) 2);
+            buffer.putDouble(value.doubleValue());
+
+        } else if (value.isCompact()) {
+            buffer.put((byte) 0);
+            buffer.putLong(value.getUnscaled());
+            buffer.put((byte) value.getScale());
+
+        } else {
+            BigDecimal number = value.toBigDecimal();
+            byte[] unscaled = number.unscaledValue().toByteArray();
+            buffer.put((byte) 1);
+            buffer.putInt(number.scale());
+            buffer.putShort((short) unscaled.length);
+            buffer.put(unscaled);
+
+        }
+    }//end of the writeValue Method
+    /**
+     * readValue Method - Reads a DecimalValue written by writeValue
+     * @param value - the DecimalValue to read into
+     * @param buffer - the ByteBuffer to read from
+     * @throws IllegalArgumentException - when the buffer does not hold a DecimalValue
+     */
+    private static void readValue(DecimalValue value, ByteBuffer buffer) {
+        int form = buffer.get();
+        if (form == 0) {
+            long unscaled = buffer.getLong();
+            value.setCompact(unscaled, buffer.get());
+
+        } else if (form == 1) {
+            int scale = buffer.getInt();
+            byte[] unscaled = new byte[buffer.getShort()];
+            buffer.get(unscaled);
+            value.setBig(new BigDecimal(new BigInteger(unscaled), scale));
+
+        } else if (form == 2) {
+            value.setSpecial(buffer.getDouble());
+
+        } else {
+            throw (new IllegalArgumentException("Not a state of a DecimalCalculatorEngine"));
+
+        }
+    }//end of the readValue Method
+    /**
+     * getArithmetic Method - Returns the DecimalArithmetic of the results
+     * @return DecimalArithmetic - the arithmetic
+     */
+    public DecimalArithmetic getArithmetic() {
+        return arithmetic;
+
+    }//end of the getArithmetic Method
+    /**
+     * getLastValue Method - Returns the exact left operand of the pending operation
+     * @return BigDecimal - the last value, or null when it is infinity or NaN
+     */
+    public BigDecimal getLastValue() {
+        return lastValue.isSpecial() ? null : lastValue.toBigDecimal();
+
+    }//end of the getLastValue Method
+}//end of the DecimalCalculatorEngine Class
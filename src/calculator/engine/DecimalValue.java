@@ -0,0 +1,193 @@
+
+package calculator.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * The DecimalValue Class holds a decimal number exactly, in the cheapest form that fits it.
+ * Most numbers are held compact, as a long unscaled value and a scale from 0 to
+ * DecimalArithmetic.MAX_SCALE, so that DecimalArithmetic computes with them in long arithmetic.
+ * A number too large for the compact form is held as a BigDecimal, and the values the double
+ * arithmetic of the calculator produces beyond the range of a double, infinity and not a
+ * number, are held as a special double.  A DecimalValue is mutable, so the engine reuses the
+ * same instances for every evaluation instead of allocating a number per result.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class DecimalValue {
+    //Instance Variables
+    private long unscaled;
+    private int scale;
+    private BigDecimal big;
+    private boolean isSpecial;
+    private double special;
+
+    /**
+     * DecimalValue Constructor - Creates a DecimalValue holding zero
+     */
+    public DecimalValue() {
+        setCompact(0, 0);
+
+    }//end of the DecimalValue Constructor
+    /**
+     * setCompact Method - Sets the value to an unscaled long and a scale
+     * @param unscaled - long representing the digits of the value
+     * @param scale - integer representing the number of fraction digits, from 0 to
+     * DecimalArithmetic.MAX_SCALE
+     */
+    public void setCompact(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        big = null;
+        isSpecial = false;
+
+    }//end of the setCompact Method
+    /**
+     * setBig Method - Sets the value to a BigDecimal, which is held compact when it fits
+     * @param value - the BigDecimal holding the value
+     */
+    public void setBig(BigDecimal value) {
+        BigDecimal number = (value.scale() < 0) ? value.setScale(0) : value;
+        if ((number.scale() <= DecimalArithmetic.MAX_SCALE) &&
+            (number.unscaledValue().bitLength() < Long.SIZE)) {
+            setCompact(number.unscaledValue().longValue(), number.scale());
+
+        } else {
+            big = number;
+            isSpecial = false;
+
+        }
+    }//end of the setBig Method
+    /**
+     * setSpecial Method - Sets the value to infinity or to not a number
+     * @param value - double representing the infinity or the NaN
+     */
+    public void setSpecial(double value) {
+        special = value;
+        isSpecial = true;
+        big = null;
+
+    }//end of the setSpecial Method
+    /**
+     * set Method - Sets the value to the value of another DecimalValue
+     * @param other - the DecimalValue to copy
+     */
+    public void set(DecimalValue other) {
+        unscaled = other.unscaled;
+        scale = other.scale;
+        big = other.big;
+        isSpecial = other.isSpecial;
+        special = other.special;
+
+    }//end of the set Method
+    /**
+     * negate Method - Changes the sign of the value
+     */
+    public void negate() {
+        if (isSpecial) {
+            special = -special;
+
+        } else if (big != null) {
+            big = big.negate();
+
+        } else if (unscaled == Long.MIN_VALUE) {
+            setBig(BigDecimal.valueOf(unscaled, scale).negate());
+
+        } else {
+            unscaled = -unscaled;
+
+        }
+    }//end of the negate Method
+    /**
+     * isCompact Method - Returns whether the value is held as an unscaled long and a scale
+     * @return boolean - true when the value is compact
+     */
+    public boolean isCompact() {
+        return !isSpecial && (big == null);
+
+    }//end of the isCompact Method
+    /**
+     * isSpecial Method - Returns whether the value is infinity or not a number
+     * @return boolean - true when the value is special
+     */
+    public boolean isSpecial() {
+        return isSpecial;
+
+    }//end of the isSpecial Method
+    /**
+     * isZero Method - Returns whether the value is zero
+     * @return boolean - true when the value is zero
+     */
+    public boolean isZero() {
+        return signum() == 0 && !(isSpecial && Double.isNaN(special));
+
+    }//end of the isZero Method
+    /**
+     * signum Method - Returns the sign of the value
+     * @return int - -1, 0, or 1 as the value is negative, zero, or positive, and 0 for NaN
+     */
+    public int signum() {
+        if (isSpecial) {
+            return (int) Math.signum(special);
+
+        }
+        return (big != null) ? big.signum() : Long.signum(unscaled);
+
+    }//end of the signum Method
+    /**
+     * getUnscaled Method - Returns the digits of a compact value
+     * @return long - the unscaled value
+     */
+    public long getUnscaled() {
+        return unscaled;
+
+    }//end of the getUnscaled Method
+    /**
+     * getScale Method - Returns the number of fraction digits of a compact value
+     * @return int - the scale
+     */
+    public int getScale() {
+        return scale;
+
+    }//end of the getScale Method
+    /**
+     * toBigDecimal Method - Returns the value as a BigDecimal
+     * @return BigDecimal - the value, which must not be special
+     */
+    public BigDecimal toBigDecimal() {
+        if (isSpecial) {
+            throw (new ArithmeticException("Not a finite number: " + special));
+
+        }
+        return (big != null) ? big : BigDecimal.valueOf(unscaled, scale);
+
+    }//end of the toBigDecimal Method
+    /**
+     * doubleValue Method - Returns the double nearest to the value
+     * @return double - the value rounded to a double
+     */
+    public double doubleValue() {
+        if (isSpecial) {
+            return special;
+
+        } else if (big != null) {
+            return big.doubleValue();
+
+        } else if (Math.abs(unscaled) < (1L << 53)) {
+            return unscaled / (double) DecimalArithmetic.POWERS_OF_TEN[scale];
+
+        }
+        return BigDecimal.valueOf(unscaled, scale).doubleValue();
+
+    }//end of the doubleValue Method
+    /**
+     * toString Method - Overrides the toString Method to return the value without an exponent
+     * @return String - the text of the value
+     */
+    @Override
+    public String toString() {
+        return isSpecial ? Double.toString(special) : toBigDecimal().toPlainString();
+
+    }//end of the toString Method
+}//end of the DecimalValue Class
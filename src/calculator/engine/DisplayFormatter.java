@@ -0,0 +1,180 @@
+
+package calculator.engine;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * The DisplayFormatter Class formats results for the display exactly as DecimalFormat with the
+ * pattern "###.#####" does: rounded half even to at most five fraction digits, without grouping,
+ * and with a minus sign for every negative result, even one that rounds to zero.  It keeps no
+ * mutable state, so it may be used by many threads without locks.  A result is rounded with
+ * long arithmetic and written into a char[] without allocation whenever it fits the display
+ * (below 1e10 in magnitude), and is not so close to a tie that DecimalFormat would round it by
+ * the decimal digits of its shortest representation rather than by its value.  A whole result
+ * up to MAX_EXACT_INTEGER, where every whole number is a double, is written from the digits
+ * of a long without any rounding, however large.  Every other result, such as a very large
+ * one, infinity, or not a number, is formatted by a DecimalFormat held by the calling thread.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class DisplayFormatter {
+    //Instance Variables
+    public final static String PATTERN = "###.#####";
+    public final static int FRACTION_DIGITS = 5;
+    public final static long SCALE = 100000L;
+    public final static long NOT_ROUNDED = Long.MIN_VALUE;
+    /** The longest text of a result below MAX_ROUNDED_VALUE: the sign, ten digits, the point,
+     * and five digits, which is also the sign and the sixteen digits of MAX_EXACT_INTEGER. */
+    public final static int MAX_ROUNDED_LENGTH = 17;
+    /** The longest text of any result: the sign and the 309 digits of Double.MAX_VALUE. */
+    public final static int MAX_TEXT_LENGTH = 310;
+    public final static double MAX_EXACT_INTEGER = 9007199254740992.0;
+    private final static double MAX_ROUNDED_VALUE = 1e10;
+    private final static boolean HAS_STANDARD_SYMBOLS = hasStandardSymbols();
+    private final static ThreadLocal<DecimalFormat> DECIMAL_FORMAT =
+            ThreadLocal.withInitial(() -> new DecimalFormat(PATTERN));
+    private final static ThreadLocal<char[]> BUFFER =
+            ThreadLocal.withInitial(() -> new char[MAX_ROUNDED_LENGTH]);
+
+    /**
+     * DisplayFormatter Constructor - Private, since the DisplayFormatter has only static methods
+     */
+    private DisplayFormatter() {
+
+    }//end of the DisplayFormatter Constructor
+    /**
+     * hasStandardSymbols Method - Returns whether DecimalFormat uses the digits, the decimal
+     * point and the minus sign written by the fast path in the default locale
+     * @return boolean - true when the symbols are '0', '.' and '-'
+     */
+    private static boolean hasStandardSymbols() {
+        DecimalFormatSymbols symbols = new DecimalFormat(PATTERN).getDecimalFormatSymbols();
+        return (symbols.getZeroDigit() == '0') && (symbols.getDecimalSeparator() == '.') &&
+                                                  (symbols.getMinusSign() == '-');
+
+    }//end of the hasStandardSymbols Method
+    /**
+     * round Method - Rounds a result half even to five fraction digits
+     * @param result - double representing the result
+     * @return long - the rounded result multiplied by SCALE, or NOT_ROUNDED when the result is
+     * too large, not a number, or too close to a tie to be rounded by its value
+     */
+    public static long round(double result) {
+        if (!(Math.abs(result) < MAX_ROUNDED_VALUE)) {
+            return NOT_ROUNDED;
+
+        }
+        double scaled = result * SCALE;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+
+        if (Math.abs(fraction - 0.5) <= 2 * Math.ulp(scaled)) {
+            return NOT_ROUNDED;
+
+        }
+        return (fraction < 0.5) ? (long) floor : (long) floor + 1;
+
+    }//end of the round Method
+    /**
+     * format Method - Formats a result into a char[]
+     * @param result - double representing the result
+     * @param buffer - the char[] to write the text into
+     * @param offset - integer representing the index of the first char to write
+     * @return int - the index after the last char written, or -1 when the result has to be
+     * formatted with format(double) instead
+     */
+    public static int format(double result, char[] buffer, int offset) {
+        if (!HAS_STANDARD_SYMBOLS) {
+            return -1;
+
+        }
+        int position = offset;
+        if (isExactInteger(result)) {
+            if (Double.doubleToRawLongBits(result) < 0) {
+                buffer[position++] = '-';
+
+            }
+            return writeDigits(Math.abs((long) result), buffer, position);
+
+        }
+        long rounded = round(result);
+        if (rounded == NOT_ROUNDED) {
+            return -1;
+
+        }
+        if (Double.doubleToRawLongBits(result) < 0) {
+            buffer[position++] = '-';
+
+        }
+        long magnitude = Math.abs(rounded);
+        long fraction = magnitude % SCALE;
+        int fractionDigits = FRACTION_DIGITS;
+        while ((fractionDigits > 0) && (fraction % 10 == 0)) {
+            fraction /= 10;
+            fractionDigits--;
+
+        }
+        position = writeDigits(magnitude / SCALE, buffer, position);
+        if (fractionDigits > 0) {
+            buffer[position++] = '.';
+            for (int i = position + fractionDigits - 1; i >= position; i--) {
+                buffer[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += fractionDigits;
+
+        }
+        return position;
+
+    }//end of the format Method
+    /**
+     * isExactInteger Method - Returns whether a result is a whole number that a long holds
+     * exactly, as does every whole double up to MAX_EXACT_INTEGER
+     * @param result - double representing the result
+     * @return boolean - true for a whole number from -MAX_EXACT_INTEGER to MAX_EXACT_INTEGER
+     */
+    public static boolean isExactInteger(double result) {
+        return (Math.abs(result) <= MAX_EXACT_INTEGER) && (result == (long) result);
+
+    }//end of the isExactInteger Method
+    /**
+     * format Method - Formats a result as a String
+     * @param result - double representing the result
+     * @return String - the text of the result
+     */
+    public static String format(double result) {
+        char[] buffer = BUFFER.get();
+        int length = format(result, buffer, 0);
+        if (length < 0) {
+            return DECIMAL_FORMAT.get().format(result);
+
+        }
+        return new String(buffer, 0, length);
+
+    }//end of the format Method
+    /**
+     * writeDigits Method - Writes the decimal digits of a non negative number
+     * @param number - long representing the number
+     * @param buffer - the char[] to write the digits into
+     * @param offset - integer representing the index of the first digit
+     * @return int - the index after the last digit
+     */
+    private static int writeDigits(long number, char[] buffer, int offset) {
+        int end = offset;
+        long remaining = number;
+        do {
+            end++;
+            remaining /= 10;
+        } while (remaining > 0);
+
+        remaining = number;
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return end;
+
+    }//end of the writeDigits Method
+}//end of the DisplayFormatter Class
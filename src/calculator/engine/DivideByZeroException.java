@@ -0,0 +1,28 @@
+
+package calculator.engine;
+
+/**
+ * DivideByZeroException Class - Custom exception for dividing by zero
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class DivideByZeroException extends Exception {
+    /**
+     * Default DivideByZeroException Constructor - Creates an instance of the DivideByZeroException
+     * with no parameter.
+     */
+    public DivideByZeroException() {
+        super("Undefined ");
+        
+    }//end of Default DivideByZeroException Constructor
+    /**
+     * DivideByZeroException Constructor - Creates an instance of the DivideByZeroException with
+     * one parameter.
+     * @param message - a String representing the message
+     */
+    public DivideByZeroException(String message) {
+        super(message);
+        
+    }//end of the DivideByZeroException Constructor
+}//end of the DivideByZeroException Class
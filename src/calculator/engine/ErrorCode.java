@@ -0,0 +1,54 @@
+
+package calculator.engine;
+
+/**
+ * The ErrorCode Class names the errors of an evaluation, so the engine and the evaluators of
+ * expressions can report an error by returning or storing a code instead of creating and
+ * throwing an exception, which captures the stack and costs far more than the evaluation when
+ * errors are common.  Each code has the message the display shows for it.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class ErrorCode {
+    //Instance Variables
+    public final static byte NONE = 0;
+    public final static byte UNDEFINED = 1;
+    public final static byte NON_REAL_NUMBER = 2;
+    public final static byte INVALID_ENTRY = 3;
+    private final static String[] MESSAGES = {
+        "", "Undefined ", "Non Real Number ", "Invalid Entry "
+    };
+
+    /**
+     * ErrorCode Constructor - Private, since the ErrorCode has only constants
+     */
+    private ErrorCode() {
+
+    }//end of the ErrorCode Constructor
+    /**
+     * getMessage Method - Returns the message the display shows for an error
+     * @param errorCode - integer representing the error
+     * @return String - the message, which is empty for NONE
+     */
+    public static String getMessage(int errorCode) {
+        return MESSAGES[errorCode];
+
+    }//end of the getMessage Method
+    /**
+     * forMessage Method - Returns the error of a message the display shows, which is
+     * INVALID_ENTRY for the "ERROR" of a digit that is not one
+     * @param message - String representing the message
+     * @return int - the error code of the message
+     */
+    public static int forMessage(String message) {
+        switch (message.charAt(0)) {
+            case 'U':
+                return UNDEFINED;
+            case 'N':
+                return NON_REAL_NUMBER;
+            default:
+                return INVALID_ENTRY;
+        }
+    }//end of the forMessage Method
+}//end of the ErrorCode Class
@@ -0,0 +1,311 @@
+
+package calculator.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The HistoryTape Class is the tape of a calculator: the operations it has evaluated, with
+ * their operands, results, errors, and times.  The tape is a ring of fixed length records in a
+ * direct ByteBuffer, so it holds its capacity of records outside of the heap, costs the
+ * garbage collector nothing however long the session, and adding a record allocates nothing.
+ * Once the tape is full, every record replaces the oldest.  The records are numbered from 0 in
+ * the order they were added, and the numbers of the records still on the tape run from
+ * getFirstIndex to getCount - 1.  A record holds the operation as the char of its key, as
+ * CalculatorEngine.press names them, and the right operand of a unary operation is NaN.
+ *
+ * The tape may be read by other threads than the engine, as when it is exported: the methods
+ * are synchronized, and writeCsv copies a few records at a time under the lock, and formats
+ * them outside of it, so an export of a full tape never holds up the engine.  The lock is the
+ * tape itself, so a reader that needs several fields of a record, or the bounds together with
+ * a record, holds it around the calls, and no record is replaced in between.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class HistoryTape {
+    //Instance Variables
+    public final static int DEFAULT_CAPACITY = 1 << 18;
+    public final static int RECORD_LENGTH = 40;
+    public final static String CSV_HEADER = "index,time,operation,left,right,result,error";
+    private final static int TIME = 0;
+    private final static int LEFT = 8;
+    private final static int RIGHT = 16;
+    private final static int RESULT = 24;
+    private final static int OPERATION = 32;
+    private final static int ERROR_CODE = 34;
+    private final static int CSV_CHUNK = 1 << 10;
+    private final ByteBuffer records;
+    private final int capacity;
+    private long count;
+    private long clearCount;
+
+    /**
+     * HistoryTape Constructor - Creates a HistoryTape of DEFAULT_CAPACITY records
+     */
+    public HistoryTape() {
+        this(DEFAULT_CAPACITY);
+
+    }//end of the HistoryTape Constructor
+    /**
+     * HistoryTape Constructor - Creates a HistoryTape of a capacity
+     * @param capacity - integer representing the number of records the tape keeps
+     */
+    public HistoryTape(int capacity) {
+        if ((capacity <= 0) || (capacity > Integer.MAX_VALUE / RECORD_LENGTH)) {
+            throw (new IllegalArgumentException("Not a capacity of a tape: " + capacity));
+
+        }
+        this.capacity = capacity;
+        records = ByteBuffer.allocateDirect(capacity * RECORD_LENGTH);
+
+    }//end of the HistoryTape Constructor
+    /**
+     * add Method - Adds a record of an operation at the current time
+     * @param operation - a char representing the key of the operation
+     * @param left - double representing the left operand, or the operand of a unary operation
+     * @param right - double representing the right operand, or NaN for a unary operation
+     * @param result - double representing the result, or NaN when the operation failed
+     * @param errorCode - integer representing the error of the operation, or ErrorCode.NONE
+     */
+    public synchronized void add(char operation, double left, double right, double result,
+                                                                           int errorCode) {
+        int offset = (int) (count % capacity) * RECORD_LENGTH;
+        records.putLong(offset + TIME, System.currentTimeMillis());
+        records.putDouble(offset + LEFT, left);
+        records.putDouble(offset + RIGHT, right);
+        records.putDouble(offset + RESULT, result);
+        records.putChar(offset + OPERATION, operation);
+        records.put(offset + ERROR_CODE, (byte) errorCode);
+        count++;
+
+    }//end of the add Method
+    /**
+     * clear Method - Removes every record from the tape
+     */
+    public synchronized void clear() {
+        count = 0;
+        clearCount++;
+
+    }//end of the clear Method
+    /**
+     * getCount Method - Returns the number of records added since the tape was cleared, which
+     * is the index of the next record
+     * @return long - the number of records
+     */
+    public synchronized long getCount() {
+        return count;
+
+    }//end of the getCount Method
+    /**
+     * getFirstIndex Method - Returns the index of the oldest record still on the tape
+     * @return long - the index of the oldest record
+     */
+    public synchronized long getFirstIndex() {
+        return Math.max(0, count - capacity);
+
+    }//end of the getFirstIndex Method
+    /**
+     * size Method - Returns the number of records on the tape
+     * @return int - the number of records, at most the capacity
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, capacity);
+
+    }//end of the size Method
+    /**
+     * getCapacity Method - Returns the number of records the tape keeps
+     * @return int - the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+
+    }//end of the getCapacity Method
+    /**
+     * getTime Method - Returns the time of a record
+     * @param index - long representing the index of the record
+     * @return long - the time in milliseconds since the epoch
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized long getTime(long index) {
+        return records.getLong(offsetOf(index) + TIME);
+
+    }//end of the getTime Method
+    /**
+     * getOperation Method - Returns the operation of a record
+     * @param index - long representing the index of the record
+     * @return char - the key of the operation
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized char getOperation(long index) {
+        return records.getChar(offsetOf(index) + OPERATION);
+
+    }//end of the getOperation Method
+    /**
+     * getLeft Method - Returns the left operand of a record
+     * @param index - long representing the index of the record
+     * @return double - the left operand, or the operand of a unary operation
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized double getLeft(long index) {
+        return records.getDouble(offsetOf(index) + LEFT);
+
+    }//end of the getLeft Method
+    /**
+     * getRight Method - Returns the right operand of a record
+     * @param index - long representing the index of the record
+     * @return double - the right operand, or NaN for a unary operation
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized double getRight(long index) {
+        return records.getDouble(offsetOf(index) + RIGHT);
+
+    }//end of the getRight Method
+    /**
+     * getResult Method - Returns the result of a record
+     * @param index - long representing the index of the record
+     * @return double - the result, or NaN when the operation failed
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized double getResult(long index) {
+        return records.getDouble(offsetOf(index) + RESULT);
+
+    }//end of the getResult Method
+    /**
+     * getErrorCode Method - Returns the error of a record
+     * @param index - long representing the index of the record
+     * @return int - the error code, or ErrorCode.NONE
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    public synchronized int getErrorCode(long index) {
+        return records.get(offsetOf(index) + ERROR_CODE);
+
+    }//end of the getErrorCode Method
+    /**
+     * offsetOf Method - Returns the offset of a record in the ring
+     * @param index - long representing the index of the record
+     * @return int - the offset of the record
+     * @throws IndexOutOfBoundsException - when the record is not on the tape
+     */
+    private int offsetOf(long index) {
+        if ((index < count - capacity) || (index < 0) || (index >= count)) {
+            throw (new IndexOutOfBoundsException("Not a record on the tape: " + index));
+
+        }
+        return (int) (index % capacity) * RECORD_LENGTH;
+
+    }//end of the offsetOf Method
+    /**
+     * copy Method - Copies the records from an index into a buffer, as many as fit
+     * @param index - long representing the index of the first record to copy
+     * @param buffer - the ByteBuffer to copy into, which is cleared first
+     * @param clears - long representing the number of times the tape had been cleared when
+     * the copying began
+     * @return long - the index of the first record copied, which is later than the index when
+     * its records have been replaced in the meantime, or -1 when the tape has been cleared
+     * since, or holds no record from the index any more
+     */
+    private synchronized long copy(long index, ByteBuffer buffer, long clears) {
+        long first = Math.max(index, count - capacity);
+        long last = Math.min(count, first + buffer.capacity() / RECORD_LENGTH);
+        buffer.clear();
+        if ((clears != clearCount) || (first >= last)) {
+            buffer.flip();
+            return -1;
+
+        }
+        ByteBuffer source = records.duplicate();
+        for (long i = first; i < last; ) {
+            int slot = (int) (i % capacity);
+            int length = (int) Math.min(last - i, capacity - slot);
+            source.limit((slot + length) * RECORD_LENGTH).position(slot * RECORD_LENGTH);
+            buffer.put(source);
+            i += length;
+        }
+        buffer.flip();
+        return first;
+
+    }//end of the copy Method
+    /**
+     * writeCsv Method - Writes the records on the tape as comma separated values, with a line
+     * of column names first, copying only a few records at a time, so the tape can be written
+     * while the engine adds records.  The records added during the export are not written, and
+     * the export stops when the tape is cleared during it.
+     * @param out - the Appendable to write to, such as a buffered Writer
+     * @return long - the number of records written
+     * @throws IOException - when the Appendable fails
+     */
+    public long writeCsv(Appendable out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CSV_CHUNK * RECORD_LENGTH);
+        StringBuilder line = new StringBuilder(128);
+        long end;
+        long clears;
+        long first;
+        long written = 0;
+
+        synchronized (this) {
+            end = count;
+            clears = clearCount;
+            first = getFirstIndex();
+        }
+        out.append(CSV_HEADER).append('\n');
+        for (long index = first; index < end; ) {
+            index = copy(index, buffer, clears);
+            if (index < 0) {
+                break;
+
+            }
+            while (buffer.hasRemaining() && (index < end)) {
+                int offset = buffer.position();
+                line.setLength(0);
+                line.append(index).append(',').append(buffer.getLong(offset + TIME)).append(',');
+                line.append(getOperationName(buffer.getChar(offset + OPERATION))).append(',');
+                appendNumber(line, buffer.getDouble(offset + LEFT)).append(',');
+                appendNumber(line, buffer.getDouble(offset + RIGHT)).append(',');
+                appendNumber(line, buffer.getDouble(offset + RESULT)).append(',');
+                line.append(ErrorCode.getMessage(buffer.get(offset + ERROR_CODE)).trim());
+                out.append(line).append('\n');
+                buffer.position(offset + RECORD_LENGTH);
+                index++;
+                written++;
+            }
+        }
+        return written;
+
+    }//end of the writeCsv Method
+    /**
+     * appendNumber Method - Appends a number of a record, or nothing for NaN
+     * @param line - the StringBuilder to append to
+     * @param number - double representing the number
+     * @return StringBuilder - the line
+     */
+    private static StringBuilder appendNumber(StringBuilder line, double number) {
+        if (!Double.isNaN(number)) {
+            line.append(number);
+
+        }
+        return line;
+
+    }//end of the appendNumber Method
+    /**
+     * getOperationName Method - Returns the name of an operation, as its key shows it, and
+     * the name of a ScientificFunction for the key of one
+     * @param operation - a char representing the key of the operation
+     * @return String - the name of the operation
+     */
+    public static String getOperationName(char operation) {
+        switch (operation) {
+            case 'i':
+                return "1/x";
+            case 'r':
+                return "sqrt";
+            case 'C':
+                return "nCr";
+            case 'P':
+                return "nPr";
+            default:
+                ScientificFunction function = ScientificFunction.forKey(operation);
+                return (function != null) ? function.getName() : String.valueOf(operation);
+        }
+    }//end of the getOperationName Method
+}//end of the HistoryTape Class
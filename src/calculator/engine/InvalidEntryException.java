@@ -0,0 +1,28 @@
+
+package calculator.engine;
+
+/**
+ * InvalidEntryException Class - Custom exception for invalid entries
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class InvalidEntryException extends Exception {
+    /**
+     * Default InvalidEntryException Constructor - Creates an instance of the InvalidEntryException
+     * with no parameter.
+     */
+    public InvalidEntryException() {
+        super("Invalid Entry ");
+        
+    }//end of the Default InvalidEntryException Constructor
+    /**
+     * InvalidEntryException Constructor - Creates an instance of the InvalidEntryException with
+     * one parameter
+     * @param message - a String representing the message
+     */
+    public InvalidEntryException(String message) {
+        super(message);
+        
+    }//end of the InValidEntryException Constructor
+}//end of the InValidEntryException Class
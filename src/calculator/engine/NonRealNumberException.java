@@ -0,0 +1,29 @@
+
+package calculator.engine;
+
+/**
+ * NonRealNumberException Class - Custom exception for taking square root of a negative 
+ * number
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class NonRealNumberException extends Exception {
+    /**
+     * Default NonRealNumberException Constructor - Creates an instance of NonRealNumberException
+     * with no parameter.
+     */
+    public NonRealNumberException() {
+        super("Non Real Number ");
+        
+    }//end of Default NonRealNumberException Constructor
+    /**
+     * NonRealNumberException Constructor - Creates an instance of NonRealNumberException with one
+     * parameter.
+     * @param message - a String representing the message
+     */
+    public NonRealNumberException(String message) {
+        super(message);
+        
+    }//end of the NonRealNumberException Constructor
+}//end of the NonRealNumberException Class
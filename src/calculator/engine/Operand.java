@@ -0,0 +1,355 @@
+
+package calculator.engine;
+
+/**
+ * The Operand Class holds the number in the display as a numeric accumulator instead of text.
+ * The digits are kept in a long mantissa together with the number of integer digits, the
+ * number of fraction digits (the scale), the decimal point, and the sign, so that entering a
+ * digit, a decimal point, a change of sign, or a backspace costs a constant amount of work.
+ * The value and the text of the display are derived from the fields only when they are needed.
+ * Since an entry has at most MAX_LENGTH digits, the mantissa and the power of ten of the scale
+ * are both exact doubles, and their quotient is the same double Double.parseDouble returns for
+ * the text of the display.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class Operand {
+    //Instance Variables
+    private final static long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+        10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+        1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+    private final static int MAX_TEXT_LENGTH = 24;
+    private final static double MAX_INTEGER_RESULT = 1e10;
+    private boolean isNegative;
+    private long mantissa;
+    private int integerDigits;
+    private boolean hasDecimal;
+    private int scale;
+
+    /**
+     * Operand Constructor - Creates an Operand holding zero
+     */
+    public Operand() {
+        setZero();
+
+    }//end of the Operand Constructor
+    /**
+     * setZero Method - Sets the operand to the text "0"
+     */
+    public void setZero() {
+        isNegative = false;
+        mantissa = 0;
+        integerDigits = 1;
+        hasDecimal = false;
+        scale = 0;
+
+    }//end of the setZero Method
+    /**
+     * setEmpty Method - Sets the operand to the empty text, which the next digit or decimal
+     * point replaces
+     */
+    public void setEmpty() {
+        isNegative = false;
+        mantissa = 0;
+        integerDigits = 0;
+        hasDecimal = false;
+        scale = 0;
+
+    }//end of the setEmpty Method
+    /**
+     * length Method - Returns the number of characters of the text of the operand
+     * @return int - the length of the text
+     */
+    public int length() {
+        return (isNegative ? 1 : 0) + integerDigits + (hasDecimal ? 1 : 0) + scale;
+
+    }//end of the length Method
+    /**
+     * appendDigit Method - Appends a digit to the operand.  A leading zero is replaced by the
+     * digit, and the digit is ignored once the text is maxLength characters long.
+     * @param digit - integer representing the digit from 0 to 9
+     * @param maxLength - integer representing the maximum length of the text
+     */
+    public void appendDigit(int digit, int maxLength) {
+        boolean hasLeadingZero = !isNegative && (integerDigits == 1) && (integerPart() == 0);
+        int length = hasLeadingZero ? length() - 1 : length();
+
+        if (length < maxLength) {
+            if (hasLeadingZero) {
+                integerDigits = 0;
+
+            }
+            mantissa = mantissa * 10 + digit;
+            if (hasDecimal) {
+                scale++;
+
+            } else {
+                integerDigits++;
+
+            }
+        }
+    }//end of the appendDigit Method
+    /**
+     * appendDecimal Method - Appends the decimal point, unless the operand already has one
+     */
+    public void appendDecimal() {
+        hasDecimal = true;
+
+    }//end of the appendDecimal Method
+    /**
+     * negate Method - Changes the sign of the operand, unless the text is empty, "0" or ".0"
+     */
+    public void negate() {
+        boolean isZero = !isNegative && (mantissa == 0) && ((integerDigits == 1) && !hasDecimal ||
+                                                     (integerDigits == 0) && (scale == 1));
+        if ((length() > 0) && !isZero) {
+            isNegative = !isNegative;
+
+        }
+    }//end of the negate Method
+    /**
+     * backspace Method - Removes the last character of the operand, and resets the operand
+     * to zero when nothing is left of the number
+     */
+    public void backspace() {
+        if (scale > 0) {
+            mantissa /= 10;
+            scale--;
+
+        } else if (hasDecimal) {
+            hasDecimal = false;
+
+        } else if (integerDigits > 0) {
+            mantissa /= 10;
+            integerDigits--;
+
+        } else {
+            isNegative = false;
+
+        }
+        if ((integerDigits == 0) && !hasDecimal) {
+            setZero();
+
+        }
+    }//end of the backspace Method
+    /**
+     * setRounded Method - Sets the operand to the text the display shows for a result, which
+     * is the result rounded half even to five decimal places with trailing zeros removed.  A
+     * whole result takes its digits from a long, without rounding.
+     * @param result - double representing the result
+     * @return boolean - false when DisplayFormatter cannot round the result, in which case the
+     * operand is unchanged and the result must be formatted as text
+     */
+    public boolean setRounded(double result) {
+        if ((Math.abs(result) < MAX_INTEGER_RESULT) && (result == (long) result)) {
+            isNegative = Double.doubleToRawLongBits(result) < 0;
+            mantissa = Math.abs((long) result);
+            scale = 0;
+            hasDecimal = false;
+            integerDigits = Math.max(1, digitCount(mantissa));
+            return true;
+
+        }
+        long rounded = DisplayFormatter.round(result);
+        if (rounded == DisplayFormatter.NOT_ROUNDED) {
+            return false;
+
+        }
+        isNegative = Double.doubleToRawLongBits(result) < 0;
+        mantissa = Math.abs(rounded);
+        scale = DisplayFormatter.FRACTION_DIGITS;
+        while ((scale > 0) && (mantissa % 10 == 0)) {
+            mantissa /= 10;
+            scale--;
+
+        }
+        hasDecimal = scale > 0;
+        integerDigits = Math.max(1, digitCount(integerPart()));
+        return true;
+
+    }//end of the setRounded Method
+    /**
+     * setDecimal Method - Sets the operand to the exact text of a decimal number, which is an
+     * unscaled value and a scale, with the trailing zeros of the fraction removed
+     * @param unscaled - long representing the digits of the number
+     * @param scale - integer representing the number of fraction digits
+     * @return boolean - false when the scale is beyond the digits of a long, in which case the
+     * operand is unchanged and the number must be formatted as text
+     */
+    public boolean setDecimal(long unscaled, int scale) {
+        if ((scale < 0) || (scale >= POWERS_OF_TEN.length) || (unscaled == Long.MIN_VALUE)) {
+            return false;
+
+        }
+        isNegative = unscaled < 0;
+        mantissa = Math.abs(unscaled);
+        this.scale = scale;
+        while ((this.scale > 0) && (mantissa % 10 == 0)) {
+            mantissa /= 10;
+            this.scale--;
+
+        }
+        hasDecimal = this.scale > 0;
+        integerDigits = Math.max(1, digitCount(integerPart()));
+        return true;
+
+    }//end of the setDecimal Method
+    /**
+     * hasDigits Method - Returns whether the operand holds at least one digit, which is false
+     * for the texts "", "." and "-."
+     * @return boolean - true when the operand is a number
+     */
+    public boolean hasDigits() {
+        return (integerDigits + scale) > 0;
+
+    }//end of the hasDigits Method
+    /**
+     * hasDecimal Method - Returns whether the text of the operand contains a decimal point
+     * @return boolean - true when the operand has a decimal point
+     */
+    public boolean hasDecimal() {
+        return hasDecimal;
+
+    }//end of the hasDecimal Method
+    /**
+     * isNegative Method - Returns whether the text of the operand starts with a minus sign
+     * @return boolean - true when the operand is negative
+     */
+    public boolean isNegative() {
+        return isNegative;
+
+    }//end of the isNegative Method
+    /**
+     * isZeroText Method - Returns whether the text of the operand is exactly "0" or "0.0"
+     * @return boolean - true when the text is "0" or "0.0"
+     */
+    public boolean isZeroText() {
+        return !isNegative && (mantissa == 0) && (integerDigits == 1) && (scale == 
+                                                        (hasDecimal ? 1 : 0));
+
+    }//end of the isZeroText Method
+    /**
+     * getMantissa Method - Returns the digits of the operand without the sign
+     * @return long - the mantissa
+     */
+    public long getMantissa() {
+        return mantissa;
+
+    }//end of the getMantissa Method
+    /**
+     * getScale Method - Returns the number of digits after the decimal point
+     * @return int - the scale
+     */
+    public int getScale() {
+        return scale;
+
+    }//end of the getScale Method
+    /**
+     * getIntegerDigits Method - Returns the number of digits before the decimal point
+     * @return int - the number of integer digits, which is zero for an empty operand
+     */
+    public int getIntegerDigits() {
+        return integerDigits;
+
+    }//end of the getIntegerDigits Method
+    /**
+     * restore Method - Sets every field of the operand, as saved from the getters of another
+     * @param isNegative - boolean representing whether the text starts with a minus sign
+     * @param mantissa - long representing the digits
+     * @param integerDigits - integer representing the number of digits before the decimal point
+     * @param hasDecimal - boolean representing whether the text has a decimal point
+     * @param scale - integer representing the number of digits after the decimal point
+     */
+    public void restore(boolean isNegative, long mantissa, int integerDigits, boolean hasDecimal,
+                                                                               int scale) {
+        this.isNegative = isNegative;
+        this.mantissa = mantissa;
+        this.integerDigits = integerDigits;
+        this.hasDecimal = hasDecimal;
+        this.scale = scale;
+
+    }//end of the restore Method
+    /**
+     * doubleValue Method - Returns the value of the operand
+     * @return double - the value, which equals Double.parseDouble of the text
+     */
+    public double doubleValue() {
+        double value = (double) mantissa / POWERS_OF_TEN[scale];
+        return isNegative ? -value : value;
+
+    }//end of the doubleValue Method
+    /**
+     * integerPart Method - Returns the digits before the decimal point
+     * @return long - the integer part of the mantissa
+     */
+    private long integerPart() {
+        return mantissa / POWERS_OF_TEN[scale];
+
+    }//end of the integerPart Method
+    /**
+     * digitCount Method - Returns the number of decimal digits of a non negative number
+     * @param number - long representing the number
+     * @return int - the number of digits, which is zero for zero
+     */
+    private static int digitCount(long number) {
+        int count = 0;
+        while ((count < POWERS_OF_TEN.length) && (number >= POWERS_OF_TEN[count])) {
+            count++;
+        }
+        return count;
+
+    }//end of the digitCount Method
+    /**
+     * writeTo Method - Renders the text of the operand into a char[] with at least
+     * DisplayFormatter.MAX_ROUNDED_LENGTH free chars after the offset
+     * @param buffer - the char[] to write the text into
+     * @param offset - integer representing the index of the first char to write
+     * @return int - the index after the last char written
+     */
+    public int writeTo(char[] buffer, int offset) {
+        int position = offset;
+        if (isNegative) {
+            buffer[position++] = '-';
+
+        }
+        if (integerDigits > 0) {
+            position = writeDigits(buffer, position, integerPart(), integerDigits);
+
+        }
+        if (hasDecimal) {
+            buffer[position++] = '.';
+            position = writeDigits(buffer, position, mantissa % POWERS_OF_TEN[scale], scale);
+
+        }
+        return position;
+
+    }//end of the writeTo Method
+    /**
+     * writeDigits Method - Writes a number padded with leading zeros to a number of digits
+     * @param buffer - the char[] to write into
+     * @param offset - integer representing the index of the first digit
+     * @param number - long representing the non negative number
+     * @param digits - integer representing the number of digits
+     * @return int - the index after the last digit
+     */
+    private static int writeDigits(char[] buffer, int offset, long number, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[offset++] = (char) ('0' + (number / POWERS_OF_TEN[i]) % 10);
+        }
+        return offset;
+
+    }//end of the writeDigits Method
+    /**
+     * toString Method - Overrides the toString Method to return the text of the operand
+     * @return String - the text of the operand
+     */
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_TEXT_LENGTH];
+        return new String(buffer, 0, writeTo(buffer, 0));
+
+    }//end of the toString Method
+}//end of the Operand Class
@@ -0,0 +1,64 @@
+
+package calculator.engine;
+
+/**
+ * The Operator Enum represents the binary operators of the calculator.  NONE stands for the
+ * state in which no operator is pending, which was previously represented by the String "0".
+ * COMBINATIONS and PERMUTATIONS are the nCr and nPr keys of the scientific mode, which count
+ * the ways to choose and to arrange the number in the display out of the last number.
+ * The operators are dispatched with a single switch on the constant, so the evaluation of an
+ * operation never compares Strings or boxes a number.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public enum Operator {
+    NONE('0'),
+    ADD('+'),
+    SUBTRACT('-'),
+    MULTIPLY('*'),
+    DIVIDE('/'),
+    EXPONENT('^'),
+    COMBINATIONS('C'),
+    PERMUTATIONS('P');
+
+    //Instance Variables
+    private final static Operator[] SYMBOL_TABLE = new Operator[128];
+    private final char symbol;
+
+    static {
+        for (Operator operator : values()) {
+            SYMBOL_TABLE[operator.symbol] = operator;
+        }
+    }
+
+    /**
+     * Operator Constructor - Creates an Operator with its symbol
+     * @param symbol - a char representing the symbol of the operator on the keypad
+     */
+    Operator(char symbol) {
+        this.symbol = symbol;
+
+    }//end of the Operator Constructor
+    /**
+     * getSymbol Method - Returns the symbol of the operator
+     * @return char - the symbol of the operator
+     */
+    public char getSymbol() {
+        return symbol;
+
+    }//end of the getSymbol Method
+    /**
+     * forSymbol Method - Looks up the operator of a symbol in a table indexed by the symbol
+     * @param symbol - a char representing the symbol of the operator
+     * @return Operator - the operator of the symbol, or null when the symbol is not an operator
+     */
+    public static Operator forSymbol(char symbol) {
+        if (symbol < SYMBOL_TABLE.length) {
+            return SYMBOL_TABLE[symbol];
+
+        }
+        return null;
+
+    }//end of the forSymbol Method
+}//end of the Operator Enum
@@ -0,0 +1,210 @@
+
+package calculator.engine;
+
+import java.math.BigInteger;
+
+/**
+ * The Power Class raises numbers to exponents for the exponent key, as Math.pow does, but
+ * exactly whenever the base and the exponent are whole numbers.  It takes the cheapest of three
+ * paths:
+ * <ul>
+ * <li>a whole base raised to a whole exponent is computed by squaring on a long, with the
+ * overflow checked before every product, so the power is exact and rounded only once into a
+ * double;</li>
+ * <li>a whole power that overflows a long, but not the range of a double, is computed exactly
+ * as a BigInteger, when the base is at most DisplayFormatter.MAX_EXACT_INTEGER and the
+ * exponent at most MAX_EXACT_EXPONENT, and rounded once into a double;</li>
+ * <li>any other power is computed by Math.pow.</li>
+ * </ul>
+ * A power below DisplayFormatter.MAX_EXACT_INTEGER is the whole number Math.pow returns, and a
+ * larger one is the double nearest to the power, where Math.pow may be one unit in the last
+ * place away.  The two slower paths remember their last CACHE_SIZE powers in a cache indexed by
+ * the hash of the base and the exponent, so a power pressed again, as with a repeated equals,
+ * is not computed again.  The engine reports a power that is not a real number as an error
+ * before it asks the Power for it.  A Power holds its cache and counts, so it is not thread
+ * safe; each engine has its own, and the cache is allocated only when a power first takes a
+ * slower path.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class Power {
+    //Instance Variables
+    public final static int CACHE_SIZE = 64;
+    public final static int MAX_EXACT_EXPONENT = Double.MAX_EXPONENT + 1;
+    private final static long NO_POWER = Long.MIN_VALUE;
+    private final static long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+    private long[] cachedBases;
+    private long[] cachedExponents;
+    private double[] cachedPowers;
+    private long exactCount;
+    private long cachedCount;
+    private long computedCount;
+
+    /**
+     * Power Constructor - Creates a Power without a cache
+     */
+    public Power() {
+
+    }//end of the Power Constructor
+    /**
+     * pow Method - Raises a base to an exponent
+     * @param base - double representing the base
+     * @param exponent - double representing the exponent
+     * @return double - the power, as Math.pow defines it, but exact for whole numbers
+     */
+    public double pow(double base, double exponent) {
+        boolean isWhole = isWholeBase(base) && (exponent >= 0) &&
+                          (exponent <= MAX_EXACT_EXPONENT) && (exponent == (int) exponent);
+        if (isWhole) {
+            long power = longPower((long) base, (int) exponent);
+            if (power != NO_POWER) {
+                exactCount++;
+                return power;
+
+            }
+        }
+        if (cachedPowers == null) {
+            clearCache();
+
+        }
+        long baseBits = Double.doubleToRawLongBits(base);
+        long exponentBits = Double.doubleToRawLongBits(exponent);
+        int slot = slot(baseBits, exponentBits);
+
+        if ((cachedBases[slot] == baseBits) && (cachedExponents[slot] == exponentBits)) {
+            cachedCount++;
+            return cachedPowers[slot];
+
+        }
+        double power;
+        if (isWhole && ((Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.abs((long) base))) *
+                        (int) exponent <= MAX_EXACT_EXPONENT)) {
+            power = BigInteger.valueOf((long) base).pow((int) exponent).doubleValue();
+
+        } else {
+            power = Math.pow(base, exponent);
+
+        }
+        computedCount++;
+        cachedBases[slot] = baseBits;
+        cachedExponents[slot] = exponentBits;
+        cachedPowers[slot] = power;
+        return power;
+
+    }//end of the pow Method
+    /**
+     * isWholeBase Method - Returns whether a base is a whole number the long paths take, which
+     * excludes negative zero, whose odd powers are negative zero
+     * @param base - double representing the base
+     * @return boolean - true for a whole number up to DisplayFormatter.MAX_EXACT_INTEGER
+     */
+    private static boolean isWholeBase(double base) {
+        return DisplayFormatter.isExactInteger(base) &&
+               (Double.doubleToRawLongBits(base) != NEGATIVE_ZERO);
+
+    }//end of the isWholeBase Method
+    /**
+     * longPower Method - Raises a long to a whole exponent by squaring, as long as every
+     * product provably fits into a long
+     * @param base - long representing the base
+     * @param exponent - integer representing the non negative exponent
+     * @return long - the power, or NO_POWER when a product might overflow
+     */
+    static long longPower(long base, int exponent) {
+        long power = 1;
+        long square = Math.abs(base);
+        int remaining = exponent;
+
+        while (remaining > 0) {
+            if ((remaining & 1) != 0) {
+                if (!fitsProduct(power, square)) {
+                    return NO_POWER;
+
+                }
+                power *= square;
+
+            }
+            remaining >>= 1;
+            if (remaining > 0) {
+                if (!fitsProduct(square, square)) {
+                    return NO_POWER;
+
+                }
+                square *= square;
+
+            }
+        }
+        return ((base < 0) && ((exponent & 1) != 0)) ? -power : power;
+
+    }//end of the longPower Method
+    /**
+     * fitsProduct Method - Returns whether the product of two non negative longs fits into a
+     * long, which holds when their bits add up to at most 63, or to 64 when the product does not
+     * carry into the sign bit
+     * @param a - long representing the first factor
+     * @param b - long representing the second factor
+     * @return boolean - true when the product fits
+     */
+    private static boolean fitsProduct(long a, long b) {
+        int leadingZeros = Long.numberOfLeadingZeros(a) + Long.numberOfLeadingZeros(b);
+        return (a == 0) || (b == 0) || (leadingZeros > Long.SIZE) ||
+               ((leadingZeros == Long.SIZE) && (a * b >= 0));
+
+    }//end of the fitsProduct Method
+    /**
+     * slot Method - Returns the slot of the cache of a base and an exponent
+     * @param baseBits - long representing the bits of the base
+     * @param exponentBits - long representing the bits of the exponent
+     * @return int - the index of the slot
+     */
+    private static int slot(long baseBits, long exponentBits) {
+        long hash = (baseBits * 0x9E3779B97F4A7C15L) ^ exponentBits;
+        hash ^= hash >>> 32;
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (CACHE_SIZE - 1);
+
+    }//end of the slot Method
+    /**
+     * clearCache Method - Forgets the powers remembered, by filling every slot with 0^0, which
+     * is 1, and allocates the cache when there is none yet
+     */
+    public void clearCache() {
+        if (cachedPowers == null) {
+            cachedBases = new long[CACHE_SIZE];
+            cachedExponents = new long[CACHE_SIZE];
+            cachedPowers = new double[CACHE_SIZE];
+
+        }
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            cachedBases[i] = 0;
+            cachedExponents[i] = 0;
+            cachedPowers[i] = 1;
+        }
+    }//end of the clearCache Method
+    /**
+     * getExactCount Method - Returns the number of powers computed on a long
+     * @return long - the number of powers computed on a long
+     */
+    public long getExactCount() {
+        return exactCount;
+
+    }//end of the getExactCount Method
+    /**
+     * getCachedCount Method - Returns the number of powers found in the cache
+     * @return long - the number of powers found in the cache
+     */
+    public long getCachedCount() {
+        return cachedCount;
+
+    }//end of the getCachedCount Method
+    /**
+     * getComputedCount Method - Returns the number of powers computed as a BigInteger or by
+     * Math.pow
+     * @return long - the number of powers computed on the slower paths
+     */
+    public long getComputedCount() {
+        return computedCount;
+
+    }//end of the getComputedCount Method
+}//end of the Power Class
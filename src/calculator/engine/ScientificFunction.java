@@ -0,0 +1,147 @@
+
+package calculator.engine;
+
+/**
+ * The ScientificFunction Enum represents the functions of the scientific keys, which replace the
+ * number in the display with a function of it.  Each function has the key that presses it, as
+ * CalculatorEngine.press names the keys, and the name it is written with in a batch line, in an
+ * expression, and on the HistoryTape.  The functions are computed by ScientificMath, along the
+ * strict or the fast path, and an argument outside the domain of a function is an error.  The
+ * angles are in radians.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public enum ScientificFunction {
+    SIN('s', "sin"),
+    COS('o', "cos"),
+    TAN('t', "tan"),
+    ASIN('a', "asin"),
+    ACOS('b', "acos"),
+    ATAN('d', "atan"),
+    LN('l', "ln"),
+    LOG10('g', "log10"),
+    EXP('e', "exp"),
+    FACTORIAL('!', "fact");
+
+    //Instance Variables
+    private final static ScientificFunction[] FUNCTIONS = values();
+    private final static ScientificFunction[] KEY_TABLE = new ScientificFunction[128];
+    private final char key;
+    private final String name;
+
+    static {
+        for (ScientificFunction function : FUNCTIONS) {
+            KEY_TABLE[function.key] = function;
+        }
+    }
+
+    /**
+     * ScientificFunction Constructor - Creates a ScientificFunction with its key and its name
+     * @param key - a char representing the key of the function
+     * @param name - String representing the name of the function
+     */
+    ScientificFunction(char key, String name) {
+        this.key = key;
+        this.name = name;
+
+    }//end of the ScientificFunction Constructor
+    /**
+     * apply Method - Computes the function of a number
+     * @param x - double representing the number
+     * @param isFast - boolean representing whether the fast path of ScientificMath is taken
+     * @return double - the function of the number, or NaN outside its domain
+     */
+    public double apply(double x, boolean isFast) {
+        switch (this) {
+            case SIN:
+                return ScientificMath.sin(x, isFast);
+            case COS:
+                return ScientificMath.cos(x, isFast);
+            case TAN:
+                return ScientificMath.tan(x, isFast);
+            case ASIN:
+                return ScientificMath.asin(x, isFast);
+            case ACOS:
+                return ScientificMath.acos(x, isFast);
+            case ATAN:
+                return ScientificMath.atan(x, isFast);
+            case LN:
+                return ScientificMath.ln(x, isFast);
+            case LOG10:
+                return ScientificMath.log10(x, isFast);
+            case EXP:
+                return ScientificMath.exp(x, isFast);
+            default:
+                return ScientificMath.factorial(x);
+        }
+    }//end of the apply Method
+    /**
+     * getError Method - Returns the error of the function of a number: NON_REAL_NUMBER for the
+     * arc sine or arc cosine of a number beyond 1 and for the logarithm of a negative number,
+     * UNDEFINED for the logarithm of zero, and INVALID_ENTRY for the factorial of a number that
+     * is not a whole number from 0
+     * @param x - double representing the number
+     * @return int - the ErrorCode, which is NONE when the number is in the domain
+     */
+    public int getError(double x) {
+        switch (this) {
+            case ASIN:
+            case ACOS:
+                return (Math.abs(x) > 1) ? ErrorCode.NON_REAL_NUMBER : ErrorCode.NONE;
+            case LN:
+            case LOG10:
+                return (x < 0) ? ErrorCode.NON_REAL_NUMBER :
+                       (x == 0) ? ErrorCode.UNDEFINED : ErrorCode.NONE;
+            case FACTORIAL:
+                return ((x >= 0) && (x == Math.rint(x))) ? ErrorCode.NONE :
+                                                           ErrorCode.INVALID_ENTRY;
+            default:
+                return ErrorCode.NONE;
+        }
+    }//end of the getError Method
+    /**
+     * getKey Method - Returns the key of the function
+     * @return char - the key of the function
+     */
+    public char getKey() {
+        return key;
+
+    }//end of the getKey Method
+    /**
+     * getName Method - Returns the name of the function
+     * @return String - the name of the function
+     */
+    public String getName() {
+        return name;
+
+    }//end of the getName Method
+    /**
+     * forKey Method - Looks up the function of a key in a table indexed by the key
+     * @param key - a char representing the key
+     * @return ScientificFunction - the function of the key, or null when the key is not one
+     */
+    public static ScientificFunction forKey(char key) {
+        if (key < KEY_TABLE.length) {
+            return KEY_TABLE[key];
+
+        }
+        return null;
+
+    }//end of the forKey Method
+    /**
+     * forName Method - Looks up the function of a name
+     * @param name - a CharSequence holding the name
+     * @return ScientificFunction - the function of the name, or null when the name is not one
+     */
+    public static ScientificFunction forName(CharSequence name) {
+        for (ScientificFunction function : FUNCTIONS) {
+            if (function.name.contentEquals(name)) {
+                return function;
+
+            }
+        }
+        return null;
+
+    }//end of the forName Method
+}//end of the ScientificFunction Enum
@@ -0,0 +1,530 @@
+
+package calculator.engine;
+
+import java.math.BigInteger;
+
+/**
+ * The ScientificMath Class computes the functions of the scientific keys along two paths.  The
+ * strict path is StrictMath, which gives the same results on every machine, within one unit in
+ * the last place (ulp) of the exact value.  The fast path reduces the argument to a small range,
+ * looks up the function at the nearest point of a table, and corrects it with a short
+ * polynomial, which takes from an eighth of the time of StrictMath for asin and acos, and under
+ * half for atan and log10, to about two thirds for the others.  Measured against
+ * StrictMath over millions of arguments, the fast path is within:
+ * <ul>
+ * <li>sin, cos: 1 ulp, for |x| below FAST_TRIGONOMETRIC_LIMIT, and StrictMath beyond;</li>
+ * <li>tan: 3 ulps, for |x| below FAST_TRIGONOMETRIC_LIMIT, and StrictMath beyond;</li>
+ * <li>asin, acos, atan, exp, ln: 2 ulps;</li>
+ * <li>log10: 3 ulps.</li>
+ * </ul>
+ * The factorial of a whole number from 0 to MAX_FACTORIAL is the double nearest to it, looked up
+ * in a table on both paths.  The combinations and the permutations of whole numbers are the
+ * double nearest to them on the strict path, computed exactly on a long or as a BigInteger,
+ * and on the fast path they are divided out of the factorials up to MAX_FACTORIAL, within 3
+ * ulps, and counted exactly beyond, as on the strict path.  An argument outside the domain of
+ * a function gives NaN, as with StrictMath.  The tables are built when the class is first
+ * used, from StrictMath, so the window does not pay for them until a scientific key is
+ * pressed.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class ScientificMath {
+    //Instance Variables
+    public final static int MAX_FACTORIAL = 170;
+    public final static double FAST_TRIGONOMETRIC_LIMIT = 823549.6;
+    private final static int SINE_POINTS = 64;
+    private final static int ARC_TANGENT_POINTS = 32;
+    private final static int EXP_POINTS = 64;
+    private final static int LOG_POINTS = 256;
+    private final static int SINE = 0;
+    private final static int COSINE = 1;
+    private final static int TANGENT = 2;
+    private final static double TINY_ANGLE = 0x1p-27;
+    private final static double[] QUADRANT_SIGNS = {1, 1, -1, -1};
+    private final static double TWO_OVER_PI = 6.36619772367581382433e-01;
+    private final static double PI_OVER_TWO_1 = 1.57079632673412561417e+00;
+    private final static double PI_OVER_TWO_1T = 6.07710050650619224932e-11;
+    private final static double PI_OVER_TWO_2 = 6.07710050630396597660e-11;
+    private final static double PI_OVER_TWO_2T = 2.02226624879595063154e-21;
+    private final static double PI_OVER_TWO_3 = 2.02226624871116645580e-21;
+    private final static double PI_OVER_TWO_3T = 8.47842766036889956997e-32;
+    private final static double PI_OVER_TWO_HI = 1.57079632679489655800e+00;
+    private final static double PI_OVER_TWO_LO = 6.12323399573676603587e-17;
+    private final static double LN2_HI = 6.93147180369123816490e-01;
+    private final static double LN2_LO = 1.90821492927058770002e-10;
+    private final static double LOG10_2_HI = 3.01029995663611771306e-01;
+    private final static double LOG10_2_LO = 3.69423907715893078616e-13;
+    private final static double INVERSE_LN10 = 4.34294481903251816668e-01;
+    private final static double EXP_OVERFLOW = 7.09782712893383973096e+02;
+    private final static double EXP_UNDERFLOW = -7.45133219101941108420e+02;
+    private final static double EXP_POINTS_OVER_LN2 = EXP_POINTS / 6.93147180559945286227e-01;
+    private final static double S3 = -1 / 6.0;
+    private final static double S5 = 1 / 120.0;
+    private final static double S7 = -1 / 5040.0;
+    private final static double C2 = -1 / 2.0;
+    private final static double C4 = 1 / 24.0;
+    private final static double C6 = -1 / 720.0;
+    private final static double C8 = 1 / 40320.0;
+    private final static double A3 = -1 / 3.0;
+    private final static double A5 = 1 / 5.0;
+    private final static double A7 = -1 / 7.0;
+    private final static double A9 = 1 / 9.0;
+    private final static double E2 = 1 / 2.0;
+    private final static double E3 = 1 / 6.0;
+    private final static double E4 = 1 / 24.0;
+    private final static double E5 = 1 / 120.0;
+    private final static double E6 = 1 / 720.0;
+    private final static double L2 = -1 / 2.0;
+    private final static double L3 = 1 / 3.0;
+    private final static double L4 = -1 / 4.0;
+    private final static double L5 = 1 / 5.0;
+    private final static double L6 = -1 / 6.0;
+    private final static double L7 = 1 / 7.0;
+    private final static double L8 = -1 / 8.0;
+    private final static double[] SINES = new double[SINE_POINTS];
+    private final static double[] COSINES = new double[SINE_POINTS];
+    private final static double[] ARC_TANGENTS = new double[ARC_TANGENT_POINTS + 1];
+    private final static double[] POWERS_OF_TWO = new double[EXP_POINTS];
+    private final static double[] LOGS = new double[LOG_POINTS + 1];
+    private final static double[] DECIMAL_LOGS = new double[LOG_POINTS + 1];
+    private final static double[] INVERSES = new double[LOG_POINTS + 1];
+    private final static double[] FACTORIALS = new double[MAX_FACTORIAL + 1];
+
+    static {
+        for (int j = 0; j < SINE_POINTS; j++) {
+            SINES[j] = StrictMath.sin(j / (double) SINE_POINTS);
+            COSINES[j] = StrictMath.cos(j / (double) SINE_POINTS);
+        }
+        for (int j = 0; j <= ARC_TANGENT_POINTS; j++) {
+            ARC_TANGENTS[j] = StrictMath.atan(j / (double) ARC_TANGENT_POINTS);
+        }
+        for (int j = 0; j < EXP_POINTS; j++) {
+            POWERS_OF_TWO[j] = StrictMath.pow(2, j / (double) EXP_POINTS);
+        }
+        for (int j = 0; j <= LOG_POINTS; j++) {
+            double point = 1 + j / (double) LOG_POINTS;
+            double center = (j <= LOG_POINTS / 2) ? point : point / 2;
+            LOGS[j] = StrictMath.log(center);
+            DECIMAL_LOGS[j] = StrictMath.log10(center);
+            INVERSES[j] = 1 / point;
+        }
+        BigInteger factorial = BigInteger.ONE;
+        FACTORIALS[0] = 1;
+        for (int n = 1; n <= MAX_FACTORIAL; n++) {
+            factorial = factorial.multiply(BigInteger.valueOf(n));
+            FACTORIALS[n] = factorial.doubleValue();
+        }
+    }
+
+    /**
+     * ScientificMath Constructor - Private, since the ScientificMath has only static methods
+     */
+    private ScientificMath() {
+
+    }//end of the ScientificMath Constructor
+    /**
+     * sin Method - Returns the sine of an angle in radians
+     * @param x - double representing the angle
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the sine
+     */
+    public static double sin(double x, boolean isFast) {
+        return isFast ? trigonometric(x, SINE) : StrictMath.sin(x);
+
+    }//end of the sin Method
+    /**
+     * cos Method - Returns the cosine of an angle in radians
+     * @param x - double representing the angle
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the cosine
+     */
+    public static double cos(double x, boolean isFast) {
+        return isFast ? trigonometric(x, COSINE) : StrictMath.cos(x);
+
+    }//end of the cos Method
+    /**
+     * tan Method - Returns the tangent of an angle in radians
+     * @param x - double representing the angle
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the tangent
+     */
+    public static double tan(double x, boolean isFast) {
+        return isFast ? trigonometric(x, TANGENT) : StrictMath.tan(x);
+
+    }//end of the tan Method
+    /**
+     * asin Method - Returns the angle in radians, from -pi/2 to pi/2, whose sine is a number
+     * @param x - double representing the sine, from -1 to 1
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the angle, or NaN when |x| is greater than 1
+     */
+    public static double asin(double x, boolean isFast) {
+        if (!isFast) {
+            return StrictMath.asin(x);
+
+        }
+        double t = Math.abs(x);
+        if (!(t <= 1)) {
+            return Double.NaN;
+
+        }
+        return Math.copySign(arcTangent(t, Math.sqrt((1 - t) * (1 + t))), x);
+
+    }//end of the asin Method
+    /**
+     * acos Method - Returns the angle in radians, from 0 to pi, whose cosine is a number
+     * @param x - double representing the cosine, from -1 to 1
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the angle, or NaN when |x| is greater than 1
+     */
+    public static double acos(double x, boolean isFast) {
+        if (!isFast) {
+            return StrictMath.acos(x);
+
+        }
+        if (!(Math.abs(x) <= 1)) {
+            return Double.NaN;
+
+        }
+        if (x >= 0) {
+            return 2 * arcTangent(Math.sqrt((1 - x) / (1 + x)));
+
+        }
+        return (2 * PI_OVER_TWO_HI - 2 * arcTangent(Math.sqrt((1 + x) / (1 - x)))) +
+                                                                     2 * PI_OVER_TWO_LO;
+
+    }//end of the acos Method
+    /**
+     * atan Method - Returns the angle in radians, from -pi/2 to pi/2, whose tangent is a number
+     * @param x - double representing the tangent
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the angle
+     */
+    public static double atan(double x, boolean isFast) {
+        if (!isFast) {
+            return StrictMath.atan(x);
+
+        }
+        double t = Math.abs(x);
+        if (t <= 1) {
+            return Math.copySign(arcTangent(t), x);
+
+        }
+        return Math.copySign(PI_OVER_TWO_HI - (arcTangent(1 / t) - PI_OVER_TWO_LO), x);
+
+    }//end of the atan Method
+    /**
+     * exp Method - Returns e raised to a number
+     * @param x - double representing the exponent
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the power of e
+     */
+    public static double exp(double x, boolean isFast) {
+        if (!isFast) {
+            return StrictMath.exp(x);
+
+        }
+        if (x > EXP_OVERFLOW) {
+            return Double.POSITIVE_INFINITY;
+
+        }
+        if (x < EXP_UNDERFLOW) {
+            return 0;
+
+        }
+        int k = (int) Math.rint(x * EXP_POINTS_OVER_LN2);
+        double r = (x - k * (LN2_HI / EXP_POINTS)) - k * (LN2_LO / EXP_POINTS);
+        double p = r + r * r * (E2 + r * (E3 + r * (E4 + r * (E5 + r * E6))));
+        double power = POWERS_OF_TWO[k & (EXP_POINTS - 1)];
+        double result = power + power * p;
+        int scale = k >> 6;
+
+        if ((scale >= Double.MIN_EXPONENT) && (scale <= Double.MAX_EXPONENT)) {
+            return result * Double.longBitsToDouble((long) (scale + 1023) << 52);
+
+        }
+        return Math.scalb(result, scale);
+
+    }//end of the exp Method
+    /**
+     * ln Method - Returns the natural logarithm of a number
+     * @param x - double representing the number
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the logarithm, -Infinity for zero, or NaN for a negative number
+     */
+    public static double ln(double x, boolean isFast) {
+        return isFast ? logarithm(x, false) : StrictMath.log(x);
+
+    }//end of the ln Method
+    /**
+     * log10 Method - Returns the base 10 logarithm of a number
+     * @param x - double representing the number
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the logarithm, -Infinity for zero, or NaN for a negative number
+     */
+    public static double log10(double x, boolean isFast) {
+        return isFast ? logarithm(x, true) : StrictMath.log10(x);
+
+    }//end of the log10 Method
+    /**
+     * factorial Method - Returns the factorial of a whole number, which is the same on both
+     * paths
+     * @param n - double representing the number
+     * @return double - the factorial, Infinity above MAX_FACTORIAL, or NaN when n is not a
+     * whole number from 0
+     */
+    public static double factorial(double n) {
+        if (!(n >= 0) || (n != Math.rint(n))) {
+            return Double.NaN;
+
+        }
+        return (n <= MAX_FACTORIAL) ? FACTORIALS[(int) n] : Double.POSITIVE_INFINITY;
+
+    }//end of the factorial Method
+    /**
+     * combinations Method - Returns the number of ways to choose r of n things (nCr)
+     * @param n - double representing the number of things
+     * @param r - double representing the number chosen
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the combinations, or NaN when isCount is false
+     */
+    public static double combinations(double n, double r, boolean isFast) {
+        if (!isCount(n, r)) {
+            return Double.NaN;
+
+        }
+        double k = Math.min(r, n - r);
+        if (isFast && (n <= MAX_FACTORIAL)) {
+            return FACTORIALS[(int) n] / (FACTORIALS[(int) k] * FACTORIALS[(int) (n - k)]);
+
+        }
+        return count((long) n, (long) k, true);
+
+    }//end of the combinations Method
+    /**
+     * permutations Method - Returns the number of ways to arrange r of n things (nPr)
+     * @param n - double representing the number of things
+     * @param r - double representing the number arranged
+     * @param isFast - boolean representing whether the fast path is taken
+     * @return double - the permutations, or NaN when isCount is false
+     */
+    public static double permutations(double n, double r, boolean isFast) {
+        if (!isCount(n, r)) {
+            return Double.NaN;
+
+        }
+        if (isFast && (n <= MAX_FACTORIAL)) {
+            return FACTORIALS[(int) n] / FACTORIALS[(int) (n - r)];
+
+        }
+        return count((long) n, (long) r, false);
+
+    }//end of the permutations Method
+    /**
+     * isCount Method - Returns whether n things and r of them can be counted: both are whole
+     * numbers, r is from 0 to n, and n is at most DisplayFormatter.MAX_EXACT_INTEGER
+     * @param n - double representing the number of things
+     * @param r - double representing the number chosen
+     * @return boolean - true when combinations and permutations are defined
+     */
+    public static boolean isCount(double n, double r) {
+        return (r >= 0) && (r <= n) && (n <= DisplayFormatter.MAX_EXACT_INTEGER) &&
+               (n == Math.rint(n)) && (r == Math.rint(r));
+
+    }//end of the isCount Method
+    /**
+     * count Method - Multiplies the k numbers up to n exactly, dividing the product by each of
+     * 1 to k along the way for the combinations, on a long until it would overflow, and as a
+     * BigInteger after that, until the product is beyond the range of a double
+     * @param n - long representing the largest number
+     * @param k - long representing the count of the numbers
+     * @param isCombinations - boolean representing whether the product is divided by k!
+     * @return double - the double nearest to the product, or Infinity
+     */
+    private static double count(long n, long k, boolean isCombinations) {
+        long product = 1;
+        long i = 1;
+
+        for (; i <= k; i++) {
+            long factor = n - k + i;
+            if (product > Long.MAX_VALUE / factor) {
+                break;
+
+            }
+            product *= factor;
+            if (isCombinations) {
+                product /= i;
+
+            }
+        }
+        if (i > k) {
+            return product;
+
+        }
+        BigInteger big = BigInteger.valueOf(product);
+        for (; i <= k; i++) {
+            big = big.multiply(BigInteger.valueOf(n - k + i));
+            if (isCombinations) {
+                big = big.divide(BigInteger.valueOf(i));
+
+            }
+            if (big.bitLength() > Double.MAX_EXPONENT + 2) {
+                return Double.POSITIVE_INFINITY;
+
+            }
+        }
+        return big.doubleValue();
+
+    }//end of the count Method
+    /**
+     * trigonometric Method - Computes the sine, the cosine, or the tangent along the fast path.
+     * The angle is reduced to y0 + y1 from -pi/4 to pi/4 and a quadrant n, by subtracting n
+     * times pi/2 in up to three parts, as fdlibm does, so the reduced angle keeps its accuracy
+     * even next to a multiple of pi/2.  The sine and the cosine of y0 + y1 are those of the
+     * nearest multiple a of 1/SINE_POINTS in the tables, corrected by the polynomials of the
+     * sine and the cosine of the remainder r, which is below 1/128.
+     * @param x - double representing the angle
+     * @param function - integer representing SINE, COSINE, or TANGENT
+     * @return double - the function of the angle
+     */
+    private static double trigonometric(double x, int function) {
+        double t = Math.abs(x);
+        if (t < TINY_ANGLE) {
+            return (function == COSINE) ? 1 : x;
+
+        }
+        if (!(t < FAST_TRIGONOMETRIC_LIMIT)) {
+            return (function == SINE) ? StrictMath.sin(x) :
+                   (function == COSINE) ? StrictMath.cos(x) : StrictMath.tan(x);
+
+        }
+        int n = (int) Math.rint(x * TWO_OVER_PI);
+        double fn = n;
+        double r = x - fn * PI_OVER_TWO_1;
+        double w = fn * PI_OVER_TWO_1T;
+        double y0 = r - w;
+        int exponent = Math.getExponent(x);
+
+        if (exponent - Math.getExponent(y0) > 16) {
+            double u = r;
+            w = fn * PI_OVER_TWO_2;
+            r = u - w;
+            w = fn * PI_OVER_TWO_2T - ((u - r) - w);
+            y0 = r - w;
+            if (exponent - Math.getExponent(y0) > 49) {
+                u = r;
+                w = fn * PI_OVER_TWO_3;
+                r = u - w;
+                w = fn * PI_OVER_TWO_3T - ((u - r) - w);
+                y0 = r - w;
+
+            }
+        }
+        double y1 = (r - y0) - w;
+        int j = (int) Math.rint(y0 * SINE_POINTS);
+        double remainder = y0 - j * (1.0 / SINE_POINTS);
+        double square = remainder * remainder;
+        double sineOfRemainder = remainder +
+                (remainder * square * (S3 + square * (S5 + square * S7)) + y1);
+        double cosineOfRemainder = square * (C2 + square * (C4 + square * (C6 + square * C8))) -
+                                   remainder * y1;
+        double sine = Math.copySign(SINES[Math.abs(j)], j);
+        double cosine = COSINES[Math.abs(j)];
+        double sineOfReduced = sine + (sine * cosineOfRemainder + cosine * sineOfRemainder);
+        double cosineOfReduced = cosine + (cosine * cosineOfRemainder - sine * sineOfRemainder);
+
+        if (function == TANGENT) {
+            return ((n & 1) == 0) ? sineOfReduced / cosineOfReduced :
+                                    -cosineOfReduced / sineOfReduced;
+
+        }
+        int quadrant = (function == COSINE) ? n + 1 : n;
+        double value = ((quadrant & 1) == 0) ? sineOfReduced : cosineOfReduced;
+        return value * QUADRANT_SIGNS[quadrant & 3];
+
+    }//end of the trigonometric Method
+    /**
+     * arcTangent Method - Returns the angle whose tangent is the ratio of two numbers, which is
+     * a fraction of a right angle or its complement
+     * @param opposite - double representing the side opposite the angle, at least 0
+     * @param adjacent - double representing the side adjacent to the angle, at least 0
+     * @return double - the angle, from 0 to pi/2
+     */
+    private static double arcTangent(double opposite, double adjacent) {
+        if (opposite <= adjacent) {
+            return arcTangent(opposite / adjacent);
+
+        }
+        return PI_OVER_TWO_HI - (arcTangent(adjacent / opposite) - PI_OVER_TWO_LO);
+
+    }//end of the arcTangent Method
+    /**
+     * arcTangent Method - Returns the angle whose tangent is a number from 0 to 1, which is the
+     * angle of the nearest multiple a of 1/ARC_TANGENT_POINTS in the table, plus the angle
+     * whose tangent is u = (t - a) / (1 + t * a), below 1/64, by its series
+     * @param t - double representing the tangent, from 0 to 1
+     * @return double - the angle, from 0 to pi/4
+     */
+    private static double arcTangent(double t) {
+        int j = (int) (t * ARC_TANGENT_POINTS + 0.5);
+        double a = j * (1.0 / ARC_TANGENT_POINTS);
+        double u = (t - a) / (1 + t * a);
+        double square = u * u;
+        return ARC_TANGENTS[j] + (u + u * square * (A3 + square * (A5 + square * (A7 +
+                                                                          square * A9))));
+
+    }//end of the arcTangent Method
+    /**
+     * logarithm Method - Computes the natural or the base 10 logarithm along the fast path.  A
+     * number is 2^e times a mantissa m from 1 to 2, and the logarithm of m is that of the
+     * multiple c of 1/LOG_POINTS below it in the tables, plus the logarithm of 1 + r, with r
+     * = (m - c) / c, within 1/256 of 0, by its series.  The mantissas from 1.5 are halved, so
+     * the logarithms of the numbers just below 1 do not cancel against e = -1, and they take the
+     * multiple above them instead, so r is negative like the logarithm of c / 2, and the two
+     * do not cancel either.  Just below 1, c / 2 is 1 and r is x - 1 exactly.
+     * @param x - double representing the number
+     * @param isDecimal - boolean representing whether the logarithm is to base 10
+     * @return double - the logarithm
+     */
+    private static double logarithm(double x, boolean isDecimal) {
+        if (x == 0) {
+            return Double.NEGATIVE_INFINITY;
+
+        }
+        if (!(x > 0) || (x == Double.POSITIVE_INFINITY)) {
+            return (x > 0) ? x : Double.NaN;
+
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        int exponent = (int) (bits >>> 52) - 1023;
+        if (exponent < Double.MIN_EXPONENT) {
+            bits = Double.doubleToRawLongBits(x * 0x1p54);
+            exponent = (int) (bits >>> 52) - 1023 - 54;
+
+        }
+        int j = (int) (bits >>> 44) & (LOG_POINTS - 1);
+        if (j >= LOG_POINTS / 2) {
+            exponent++;
+            j++;
+
+        }
+        double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+        double r = (m - (1 + j * (1.0 / LOG_POINTS))) * INVERSES[j];
+        double series = r + r * r * (L2 + r * (L3 + r * (L4 + r * (L5 + r * (L6 + r * (L7 +
+                                                                          r * L8))))));
+        double logOfCenter = isDecimal ? DECIMAL_LOGS[j] : LOGS[j];
+
+        double scaled = exponent * (isDecimal ? LOG10_2_HI : LN2_HI);
+        double sum = scaled + logOfCenter;
+        double virtual = sum - scaled;
+        double error = (scaled - (sum - virtual)) + (logOfCenter - virtual);
+
+        if (isDecimal) {
+            return sum + ((exponent * LOG10_2_LO + error) + series * INVERSE_LN10);
+
+        }
+        return sum + ((exponent * LN2_LO + error) + series);
+
+    }//end of the logarithm Method
+}//end of the ScientificMath Class
@@ -0,0 +1,425 @@
+
+package calculator.engine;
+
+/**
+ * The SessionStore Class holds the state of many independent calculator sessions, for serving
+ * many users from one process.  A session responds to the same key events as the keypad, with
+ * exactly the behavior of a CalculatorEngine, but it is not an object: the sessions are kept
+ * in parallel arrays of primitives, so that a session costs about forty bytes, and a million
+ * idle sessions fit into a few tens of megabytes.  A key is pressed on a session by loading
+ * its state into a working CalculatorEngine, pressing the key, and saving the state back.
+ * Results are rounded into the Operand before the state is saved, which only does early what
+ * the engine does on the next key anyway.  The text of the display is kept as a reference only
+ * for errors and results too large for the Operand, which are rare.
+ *
+ * The sessions are split into STRIPES stripes, each with its own lock and working engine, so
+ * threads pressing keys on sessions of different stripes do not wait for each other.  A
+ * session is named by an id holding its slot and the generation of the slot, so the id of a
+ * closed or evicted session is never confused with a later session in the same slot.  Sessions
+ * that have not been used for the idle timeout are evicted by evictIdle, or when a session is
+ * created in a full stripe.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class SessionStore {
+    //Instance Variables
+    public final static int STRIPES = 16;
+    private final static int SCALE_BITS = 0x1F;
+    private final static int INTEGER_DIGITS_SHIFT = 5;
+    private final static int DECIMAL = 1 << 10;
+    private final static int NEGATIVE = 1 << 11;
+    private final static int DISPLAY_MODE_SHIFT = 12;
+    private final static int CLEAR_FOR_NEXT_DIGIT = 1 << 14;
+    private final static int OPERATOR_SHIFT = 16;
+    private final static int ERROR_CODE_SHIFT = 19;
+    private final static int FAST_FUNCTIONS = 1 << 21;
+    private final static int OPEN = 1 << 30;
+    private final static int NEW_SESSION = OPEN | CLEAR_FOR_NEXT_DIGIT |
+                                           (1 << INTEGER_DIGITS_SHIFT);
+    private final static Operator[] OPERATORS = Operator.values();
+    private final int capacity;
+    private final long idleTimeoutMillis;
+    private final long startMillis;
+    private final long[] mantissas;
+    private final double[] lastNumbers;
+    private final double[] memories;
+    private final int[] states;
+    private final int[] lastAccessSeconds;
+    private final int[] generations;
+    private final String[] displayTexts;
+    private final Stripe[] stripes;
+    private int nextStripe;
+
+    /**
+     * Stripe Class - Holds the lock, the working engine, and the free slots of one stripe
+     */
+    private static class Stripe {
+        //Instance Variables
+        final CalculatorEngine engine;
+        final int[] freeSlots;
+        int freeCount;
+
+        /**
+         * Stripe Constructor - Creates a Stripe whose slots are all free
+         * @param index - integer representing the index of the stripe
+         * @param capacity - integer representing the number of slots of the store
+         */
+        Stripe(int index, int capacity) {
+            engine = new CalculatorEngine();
+            freeSlots = new int[(capacity - index + STRIPES - 1) / STRIPES];
+            freeCount = freeSlots.length;
+            for (int i = 0; i < freeCount; i++) {
+                freeSlots[freeCount - 1 - i] = index + i * STRIPES;
+            }
+        }//end of the Stripe Constructor
+    }//end of the Stripe Class
+
+    /**
+     * SessionStore Constructor - Creates a SessionStore
+     * @param capacity - integer representing the most sessions open at once
+     * @param idleTimeoutMillis - long representing the time after its last key when a session
+     * may be evicted
+     */
+    public SessionStore(int capacity, long idleTimeoutMillis) {
+        if (capacity <= 0) {
+            throw (new IllegalArgumentException("The capacity must be positive"));
+
+        }
+        this.capacity = capacity;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        startMillis = System.currentTimeMillis();
+        mantissas = new long[capacity];
+        lastNumbers = new double[capacity];
+        memories = new double[capacity];
+        states = new int[capacity];
+        lastAccessSeconds = new int[capacity];
+        generations = new int[capacity];
+        displayTexts = new String[capacity];
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(i, capacity);
+        }
+    }//end of the SessionStore Constructor
+    /**
+     * createSession Method - Opens a new session in the state of a cleared calculator
+     * @return long - the id of the session
+     * @throws IllegalStateException - when every slot holds a session that is not idle
+     */
+    public long createSession() {
+        return createSession(System.currentTimeMillis());
+
+    }//end of the createSession Method
+    /**
+     * createSession Method - Opens a new session at a given time
+     * @param nowMillis - long representing the current time
+     * @return long - the id of the session
+     * @throws IllegalStateException - when every slot holds a session that is not idle
+     */
+    public long createSession(long nowMillis) {
+        int first;
+        synchronized (this) {
+            first = nextStripe;
+            nextStripe = (nextStripe + 1) % STRIPES;
+
+        }
+        for (int attempt = 0; attempt < 2 * STRIPES; attempt++) {
+            Stripe stripe = stripes[(first + attempt) % STRIPES];
+            synchronized (stripe) {
+                if ((stripe.freeCount == 0) && (attempt >= STRIPES)) {
+                    evictIdle(stripe, (first + attempt) % STRIPES, nowMillis);
+
+                }
+                if (stripe.freeCount > 0) {
+                    int slot = stripe.freeSlots[--stripe.freeCount];
+                    mantissas[slot] = 0;
+                    lastNumbers[slot] = 0;
+                    memories[slot] = 0;
+                    states[slot] = NEW_SESSION;
+                    displayTexts[slot] = null;
+                    lastAccessSeconds[slot] = toSeconds(nowMillis);
+                    return ((long) generations[slot] << 32) | slot;
+
+                }
+            }
+        }
+        throw (new IllegalStateException("All " + capacity + " sessions are in use"));
+
+    }//end of the createSession Method
+    /**
+     * press Method - Presses keys on a session, as CalculatorEngine.press names them: the digits,
+     * '.', 'n' for the change of sign, '<' for backspace, the operators + - * / ^, '=', 'c' for
+     * clear, '%', 'i' for the inverse, 'r' for the square root, 'A', 'S', 'R', and 'Z' for
+     * the memory keys M+, M-, MR, and MC, the keys of the ScientificFunctions, the nCr and nPr
+     * operators 'C' and 'P', and 'F' and 'X' to select the fast and the strict functions
+     * @param sessionId - long representing the id of the session
+     * @param keys - a CharSequence holding one character per key
+     * @return boolean - false when the session is closed or evicted, and no key was pressed
+     * @throws IllegalArgumentException - when a character is not a key
+     */
+    public boolean press(long sessionId, CharSequence keys) {
+        int slot = (int) sessionId;
+        Stripe stripe = stripeOf(slot);
+        if (stripe == null) {
+            return false;
+
+        }
+        synchronized (stripe) {
+            if (!isOpen(sessionId)) {
+                return false;
+
+            }
+            load(stripe.engine, slot);
+            try {
+                for (int i = 0; i < keys.length(); i++) {
+                    stripe.engine.press(keys.charAt(i));
+                }
+            } finally {
+                save(stripe.engine, slot);
+                lastAccessSeconds[slot] = toSeconds(System.currentTimeMillis());
+
+            }
+            return true;
+
+        }
+    }//end of the press Method
+    /**
+     * getDisplayText Method - Renders the text of the display of a session
+     * @param sessionId - long representing the id of the session
+     * @return String - the text of the display, or null when the session is closed or evicted
+     */
+    public String getDisplayText(long sessionId) {
+        int slot = (int) sessionId;
+        Stripe stripe = stripeOf(slot);
+        if (stripe == null) {
+            return null;
+
+        }
+        synchronized (stripe) {
+            if (!isOpen(sessionId)) {
+                return null;
+
+            }
+            load(stripe.engine, slot);
+            return stripe.engine.getDisplayText();
+
+        }
+    }//end of the getDisplayText Method
+    /**
+     * writeDisplayText Method - Renders the text of the display of a session into a char[]
+     * @param sessionId - long representing the id of the session
+     * @param buffer - the char[] to write the text into, with at least MAX_DISPLAY_LENGTH free
+     * chars after the offset
+     * @param offset - integer representing the index of the first char to write
+     * @return int - the index after the last char written, or -1 when the session is closed or
+     * evicted
+     */
+    public int writeDisplayText(long sessionId, char[] buffer, int offset) {
+        int slot = (int) sessionId;
+        Stripe stripe = stripeOf(slot);
+        if (stripe == null) {
+            return -1;
+
+        }
+        synchronized (stripe) {
+            if (!isOpen(sessionId)) {
+                return -1;
+
+            }
+            load(stripe.engine, slot);
+            return stripe.engine.writeDisplayText(buffer, offset);
+
+        }
+    }//end of the writeDisplayText Method
+    /**
+     * getDisplayMode Method - Returns the display mode of a session
+     * @param sessionId - long representing the id of the session
+     * @return int - the display mode, or -1 when the session is closed or evicted
+     */
+    public int getDisplayMode(long sessionId) {
+        int slot = (int) sessionId;
+        Stripe stripe = stripeOf(slot);
+        if (stripe == null) {
+            return -1;
+
+        }
+        synchronized (stripe) {
+            return isOpen(sessionId) ? (states[slot] >>> DISPLAY_MODE_SHIFT) & 3 : -1;
+
+        }
+    }//end of the getDisplayMode Method
+    /**
+     * closeSession Method - Closes a session and frees its slot
+     * @param sessionId - long representing the id of the session
+     * @return boolean - false when the session was already closed or evicted
+     */
+    public boolean closeSession(long sessionId) {
+        int slot = (int) sessionId;
+        Stripe stripe = stripeOf(slot);
+        if (stripe == null) {
+            return false;
+
+        }
+        synchronized (stripe) {
+            if (!isOpen(sessionId)) {
+                return false;
+
+            }
+            free(stripe, slot);
+            return true;
+
+        }
+    }//end of the closeSession Method
+    /**
+     * evictIdle Method - Closes the sessions that have been idle for the idle timeout
+     * @return int - the number of sessions evicted
+     */
+    public int evictIdle() {
+        return evictIdle(System.currentTimeMillis());
+
+    }//end of the evictIdle Method
+    /**
+     * evictIdle Method - Closes the sessions that have been idle for the idle timeout at a
+     * given time
+     * @param nowMillis - long representing the current time
+     * @return int - the number of sessions evicted
+     */
+    public int evictIdle(long nowMillis) {
+        int evicted = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (stripes[i]) {
+                evicted += evictIdle(stripes[i], i, nowMillis);
+
+            }
+        }
+        return evicted;
+
+    }//end of the evictIdle Method
+    /**
+     * evictIdle Method - Closes the idle sessions of a stripe, whose lock is held
+     * @param stripe - the Stripe to scan
+     * @param index - integer representing the index of the stripe
+     * @param nowMillis - long representing the current time
+     * @return int - the number of sessions evicted
+     */
+    private int evictIdle(Stripe stripe, int index, long nowMillis) {
+        int evicted = 0;
+        long deadline = toSeconds(nowMillis - idleTimeoutMillis);
+        for (int slot = index; slot < capacity; slot += STRIPES) {
+            if (((states[slot] & OPEN) != 0) && (lastAccessSeconds[slot] < deadline)) {
+                free(stripe, slot);
+                evicted++;
+
+            }
+        }
+        return evicted;
+
+    }//end of the evictIdle Method
+    /**
+     * free Method - Frees the slot of a session, whose stripe lock is held
+     * @param stripe - the Stripe of the slot
+     * @param slot - integer representing the slot
+     */
+    private void free(Stripe stripe, int slot) {
+        states[slot] = 0;
+        displayTexts[slot] = null;
+        generations[slot]++;
+        stripe.freeSlots[stripe.freeCount++] = slot;
+
+    }//end of the free Method
+    /**
+     * load Method - Loads the state of a session into the working engine
+     * @param engine - the CalculatorEngine of the stripe
+     * @param slot - integer representing the slot of the session
+     */
+    private void load(CalculatorEngine engine, int slot) {
+        int state = states[slot];
+        engine.operand.restore((state & NEGATIVE) != 0, mantissas[slot],
+                               (state >>> INTEGER_DIGITS_SHIFT) & SCALE_BITS,
+                               (state & DECIMAL) != 0, state & SCALE_BITS);
+        engine.displayText = displayTexts[slot];
+        engine.isResultPending = false;
+        engine.lastNumber = lastNumbers[slot];
+        engine.memory = memories[slot];
+        engine.lastOperator = OPERATORS[(state >>> OPERATOR_SHIFT) & 7];
+        engine.displayMode = (state >>> DISPLAY_MODE_SHIFT) & 3;
+        engine.isClearForNextDigit = (state & CLEAR_FOR_NEXT_DIGIT) != 0;
+        engine.errorCode = (state >>> ERROR_CODE_SHIFT) & 3;
+        engine.isFastFunctions = (state & FAST_FUNCTIONS) != 0;
+
+    }//end of the load Method
+    /**
+     * save Method - Saves the state of the working engine into the slot of a session
+     * @param engine - the CalculatorEngine of the stripe
+     * @param slot - integer representing the slot of the session
+     */
+    private void save(CalculatorEngine engine, int slot) {
+        engine.loadResult();
+        Operand operand = engine.operand;
+        mantissas[slot] = operand.getMantissa();
+        lastNumbers[slot] = engine.lastNumber;
+        memories[slot] = engine.memory;
+        displayTexts[slot] = engine.displayText;
+        states[slot] = OPEN | operand.getScale() |
+                       (operand.getIntegerDigits() << INTEGER_DIGITS_SHIFT) |
+                       (operand.hasDecimal() ? DECIMAL : 0) |
+                       (operand.isNegative() ? NEGATIVE : 0) |
+                       (engine.displayMode << DISPLAY_MODE_SHIFT) |
+                       (engine.isClearForNextDigit ? CLEAR_FOR_NEXT_DIGIT : 0) |
+                       (engine.lastOperator.ordinal() << OPERATOR_SHIFT) |
+                       (engine.errorCode << ERROR_CODE_SHIFT) |
+                       (engine.isFastFunctions ? FAST_FUNCTIONS : 0);
+
+    }//end of the save Method
+    /**
+     * isOpen Method - Returns whether an id names the open session of its slot
+     * @param sessionId - long representing the id of the session
+     * @return boolean - true when the session is open
+     */
+    private boolean isOpen(long sessionId) {
+        int slot = (int) sessionId;
+        return ((states[slot] & OPEN) != 0) && (generations[slot] == (int) (sessionId >>> 32));
+
+    }//end of the isOpen Method
+    /**
+     * stripeOf Method - Returns the stripe of a slot
+     * @param slot - integer representing the slot
+     * @return Stripe - the stripe, or null when the slot is out of range
+     */
+    private Stripe stripeOf(int slot) {
+        return ((slot >= 0) && (slot < capacity)) ? stripes[slot % STRIPES] : null;
+
+    }//end of the stripeOf Method
+    /**
+     * toSeconds Method - Returns a time in seconds since the store was created
+     * @param millis - long representing the time in milliseconds
+     * @return int - the seconds
+     */
+    private int toSeconds(long millis) {
+        return (int) ((millis - startMillis) / 1000);
+
+    }//end of the toSeconds Method
+    /**
+     * size Method - Returns the number of open sessions
+     * @return int - the number of sessions
+     */
+    public int size() {
+        int free = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                free += stripe.freeCount;
+
+            }
+        }
+        return capacity - free;
+
+    }//end of the size Method
+    /**
+     * getCapacity Method - Returns the most sessions open at once
+     * @return int - the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+
+    }//end of the getCapacity Method
+}//end of the SessionStore Class
@@ -0,0 +1,256 @@
+
+package calculator.expression;
+
+import calculator.engine.ErrorCode;
+import java.util.Arrays;
+
+/**
+ * The ColumnEvaluator Class evaluates a CompiledExpression for every row of columns of values,
+ * one column of doubles for each variable.  Instead of running the whole program for one row
+ * after another, it runs each instruction over a block of BLOCK_SIZE rows at once, so the stack
+ * holds a block of values in each slot, and every instruction is a tight loop over primitive
+ * arrays that the JIT compiler can unroll and vectorize.  The blocks are small enough for the
+ * stack to stay in the cache of the processor.  A row fails as the same row evaluated alone:
+ * its error is the first one met in the order of the instructions, it is recorded in the
+ * errors of the row, and the result of the row is NaN.  A ColumnEvaluator holds the stack it
+ * works on, so it is not thread safe; each thread needs its own.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ColumnEvaluator {
+    //Instance Variables
+    public final static int BLOCK_SIZE = 1024;
+    private final CompiledExpression expression;
+    private final double[][] stack;
+
+    /**
+     * ColumnEvaluator Constructor - Creates a ColumnEvaluator for an expression
+     * @param expression - the CompiledExpression to evaluate
+     */
+    public ColumnEvaluator(CompiledExpression expression) {
+        this.expression = expression;
+        stack = new double[expression.getMaxStackDepth()][BLOCK_SIZE];
+
+    }//end of the ColumnEvaluator Constructor
+    /**
+     * evaluate Method - Evaluates the expression for a number of rows
+     * @param columns - a double[][] holding the column of values of each variable by its index
+     * @param rows - integer representing the number of rows to evaluate from the first one
+     * @param results - a double[] to hold the result of each row
+     * @param errors - a byte[] to hold the ErrorCode of each row, which is NONE, UNDEFINED, or
+     * NON_REAL_NUMBER
+     */
+    public void evaluate(double[][] columns, int rows, double[] results, byte[] errors) {
+        for (int start = 0; start < rows; start += BLOCK_SIZE) {
+            evaluateBlock(columns, start, Math.min(BLOCK_SIZE, rows - start), results, errors);
+        }
+    }//end of the evaluate Method
+    /**
+     * evaluateBlock Method - Runs every instruction of the program over a block of rows
+     * @param columns - a double[][] holding the column of values of each variable by its index
+     * @param start - integer representing the first row of the block
+     * @param length - integer representing the number of rows of the block
+     * @param results - a double[] to hold the result of each row
+     * @param errors - a byte[] to hold the error of each row
+     */
+    private void evaluateBlock(double[][] columns, int start, int length, double[] results,
+                                                                           byte[] errors) {
+        byte[] code = expression.code;
+        double[] constants = expression.constants;
+        int top = -1;
+        int constant = 0;
+
+        Arrays.fill(errors, start, start + length, ErrorCode.NONE);
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CompiledExpression.PUSH:
+                    Arrays.fill(stack[++top], 0, length, constants[constant++]);
+                    break;
+                case CompiledExpression.LOAD:
+                    System.arraycopy(columns[code[++pc] & 0xFF], start, stack[++top], 0, length);
+                    break;
+                case CompiledExpression.ADD:
+                    top--;
+                    add(stack[top], stack[top + 1], length);
+                    break;
+                case CompiledExpression.SUBTRACT:
+                    top--;
+                    subtract(stack[top], stack[top + 1], length);
+                    break;
+                case CompiledExpression.MULTIPLY:
+                    top--;
+                    multiply(stack[top], stack[top + 1], length);
+                    break;
+                case CompiledExpression.DIVIDE:
+                    top--;
+                    markZeros(stack[top + 1], errors, start, length);
+                    divide(stack[top], stack[top + 1], length);
+                    break;
+                case CompiledExpression.EXPONENT:
+                    top--;
+                    exponent(stack[top], stack[top + 1], errors, start, length);
+                    break;
+                case CompiledExpression.NEGATE:
+                    negate(stack[top], length);
+                    break;
+                case CompiledExpression.PERCENT:
+                    percent(stack[top], length);
+                    break;
+                case CompiledExpression.SQUARE_ROOT:
+                    squareRoot(stack[top], errors, start, length);
+                    break;
+                case CompiledExpression.INVERSE:
+                    markZeros(stack[top], errors, start, length);
+                    inverse(stack[top], length);
+                    break;
+                case CompiledExpression.SQUARE:
+                    square(stack[top], length);
+                    break;
+                default:
+                    throw (new IllegalStateException("Unknown instruction " + code[pc]));
+            }
+        }
+        double[] values = stack[0];
+        for (int i = 0; i < length; i++) {
+            results[start + i] = (errors[start + i] == ErrorCode.NONE) ? values[i] : Double.NaN;
+        }
+    }//end of the evaluateBlock Method
+    /**
+     * add Method - Adds the right values to the left values
+     * @param left - a double[] holding the left values, which receive the sums
+     * @param right - a double[] holding the right values
+     * @param length - integer representing the number of values
+     */
+    private static void add(double[] left, double[] right, int length) {
+        for (int i = 0; i < length; i++) {
+            left[i] = left[i] + right[i];
+        }
+    }//end of the add Method
+    /**
+     * subtract Method - Subtracts the right values from the left values
+     * @param left - a double[] holding the left values, which receive the differences
+     * @param right - a double[] holding the right values
+     * @param length - integer representing the number of values
+     */
+    private static void subtract(double[] left, double[] right, int length) {
+        for (int i = 0; i < length; i++) {
+            left[i] = left[i] - right[i];
+        }
+    }//end of the subtract Method
+    /**
+     * multiply Method - Multiplies the left values by the right values
+     * @param left - a double[] holding the left values, which receive the products
+     * @param right - a double[] holding the right values
+     * @param length - integer representing the number of values
+     */
+    private static void multiply(double[] left, double[] right, int length) {
+        for (int i = 0; i < length; i++) {
+            left[i] = left[i] * right[i];
+        }
+    }//end of the multiply Method
+    /**
+     * divide Method - Divides the left values by the right values
+     * @param left - a double[] holding the left values, which receive the quotients
+     * @param right - a double[] holding the right values
+     * @param length - integer representing the number of values
+     */
+    private static void divide(double[] left, double[] right, int length) {
+        for (int i = 0; i < length; i++) {
+            left[i] = left[i] / right[i];
+        }
+    }//end of the divide Method
+    /**
+     * exponent Method - Raises the bases to the exponents, and marks the rows where a negative
+     * base is raised to a fraction
+     * @param bases - a double[] holding the bases, which receive the powers
+     * @param exponents - a double[] holding the exponents
+     * @param errors - a byte[] holding the error of each row
+     * @param start - integer representing the row of the first value
+     * @param length - integer representing the number of values
+     */
+    private static void exponent(double[] bases, double[] exponents, byte[] errors, int start,
+                                                                             int length) {
+        for (int i = 0; i < length; i++) {
+            if ((bases[i] < 0) && (exponents[i] != Math.rint(exponents[i])) &&
+                                  (errors[start + i] == ErrorCode.NONE)) {
+                errors[start + i] = ErrorCode.NON_REAL_NUMBER;
+
+            }
+            bases[i] = Math.pow(bases[i], exponents[i]);
+        }
+    }//end of the exponent Method
+    /**
+     * negate Method - Changes the sign of the values
+     * @param values - a double[] holding the values
+     * @param length - integer representing the number of values
+     */
+    private static void negate(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            values[i] = -values[i];
+        }
+    }//end of the negate Method
+    /**
+     * square Method - Multiplies the values by themselves
+     * @param values - a double[] holding the values
+     * @param length - integer representing the number of values
+     */
+    private static void square(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            values[i] = values[i] * values[i];
+        }
+    }//end of the square Method
+    /**
+     * percent Method - Divides the values by one hundred
+     * @param values - a double[] holding the values
+     * @param length - integer representing the number of values
+     */
+    private static void percent(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            values[i] = values[i] * (.01);
+        }
+    }//end of the percent Method
+    /**
+     * squareRoot Method - Takes the square roots of the values, and marks the rows of the
+     * negative values
+     * @param values - a double[] holding the values
+     * @param errors - a byte[] holding the error of each row
+     * @param start - integer representing the row of the first value
+     * @param length - integer representing the number of values
+     */
+    private static void squareRoot(double[] values, byte[] errors, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            if ((values[i] < 0) && (errors[start + i] == ErrorCode.NONE)) {
+                errors[start + i] = ErrorCode.NON_REAL_NUMBER;
+
+            }
+            values[i] = Math.sqrt(values[i]);
+        }
+    }//end of the squareRoot Method
+    /**
+     * inverse Method - Inverts the values
+     * @param values - a double[] holding the values
+     * @param length - integer representing the number of values
+     */
+    private static void inverse(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            values[i] = 1 / values[i];
+        }
+    }//end of the inverse Method
+    /**
+     * markZeros Method - Marks the rows where the values are zero as undefined, unless they
+     * already have an error
+     * @param values - a double[] holding the divisors
+     * @param errors - a byte[] holding the error of each row
+     * @param start - integer representing the row of the first value
+     * @param length - integer representing the number of values
+     */
+    private static void markZeros(double[] values, byte[] errors, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            if ((values[i] == 0) && (errors[start + i] == ErrorCode.NONE)) {
+                errors[start + i] = ErrorCode.UNDEFINED;
+
+            }
+        }
+    }//end of the markZeros Method
+}//end of the ColumnEvaluator Class
@@ -0,0 +1,309 @@
+
+package calculator.expression;
+
+import calculator.engine.DivideByZeroException;
+import calculator.engine.ErrorCode;
+import calculator.engine.NonRealNumberException;
+
+/**
+ * The CompiledExpression Class holds an expression parsed by the ExpressionParser as a compact
+ * program in postfix order: an array of instructions, one byte each, and an array of the
+ * numbers pushed by the PUSH instructions, in the order they are pushed.  A LOAD instruction is
+ * followed by a byte holding the index of the variable it pushes, and SQUARE multiplies a
+ * number by itself, for the ExpressionOptimizer to rewrite x^2 into.  Evaluating the program runs
+ * the instructions on a stack of doubles, so the expression is parsed once and may be evaluated
+ * any number of times, with a value for each variable, or over columns of values with a
+ * ColumnEvaluator.  The operations fail as they do on the keypad: a
+ * division by zero and the inverse of zero are undefined, and the square root of a negative
+ * number and a negative number raised to a fraction are not real numbers.  The evaluate Methods
+ * throw an exception for an error, while tryEvaluate returns an ErrorCode, so rows of dirty
+ * data are evaluated without creating an exception for each failing row.  The program is
+ * interpreted at first, and an expression evaluated COMPILE_THRESHOLD times, or set by the
+ * system property named COMPILE_THRESHOLD_PROPERTY, is compiled by the ExpressionCompiler
+ * into the bytecode of a Formula, which the JIT compiler compiles as a whole, and evaluated
+ * through it from then on.  The program of a CompiledExpression never changes, and the Formula
+ * gives the same results, so it may be evaluated by many threads at once.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public final class CompiledExpression {
+    //Instance Variables
+    public final static byte PUSH = 0;
+    public final static byte ADD = 1;
+    public final static byte SUBTRACT = 2;
+    public final static byte MULTIPLY = 3;
+    public final static byte DIVIDE = 4;
+    public final static byte EXPONENT = 5;
+    public final static byte NEGATE = 6;
+    public final static byte PERCENT = 7;
+    public final static byte SQUARE_ROOT = 8;
+    public final static byte INVERSE = 9;
+    public final static byte LOAD = 10;
+    public final static byte SQUARE = 11;
+    public final static String COMPILE_THRESHOLD_PROPERTY =
+                                                   "calculator.expression.compileThreshold";
+    public final static int DEFAULT_COMPILE_THRESHOLD = 10_000;
+    private final static int COMPILE_THRESHOLD = Integer.getInteger(COMPILE_THRESHOLD_PROPERTY,
+                                                                    DEFAULT_COMPILE_THRESHOLD);
+    private final String text;
+    final byte[] code;
+    final double[] constants;
+    private final String[] variableNames;
+    private final int maxStackDepth;
+    private volatile Formula formula;
+    private int evaluationCount;
+
+    /**
+     * CompiledExpression Constructor - Creates a CompiledExpression from its program
+     * @param text - String representing the text of the expression
+     * @param code - a byte[] holding the instructions
+     * @param constants - a double[] holding the numbers pushed by the PUSH instructions
+     * @param variableNames - a String[] holding the names of the variables by their index
+     * @param maxStackDepth - integer representing the most numbers on the stack at once
+     */
+    CompiledExpression(String text, byte[] code, double[] constants, String[] variableNames,
+                                                                     int maxStackDepth) {
+        this.text = text;
+        this.code = code;
+        this.constants = constants;
+        this.variableNames = variableNames;
+        this.maxStackDepth = maxStackDepth;
+
+    }//end of the CompiledExpression Constructor
+    /**
+     * evaluate Method - Evaluates an expression without variables on a new stack
+     * @return double - the value of the expression
+     * @throws DivideByZeroException - when a number is divided by zero or inverted at zero
+     * @throws NonRealNumberException - when the result is not a real number
+     */
+    public double evaluate() throws DivideByZeroException, NonRealNumberException {
+        return evaluate(new double[variableNames.length], new double[maxStackDepth]);
+
+    }//end of the evaluate Method
+    /**
+     * evaluate Method - Evaluates the expression on a new stack
+     * @param values - a double[] holding the value of each variable by its index
+     * @return double - the value of the expression
+     * @throws DivideByZeroException - when a number is divided by zero or inverted at zero
+     * @throws NonRealNumberException - when the result is not a real number
+     */
+    public double evaluate(double[] values) throws DivideByZeroException,
+                                                   NonRealNumberException {
+        return evaluate(values, new double[maxStackDepth]);
+
+    }//end of the evaluate Method
+    /**
+     * evaluate Method - Evaluates the expression on a stack owned by the caller, without
+     * allocating
+     * @param values - a double[] holding the value of each variable by its index
+     * @param stack - a double[] with at least getMaxStackDepth() elements
+     * @return double - the value of the expression
+     * @throws DivideByZeroException - when a number is divided by zero or inverted at zero
+     * @throws NonRealNumberException - when the result is not a real number
+     */
+    public double evaluate(double[] values, double[] stack) throws DivideByZeroException,
+                                                                   NonRealNumberException {
+        int errorCode = tryEvaluate(values, stack);
+
+        if (errorCode == ErrorCode.UNDEFINED) {
+            throw (new DivideByZeroException(ErrorCode.getMessage(errorCode)));
+
+        } else if (errorCode == ErrorCode.NON_REAL_NUMBER) {
+            throw (new NonRealNumberException(ErrorCode.getMessage(errorCode)));
+
+        }
+        return stack[0];
+
+    }//end of the evaluate Method
+    /**
+     * tryEvaluate Method - Evaluates the expression on a stack owned by the caller, without
+     * allocating and without throwing an exception
+     * @param values - a double[] holding the value of each variable by its index
+     * @param stack - a double[] with at least getMaxStackDepth() elements, whose first element
+     * receives the value of the expression
+     * @return int - ErrorCode.NONE, or the ErrorCode of the first operation that failed
+     */
+    public int tryEvaluate(double[] values, double[] stack) {
+        Formula compiled = formula;
+
+        if (compiled != null) {
+            return compiled.tryEvaluate(values, stack);
+
+        }
+        if ((evaluationCount < COMPILE_THRESHOLD) && (++evaluationCount == COMPILE_THRESHOLD)) {
+            compile();
+
+        }
+        return interpret(values, stack);
+
+    }//end of the tryEvaluate Method
+    /**
+     * interpret Method - Evaluates the expression by running its instructions one at a time,
+     * as tryEvaluate does until the expression is compiled
+     * @param values - a double[] holding the value of each variable by its index
+     * @param stack - a double[] with at least getMaxStackDepth() elements, whose first element
+     * receives the value of the expression
+     * @return int - ErrorCode.NONE, or the ErrorCode of the first operation that failed
+     */
+    int interpret(double[] values, double[] stack) {
+        int top = -1;
+        int constant = 0;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case PUSH:
+                    stack[++top] = constants[constant++];
+                    break;
+                case LOAD:
+                    stack[++top] = values[code[++pc] & 0xFF];
+                    break;
+                case ADD:
+                    top--;
+                    stack[top] = stack[top] + stack[top + 1];
+                    break;
+                case SUBTRACT:
+                    top--;
+                    stack[top] = stack[top] - stack[top + 1];
+                    break;
+                case MULTIPLY:
+                    top--;
+                    stack[top] = stack[top] * stack[top + 1];
+                    break;
+                case DIVIDE:
+                    if (stack[top] == 0) {
+                        return ErrorCode.UNDEFINED;
+
+                    }
+                    top--;
+                    stack[top] = stack[top] / stack[top + 1];
+                    break;
+                case EXPONENT:
+                    top--;
+                    if ((stack[top] < 0) && (stack[top + 1] != Math.rint(stack[top + 1]))) {
+                        return ErrorCode.NON_REAL_NUMBER;
+
+                    }
+                    stack[top] = Math.pow(stack[top], stack[top + 1]);
+                    break;
+                case NEGATE:
+                    stack[top] = -stack[top];
+                    break;
+                case PERCENT:
+                    stack[top] = stack[top] * (.01);
+                    break;
+                case SQUARE_ROOT:
+                    if (stack[top] < 0) {
+                        return ErrorCode.NON_REAL_NUMBER;
+
+                    }
+                    stack[top] = Math.sqrt(stack[top]);
+                    break;
+                case INVERSE:
+                    if (stack[top] == 0) {
+                        return ErrorCode.UNDEFINED;
+
+                    }
+                    stack[top] = 1 / stack[top];
+                    break;
+                case SQUARE:
+                    stack[top] = stack[top] * stack[top];
+                    break;
+                default:
+                    throw (new IllegalStateException("Unknown instruction " + code[pc]));
+            }
+        }
+        return ErrorCode.NONE;
+
+    }//end of the interpret Method
+    /**
+     * compile Method - Compiles the expression into a Formula now, instead of after
+     * COMPILE_THRESHOLD evaluations, unless it is compiled already or its program is too long
+     */
+    public void compile() {
+        if (formula == null) {
+            formula = ExpressionCompiler.compile(this);
+
+        }
+    }//end of the compile Method
+    /**
+     * isCompiled Method - Returns whether the expression is evaluated through a Formula
+     * @return boolean - true once the expression is compiled
+     */
+    public boolean isCompiled() {
+        return formula != null;
+
+    }//end of the isCompiled Method
+    /**
+     * getMaxStackDepth Method - Returns the size of the stack the expression needs
+     * @return int - the most numbers on the stack at once
+     */
+    public int getMaxStackDepth() {
+        return maxStackDepth;
+
+    }//end of the getMaxStackDepth Method
+    /**
+     * getVariableNames Method - Returns the names of the variables by their index
+     * @return String[] - a copy of the names of the variables
+     */
+    public String[] getVariableNames() {
+        return variableNames.clone();
+
+    }//end of the getVariableNames Method
+    /**
+     * getVariableCount Method - Returns the number of variables
+     * @return int - the number of variables
+     */
+    public int getVariableCount() {
+        return variableNames.length;
+
+    }//end of the getVariableCount Method
+    /**
+     * getVariableIndex Method - Returns the index of a variable
+     * @param name - String representing the name of the variable
+     * @return int - the index of the variable, or -1 when the expression does not use it
+     */
+    public int getVariableIndex(String name) {
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i].equals(name)) {
+                return i;
+
+            }
+        }
+        return -1;
+
+    }//end of the getVariableIndex Method
+    /**
+     * getCode Method - Returns a copy of the instructions
+     * @return byte[] - the instructions in postfix order
+     */
+    public byte[] getCode() {
+        return code.clone();
+
+    }//end of the getCode Method
+    /**
+     * getConstants Method - Returns a copy of the numbers pushed by the PUSH instructions
+     * @return double[] - the numbers in the order they are pushed
+     */
+    public double[] getConstants() {
+        return constants.clone();
+
+    }//end of the getConstants Method
+    /**
+     * getText Method - Returns the text the expression was parsed from
+     * @return String - the text of the expression
+     */
+    public String getText() {
+        return text;
+
+    }//end of the getText Method
+    /**
+     * toString Method - Overrides the toString Method to return the text of the expression
+     * @return String - the text of the expression
+     */
+    @Override
+    public String toString() {
+        return text;
+
+    }//end of the toString Method
+}//end of the CompiledExpression Class
@@ -0,0 +1,223 @@
+
+package calculator.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ExpressionCache Class maps the text of expressions to their CompiledExpressions, so an
+ * expression evaluated again is not parsed again.  The cache holds at most a fixed number of
+ * expressions, and evicts the least recently used one to make room for a new one.  Instead of
+ * one lock for the whole cache, the expressions are spread by the hash of their text over
+ * segments, each an access ordered LinkedHashMap with its own lock, so threads using different
+ * segments do not wait for each other.  The least recently used expression is evicted from the
+ * segment of the new one, so the order of eviction is that of each segment.  An expression is
+ * parsed outside the lock of its segment, so two threads missing the same expression at once
+ * may both parse it, and the first one stored is kept.  The hits, misses, and evictions are
+ * counted with LongAdders, which the threads update without contention.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ExpressionCache {
+    //Instance Variables
+    public final static int DEFAULT_CAPACITY = 4096;
+    private final static int MAX_SEGMENTS = 16;
+    private final static int MIN_SEGMENT_CAPACITY = 16;
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+    private final LongAdder evictionCount;
+
+    /**
+     * Segment Class - An access ordered LinkedHashMap that evicts its eldest entry when it holds
+     * more than its capacity
+     */
+    static class Segment extends LinkedHashMap<String, CompiledExpression> {
+        //Instance Variables
+        private final int capacity;
+        private final LongAdder evictionCount;
+
+        /**
+         * Segment Constructor - Creates an empty Segment
+         * @param capacity - integer representing the most expressions the segment holds
+         * @param evictionCount - the LongAdder counting the evictions of the cache
+         */
+        Segment(int capacity, LongAdder evictionCount) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictionCount = evictionCount;
+
+        }//end of the Segment Constructor
+        /**
+         * removeEldestEntry Method - Overrides the removeEldestEntry Method to evict the least
+         * recently used expression when the segment is full
+         * @param eldest - the Map.Entry least recently used
+         * @return boolean - true when the entry is evicted
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            if (size() > capacity) {
+                evictionCount.increment();
+                return true;
+
+            }
+            return false;
+
+        }//end of the removeEldestEntry Method
+    }//end of the Segment Class
+    /**
+     * Default ExpressionCache Constructor - Creates an ExpressionCache holding at most
+     * DEFAULT_CAPACITY expressions
+     */
+    public ExpressionCache() {
+        this(DEFAULT_CAPACITY);
+
+    }//end of the Default ExpressionCache Constructor
+    /**
+     * ExpressionCache Constructor - Creates an ExpressionCache holding at most a number of
+     * expressions
+     * @param capacity - integer representing the most expressions the cache holds
+     */
+    public ExpressionCache(int capacity) {
+        if (capacity < 1) {
+            throw (new IllegalArgumentException("The capacity must be positive"));
+
+        }
+        int segmentCount = 1;
+        while ((segmentCount < MAX_SEGMENTS) &&
+               (capacity / (2 * segmentCount) >= MIN_SEGMENT_CAPACITY)) {
+            segmentCount *= 2;
+        }
+        this.capacity = capacity;
+        hitCount = new LongAdder();
+        missCount = new LongAdder();
+        evictionCount = new LongAdder();
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentCapacity = capacity / segmentCount + ((i < capacity % segmentCount) ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity, evictionCount);
+        }
+    }//end of the ExpressionCache Constructor
+    /**
+     * get Method - Returns the CompiledExpression of a text, parsing and storing it when the
+     * cache does not hold it
+     * @param text - String representing the text of the expression
+     * @return CompiledExpression - the compiled expression
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    public CompiledExpression get(String text) throws ExpressionSyntaxException {
+        Segment segment = segmentFor(text);
+        CompiledExpression expression;
+
+        synchronized (segment) {
+            expression = segment.get(text);
+        }
+        if (expression != null) {
+            hitCount.increment();
+            return expression;
+
+        }
+        missCount.increment();
+        CompiledExpression parsed = ExpressionParser.parse(text);
+
+        synchronized (segment) {
+            expression = segment.putIfAbsent(text, parsed);
+        }
+        return (expression != null) ? expression : parsed;
+
+    }//end of the get Method
+    /**
+     * getIfPresent Method - Returns the CompiledExpression of a text when the cache holds it,
+     * without counting a hit or a miss
+     * @param text - String representing the text of the expression
+     * @return CompiledExpression - the compiled expression, or null when it is not cached
+     */
+    public CompiledExpression getIfPresent(String text) {
+        Segment segment = segmentFor(text);
+        synchronized (segment) {
+            return segment.get(text);
+
+        }
+    }//end of the getIfPresent Method
+    /**
+     * segmentFor Method - Returns the segment holding a text
+     * @param text - String representing the text of the expression
+     * @return Segment - the segment selected by the spread hash of the text
+     */
+    private Segment segmentFor(String text) {
+        int hash = text.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+
+    }//end of the segmentFor Method
+    /**
+     * size Method - Returns the number of expressions held
+     * @return int - the number of cached expressions
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+
+    }//end of the size Method
+    /**
+     * clear Method - Removes every expression, and keeps the counts
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }//end of the clear Method
+    /**
+     * getCapacity Method - Returns the most expressions the cache holds
+     * @return int - the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+
+    }//end of the getCapacity Method
+    /**
+     * getHitCount Method - Returns the number of expressions found in the cache
+     * @return long - the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+
+    }//end of the getHitCount Method
+    /**
+     * getMissCount Method - Returns the number of expressions parsed because they were not in
+     * the cache
+     * @return long - the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+
+    }//end of the getMissCount Method
+    /**
+     * getEvictionCount Method - Returns the number of expressions evicted to make room
+     * @return long - the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+
+    }//end of the getEvictionCount Method
+    /**
+     * toString Method - Overrides the toString Method to return the size and the counts
+     * @return String - the statistics of the cache
+     */
+    @Override
+    public String toString() {
+        return "ExpressionCache[size=" + size() + ", capacity=" + capacity + ", hits=" +
+                getHitCount() + ", misses=" + getMissCount() + ", evictions=" +
+                getEvictionCount() + "]";
+
+    }//end of the toString Method
+}//end of the ExpressionCache Class
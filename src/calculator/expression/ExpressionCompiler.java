@@ -0,0 +1,520 @@
+
+package calculator.expression;
+
+import calculator.engine.ErrorCode;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ExpressionCompiler Class compiles the program of a CompiledExpression into the bytecode
+ * of a class implementing Formula, so evaluating the expression runs no loop and no switch:
+ * the numbers of the program stay on the operand stack of the Java virtual machine, and the
+ * JIT compiler keeps them in registers and inlines Math.pow and Math.sqrt into one method.
+ * The class file is written by hand, in the version 49 format, whose classes are verified
+ * without stack map frames, and is defined by a class loader of its own, so the class is
+ * unloaded with its expression.  Every operation fails where tryEvaluate fails, and returns
+ * the same ErrorCode.  A program whose bytecode would be too long for the JIT compiler to
+ * compile is not compiled.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+final class ExpressionCompiler {
+    //Instance Variables
+    private final static int MAX_CODE_LENGTH = 8000;
+    private final static int CLASS_VERSION = 49;
+    private final static String INTERFACE_NAME = Formula.class.getName().replace('.', '/');
+    private final static String CLASS_PREFIX = INTERFACE_NAME + "$Generated";
+    private final static AtomicInteger classCount = new AtomicInteger();
+    private final static int BASE = 3;
+    private final static int EXPONENT = 5;
+    private final static int LOCALS = 7;
+    private final static byte ALOAD_0 = 0x2a;
+    private final static byte ALOAD_1 = 0x2b;
+    private final static byte ALOAD_2 = 0x2c;
+    private final static byte ICONST_0 = 0x03;
+    private final static byte BIPUSH = 0x10;
+    private final static byte SIPUSH = 0x11;
+    private final static byte LDC2_W = 0x14;
+    private final static byte DLOAD = 0x18;
+    private final static byte DSTORE = 0x39;
+    private final static byte DALOAD = 0x31;
+    private final static byte DASTORE = 0x52;
+    private final static byte DUP2 = 0x5c;
+    private final static byte DADD = 0x63;
+    private final static byte DSUB = 0x67;
+    private final static byte DMUL = 0x6b;
+    private final static byte DDIV = 0x6f;
+    private final static byte DNEG = 0x77;
+    private final static byte DCONST_0 = 0x0e;
+    private final static byte DCONST_1 = 0x0f;
+    private final static byte DCMPL = (byte) 0x97;
+    private final static byte DCMPG = (byte) 0x98;
+    private final static byte IFEQ = (byte) 0x99;
+    private final static byte IFNE = (byte) 0x9a;
+    private final static byte IFLT = (byte) 0x9b;
+    private final static byte IFGE = (byte) 0x9c;
+    private final static byte IRETURN = (byte) 0xac;
+    private final static byte RETURN = (byte) 0xb1;
+    private final static byte INVOKESPECIAL = (byte) 0xb7;
+    private final static byte INVOKESTATIC = (byte) 0xb8;
+    private final ByteArrayOutputStream constantPool;
+    private final Map<String, Integer> constantIndexes;
+    private int constantCount;
+    private byte[] code;
+    private int codeLength;
+    private int[] undefinedBranches;
+    private int undefinedCount;
+    private int[] nonRealBranches;
+    private int nonRealCount;
+
+    /**
+     * ExpressionCompiler Constructor - Creates an ExpressionCompiler with an empty constant pool
+     */
+    private ExpressionCompiler() {
+        constantPool = new ByteArrayOutputStream();
+        constantIndexes = new HashMap<>();
+        constantCount = 1;
+        code = new byte[64];
+        undefinedBranches = new int[4];
+        nonRealBranches = new int[4];
+
+    }//end of the ExpressionCompiler Constructor
+    /**
+     * compile Method - Compiles an expression into a Formula
+     * @param expression - the CompiledExpression to compile
+     * @return Formula - the compiled formula, or null when the program is too long
+     */
+    static Formula compile(CompiledExpression expression) {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        String name = CLASS_PREFIX + classCount.incrementAndGet();
+        byte[] bytes = compiler.writeClass(name, expression);
+
+        if (bytes == null) {
+            return null;
+
+        }
+        try {
+            Class<?> formulaClass = new FormulaLoader().define(name.replace('/', '.'), bytes);
+            return (Formula) formulaClass.getConstructor().newInstance();
+
+        } catch (ReflectiveOperationException e) {
+            throw (new IllegalStateException("Cannot create the formula of " + expression, e));
+
+        }
+    }//end of the compile Method
+    /**
+     * writeClass Method - Writes the class file of a formula
+     * @param name - String representing the internal name of the class
+     * @param expression - the CompiledExpression to compile
+     * @return byte[] - the class file, or null when the program is too long
+     */
+    private byte[] writeClass(String name, CompiledExpression expression) {
+        int thisClass = classConstant(name);
+        int superClass = classConstant("java/lang/Object");
+        int formulaInterface = classConstant(INTERFACE_NAME);
+        int objectConstructor = methodConstant("java/lang/Object", "<init>", "()V");
+        int constructorName = utf8Constant("<init>");
+        int constructorType = utf8Constant("()V");
+        int methodName = utf8Constant("tryEvaluate");
+        int methodType = utf8Constant("([D[D)I");
+        int codeName = utf8Constant("Code");
+
+        writeProgram(expression);
+        if (codeLength > MAX_CODE_LENGTH) {
+            return null;
+
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(constantPool.size() + codeLength +
+                                                                 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            out.writeShort(constantCount);
+            constantPool.writeTo(out);
+            out.writeShort(0x0031);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(formulaInterface);
+            out.writeShort(0);
+            out.writeShort(2);
+            //The constructor, which only calls the constructor of Object
+            out.writeShort(0x0001);
+            out.writeShort(constructorName);
+            out.writeShort(constructorType);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + 5);
+            out.writeShort(1);
+            out.writeShort(1);
+            out.writeInt(5);
+            out.writeByte(ALOAD_0);
+            out.writeByte(INVOKESPECIAL);
+            out.writeShort(objectConstructor);
+            out.writeByte(RETURN);
+            out.writeShort(0);
+            out.writeShort(0);
+            //The tryEvaluate Method, with the two operands of an exponent in its locals
+            out.writeShort(0x0001);
+            out.writeShort(methodName);
+            out.writeShort(methodType);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + codeLength);
+            out.writeShort(2 * expression.getMaxStackDepth() + 4);
+            out.writeShort(LOCALS);
+            out.writeInt(codeLength);
+            out.write(code, 0, codeLength);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+
+        } catch (IOException e) {
+            throw (new IllegalStateException(e));
+
+        }
+        return bytes.toByteArray();
+
+    }//end of the writeClass Method
+    /**
+     * writeProgram Method - Writes the bytecode of the tryEvaluate Method, which runs the
+     * instructions of the program on the operand stack, and returns an ErrorCode
+     * @param expression - the CompiledExpression to compile
+     */
+    private void writeProgram(CompiledExpression expression) {
+        byte[] program = expression.code;
+        int sqrt = methodConstant("java/lang/Math", "sqrt", "(D)D");
+        int pow = methodConstant("java/lang/Math", "pow", "(DD)D");
+        int rint = methodConstant("java/lang/Math", "rint", "(D)D");
+        int constant = 0;
+
+        for (int pc = 0; pc < program.length; pc++) {
+            switch (program[pc]) {
+                case CompiledExpression.PUSH:
+                    emit(LDC2_W);
+                    emitShort(doubleConstant(expression.constants[constant++]));
+                    break;
+                case CompiledExpression.LOAD:
+                    emit(ALOAD_1);
+                    emitInt(program[++pc] & 0xFF);
+                    emit(DALOAD);
+                    break;
+                case CompiledExpression.ADD:
+                    emit(DADD);
+                    break;
+                case CompiledExpression.SUBTRACT:
+                    emit(DSUB);
+                    break;
+                case CompiledExpression.MULTIPLY:
+                    emit(DMUL);
+                    break;
+                case CompiledExpression.DIVIDE:
+                    emit(DUP2);
+                    emit(DCONST_0);
+                    emit(DCMPL);
+                    emitBranch(IFEQ, ErrorCode.UNDEFINED);
+                    emit(DDIV);
+                    break;
+                case CompiledExpression.EXPONENT:
+                    emit(DSTORE, EXPONENT);
+                    emit(DSTORE, BASE);
+                    emit(DLOAD, BASE);
+                    emit(DCONST_0);
+                    emit(DCMPG);
+                    emit(IFGE);
+                    emitShort(3 + 2 + 2 + 3 + 1 + 3);
+                    emit(DLOAD, EXPONENT);
+                    emit(DLOAD, EXPONENT);
+                    emit(INVOKESTATIC);
+                    emitShort(rint);
+                    emit(DCMPL);
+                    emitBranch(IFNE, ErrorCode.NON_REAL_NUMBER);
+                    emit(DLOAD, BASE);
+                    emit(DLOAD, EXPONENT);
+                    emit(INVOKESTATIC);
+                    emitShort(pow);
+                    break;
+                case CompiledExpression.NEGATE:
+                    emit(DNEG);
+                    break;
+                case CompiledExpression.PERCENT:
+                    emit(LDC2_W);
+                    emitShort(doubleConstant(.01));
+                    emit(DMUL);
+                    break;
+                case CompiledExpression.SQUARE_ROOT:
+                    emit(DUP2);
+                    emit(DCONST_0);
+                    emit(DCMPG);
+                    emitBranch(IFLT, ErrorCode.NON_REAL_NUMBER);
+                    emit(INVOKESTATIC);
+                    emitShort(sqrt);
+                    break;
+                case CompiledExpression.INVERSE:
+                    emit(DUP2);
+                    emit(DCONST_0);
+                    emit(DCMPL);
+                    emitBranch(IFEQ, ErrorCode.UNDEFINED);
+                    emit(DSTORE, BASE);
+                    emit(DCONST_1);
+                    emit(DLOAD, BASE);
+                    emit(DDIV);
+                    break;
+                case CompiledExpression.SQUARE:
+                    emit(DUP2);
+                    emit(DMUL);
+                    break;
+                default:
+                    throw (new IllegalStateException("Unknown instruction " + program[pc]));
+            }
+        }
+        emit(DSTORE, BASE);
+        emit(ALOAD_2);
+        emit(ICONST_0);
+        emit(DLOAD, BASE);
+        emit(DASTORE);
+        emitReturn(ErrorCode.NONE);
+        patchBranches(undefinedBranches, undefinedCount, ErrorCode.UNDEFINED);
+        patchBranches(nonRealBranches, nonRealCount, ErrorCode.NON_REAL_NUMBER);
+
+    }//end of the writeProgram Method
+    /**
+     * emitBranch Method - Emits a branch to a return of an error, whose offset is patched once
+     * the return is emitted
+     * @param instruction - byte representing the branch instruction
+     * @param errorCode - integer representing the ErrorCode returned
+     */
+    private void emitBranch(byte instruction, int errorCode) {
+        if (errorCode == ErrorCode.UNDEFINED) {
+            if (undefinedCount == undefinedBranches.length) {
+                undefinedBranches = Arrays.copyOf(undefinedBranches, 2 * undefinedCount);
+
+            }
+            undefinedBranches[undefinedCount++] = codeLength;
+
+        } else {
+            if (nonRealCount == nonRealBranches.length) {
+                nonRealBranches = Arrays.copyOf(nonRealBranches, 2 * nonRealCount);
+
+            }
+            nonRealBranches[nonRealCount++] = codeLength;
+
+        }
+        emit(instruction);
+        emitShort(0);
+
+    }//end of the emitBranch Method
+    /**
+     * patchBranches Method - Emits a return of an error for each branch, and points the branch
+     * at it, since the branches leave different numbers on the stack, which the verifier only
+     * accepts at different targets
+     * @param branches - an int[] holding the offsets of the branches
+     * @param count - integer representing the number of branches
+     * @param errorCode - integer representing the ErrorCode returned
+     */
+    private void patchBranches(int[] branches, int count, int errorCode) {
+        for (int i = 0; i < count; i++) {
+            int offset = codeLength - branches[i];
+            code[branches[i] + 1] = (byte) (offset >> 8);
+            code[branches[i] + 2] = (byte) offset;
+            emitReturn(errorCode);
+        }
+    }//end of the patchBranches Method
+    /**
+     * emitReturn Method - Emits the return of an ErrorCode
+     * @param errorCode - integer representing the ErrorCode
+     */
+    private void emitReturn(int errorCode) {
+        emitInt(errorCode);
+        emit(IRETURN);
+
+    }//end of the emitReturn Method
+    /**
+     * emitInt Method - Emits the push of a small integer
+     * @param value - integer representing a value from 0 to 32767
+     */
+    private void emitInt(int value) {
+        if (value <= 5) {
+            emit((byte) (ICONST_0 + value));
+
+        } else if (value <= Byte.MAX_VALUE) {
+            emit(BIPUSH);
+            emit((byte) value);
+
+        } else {
+            emit(SIPUSH);
+            emitShort(value);
+
+        }
+    }//end of the emitInt Method
+    /**
+     * emit Method - Emits an instruction that takes the index of a local variable
+     * @param instruction - byte representing the instruction
+     * @param local - integer representing the index of the local variable
+     */
+    private void emit(byte instruction, int local) {
+        emit(instruction);
+        emit((byte) local);
+
+    }//end of the emit Method
+    /**
+     * emitShort Method - Emits two bytes, the high one first
+     * @param value - integer representing the two bytes
+     */
+    private void emitShort(int value) {
+        emit((byte) (value >> 8));
+        emit((byte) value);
+
+    }//end of the emitShort Method
+    /**
+     * emit Method - Emits a byte of the bytecode
+     * @param value - byte representing the byte
+     */
+    private void emit(byte value) {
+        if (codeLength == code.length) {
+            code = Arrays.copyOf(code, 2 * codeLength);
+
+        }
+        code[codeLength++] = value;
+
+    }//end of the emit Method
+    /**
+     * utf8Constant Method - Returns the index of a string in the constant pool, adding it
+     * @param text - String representing the string
+     * @return int - the index of the constant
+     */
+    private int utf8Constant(String text) {
+        Integer index = constantIndexes.get("U" + text);
+
+        if (index == null) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            index = addConstant("U" + text, 1);
+            constantPool.write(1);
+            writeShort(bytes.length);
+            constantPool.write(bytes, 0, bytes.length);
+
+        }
+        return index;
+
+    }//end of the utf8Constant Method
+    /**
+     * classConstant Method - Returns the index of a class in the constant pool, adding it
+     * @param name - String representing the internal name of the class
+     * @return int - the index of the constant
+     */
+    private int classConstant(String name) {
+        Integer index = constantIndexes.get("C" + name);
+
+        if (index == null) {
+            int nameIndex = utf8Constant(name);
+            index = addConstant("C" + name, 1);
+            constantPool.write(7);
+            writeShort(nameIndex);
+
+        }
+        return index;
+
+    }//end of the classConstant Method
+    /**
+     * methodConstant Method - Returns the index of a method in the constant pool, adding it
+     * @param owner - String representing the internal name of the class of the method
+     * @param name - String representing the name of the method
+     * @param type - String representing the descriptor of the method
+     * @return int - the index of the constant
+     */
+    private int methodConstant(String owner, String name, String type) {
+        String key = "M" + owner + "." + name + type;
+        Integer index = constantIndexes.get(key);
+
+        if (index == null) {
+            int ownerIndex = classConstant(owner);
+            int nameIndex = utf8Constant(name);
+            int typeIndex = utf8Constant(type);
+            int nameAndType = addConstant("N" + name + type, 1);
+            constantPool.write(12);
+            writeShort(nameIndex);
+            writeShort(typeIndex);
+            index = addConstant(key, 1);
+            constantPool.write(10);
+            writeShort(ownerIndex);
+            writeShort(nameAndType);
+
+        }
+        return index;
+
+    }//end of the methodConstant Method
+    /**
+     * doubleConstant Method - Returns the index of a double in the constant pool, adding it
+     * @param value - double representing the double
+     * @return int - the index of the constant
+     */
+    private int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        String key = "D" + bits;
+        Integer index = constantIndexes.get(key);
+
+        if (index == null) {
+            index = addConstant(key, 2);
+            constantPool.write(6);
+            writeShort((int) (bits >>> 48));
+            writeShort((int) (bits >>> 32));
+            writeShort((int) (bits >>> 16));
+            writeShort((int) bits);
+
+        }
+        return index;
+
+    }//end of the doubleConstant Method
+    /**
+     * addConstant Method - Reserves the index of a constant
+     * @param key - String representing the constant in the map of the indexes
+     * @param slots - integer representing the number of indexes the constant takes
+     * @return int - the index of the constant
+     */
+    private int addConstant(String key, int slots) {
+        int index = constantCount;
+        constantCount += slots;
+        constantIndexes.put(key, index);
+        return index;
+
+    }//end of the addConstant Method
+    /**
+     * writeShort Method - Writes two bytes to the constant pool, the high one first
+     * @param value - integer representing the two bytes
+     */
+    private void writeShort(int value) {
+        constantPool.write(value >> 8);
+        constantPool.write(value);
+
+    }//end of the writeShort Method
+    /**
+     * The FormulaLoader Class is the class loader of one Formula class.
+     */
+    private static final class FormulaLoader extends ClassLoader {
+        /**
+         * FormulaLoader Constructor - Creates a FormulaLoader under the loader of Formula
+         */
+        FormulaLoader() {
+            super(Formula.class.getClassLoader());
+
+        }//end of the FormulaLoader Constructor
+        /**
+         * define Method - Defines the class of a Formula
+         * @param name - String representing the binary name of the class
+         * @param bytes - a byte[] holding the class file
+         * @return Class - the class
+         */
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+
+        }//end of the define Method
+    }//end of the FormulaLoader Class
+}//end of the ExpressionCompiler Class
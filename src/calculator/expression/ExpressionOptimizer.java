@@ -0,0 +1,394 @@
+
+package calculator.expression;
+
+import java.util.Arrays;
+
+/**
+ * The ExpressionOptimizer Class rewrites the program of a CompiledExpression into a shorter one
+ * with the same results.  It rebuilds the tree of the expression from the postfix program, one
+ * instruction after another, simplifies every node once its operands are simplified, and then
+ * emits the tree again in postfix order.  Every rewrite gives the very same double, sign of
+ * zero included, and the same ErrorCode, for any values of the variables:
+ * <ul>
+ * <li>an operation on numbers is folded into a number, unless it fails, so the error is still
+ * met when the expression is evaluated;</li>
+ * <li>x^2 is x*x with the SQUARE instruction, which is what Math.pow computes for an exponent
+ * of two, x^1 is x, and x^0 is 1 when x cannot fail;</li>
+ * <li>x divided by a power of two is x multiplied by its inverse, which is exact, and needs no
+ * check for zero;</li>
+ * <li>x*1, 1*x, x/1, x-0, and -(-x) are x, and x-(-y) and x+(-y) are x+y and x-y.</li>
+ * </ul>
+ * Other exponents are left to Math.pow, since the multiplications round more than once, and
+ * x+0 is left alone, since -0+0 is 0.  The variables keep their indexes, even those no longer
+ * used.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+final class ExpressionOptimizer {
+    //Instance Variables
+    private final static long POSITIVE_ZERO = Double.doubleToRawLongBits(0.0);
+    private byte[] code;
+    private int codeLength;
+    private double[] constants;
+    private int constantCount;
+
+    /**
+     * ExpressionOptimizer Constructor - Creates an ExpressionOptimizer with an empty program
+     * @param expression - the CompiledExpression whose program is rewritten
+     */
+    private ExpressionOptimizer(CompiledExpression expression) {
+        code = new byte[expression.code.length];
+        constants = new double[Math.max(1, expression.constants.length)];
+
+    }//end of the ExpressionOptimizer Constructor
+    /**
+     * optimize Method - Rewrites the program of an expression
+     * @param expression - the CompiledExpression to optimize
+     * @return CompiledExpression - an expression with the same text, variables, and results
+     */
+    static CompiledExpression optimize(CompiledExpression expression) {
+        ExpressionOptimizer optimizer = new ExpressionOptimizer(expression);
+        int maxStackDepth = optimizer.emit(simplify(expression));
+
+        return new CompiledExpression(expression.getText(),
+                Arrays.copyOf(optimizer.code, optimizer.codeLength),
+                Arrays.copyOf(optimizer.constants, optimizer.constantCount),
+                expression.getVariableNames(), maxStackDepth);
+
+    }//end of the optimize Method
+    /**
+     * simplify Method - Rebuilds the tree of an expression, simplifying each node as it is built
+     * @param expression - the CompiledExpression to rebuild
+     * @return Node - the root of the simplified tree
+     */
+    private static Node simplify(CompiledExpression expression) {
+        byte[] code = expression.code;
+        Node[] stack = new Node[expression.getMaxStackDepth()];
+        int top = -1;
+        int constant = 0;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            byte instruction = code[pc];
+            switch (instruction) {
+                case CompiledExpression.PUSH:
+                    stack[++top] = Node.number(expression.constants[constant++]);
+                    break;
+                case CompiledExpression.LOAD:
+                    stack[++top] = new Node(instruction, code[++pc] & 0xFF, null, null);
+                    break;
+                case CompiledExpression.ADD:
+                case CompiledExpression.SUBTRACT:
+                case CompiledExpression.MULTIPLY:
+                case CompiledExpression.DIVIDE:
+                case CompiledExpression.EXPONENT:
+                    top--;
+                    stack[top] = simplify(instruction, stack[top], stack[top + 1]);
+                    break;
+                default:
+                    stack[top] = simplify(instruction, stack[top], null);
+                    break;
+            }
+        }
+        return stack[0];
+
+    }//end of the simplify Method
+    /**
+     * simplify Method - Simplifies an operation on simplified operands
+     * @param operation - byte representing the instruction of the operation
+     * @param left - the Node of the operand, or of the left operand of a binary operation
+     * @param right - the Node of the right operand, or null for a unary operation
+     * @return Node - the simplified operation
+     */
+    private static Node simplify(byte operation, Node left, Node right) {
+        if (left.isNumber() && ((right == null) || right.isNumber())) {
+            double rightValue = (right == null) ? 0 : right.value;
+            if (!fails(operation, left.value, rightValue)) {
+                return Node.number(apply(operation, left.value, rightValue));
+
+            }
+        }
+        switch (operation) {
+            case CompiledExpression.ADD:
+                if (right.operation == CompiledExpression.NEGATE) {
+                    return new Node(CompiledExpression.SUBTRACT, 0, left, right.left);
+
+                }
+                break;
+            case CompiledExpression.SUBTRACT:
+                if (right.isNumber() &&
+                    (Double.doubleToRawLongBits(right.value) == POSITIVE_ZERO)) {
+                    return left;
+
+                } else if (right.operation == CompiledExpression.NEGATE) {
+                    return new Node(CompiledExpression.ADD, 0, left, right.left);
+
+                }
+                break;
+            case CompiledExpression.MULTIPLY:
+                if (right.isNumber(1)) {
+                    return left;
+
+                } else if (left.isNumber(1)) {
+                    return right;
+
+                }
+                break;
+            case CompiledExpression.DIVIDE:
+                if (right.isNumber() && hasExactInverse(right.value)) {
+                    return simplify(CompiledExpression.MULTIPLY, left,
+                                    Node.number(1 / right.value));
+
+                }
+                break;
+            case CompiledExpression.EXPONENT:
+                if (right.isNumber(1)) {
+                    return left;
+
+                } else if (right.isNumber(2)) {
+                    return new Node(CompiledExpression.SQUARE, 0, left, null);
+
+                } else if (right.isNumber(0) && !left.canFail) {
+                    return Node.number(1);
+
+                }
+                break;
+            case CompiledExpression.NEGATE:
+                if (left.operation == CompiledExpression.NEGATE) {
+                    return left.left;
+
+                }
+                break;
+            default:
+                break;
+        }
+        return new Node(operation, 0, left, right);
+
+    }//end of the simplify Method
+    /**
+     * fails Method - Returns whether an operation fails on numbers, as tryEvaluate decides it
+     * @param operation - byte representing the instruction of the operation
+     * @param left - double representing the operand, or the left operand
+     * @param right - double representing the right operand of a binary operation
+     * @return boolean - true when the operation is undefined or not a real number
+     */
+    private static boolean fails(byte operation, double left, double right) {
+        switch (operation) {
+            case CompiledExpression.DIVIDE:
+                return right == 0;
+            case CompiledExpression.EXPONENT:
+                return (left < 0) && (right != Math.rint(right));
+            case CompiledExpression.SQUARE_ROOT:
+                return left < 0;
+            case CompiledExpression.INVERSE:
+                return left == 0;
+            default:
+                return false;
+        }
+    }//end of the fails Method
+    /**
+     * apply Method - Applies an operation to numbers, as tryEvaluate does
+     * @param operation - byte representing the instruction of the operation
+     * @param left - double representing the operand, or the left operand
+     * @param right - double representing the right operand of a binary operation
+     * @return double - the result of the operation
+     */
+    private static double apply(byte operation, double left, double right) {
+        switch (operation) {
+            case CompiledExpression.ADD:
+                return left + right;
+            case CompiledExpression.SUBTRACT:
+                return left - right;
+            case CompiledExpression.MULTIPLY:
+                return left * right;
+            case CompiledExpression.DIVIDE:
+                return left / right;
+            case CompiledExpression.EXPONENT:
+                return Math.pow(left, right);
+            case CompiledExpression.NEGATE:
+                return -left;
+            case CompiledExpression.PERCENT:
+                return left * (.01);
+            case CompiledExpression.SQUARE_ROOT:
+                return Math.sqrt(left);
+            case CompiledExpression.INVERSE:
+                return 1 / left;
+            case CompiledExpression.SQUARE:
+                return left * left;
+            default:
+                throw (new IllegalStateException("Unknown instruction " + operation));
+        }
+    }//end of the apply Method
+    /**
+     * hasExactInverse Method - Returns whether dividing by a number is the same as multiplying
+     * by its inverse, which holds for a power of two whose inverse is a normal number
+     * @param number - double representing the divisor
+     * @return boolean - true when the number is plus or minus a power of two from 2^-1022 to
+     * 2^1022
+     */
+    private static boolean hasExactInverse(double number) {
+        int exponent = Math.getExponent(number);
+
+        return (exponent >= Double.MIN_EXPONENT) && (exponent < Double.MAX_EXPONENT) &&
+               ((Double.doubleToRawLongBits(number) & 0xFFFFFFFFFFFFFL) == 0);
+
+    }//end of the hasExactInverse Method
+    /**
+     * emit Method - Emits the program of a tree in postfix order, without recursing, since a
+     * long sum is a deep tree
+     * @param root - the Node of the tree
+     * @return int - the most numbers on the stack at once
+     */
+    private int emit(Node root) {
+        Node[] path = new Node[16];
+        boolean[] visited = new boolean[16];
+        int length = 0;
+        int depth = 0;
+        int maxDepth = 0;
+
+        path[length++] = root;
+        while (length > 0) {
+            Node node = path[--length];
+            if (!visited[length] && (node.left != null)) {
+                if (length + 3 > path.length) {
+                    path = Arrays.copyOf(path, 2 * path.length);
+                    visited = Arrays.copyOf(visited, path.length);
+
+                }
+                visited[length++] = true;
+                if (node.right != null) {
+                    path[length] = node.right;
+                    visited[length++] = false;
+
+                }
+                path[length] = node.left;
+                visited[length++] = false;
+
+            } else {
+                visited[length] = false;
+                if (node.isNumber()) {
+                    if (constantCount == constants.length) {
+                        constants = Arrays.copyOf(constants, 2 * constantCount);
+
+                    }
+                    constants[constantCount++] = node.value;
+                    emit(CompiledExpression.PUSH);
+
+                } else {
+                    emit(node.operation);
+                    if (node.operation == CompiledExpression.LOAD) {
+                        emit((byte) node.variable);
+
+                    }
+                }
+                if ((node.left == null) || (node.right != null)) {
+                    depth += (node.left == null) ? 1 : -1;
+
+                }
+                maxDepth = Math.max(maxDepth, depth);
+
+            }
+        }
+        return maxDepth;
+
+    }//end of the emit Method
+    /**
+     * emit Method - Appends an instruction, or the operand of an instruction, to the program
+     * @param instruction - byte representing the instruction or the operand
+     */
+    private void emit(byte instruction) {
+        if (codeLength == code.length) {
+            code = Arrays.copyOf(code, Math.max(16, 2 * codeLength));
+
+        }
+        code[codeLength++] = instruction;
+
+    }//end of the emit Method
+    /**
+     * The Node Class is an operation of the tree of an expression, or a number or a variable at
+     * its leaves.
+     */
+    private static final class Node {
+        //Instance Variables
+        final byte operation;
+        final int variable;
+        final double value;
+        final Node left;
+        final Node right;
+        final boolean canFail;
+
+        /**
+         * Node Constructor - Creates a Node for an operation or a variable
+         * @param operation - byte representing the instruction of the Node
+         * @param variable - integer representing the index of the variable of a LOAD
+         * @param left - the Node of the operand, or null for a leaf
+         * @param right - the Node of the right operand, or null
+         */
+        Node(byte operation, int variable, Node left, Node right) {
+            this(operation, variable, 0, left, right);
+
+        }//end of the Node Constructor
+        /**
+         * Node Constructor - Creates a Node
+         * @param operation - byte representing the instruction of the Node
+         * @param variable - integer representing the index of the variable of a LOAD
+         * @param value - double representing the number of a PUSH
+         * @param left - the Node of the operand, or null for a leaf
+         * @param right - the Node of the right operand, or null
+         */
+        private Node(byte operation, int variable, double value, Node left, Node right) {
+            this.operation = operation;
+            this.variable = variable;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            canFail = ((left != null) && left.canFail) || ((right != null) && right.canFail) ||
+                      mayFail();
+
+        }//end of the Node Constructor
+        /**
+         * number Method - Creates a Node for a number
+         * @param value - double representing the number
+         * @return Node - the Node pushing the number
+         */
+        static Node number(double value) {
+            return new Node(CompiledExpression.PUSH, 0, value, null, null);
+
+        }//end of the number Method
+        /**
+         * isNumber Method - Returns whether the Node is a number
+         * @return boolean - true for a number
+         */
+        boolean isNumber() {
+            return operation == CompiledExpression.PUSH;
+
+        }//end of the isNumber Method
+        /**
+         * isNumber Method - Returns whether the Node is a given number
+         * @param number - double representing the number
+         * @return boolean - true when the Node is the number
+         */
+        boolean isNumber(double number) {
+            return isNumber() && (value == number);
+
+        }//end of the isNumber Method
+        /**
+         * mayFail Method - Returns whether the operation of the Node itself may fail for some
+         * values of its operands
+         * @return boolean - true when the operation may be undefined or not a real number
+         */
+        private boolean mayFail() {
+            switch (operation) {
+                case CompiledExpression.DIVIDE:
+                    return !right.isNumber() || (right.value == 0);
+                case CompiledExpression.EXPONENT:
+                    return !right.isNumber() || (right.value != Math.rint(right.value));
+                case CompiledExpression.SQUARE_ROOT:
+                case CompiledExpression.INVERSE:
+                    return true;
+                default:
+                    return false;
+            }
+        }//end of the mayFail Method
+    }//end of the Node Class
+}//end of the ExpressionOptimizer Class
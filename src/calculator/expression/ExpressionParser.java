@@ -0,0 +1,353 @@
+
+package calculator.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The ExpressionParser Class parses the text of an expression into a CompiledExpression.  The
+ * operators are those of the keypad, with the usual precedence from the lowest to the highest:
+ * + and - from left to right, * and / from left to right, the unary minus, ^ from right to
+ * left, and the percent sign after a number.  Parentheses group a part of the expression, and
+ * the functions sqrt(x) and inv(x) give the square root and the inverse of x.  So "2+3*4" is
+ * 14, "2^3^2" is 512, "-2^2" is -4, "2^-1" is 0.5, and "(1+2)*50%" is 1.5.  Numbers are written
+ * with digits and at most one decimal point, and blanks may separate the parts.  Any other name
+ * of letters, digits, and underscores, starting with a letter or an underscore, is a variable,
+ * such as "price * (1 + rate%)".  The variables are numbered in the order they first appear,
+ * at most MAX_VARIABLES of them, and their values are given when the expression is evaluated.
+ * The parser descends recursively through the precedence levels and emits the instructions in
+ * postfix order while it reads, so no tree is built.  Parentheses, minus signs, and exponents may be
+ * nested at most MAX_NESTING deep.  The program is then rewritten by the ExpressionOptimizer,
+ * which folds the numbers and simplifies the operations without changing any result.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ExpressionParser {
+    //Instance Variables
+    public final static int MAX_NESTING = 256;
+    public final static int MAX_VARIABLES = 256;
+    private final String text;
+    private int position;
+    private byte[] code;
+    private int codeLength;
+    private double[] constants;
+    private int constantCount;
+    private int stackDepth;
+    private int maxStackDepth;
+    private int nesting;
+    private final ArrayList<String> variableNames;
+
+    /**
+     * ExpressionParser Constructor - Creates an ExpressionParser for a text
+     * @param text - String representing the text of the expression
+     */
+    private ExpressionParser(String text) {
+        this.text = text;
+        code = new byte[16];
+        constants = new double[8];
+        variableNames = new ArrayList<>();
+
+    }//end of the ExpressionParser Constructor
+    /**
+     * parse Method - Parses the text of an expression and optimizes its program
+     * @param text - String representing the text of the expression
+     * @return CompiledExpression - the compiled expression
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    public static CompiledExpression parse(String text) throws ExpressionSyntaxException {
+        return parse(text, true);
+
+    }//end of the parse Method
+    /**
+     * parse Method - Parses the text of an expression
+     * @param text - String representing the text of the expression
+     * @param optimized - boolean representing whether the program is optimized, or left as it
+     * was read
+     * @return CompiledExpression - the compiled expression
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    public static CompiledExpression parse(String text, boolean optimized)
+                                                     throws ExpressionSyntaxException {
+        ExpressionParser parser = new ExpressionParser(text);
+        parser.parseSum();
+        parser.skipBlanks();
+        if (parser.position < text.length()) {
+            throw (new ExpressionSyntaxException("Expected an operator", parser.position));
+
+        }
+        CompiledExpression expression = new CompiledExpression(text,
+                Arrays.copyOf(parser.code, parser.codeLength),
+                Arrays.copyOf(parser.constants, parser.constantCount),
+                parser.variableNames.toArray(new String[0]), parser.maxStackDepth);
+
+        return optimized ? ExpressionOptimizer.optimize(expression) : expression;
+
+    }//end of the parse Method
+    /**
+     * parseSum Method - Parses terms separated by + and -
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parseSum() throws ExpressionSyntaxException {
+        parseProduct();
+        while (true) {
+            if (accept('+')) {
+                parseProduct();
+                emit(CompiledExpression.ADD, -1);
+
+            } else if (accept('-')) {
+                parseProduct();
+                emit(CompiledExpression.SUBTRACT, -1);
+
+            } else {
+                return;
+
+            }
+        }
+    }//end of the parseSum Method
+    /**
+     * parseProduct Method - Parses factors separated by * and /
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parseProduct() throws ExpressionSyntaxException {
+        parseUnary();
+        while (true) {
+            if (accept('*')) {
+                parseUnary();
+                emit(CompiledExpression.MULTIPLY, -1);
+
+            } else if (accept('/')) {
+                parseUnary();
+                emit(CompiledExpression.DIVIDE, -1);
+
+            } else {
+                return;
+
+            }
+        }
+    }//end of the parseProduct Method
+    /**
+     * parseUnary Method - Parses a power preceded by any number of minus signs, and counts
+     * the nesting, since every nested part of the expression is parsed through it
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parseUnary() throws ExpressionSyntaxException {
+        if (++nesting > MAX_NESTING) {
+            throw (new ExpressionSyntaxException("Too deeply nested", position));
+
+        }
+        if (accept('-')) {
+            parseUnary();
+            emit(CompiledExpression.NEGATE, 0);
+
+        } else {
+            parsePower();
+
+        }
+        nesting--;
+
+    }//end of the parseUnary Method
+    /**
+     * parsePower Method - Parses a base raised to an exponent, where the exponent may itself be
+     * a power, so ^ groups from right to left
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parsePower() throws ExpressionSyntaxException {
+        parsePostfix();
+        if (accept('^')) {
+            parseUnary();
+            emit(CompiledExpression.EXPONENT, -1);
+
+        }
+    }//end of the parsePower Method
+    /**
+     * parsePostfix Method - Parses a primary followed by any number of percent signs
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parsePostfix() throws ExpressionSyntaxException {
+        parsePrimary();
+        while (accept('%')) {
+            emit(CompiledExpression.PERCENT, 0);
+        }
+    }//end of the parsePostfix Method
+    /**
+     * parsePrimary Method - Parses a number, a function, a variable, or an expression in
+     * parentheses
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parsePrimary() throws ExpressionSyntaxException {
+        skipBlanks();
+        if (position == text.length()) {
+            throw (new ExpressionSyntaxException("Expected a number", position));
+
+        }
+        char current = text.charAt(position);
+
+        if (((current >= '0') && (current <= '9')) || (current == '.')) {
+            parseNumber();
+
+        } else if (accept('(')) {
+            parseGroup();
+
+        } else if (isNameStart(current)) {
+            parseName();
+
+        } else {
+            throw (new ExpressionSyntaxException("Expected a number", position));
+
+        }
+    }//end of the parsePrimary Method
+    /**
+     * parseArgument Method - Parses the expression in parentheses after the name of a function
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parseArgument() throws ExpressionSyntaxException {
+        if (!accept('(')) {
+            throw (new ExpressionSyntaxException("Expected '('", position));
+
+        }
+        parseGroup();
+
+    }//end of the parseArgument Method
+    /**
+     * parseGroup Method - Parses an expression followed by a closing parenthesis
+     * @throws ExpressionSyntaxException - when the text is not an expression
+     */
+    private void parseGroup() throws ExpressionSyntaxException {
+        parseSum();
+        if (!accept(')')) {
+            throw (new ExpressionSyntaxException("Expected ')'", position));
+
+        }
+    }//end of the parseGroup Method
+    /**
+     * parseNumber Method - Parses digits with at most one decimal point
+     * @throws ExpressionSyntaxException - when there is no digit
+     */
+    private void parseNumber() throws ExpressionSyntaxException {
+        int start = position;
+        boolean hasDigits = false;
+        boolean hasDecimal = false;
+
+        while (position < text.length()) {
+            char current = text.charAt(position);
+            if ((current >= '0') && (current <= '9')) {
+                hasDigits = true;
+
+            } else if ((current == '.') && !hasDecimal) {
+                hasDecimal = true;
+
+            } else {
+                break;
+
+            }
+            position++;
+        }
+        if (!hasDigits) {
+            throw (new ExpressionSyntaxException("Expected a digit", start));
+
+        }
+        if (constantCount == constants.length) {
+            constants = Arrays.copyOf(constants, 2 * constantCount);
+
+        }
+        constants[constantCount++] = Double.parseDouble(text.substring(start, position));
+        emit(CompiledExpression.PUSH, 1);
+
+    }//end of the parseNumber Method
+    /**
+     * emit Method - Appends an instruction, or the operand of an instruction, to the program
+     * @param instruction - byte representing the instruction or the operand
+     * @param stackChange - integer representing the change of the stack depth
+     */
+    private void emit(byte instruction, int stackChange) {
+        if (codeLength == code.length) {
+            code = Arrays.copyOf(code, 2 * codeLength);
+
+        }
+        code[codeLength++] = instruction;
+        stackDepth += stackChange;
+        maxStackDepth = Math.max(maxStackDepth, stackDepth);
+
+    }//end of the emit Method
+    /**
+     * accept Method - Skips blanks, and then a character when it is next
+     * @param symbol - char representing the character
+     * @return boolean - true when the character was skipped
+     */
+    private boolean accept(char symbol) {
+        skipBlanks();
+        if ((position < text.length()) && (text.charAt(position) == symbol)) {
+            position++;
+            return true;
+
+        }
+        return false;
+
+    }//end of the accept Method
+    /**
+     * parseName Method - Parses a name, which is a function when it is "sqrt" or "inv", and
+     * a variable otherwise
+     * @throws ExpressionSyntaxException - when a function has no argument, or there are too
+     * many variables
+     */
+    private void parseName() throws ExpressionSyntaxException {
+        int start = position;
+        while ((position < text.length()) && isNamePart(text.charAt(position))) {
+            position++;
+        }
+        String name = text.substring(start, position);
+
+        if (name.equals("sqrt")) {
+            parseArgument();
+            emit(CompiledExpression.SQUARE_ROOT, 0);
+
+        } else if (name.equals("inv")) {
+            parseArgument();
+            emit(CompiledExpression.INVERSE, 0);
+
+        } else {
+            int index = variableNames.indexOf(name);
+            if (index < 0) {
+                if (variableNames.size() == MAX_VARIABLES) {
+                    throw (new ExpressionSyntaxException("Too many variables", start));
+
+                }
+                index = variableNames.size();
+                variableNames.add(name);
+
+            }
+            emit(CompiledExpression.LOAD, 1);
+            emit((byte) index, 0);
+
+        }
+    }//end of the parseName Method
+    /**
+     * isNameStart Method - Returns whether a character may start a name
+     * @param symbol - char representing the character
+     * @return boolean - true for a letter or an underscore
+     */
+    private static boolean isNameStart(char symbol) {
+        return ((symbol >= 'a') && (symbol <= 'z')) || ((symbol >= 'A') && (symbol <= 'Z')) ||
+                                                                              (symbol == '_');
+
+    }//end of the isNameStart Method
+    /**
+     * isNamePart Method - Returns whether a character may be part of a name
+     * @param symbol - char representing the character
+     * @return boolean - true for a letter, a digit, or an underscore
+     */
+    private static boolean isNamePart(char symbol) {
+        return isNameStart(symbol) || ((symbol >= '0') && (symbol <= '9'));
+
+    }//end of the isNamePart Method
+    /**
+     * skipBlanks Method - Skips spaces and tabs
+     */
+    private void skipBlanks() {
+        while ((position < text.length()) && ((text.charAt(position) == ' ') ||
+                                              (text.charAt(position) == '\t'))) {
+            position++;
+        }
+    }//end of the skipBlanks Method
+}//end of the ExpressionParser Class
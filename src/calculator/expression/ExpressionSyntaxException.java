@@ -0,0 +1,36 @@
+
+package calculator.expression;
+
+import calculator.engine.InvalidEntryException;
+
+/**
+ * ExpressionSyntaxException Class - Custom exception for expressions that cannot be parsed,
+ * which the calculator shows as an invalid entry
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class ExpressionSyntaxException extends InvalidEntryException {
+    //Instance Variables
+    private final int position;
+
+    /**
+     * ExpressionSyntaxException Constructor - Creates an instance of ExpressionSyntaxException
+     * with two parameters
+     * @param message - a String representing what was expected
+     * @param position - integer representing the index of the character that cannot be parsed
+     */
+    public ExpressionSyntaxException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+
+    }//end of the ExpressionSyntaxException Constructor
+    /**
+     * getPosition Method - Returns the index of the character that cannot be parsed
+     * @return int - the position in the expression
+     */
+    public int getPosition() {
+        return position;
+
+    }//end of the getPosition Method
+}//end of the ExpressionSyntaxException Class
@@ -0,0 +1,21 @@
+
+package calculator.expression;
+
+/**
+ * The Formula Interface is a CompiledExpression compiled by the ExpressionCompiler into the
+ * bytecode of a class of its own.  It is public only because each of those classes is defined
+ * by a class loader of its own, and so cannot see what is private to this package.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public interface Formula {
+    /**
+     * tryEvaluate Method - Evaluates the formula as CompiledExpression.tryEvaluate does
+     * @param values - a double[] holding the value of each variable by its index
+     * @param result - a double[] whose first element receives the value of the formula
+     * @return int - ErrorCode.NONE, or the ErrorCode of the first operation that failed
+     */
+    int tryEvaluate(double[] values, double[] result);
+
+}//end of the Formula Interface
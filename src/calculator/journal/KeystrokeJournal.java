@@ -0,0 +1,460 @@
+
+package calculator.journal;
+
+import calculator.engine.CalculatorEngine;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The KeystrokeJournal Class keeps the history of a calculator, so that it survives a restart
+ * and can be audited.  Every key pressed on the engine of the journal is appended to a binary
+ * file, one byte per key, named as CalculatorEngine.press names them, and a time record of
+ * nine bytes is appended before the first key of every second.  The keys are collected in a
+ * buffer, and a writer thread writes the buffer to the FileChannel of the journal and forces
+ * it to the disk: the keys pressed while the disk is busy are forced together by the next
+ * write, so a burst of keys costs one write instead of one per key (group commit).  Pressing a
+ * key never waits for the disk; commit waits until the keys pressed so far are durable.
+ *
+ * Every snapshotInterval keys, and when the journal is closed, the state of the engine is
+ * written into a snapshot file next to the journal, with the position in the journal up to
+ * which it includes the keys.  The snapshot is written by the writer thread once the journal
+ * is durable up to that position, to a temporary file that then replaces the snapshot, so a
+ * snapshot is never ahead of the journal nor torn.  Opening a journal restores the state of
+ * the engine from the snapshot, and replays only the keys after it, so the engine is restored
+ * at once whatever the length of the history.  A snapshot of an older SNAPSHOT_VERSION is
+ * ignored, and the whole journal is replayed instead.  A time record torn by a crash is cut off.
+ * Reading a whole journal with replay presses millions of keys per second.  When the journal
+ * cannot be written, the keys are still pressed on the engine, and commit and close report it.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class KeystrokeJournal implements Closeable {
+    //Instance Variables
+    public final static int MAGIC = 0x4B455953;
+    public final static int VERSION = 1;
+    public final static int SNAPSHOT_VERSION = 2;
+    public final static int HEADER_LENGTH = 8;
+    public final static byte TIME_RECORD = 1;
+    public final static int TIME_RECORD_LENGTH = 9;
+    public final static int DEFAULT_SNAPSHOT_INTERVAL = 1 << 16;
+    public final static String SNAPSHOT_SUFFIX = ".snapshot";
+    private final static int BUFFER_SIZE = 1 << 16;
+    private final static int READ_BUFFER_SIZE = 1 << 20;
+    private final Path file;
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final CalculatorEngine engine;
+    private final int snapshotInterval;
+    private final long replayedCount;
+    private final Thread writer;
+    private ByteBuffer buffer;
+    private ByteBuffer writeBuffer;
+    private ByteBuffer snapshot;
+    private ByteBuffer pendingSnapshot;
+    private long position;
+    private long durablePosition;
+    private long lastSecond;
+    private int keysSinceSnapshot;
+    private boolean isClosing;
+    private IOException failure;
+
+    /**
+     * KeystrokeJournal Constructor - Opens a journal, creating it when it does not exist, and
+     * restores the state of an engine from its snapshot and the keys after it
+     * @param file - the Path of the journal
+     * @param engine - the CalculatorEngine to restore and to press the keys of
+     * @param snapshotInterval - integer representing the number of keys between snapshots
+     * @throws IOException - when the journal cannot be read or written, or is not a journal
+     */
+    public KeystrokeJournal(Path file, CalculatorEngine engine, int snapshotInterval)
+                                                                        throws IOException {
+        if (snapshotInterval <= 0) {
+            throw (new IllegalArgumentException("The snapshot interval must be positive"));
+
+        }
+        this.file = file;
+        this.engine = engine;
+        this.snapshotInterval = snapshotInterval;
+        snapshotFile = file.resolveSibling(file.getFileName() + SNAPSHOT_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+
+            }
+            long start = restoreSnapshot(snapshotFile, engine, channel.size());
+            long[] count = new long[1];
+            position = replay(channel, start, engine, count);
+            replayedCount = count[0];
+            channel.truncate(position);
+            channel.position(position);
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+
+        }
+        durablePosition = position;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        snapshot = ByteBuffer.allocate(CalculatorEngine.MAX_STATE_LENGTH + 16);
+        pendingSnapshot = ByteBuffer.allocate(CalculatorEngine.MAX_STATE_LENGTH + 16);
+        snapshot.limit(0);
+        pendingSnapshot.limit(0);
+        writer = new Thread(this::write, "KeystrokeJournal");
+        writer.setDaemon(true);
+        writer.start();
+
+    }//end of the KeystrokeJournal Constructor
+    /**
+     * KeystrokeJournal Constructor - Opens a journal that takes a snapshot every
+     * DEFAULT_SNAPSHOT_INTERVAL keys
+     * @param file - the Path of the journal
+     * @param engine - the CalculatorEngine to restore and to press the keys of
+     * @throws IOException - when the journal cannot be read or written, or is not a journal
+     */
+    public KeystrokeJournal(Path file, CalculatorEngine engine) throws IOException {
+        this(file, engine, DEFAULT_SNAPSHOT_INTERVAL);
+
+    }//end of the KeystrokeJournal Constructor
+    /**
+     * press Method - Presses a key on the engine and appends it to the journal, without
+     * waiting for the disk
+     * @param key - a char naming the key, as CalculatorEngine.press names them
+     * @throws IllegalArgumentException - when the char does not name a key
+     * @throws IllegalStateException - when the journal is closed
+     */
+    public synchronized void press(char key) {
+        if (isClosing) {
+            throw (new IllegalStateException("The journal is closed"));
+
+        }
+        engine.press(key);
+        while ((buffer.remaining() < TIME_RECORD_LENGTH + 1) && (failure == null)) {
+            notifyAll();
+            waitForWriter();
+        }
+        if (failure != null) {
+            return;
+
+        }
+        long now = System.currentTimeMillis();
+        if (now / 1000 != lastSecond) {
+            lastSecond = now / 1000;
+            buffer.put(TIME_RECORD).putLong(now);
+            position += TIME_RECORD_LENGTH;
+
+        }
+        buffer.put((byte) key);
+        position++;
+        if (++keysSinceSnapshot >= snapshotInterval) {
+            takeSnapshot();
+
+        }
+        notifyAll();
+
+    }//end of the press Method
+    /**
+     * takeSnapshot Method - Copies the state of the engine for the writer thread, which writes
+     * it once the journal is durable up to the current position
+     */
+    private void takeSnapshot() {
+        keysSinceSnapshot = 0;
+        pendingSnapshot.clear();
+        pendingSnapshot.putInt(MAGIC).putInt(SNAPSHOT_VERSION).putLong(position);
+        engine.writeState(pendingSnapshot);
+        pendingSnapshot.flip();
+        notifyAll();
+
+    }//end of the takeSnapshot Method
+    /**
+     * commit Method - Waits until every key pressed so far is durable
+     * @throws IOException - when the journal could not be written
+     */
+    public synchronized void commit() throws IOException {
+        long target = position;
+        notifyAll();
+        while ((durablePosition < target) && (failure == null)) {
+            waitForWriter();
+        }
+        if (failure != null) {
+            throw (new IOException("The journal could not be written", failure));
+
+        }
+    }//end of the commit Method
+    /**
+     * close Method - Takes a snapshot, waits until the journal and the snapshot are durable,
+     * and closes the journal
+     * @throws IOException - when the journal could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (isClosing) {
+                return;
+
+            }
+            takeSnapshot();
+            isClosing = true;
+            notifyAll();
+
+        }
+        try {
+            writer.join();
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw (new IOException("The journal could not be written", failure));
+
+            }
+        }
+    }//end of the close Method
+    /**
+     * write Method - Runs the writer thread, which writes the buffered keys and the pending
+     * snapshots until the journal is closed
+     */
+    private void write() {
+        while (true) {
+            boolean hasSnapshot;
+            long target;
+            boolean isLast;
+            synchronized (this) {
+                while ((buffer.position() == 0) && !pendingSnapshot.hasRemaining() &&
+                       !isClosing) {
+                    waitForWriter();
+                }
+                ByteBuffer filled = buffer;
+                buffer = writeBuffer;
+                writeBuffer = filled;
+                ByteBuffer copy = snapshot;
+                snapshot = pendingSnapshot;
+                pendingSnapshot = copy;
+                pendingSnapshot.limit(0);
+                hasSnapshot = snapshot.hasRemaining();
+                target = position;
+                isLast = isClosing;
+                notifyAll();
+
+            }
+            try {
+                writeBuffer.flip();
+                while (writeBuffer.hasRemaining()) {
+                    channel.write(writeBuffer);
+                }
+                writeBuffer.clear();
+                channel.force(false);
+                if (hasSnapshot) {
+                    writeSnapshot(snapshot);
+
+                }
+            } catch (IOException ioe) {
+                synchronized (this) {
+                    failure = ioe;
+                    notifyAll();
+
+                }
+                return;
+
+            }
+            synchronized (this) {
+                durablePosition = target;
+                notifyAll();
+
+            }
+            if (isLast) {
+                return;
+
+            }
+        }
+    }//end of the write Method
+    /**
+     * writeSnapshot Method - Replaces the snapshot file with a new snapshot
+     * @param state - the ByteBuffer holding the snapshot
+     * @throws IOException - when the snapshot could not be written
+     */
+    private void writeSnapshot(ByteBuffer state) throws IOException {
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (state.hasRemaining()) {
+                out.write(state);
+            }
+            out.force(true);
+
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+
+    }//end of the writeSnapshot Method
+    /**
+     * waitForWriter Method - Waits for a notification of the writer thread or of a key
+     */
+    private void waitForWriter() {
+        try {
+            wait();
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw (new IllegalStateException("Interrupted while waiting for the journal", ie));
+
+        }
+    }//end of the waitForWriter Method
+    /**
+     * restoreSnapshot Method - Restores the state of an engine from a snapshot, unless there
+     * is no snapshot, it is ahead of the journal, or it is the state of another class of engine
+     * @param snapshotFile - the Path of the snapshot
+     * @param engine - the CalculatorEngine to restore
+     * @param journalLength - long representing the length of the journal
+     * @return long - the position in the journal to replay the keys from
+     * @throws IOException - when the snapshot cannot be read
+     */
+    private static long restoreSnapshot(Path snapshotFile, CalculatorEngine engine,
+                                                    long journalLength) throws IOException {
+        engine.clearAll();
+        if (!Files.exists(snapshotFile)) {
+            return HEADER_LENGTH;
+
+        }
+        ByteBuffer state = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        if ((state.remaining() < 16) || (state.getInt() != MAGIC) ||
+            (state.getInt() != SNAPSHOT_VERSION)) {
+            return HEADER_LENGTH;
+
+        }
+        long start = state.getLong();
+        if ((start < HEADER_LENGTH) || (start > journalLength)) {
+            return HEADER_LENGTH;
+
+        }
+        try {
+            engine.readState(state);
+            return start;
+
+        } catch (RuntimeException re) {
+            engine.clearAll();
+            return HEADER_LENGTH;
+
+        }
+
+    }//end of the restoreSnapshot Method
+    /**
+     * replay Method - Presses every key of a journal on an engine, for an audit
+     * @param file - the Path of the journal
+     * @param engine - the CalculatorEngine to press the keys of, from its current state
+     * @return long - the number of keys pressed
+     * @throws IOException - when the journal cannot be read, or is not a journal
+     */
+    public static long replay(Path file, CalculatorEngine engine) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] count = new long[1];
+            replay(in, HEADER_LENGTH, engine, count);
+            return count[0];
+
+        }
+    }//end of the replay Method
+    /**
+     * replay Method - Presses the keys of a journal from a position on an engine
+     * @param in - the FileChannel of the journal
+     * @param start - long representing the position of the first record to replay
+     * @param engine - the CalculatorEngine to press the keys of
+     * @param count - a long[] whose first element receives the number of keys pressed
+     * @return long - the position after the last complete record
+     * @throws IOException - when the journal cannot be read, or is not a journal
+     */
+    private static long replay(FileChannel in, long start, CalculatorEngine engine,
+                                                        long[] count) throws IOException {
+        ByteBuffer input = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        in.read(input, 0);
+        input.flip();
+        if ((input.remaining() < HEADER_LENGTH) || (input.getInt() != MAGIC) ||
+            (input.getInt() != VERSION)) {
+            throw (new IOException("Not a keystroke journal"));
+
+        }
+        long position = start;
+        long keys = 0;
+        input.clear();
+        while (in.read(input, position + input.position()) > 0) {
+            input.flip();
+            while (input.hasRemaining()) {
+                byte record = input.get(input.position());
+                if (record == TIME_RECORD) {
+                    if (input.remaining() < TIME_RECORD_LENGTH) {
+                        break;
+
+                    }
+                    input.position(input.position() + TIME_RECORD_LENGTH);
+                    position += TIME_RECORD_LENGTH;
+
+                } else {
+                    try {
+                        engine.press((char) input.get());
+
+                    } catch (IllegalArgumentException iae) {
+                        throw (new IOException("Not a key at " + position + " of the journal"));
+
+                    }
+                    position++;
+                    keys++;
+
+                }
+            }
+            input.compact();
+        }
+        count[0] = keys;
+        return position;
+
+    }//end of the replay Method
+    /**
+     * getReplayedCount Method - Returns the number of keys replayed after the snapshot when
+     * the journal was opened
+     * @return long - the number of keys
+     */
+    public long getReplayedCount() {
+        return replayedCount;
+
+    }//end of the getReplayedCount Method
+    /**
+     * getPosition Method - Returns the length of the journal, with the keys not yet written
+     * @return long - the position after the last key pressed
+     */
+    public synchronized long getPosition() {
+        return position;
+
+    }//end of the getPosition Method
+    /**
+     * getEngine Method - Returns the engine the keys are pressed on
+     * @return CalculatorEngine - the engine
+     */
+    public CalculatorEngine getEngine() {
+        return engine;
+
+    }//end of the getEngine Method
+    /**
+     * getFile Method - Returns the file of the journal
+     * @return Path - the journal
+     */
+    public Path getFile() {
+        return file;
+
+    }//end of the getFile Method
+}//end of the KeystrokeJournal Class
@@ -0,0 +1,176 @@
+
+package calculator.metrics;
+
+import calculator.engine.ErrorCode;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The CalculatorMetrics Class counts what the calculator does, for JMX clients such as
+ * JConsole to watch: the operations evaluated by operation, the errors displayed by kind, the
+ * latency of the evaluations, and the latency of the events handled by the Event Dispatch
+ * Thread.  The counts are LongAdders and the latencies LatencyHistograms, which the engines
+ * and threads update without locks, so the metrics can stay enabled in production.  An engine
+ * counts into the metrics set on it, and the metrics are published to JMX by register, under
+ * the names of DOMAIN.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class CalculatorMetrics implements CalculatorMetricsMXBean {
+    //Instance Variables
+    public final static String DOMAIN = "calculator";
+    private final static String OPERATIONS = "+-*/^%irCPsotabdlge!";
+    private final static String[] OPERATION_NAMES = {
+        "add", "subtract", "multiply", "divide", "exponent", "percent", "inverse", "squareRoot",
+        "combinations", "permutations", "sin", "cos", "tan", "asin", "acos", "atan", "ln",
+        "log10", "exp", "factorial"
+    };
+    private final static String[] ERROR_NAMES = {
+        "none", "undefined", "nonRealNumber", "invalidEntry"
+    };
+    private final LongAdder[] operationCounts;
+    private final LongAdder[] errorCounts;
+    private final LatencyHistogram evaluationLatency;
+    private final LatencyHistogram eventDispatchLatency;
+
+    /**
+     * CalculatorMetrics Constructor - Creates CalculatorMetrics without any counts
+     */
+    public CalculatorMetrics() {
+        operationCounts = new LongAdder[OPERATIONS.length()];
+        for (int i = 0; i < operationCounts.length; i++) {
+            operationCounts[i] = new LongAdder();
+        }
+        errorCounts = new LongAdder[ERROR_NAMES.length];
+        for (int i = 0; i < errorCounts.length; i++) {
+            errorCounts[i] = new LongAdder();
+        }
+        evaluationLatency = new LatencyHistogram();
+        eventDispatchLatency = new LatencyHistogram();
+
+    }//end of the CalculatorMetrics Constructor
+    /**
+     * countOperation Method - Counts an operation evaluated
+     * @param operation - a char representing the key of the operation, as
+     * CalculatorEngine.press names them; other chars are not counted
+     */
+    public void countOperation(char operation) {
+        int index = OPERATIONS.indexOf(operation);
+        if (index >= 0) {
+            operationCounts[index].increment();
+
+        }
+    }//end of the countOperation Method
+    /**
+     * countError Method - Counts an error displayed
+     * @param errorCode - integer representing the error, as the ErrorCode names them
+     */
+    public void countError(int errorCode) {
+        if ((errorCode > ErrorCode.NONE) && (errorCode < errorCounts.length)) {
+            errorCounts[errorCode].increment();
+
+        }
+    }//end of the countError Method
+    /**
+     * getEvaluationLatency Method - Returns the latencies of the evaluations, of a key in the
+     * window or of a line in the batch and server modes
+     * @return LatencyHistogram - the latencies of the evaluations
+     */
+    public LatencyHistogram getEvaluationLatency() {
+        return evaluationLatency;
+
+    }//end of the getEvaluationLatency Method
+    /**
+     * getEventDispatchLatency Method - Returns the latencies of the events of the window, from
+     * being posted to the Event Dispatch Thread to being handled
+     * @return LatencyHistogram - the latencies of the events
+     */
+    public LatencyHistogram getEventDispatchLatency() {
+        return eventDispatchLatency;
+
+    }//end of the getEventDispatchLatency Method
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < operationCounts.length; i++) {
+            counts.put(OPERATION_NAMES[i], operationCounts[i].sum());
+        }
+        return counts;
+
+    }//end of the getOperationCounts Method
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = ErrorCode.NONE + 1; i < errorCounts.length; i++) {
+            counts.put(ERROR_NAMES[i], errorCounts[i].sum());
+        }
+        return counts;
+
+    }//end of the getErrorCounts Method
+    @Override
+    public long getOperationCount() {
+        long count = 0;
+        for (LongAdder operationCount : operationCounts) {
+            count += operationCount.sum();
+        }
+        return count;
+
+    }//end of the getOperationCount Method
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+        for (LongAdder errorCount : errorCounts) {
+            count += errorCount.sum();
+        }
+        return count;
+
+    }//end of the getErrorCount Method
+    @Override
+    public void reset() {
+        for (LongAdder operationCount : operationCounts) {
+            operationCount.reset();
+        }
+        for (LongAdder errorCount : errorCounts) {
+            errorCount.reset();
+        }
+        evaluationLatency.reset();
+        eventDispatchLatency.reset();
+
+    }//end of the reset Method
+    /**
+     * register Method - Publishes the metrics and their latencies to the platform MBeanServer,
+     * replacing the metrics registered before under the same names
+     * @throws JMException - when the metrics cannot be registered
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        register(server, new ObjectName(DOMAIN + ":type=Metrics"), this);
+        register(server, new ObjectName(DOMAIN + ":type=Latency,name=Evaluation"),
+                 evaluationLatency);
+        register(server, new ObjectName(DOMAIN + ":type=Latency,name=EventDispatch"),
+                 eventDispatchLatency);
+
+    }//end of the register Method
+    /**
+     * register Method - Registers an MXBean under a name, replacing the one registered before
+     * @param server - the MBeanServer to register with
+     * @param name - the ObjectName of the MXBean
+     * @param bean - the Object implementing the MXBean interface
+     * @throws JMException - when the MXBean cannot be registered
+     */
+    private static void register(MBeanServer server, ObjectName name, Object bean)
+                                                                 throws JMException {
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+
+        }
+        server.registerMBean(bean, name);
+
+    }//end of the register Method
+}//end of the CalculatorMetrics Class
@@ -0,0 +1,43 @@
+
+package calculator.metrics;
+
+import java.util.Map;
+
+/**
+ * The CalculatorMetricsMXBean Interface is the management interface of the CalculatorMetrics,
+ * which JMX clients such as JConsole read as attributes.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public interface CalculatorMetricsMXBean {
+    /**
+     * getOperationCounts Method - Returns the number of operations evaluated by operation
+     * @return Map - the numbers of operations by the name of the operation
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * getErrorCounts Method - Returns the number of errors displayed by kind
+     * @return Map - the numbers of errors by the name of the kind
+     */
+    Map<String, Long> getErrorCounts();
+
+    /**
+     * getOperationCount Method - Returns the number of operations evaluated
+     * @return long - the number of operations
+     */
+    long getOperationCount();
+
+    /**
+     * getErrorCount Method - Returns the number of errors displayed
+     * @return long - the number of errors
+     */
+    long getErrorCount();
+
+    /**
+     * reset Method - Forgets the operations, the errors, and the latencies counted
+     */
+    void reset();
+
+}//end of the CalculatorMetricsMXBean Interface
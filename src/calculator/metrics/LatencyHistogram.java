@@ -0,0 +1,155 @@
+
+package calculator.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram Class counts latencies in buckets of powers of two nanoseconds, so
+ * recording a latency is a count of leading zeros and two additions to LongAdders, which the
+ * threads update without locks and without contending, and can stay enabled in production.
+ * The buckets only tell a latency within a factor of two, which is enough to see the shape of
+ * the latencies and their tail.  The readings are not taken atomically, so a reading taken
+ * while latencies are recorded may count a latency in one attribute and not yet in another.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    //Instance Variables
+    public final static int BUCKETS = 64;
+    private final LongAdder[] counts;
+    private final LongAdder totalNanos;
+    private final AtomicLong maxNanos;
+
+    /**
+     * LatencyHistogram Constructor - Creates a LatencyHistogram without any latencies
+     */
+    public LatencyHistogram() {
+        counts = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+        totalNanos = new LongAdder();
+        maxNanos = new AtomicLong();
+
+    }//end of the LatencyHistogram Constructor
+    /**
+     * record Method - Records a latency
+     * @param nanos - long representing the latency in nanoseconds, of which negative ones are
+     * recorded as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+
+        }
+        counts[Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(nanos))].increment();
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while ((nanos > max) && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }//end of the record Method
+    /**
+     * recordSince Method - Records the latency from a start until now
+     * @param startNanos - long representing the start, as System.nanoTime returned it
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+
+    }//end of the recordSince Method
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+
+    }//end of the getCount Method
+    @Override
+    public double getMeanNanos() {
+        long count = getCount();
+        return (count == 0) ? 0 : (double) totalNanos.sum() / count;
+
+    }//end of the getMeanNanos Method
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+
+    }//end of the getMaxNanos Method
+    @Override
+    public long getMedianNanos() {
+        return getPercentileNanos(50);
+
+    }//end of the getMedianNanos Method
+    @Override
+    public long get99thPercentileNanos() {
+        return getPercentileNanos(99);
+
+    }//end of the get99thPercentileNanos Method
+    @Override
+    public long get999thPercentileNanos() {
+        return getPercentileNanos(99.9);
+
+    }//end of the get999thPercentileNanos Method
+    /**
+     * getPercentileNanos Method - Returns a percentile of the latencies
+     * @param percentile - double representing the percentile, from 0 to 100
+     * @return long - the upper bound of the bucket of the percentile in nanoseconds, or zero
+     * when no latency was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] sums = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sums[i] = counts[i].sum();
+            count += sums[i];
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += sums[i];
+            if ((sums[i] > 0) && (seen >= rank)) {
+                return getUpperBound(i);
+
+            }
+        }
+        return 0;
+
+    }//end of the getPercentileNanos Method
+    @Override
+    public Map<Long, Long> getBuckets() {
+        Map<Long, Long> buckets = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts[i].sum();
+            if (count > 0) {
+                buckets.put(getUpperBound(i), count);
+
+            }
+        }
+        return buckets;
+
+    }//end of the getBuckets Method
+    @Override
+    public void reset() {
+        for (LongAdder bucket : counts) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+
+    }//end of the reset Method
+    /**
+     * getUpperBound Method - Returns the longest latency a bucket holds
+     * @param bucket - integer representing the bucket
+     * @return long - the upper bound of the bucket in nanoseconds
+     */
+    private static long getUpperBound(int bucket) {
+        return (bucket == BUCKETS - 1) ? Long.MAX_VALUE : (2L << bucket) - 1;
+
+    }//end of the getUpperBound Method
+}//end of the LatencyHistogram Class
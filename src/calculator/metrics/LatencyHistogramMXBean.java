@@ -0,0 +1,62 @@
+
+package calculator.metrics;
+
+import java.util.Map;
+
+/**
+ * The LatencyHistogramMXBean Interface is the management interface of a LatencyHistogram,
+ * which JMX clients such as JConsole read as attributes.  The latencies are in nanoseconds,
+ * and the percentiles are the upper bounds of the power of two buckets they fall into.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public interface LatencyHistogramMXBean {
+    /**
+     * getCount Method - Returns the number of latencies recorded
+     * @return long - the number of latencies
+     */
+    long getCount();
+
+    /**
+     * getMeanNanos Method - Returns the mean of the latencies
+     * @return double - the mean in nanoseconds, or zero when none was recorded
+     */
+    double getMeanNanos();
+
+    /**
+     * getMaxNanos Method - Returns the longest latency
+     * @return long - the longest latency in nanoseconds
+     */
+    long getMaxNanos();
+
+    /**
+     * getMedianNanos Method - Returns the median of the latencies
+     * @return long - the upper bound of the median in nanoseconds
+     */
+    long getMedianNanos();
+
+    /**
+     * get99thPercentileNanos Method - Returns the 99th percentile of the latencies
+     * @return long - the upper bound of the 99th percentile in nanoseconds
+     */
+    long get99thPercentileNanos();
+
+    /**
+     * get999thPercentileNanos Method - Returns the 99.9th percentile of the latencies
+     * @return long - the upper bound of the 99.9th percentile in nanoseconds
+     */
+    long get999thPercentileNanos();
+
+    /**
+     * getBuckets Method - Returns the number of latencies in each bucket that holds any
+     * @return Map - the numbers of latencies by the upper bound of their bucket in nanoseconds
+     */
+    Map<Long, Long> getBuckets();
+
+    /**
+     * reset Method - Forgets the latencies recorded
+     */
+    void reset();
+
+}//end of the LatencyHistogramMXBean Interface
@@ -0,0 +1,341 @@
+
+package calculator.server;
+
+import calculator.batch.LineEvaluator;
+import calculator.metrics.CalculatorMetrics;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import javax.management.JMException;
+
+/**
+ * The CalculatorServer Class shares one calculator engine with many clients on the local
+ * network.  It accepts connections on a port of the loopback address, and evaluates the
+ * expressions the clients send with the same LineEvaluator as the batch mode, so an expression
+ * gives the same result as the same keys pressed on the keypad.  A connection speaks the line
+ * protocol of the LineProtocol, or HTTP when its first byte is an upper case letter, as in
+ * "GET" or "POST", which no expression starts with.
+ *
+ * The server is non-blocking: a single thread waits on a Selector for the connections that are
+ * ready, so tens of thousands of connections cost one thread, and the engine, which is not
+ * thread safe, is only used by that thread.  An evaluation takes a fraction of a microsecond,
+ * so the thread is rarely the limit.  Clients may pipeline requests, and the responses are sent
+ * in the order of the requests.  The server applies back pressure: it only reads from a
+ * connection once the responses to its earlier requests have been sent, so a client that
+ * sends without reading fills its own socket buffers instead of the memory of the server.
+ * The buffers of the connections are taken from a pool only while they hold bytes, so an idle
+ * connection holds no buffers.  When the server is run from main, its operations, errors, and
+ * latencies are published to JMX as CalculatorMetrics.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+public class CalculatorServer {
+    //Instance Variables
+    public final static int DEFAULT_PORT = 7070;
+    public final static int BACKLOG = 1024;
+    public final static int MAX_POOLED_BUFFERS = 1024;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final LineEvaluator evaluator;
+    private final LineProtocol lineProtocol;
+    private final HttpProtocol httpProtocol;
+    private final ArrayDeque<ByteBuffer> bufferPool;
+    private volatile boolean isRunning;
+    private int connectionCount;
+
+    /**
+     * CalculatorServer Constructor - Creates a server listening on a port of the loopback
+     * address
+     * @param port - integer representing the port, or 0 for any free port
+     * @throws IOException - when the port cannot be bound
+     */
+    public CalculatorServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+    }//end of the CalculatorServer Constructor
+    /**
+     * CalculatorServer Constructor - Creates a server listening on an address
+     * @param address - the InetSocketAddress to bind
+     * @throws IOException - when the address cannot be bound
+     */
+    public CalculatorServer(InetSocketAddress address) throws IOException {
+        evaluator = new LineEvaluator();
+        lineProtocol = new LineProtocol(evaluator);
+        httpProtocol = new HttpProtocol(evaluator);
+        bufferPool = new ArrayDeque<>();
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address, BACKLOG);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        isRunning = true;
+
+    }//end of the CalculatorServer Constructor
+    /**
+     * serve Method - Serves the connections until the server is stopped, and then closes them
+     * @throws IOException - when the selector fails
+     */
+    public void serve() throws IOException {
+        try {
+            while (isRunning) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+
+                    } else {
+                        handle(key);
+
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+
+        }
+    }//end of the serve Method
+    /**
+     * stop Method - Stops the server from another thread
+     */
+    public void stop() {
+        isRunning = false;
+        selector.wakeup();
+
+    }//end of the stop Method
+    /**
+     * accept Method - Accepts the pending connections
+     * @throws IOException - when a connection cannot be registered
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connectionCount++;
+        }
+    }//end of the accept Method
+    /**
+     * handle Method - Reads from a connection that is readable, and sends the responses of a
+     * connection that is writable.  A connection that fails is closed.
+     * @param key - the SelectionKey of the connection
+     */
+    private void handle(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                if (connection.input == null) {
+                    connection.input = acquire();
+
+                }
+                if (connection.channel.read(connection.input) < 0) {
+                    connection.isInputClosed = true;
+
+                }
+            }
+            service(connection);
+
+        } catch (IOException ioe) {
+            close(connection);
+
+        }
+    }//end of the handle Method
+    /**
+     * service Method - Answers the requests of a connection and sends the responses, for as long
+     * as the responses are sent as fast as they are produced, and then chooses what to wait for
+     * @param connection - the Connection to serve
+     * @throws IOException - when the responses cannot be sent
+     */
+    private void service(Connection connection) throws IOException {
+        boolean isProgressing = true;
+        if (connection.input == null) {
+            connection.input = acquire();
+
+        }
+        if (connection.output == null) {
+            connection.output = acquire();
+
+        }
+        while (isProgressing) {
+            int pending = connection.input.position();
+            if (!connection.isClosing && ((pending > 0) || connection.isInputClosed)) {
+                if (connection.protocol == null) {
+                    connection.protocol = selectProtocol(connection);
+
+                }
+                if ((connection.protocol != null) && !connection.protocol.process(connection)) {
+                    connection.isClosing = true;
+
+                }
+            }
+            connection.output.flip();
+            connection.channel.write(connection.output);
+            connection.output.compact();
+            isProgressing = (connection.input.position() < pending) &&
+                            (connection.output.position() == 0) && !connection.isClosing;
+        }
+        boolean isAnswered = connection.isClosing ||
+                             (connection.isInputClosed && (connection.input.position() == 0));
+        if (isAnswered && (connection.output.position() == 0)) {
+            close(connection);
+            return;
+
+        }
+        int interest = 0;
+        if (connection.output.position() > 0) {
+            interest |= SelectionKey.OP_WRITE;
+
+        } else if (!isAnswered && connection.input.hasRemaining()) {
+            interest |= SelectionKey.OP_READ;
+
+        }
+        connection.key.interestOps(interest);
+        if (connection.input.position() == 0) {
+            release(connection.input);
+            connection.input = null;
+
+        }
+        if (connection.output.position() == 0) {
+            release(connection.output);
+            connection.output = null;
+
+        }
+    }//end of the service Method
+    /**
+     * selectProtocol Method - Chooses the protocol of a connection by its first byte
+     * @param connection - the Connection holding the first bytes
+     * @return Protocol - the HttpProtocol when the first byte is an upper case letter, or the
+     * LineProtocol otherwise, or null when no byte was received
+     */
+    private Protocol selectProtocol(Connection connection) {
+        if (connection.input.position() == 0) {
+            return null;
+
+        }
+        byte first = connection.input.get(0);
+        return ((first >= 'A') && (first <= 'Z')) ? httpProtocol : lineProtocol;
+
+    }//end of the selectProtocol Method
+    /**
+     * close Method - Closes a connection and returns its buffers to the pool
+     * @param connection - the Connection to close
+     */
+    private void close(Connection connection) {
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+
+        } catch (IOException ioe) {
+            //the connection is gone either way
+
+        }
+        release(connection.input);
+        release(connection.output);
+        connection.input = null;
+        connection.output = null;
+        connectionCount--;
+
+    }//end of the close Method
+    /**
+     * acquire Method - Takes a buffer from the pool, or creates one when the pool is empty
+     * @return ByteBuffer - an empty buffer of Connection.BUFFER_SIZE bytes
+     */
+    private ByteBuffer acquire() {
+        ByteBuffer buffer = bufferPool.poll();
+        return (buffer != null) ? buffer : ByteBuffer.allocate(Connection.BUFFER_SIZE);
+
+    }//end of the acquire Method
+    /**
+     * release Method - Returns a buffer to the pool, unless the pool is full
+     * @param buffer - the ByteBuffer to return, or null
+     */
+    private void release(ByteBuffer buffer) {
+        if ((buffer != null) && (bufferPool.size() < MAX_POOLED_BUFFERS)) {
+            buffer.clear();
+            bufferPool.push(buffer);
+
+        }
+    }//end of the release Method
+    /**
+     * getPort Method - Returns the port the server listens on
+     * @return int - the local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+
+    }//end of the getPort Method
+    /**
+     * getConnectionCount Method - Returns the number of open connections, which is only exact
+     * when read by the thread of the server
+     * @return int - the number of connections
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+
+    }//end of the getConnectionCount Method
+    /**
+     * getRequestCount Method - Returns the number of expressions evaluated, which is only exact
+     * when read by the thread of the server
+     * @return long - the number of expressions
+     */
+    public long getRequestCount() {
+        return evaluator.getLineCount();
+
+    }//end of the getRequestCount Method
+    /**
+     * setMetrics Method - Sets the metrics to count the operations, the errors, and the
+     * latency of every expression in, before the server is served
+     * @param metrics - the CalculatorMetrics, or null to count nothing
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        evaluator.setMetrics(metrics);
+
+    }//end of the setMetrics Method
+    /**
+     * main Method - Contains the command line arguments.  The server listens on the port given
+     * as the first argument, or on DEFAULT_PORT, of the loopback address until it is killed.
+     * @param args - a String[] representing the command line arguments
+     */
+    public static void main(String[] args) {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            CalculatorServer server = new CalculatorServer(port);
+            CalculatorMetrics metrics = new CalculatorMetrics();
+            server.setMetrics(metrics);
+            try {
+                metrics.register();
+
+            } catch (JMException jme) {
+                System.err.println("CalculatorServer: the metrics are not published: " + jme);
+
+            }
+            System.err.println("CalculatorServer listening on localhost:" + server.getPort());
+            server.serve();
+
+        } catch (IOException ioe) {
+            System.err.println("CalculatorServer: " + ioe.getMessage());
+            System.exit(1);
+
+        }
+    }//end of the main Method
+}//end of the CalculatorServer Class
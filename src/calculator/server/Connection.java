@@ -0,0 +1,52 @@
+
+package calculator.server;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The Connection Class holds the state of one client of the CalculatorServer: its channel and
+ * key, the bytes received and not yet answered, the responses not yet sent, and the Protocol
+ * it speaks.  The buffers are taken from the pool of the server only while they hold bytes,
+ * so an idle connection holds no buffers at all.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+final class Connection {
+    //Instance Variables
+    public final static int BUFFER_SIZE = 1 << 12;
+    final SocketChannel channel;
+    SelectionKey key;
+    /** The bytes received and not yet answered, from 0 to the position, or null when none. */
+    ByteBuffer input;
+    /** The responses not yet sent, from 0 to the position, or null when none. */
+    ByteBuffer output;
+    Protocol protocol;
+    boolean isSkippingLine;
+    boolean isInputClosed;
+    boolean isClosing;
+
+    /**
+     * Connection Constructor - Creates a Connection for an accepted channel
+     * @param channel - the SocketChannel of the client
+     */
+    Connection(SocketChannel channel) {
+        this.channel = channel;
+
+    }//end of the Connection Constructor
+    /**
+     * consume Method - Removes the bytes of the requests that have been answered from the
+     * start of the input
+     * @param count - integer representing the number of bytes answered
+     */
+    void consume(int count) {
+        if (count > 0) {
+            input.flip();
+            input.position(count);
+            input.compact();
+
+        }
+    }//end of the consume Method
+}//end of the Connection Class
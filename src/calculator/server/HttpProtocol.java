@@ -0,0 +1,409 @@
+
+package calculator.server;
+
+import calculator.batch.LineEvaluator;
+import java.nio.ByteBuffer;
+
+/**
+ * The HttpProtocol Class answers HTTP/1.1 requests to the CalculatorServer, one expression per
+ * request: "GET /?q=12.5+%2B+7" with the expression URL encoded in the parameter q, or "POST /"
+ * with the expression as the body.  The path may also be "/eval".  The result is the body of
+ * the response, as text/plain with a newline, and errors of the expression are results like any
+ * other, so every evaluated request is answered "200 OK".  Connections are kept alive, and
+ * pipelined requests are answered in order, unless the client asks to close the connection or
+ * speaks HTTP/1.0.  A request that cannot be read is answered with an error status, and the
+ * connection is closed.  The request head and body must fit into the input buffer of the
+ * connection.  The responses are written as bytes without creating any Strings.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+final class HttpProtocol implements Protocol {
+    //Instance Variables
+    public final static int MAX_HEAD_LENGTH = 128;
+    public final static int MAX_RESPONSE_LENGTH =
+            MAX_HEAD_LENGTH + LineEvaluator.MAX_RESULT_LENGTH;
+    private final static int WAITING = 0;
+    private final static int ANSWERED = 1;
+    private final static int CLOSED = 2;
+    private final static byte[] OK_HEAD =
+            "HTTP/1.1 200 OK\r\nContent-Type: text/plain; charset=UTF-8\r\nContent-Length: ".getBytes();
+    private final static byte[] CLOSE_HEADER = "\r\nConnection: close".getBytes();
+    private final static byte[] END_OF_HEAD = "\r\n\r\n".getBytes();
+    private final static byte[] BAD_REQUEST = errorResponse("400 Bad Request");
+    private final static byte[] NOT_FOUND = errorResponse("404 Not Found");
+    private final static byte[] METHOD_NOT_ALLOWED = errorResponse("405 Method Not Allowed");
+    private final static byte[] TOO_LARGE = errorResponse("413 Payload Too Large");
+    private final static byte[] GET = "GET".getBytes();
+    private final static byte[] POST = "POST".getBytes();
+    private final static byte[] ROOT = "/".getBytes();
+    private final static byte[] EVAL = "/eval".getBytes();
+    private final static byte[] HTTP_1_0 = "HTTP/1.0".getBytes();
+    private final static byte[] CONTENT_LENGTH = "content-length".getBytes();
+    private final static byte[] CONNECTION = "connection".getBytes();
+    private final static byte[] CLOSE = "close".getBytes();
+    private final LineEvaluator evaluator;
+    private final ByteBuffer expression;
+    private final ByteBuffer body;
+
+    /**
+     * HttpProtocol Constructor - Creates an HttpProtocol evaluating with a LineEvaluator
+     * @param evaluator - the LineEvaluator shared by the connections
+     */
+    HttpProtocol(LineEvaluator evaluator) {
+        this.evaluator = evaluator;
+        expression = ByteBuffer.allocate(Connection.BUFFER_SIZE);
+        body = ByteBuffer.allocate(LineEvaluator.MAX_RESULT_LENGTH);
+
+    }//end of the HttpProtocol Constructor
+    /**
+     * process Method - Answers the complete requests at the start of the input of a connection
+     * @param connection - the Connection holding the requests
+     * @return boolean - false when the connection is to be closed once its output is sent
+     */
+    @Override
+    public boolean process(Connection connection) {
+        int state = ANSWERED;
+        while ((state == ANSWERED) && (connection.output.remaining() >= MAX_RESPONSE_LENGTH) &&
+                                     (connection.input.position() > 0)) {
+            state = processRequest(connection);
+        }
+        if ((state != CLOSED) && connection.isInputClosed && (connection.input.position() > 0) &&
+                                (connection.output.remaining() >= MAX_RESPONSE_LENGTH)) {
+            connection.output.put(BAD_REQUEST);
+            state = CLOSED;
+
+        }
+        return state != CLOSED;
+
+    }//end of the process Method
+    /**
+     * processRequest Method - Answers the request at the start of the input, when all of it
+     * has been received
+     * @param connection - the Connection holding the request
+     * @return int - WAITING when the request is incomplete, ANSWERED when it is answered, or
+     * CLOSED when the connection is to be closed
+     */
+    private int processRequest(Connection connection) {
+        byte[] bytes = connection.input.array();
+        int end = connection.input.position();
+        int requestLineEnd = -1;
+        int headEnd = -1;
+        int contentLength = 0;
+        boolean isClosing = false;
+        int lineStart = 0;
+
+        for (int i = 0; (i < end) && (headEnd < 0); i++) {
+            if (bytes[i] == '\n') {
+                int lineEnd = ((i > lineStart) && (bytes[i - 1] == '\r')) ? i - 1 : i;
+                if (requestLineEnd < 0) {
+                    requestLineEnd = lineEnd;
+
+                } else if (lineEnd == lineStart) {
+                    headEnd = i + 1;
+
+                } else if (isHeader(bytes, lineStart, lineEnd, CONTENT_LENGTH)) {
+                    contentLength = parseLength(bytes, valueStart(bytes, lineStart, lineEnd),
+                                                                                  lineEnd);
+
+                } else if (isHeader(bytes, lineStart, lineEnd, CONNECTION)) {
+                    isClosing = contains(bytes, valueStart(bytes, lineStart, lineEnd), lineEnd,
+                                                                                   CLOSE);
+
+                }
+                lineStart = i + 1;
+
+            }
+        }
+        if (headEnd < 0) {
+            return reject(connection, (end == connection.input.capacity()) ? TOO_LARGE : null);
+
+        }
+        if (contentLength < 0) {
+            return reject(connection, BAD_REQUEST);
+
+        } else if (headEnd + contentLength > connection.input.capacity()) {
+            return reject(connection, TOO_LARGE);
+
+        } else if (headEnd + contentLength > end) {
+            return WAITING;
+
+        }
+        int methodEnd = indexOf(bytes, 0, requestLineEnd, (byte) ' ');
+        int targetEnd = indexOf(bytes, methodEnd + 1, requestLineEnd, (byte) ' ');
+        if ((methodEnd < 0) || (targetEnd < 0)) {
+            return reject(connection, BAD_REQUEST);
+
+        }
+        isClosing = isClosing || equals(bytes, targetEnd + 1, requestLineEnd, HTTP_1_0);
+        int pathEnd = indexOf(bytes, methodEnd + 1, targetEnd, (byte) '?');
+        pathEnd = (pathEnd < 0) ? targetEnd : pathEnd;
+        if (!equals(bytes, methodEnd + 1, pathEnd, ROOT) &&
+            !equals(bytes, methodEnd + 1, pathEnd, EVAL)) {
+            return reject(connection, NOT_FOUND);
+
+        }
+        body.clear();
+        if (equals(bytes, 0, methodEnd, GET)) {
+            if (!decodeQuery(bytes, pathEnd, targetEnd)) {
+                return reject(connection, BAD_REQUEST);
+
+            }
+            evaluator.evaluate(expression, 0, expression.position(), body);
+
+        } else if (equals(bytes, 0, methodEnd, POST)) {
+            evaluator.evaluate(connection.input, headEnd, headEnd + contentLength, body);
+
+        } else {
+            return reject(connection, METHOD_NOT_ALLOWED);
+
+        }
+        respond(connection.output, isClosing);
+        connection.consume(headEnd + contentLength);
+        return isClosing ? CLOSED : ANSWERED;
+
+    }//end of the processRequest Method
+    /**
+     * respond Method - Puts the head of a response and the result in the body into the output
+     * @param output - the ByteBuffer of the responses of the connection
+     * @param isClosing - boolean representing whether the connection is closed after it
+     */
+    private void respond(ByteBuffer output, boolean isClosing) {
+        output.put(OK_HEAD);
+        putDecimal(output, body.position());
+        if (isClosing) {
+            output.put(CLOSE_HEADER);
+
+        }
+        output.put(END_OF_HEAD);
+        body.flip();
+        output.put(body);
+
+    }//end of the respond Method
+    /**
+     * reject Method - Answers a request that cannot be read with an error, or closes the
+     * connection of an incomplete request when the client has shut down its output
+     * @param connection - the Connection of the request
+     * @param response - a byte[] holding the error response, or null for an incomplete request
+     * @return int - CLOSED when the connection is to be closed, or WAITING for the rest of an
+     * incomplete request
+     */
+    private static int reject(Connection connection, byte[] response) {
+        if (response != null) {
+            connection.output.put(response);
+            connection.input.clear();
+            return CLOSED;
+
+        }
+        return connection.isInputClosed ? CLOSED : WAITING;
+
+    }//end of the reject Method
+    /**
+     * decodeQuery Method - Decodes the parameter q of the query of a target into the
+     * expression buffer
+     * @param bytes - the byte[] holding the request
+     * @param queryStart - integer representing the index of the '?', or of the end of the target
+     * when there is no query
+     * @param queryEnd - integer representing the index after the target
+     * @return boolean - false when there is no parameter q, or it is not URL encoded
+     */
+    private boolean decodeQuery(byte[] bytes, int queryStart, int queryEnd) {
+        int start = queryStart + 1;
+        while ((start + 1 < queryEnd) && !((bytes[start] == 'q') && (bytes[start + 1] == '='))) {
+            int next = indexOf(bytes, start, queryEnd, (byte) '&');
+            start = (next < 0) ? queryEnd : next + 1;
+        }
+        if (start + 1 >= queryEnd) {
+            return false;
+
+        }
+        expression.clear();
+        for (int i = start + 2; (i < queryEnd) && (bytes[i] != '&'); i++) {
+            if (bytes[i] == '+') {
+                expression.put((byte) ' ');
+
+            } else if (bytes[i] != '%') {
+                expression.put(bytes[i]);
+
+            } else if ((i + 2 < queryEnd) && (hexValue(bytes[i + 1]) >= 0) &&
+                                             (hexValue(bytes[i + 2]) >= 0)) {
+                expression.put((byte) (hexValue(bytes[i + 1]) * 16 + hexValue(bytes[i + 2])));
+                i += 2;
+
+            } else {
+                return false;
+
+            }
+        }
+        return true;
+
+    }//end of the decodeQuery Method
+    /**
+     * hexValue Method - Returns the value of a hexadecimal digit
+     * @param digit - a byte representing the digit
+     * @return int - the value from 0 to 15, or -1 when the byte is not a hexadecimal digit
+     */
+    private static int hexValue(byte digit) {
+        if ((digit >= '0') && (digit <= '9')) {
+            return digit - '0';
+
+        } else if ((digit >= 'a') && (digit <= 'f')) {
+            return digit - 'a' + 10;
+
+        } else if ((digit >= 'A') && (digit <= 'F')) {
+            return digit - 'A' + 10;
+
+        }
+        return -1;
+
+    }//end of the hexValue Method
+    /**
+     * isHeader Method - Returns whether a header line has a name, ignoring the case
+     * @param bytes - the byte[] holding the request
+     * @param start - integer representing the index of the header line
+     * @param end - integer representing the index after the header line
+     * @param name - a byte[] holding the lower case name
+     * @return boolean - true when the line starts with the name and a colon
+     */
+    private static boolean isHeader(byte[] bytes, int start, int end, byte[] name) {
+        if ((end - start <= name.length) || (bytes[start + name.length] != ':')) {
+            return false;
+
+        }
+        for (int i = 0; i < name.length; i++) {
+            if ((bytes[start + i] | 0x20) != name[i]) {
+                return false;
+
+            }
+        }
+        return true;
+
+    }//end of the isHeader Method
+    /**
+     * valueStart Method - Returns the index of the value of a header line
+     * @param bytes - the byte[] holding the request
+     * @param start - integer representing the index of the header line
+     * @param end - integer representing the index after the header line
+     * @return int - the index of the first byte after the colon and the blanks
+     */
+    private static int valueStart(byte[] bytes, int start, int end) {
+        int position = indexOf(bytes, start, end, (byte) ':') + 1;
+        while ((position < end) && ((bytes[position] == ' ') || (bytes[position] == '\t'))) {
+            position++;
+        }
+        return position;
+
+    }//end of the valueStart Method
+    /**
+     * parseLength Method - Parses the value of a Content-Length header
+     * @param bytes - the byte[] holding the request
+     * @param start - integer representing the index of the value
+     * @param end - integer representing the index after the value
+     * @return int - the length, or -1 when the value is not a number of at most nine digits
+     */
+    private static int parseLength(byte[] bytes, int start, int end) {
+        int length = 0;
+        if ((start >= end) || (end - start > 9)) {
+            return -1;
+
+        }
+        for (int i = start; i < end; i++) {
+            if ((bytes[i] < '0') || (bytes[i] > '9')) {
+                return -1;
+
+            }
+            length = length * 10 + (bytes[i] - '0');
+        }
+        return length;
+
+    }//end of the parseLength Method
+    /**
+     * contains Method - Returns whether a range of bytes contains a word, ignoring the case
+     * @param bytes - the byte[] to search
+     * @param start - integer representing the index of the range
+     * @param end - integer representing the index after the range
+     * @param word - a byte[] holding the lower case word
+     * @return boolean - true when the range contains the word
+     */
+    private static boolean contains(byte[] bytes, int start, int end, byte[] word) {
+        for (int i = start; i + word.length <= end; i++) {
+            int j = 0;
+            while ((j < word.length) && ((bytes[i + j] | 0x20) == word[j])) {
+                j++;
+            }
+            if (j == word.length) {
+                return true;
+
+            }
+        }
+        return false;
+
+    }//end of the contains Method
+    /**
+     * equals Method - Returns whether a range of bytes equals a word
+     * @param bytes - the byte[] holding the range
+     * @param start - integer representing the index of the range
+     * @param end - integer representing the index after the range
+     * @param word - a byte[] holding the word
+     * @return boolean - true when the range holds exactly the word
+     */
+    private static boolean equals(byte[] bytes, int start, int end, byte[] word) {
+        if (end - start != word.length) {
+            return false;
+
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (bytes[start + i] != word[i]) {
+                return false;
+
+            }
+        }
+        return true;
+
+    }//end of the equals Method
+    /**
+     * indexOf Method - Returns the index of the first occurrence of a byte in a range
+     * @param bytes - the byte[] to search
+     * @param start - integer representing the index of the range
+     * @param end - integer representing the index after the range
+     * @param value - the byte to find
+     * @return int - the index of the byte, or -1 when the range does not contain it
+     */
+    private static int indexOf(byte[] bytes, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+
+            }
+        }
+        return -1;
+
+    }//end of the indexOf Method
+    /**
+     * putDecimal Method - Puts the decimal digits of a non negative number into a buffer
+     * @param output - the ByteBuffer to put the digits into
+     * @param number - integer representing the number
+     */
+    private static void putDecimal(ByteBuffer output, int number) {
+        int power = 1;
+        while (power <= number / 10) {
+            power *= 10;
+        }
+        for (; power > 0; power /= 10) {
+            output.put((byte) ('0' + (number / power) % 10));
+        }
+    }//end of the putDecimal Method
+    /**
+     * errorResponse Method - Returns the bytes of a response with an error status, which closes
+     * the connection
+     * @param status - String representing the status code and reason
+     * @return byte[] - the response
+     */
+    private static byte[] errorResponse(String status) {
+        String text = status + "\n";
+        return ("HTTP/1.1 " + status + "\r\nContent-Type: text/plain; charset=UTF-8\r\n" +
+                "Content-Length: " + text.length() + "\r\nConnection: close\r\n\r\n" + text)
+                                                                                 .getBytes();
+
+    }//end of the errorResponse Method
+}//end of the HttpProtocol Class
@@ -0,0 +1,85 @@
+
+package calculator.server;
+
+import calculator.batch.LineEvaluator;
+import java.nio.ByteBuffer;
+
+/**
+ * The LineProtocol Class answers the line protocol of the CalculatorServer, which is the input
+ * and output of the batch mode over a socket: every line is an expression, and its result is
+ * sent back as a line, in the order of the requests.  A client may send any number of lines
+ * before it reads the results.  A line longer than the input buffer of the connection is not
+ * evaluated, and gives "Invalid Entry", and a last line without a newline is evaluated when
+ * the client shuts down its output.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+final class LineProtocol implements Protocol {
+    //Instance Variables
+    private final static byte[] INVALID_ENTRY = "Invalid Entry\n".getBytes();
+    private final LineEvaluator evaluator;
+
+    /**
+     * LineProtocol Constructor - Creates a LineProtocol evaluating with a LineEvaluator
+     * @param evaluator - the LineEvaluator shared by the connections
+     */
+    LineProtocol(LineEvaluator evaluator) {
+        this.evaluator = evaluator;
+
+    }//end of the LineProtocol Constructor
+    /**
+     * process Method - Answers the complete lines at the start of the input of a connection
+     * @param connection - the Connection holding the lines
+     * @return boolean - true, since the line protocol never closes a connection first
+     */
+    @Override
+    public boolean process(Connection connection) {
+        ByteBuffer input = connection.input;
+        ByteBuffer output = connection.output;
+        byte[] bytes = input.array();
+        int end = input.position();
+        int lineStart = 0;
+        boolean isOutputFull = output.remaining() < LineEvaluator.MAX_RESULT_LENGTH;
+
+        for (int i = 0; (i < end) && !isOutputFull; i++) {
+            if (bytes[i] == '\n') {
+                answer(connection, lineStart, i);
+                lineStart = i + 1;
+                isOutputFull = output.remaining() < LineEvaluator.MAX_RESULT_LENGTH;
+
+            }
+        }
+        if (!isOutputFull && connection.isInputClosed) {
+            if ((lineStart < end) || connection.isSkippingLine) {
+                answer(connection, lineStart, end);
+                lineStart = end;
+
+            }
+        } else if (!isOutputFull && (lineStart == 0) && (end == input.capacity())) {
+            connection.isSkippingLine = true;
+            lineStart = end;
+
+        }
+        connection.consume(lineStart);
+        return true;
+
+    }//end of the process Method
+    /**
+     * answer Method - Evaluates a line into the output of a connection, or answers
+     * "Invalid Entry" for the end of a line that was too long
+     * @param connection - the Connection holding the line
+     * @param start - integer representing the index of the first byte of the line
+     * @param end - integer representing the index of the newline
+     */
+    private void answer(Connection connection, int start, int end) {
+        if (connection.isSkippingLine) {
+            connection.output.put(INVALID_ENTRY);
+            connection.isSkippingLine = false;
+
+        } else {
+            evaluator.evaluate(connection.input, start, end, connection.output);
+
+        }
+    }//end of the answer Method
+}//end of the LineProtocol Class
@@ -0,0 +1,24 @@
+
+package calculator.server;
+
+/**
+ * The Protocol Interface is the part of the CalculatorServer that understands the requests of
+ * a client.  The server reads the bytes of a connection, and calls the Protocol of the
+ * connection to answer the complete requests at the start of its input, in order.  A Protocol
+ * answers a request only when the output of the connection has room for the whole response,
+ * and leaves the rest of the input for later, so the server can stop reading from a client
+ * that does not read its responses.
+ * @author:  MAbdurrahman
+ * @date:  27 February 2016
+ * @version:  1.0.0
+ */
+interface Protocol {
+    /**
+     * process Method - Answers the complete requests at the start of the input of a connection,
+     * puts their responses into its output, and consumes their bytes
+     * @param connection - the Connection holding the requests
+     * @return boolean - false when the connection is to be closed once its output is sent
+     */
+    boolean process(Connection connection);
+
+}//end of the Protocol Interface